@@ -18,8 +18,11 @@ package com.netflix.titus.api.json;
 
 import java.util.Collection;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.netflix.titus.api.agent.model.AgentInstance;
 import com.netflix.titus.api.agent.model.AgentInstanceGroup;
@@ -158,13 +161,21 @@ import com.netflix.titus.common.util.jackson.CommonObjectMappers;
  */
 public class ObjectMappers {
 
-    private static final ObjectMapper STORE = createStoreMapper();
+    private static final ObjectMapper STORE = createStoreMapper(new JsonFactory());
+    private static final ObjectMapper BINARY_STORE = createStoreMapper(new SmileFactory().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES));
     private static final ObjectMapper APP_SCALE_STORE = createAppScalePolicyMapper();
 
     public static ObjectMapper storeMapper() {
         return STORE;
     }
 
+    /**
+     * Same as {@link #storeMapper()}, but with the binary JSON (Smile) encoding.
+     */
+    public static ObjectMapper binaryStoreMapper() {
+        return BINARY_STORE;
+    }
+
     public static ObjectMapper appScalePolicyMapper() {
         return APP_SCALE_STORE;
     }
@@ -221,8 +232,8 @@ public class ObjectMappers {
         return objectMapper;
     }
 
-    private static ObjectMapper createStoreMapper() {
-        ObjectMapper objectMapper = new ObjectMapper();
+    private static ObjectMapper createStoreMapper(JsonFactory jsonFactory) {
+        ObjectMapper objectMapper = new ObjectMapper(jsonFactory);
         objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         objectMapper.registerModule(new Jdk8Module());
 
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.titus.common.util.jackson.CommonObjectMappers;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Field filtered serialization of a response with {@link #ITEM_COUNT} items, with a new mapper copy for each request
+ * ({@link CommonObjectMappers#applyFieldsFilter}), and with the cached writers ({@link CommonObjectMappers#applyFieldsFilterWriter}).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CommonObjectMappersBenchmark {
+
+    private static final int ITEM_COUNT = 500;
+
+    private static final List<String> FIELDS = Arrays.asList("id", "status.state", "attributes", "items.name");
+
+    private final ObjectMapper mapper = CommonObjectMappers.protobufMapper();
+    private final List<Item> items = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < ITEM_COUNT; i++) {
+            items.add(new Item(i));
+        }
+    }
+
+    @Benchmark
+    public byte[] mapperCopy() throws JsonProcessingException {
+        return CommonObjectMappers.applyFieldsFilter(mapper, FIELDS).writeValueAsBytes(items);
+    }
+
+    @Benchmark
+    public byte[] cachedWriter() throws JsonProcessingException {
+        return CommonObjectMappers.applyFieldsFilterWriter(mapper, FIELDS).writeValueAsBytes(items);
+    }
+
+    private static class Item {
+
+        @JsonProperty
+        private final String id;
+
+        @JsonProperty
+        private final Status status;
+
+        @JsonProperty
+        private final Map<String, String> attributes = new HashMap<>();
+
+        @JsonProperty
+        private final List<SubItem> items = new ArrayList<>();
+
+        private Item(int idx) {
+            this.id = "item#" + idx;
+            this.status = new Status("Started", "reason#" + idx);
+            for (int i = 0; i < 5; i++) {
+                attributes.put("key" + i, "value" + i);
+                items.add(new SubItem("subItem#" + i, i));
+            }
+        }
+    }
+
+    private static class Status {
+
+        @JsonProperty
+        private final String state;
+
+        @JsonProperty
+        private final String reason;
+
+        private Status(String state, String reason) {
+            this.state = state;
+            this.reason = reason;
+        }
+    }
+
+    private static class SubItem {
+
+        @JsonProperty
+        private final String name;
+
+        @JsonProperty
+        private final int value;
+
+        private SubItem(String name, int value) {
+            this.name = name;
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
+import com.netflix.titus.api.jobmanager.model.job.ServiceJobTask;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
+import com.netflix.titus.api.jobmanager.model.job.ext.ServiceJobExt;
+import com.netflix.titus.common.framework.reconciler.EntityHolder;
+import com.netflix.titus.common.util.time.Clock;
+import com.netflix.titus.common.util.time.Clocks;
+import com.netflix.titus.master.jobmanager.service.common.DifferenceResolverUtils;
+import com.netflix.titus.master.jobmanager.service.common.DifferenceResolverUtils.JobView;
+import com.netflix.titus.testkit.model.job.JobDescriptorGenerator;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * The job summary part of a single difference resolver pass, for one large service job, with most tasks started.
+ * The reference and running views are built once, and all task state counts are taken from them. The per-task cost
+ * should stay flat as the task count grows.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DifferenceResolverBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int taskCount;
+
+    private EntityHolder referenceRoot;
+    private EntityHolder runningRoot;
+    private String lastTaskId;
+
+    @Setup
+    public void setUp() {
+        Clock clock = Clocks.system();
+        Job<ServiceJobExt> job = JobGenerator.serviceJobs(JobDescriptorGenerator.oneTaskServiceJobDescriptor()).getValue();
+        List<ServiceJobTask> tasks = JobGenerator.serviceTasks(job).getValues(taskCount);
+
+        EntityHolder reference = EntityHolder.newRoot(job.getId(), job);
+        EntityHolder running = EntityHolder.newRoot(job.getId(), job);
+        for (int i = 0; i < tasks.size(); i++) {
+            TaskState state = i % 100 == 0 ? TaskState.Launched : (i % 100 == 1 ? TaskState.Accepted : TaskState.Started);
+            Task task = JobFunctions.changeTaskStatus(tasks.get(i), state, TaskStatus.REASON_NORMAL, "benchmark", clock);
+            reference = reference.addChild(EntityHolder.newRoot(task.getId(), task));
+            running = running.addChild(EntityHolder.newRoot(task.getId(), task));
+        }
+        this.referenceRoot = reference;
+        this.runningRoot = running;
+        this.lastTaskId = tasks.get(tasks.size() - 1).getId();
+    }
+
+    @Benchmark
+    public int resolverPass() {
+        JobView<ServiceJobExt, ServiceJobTask> refJobView = new JobView<>(referenceRoot);
+        JobView<ServiceJobExt, ServiceJobTask> runningJobView = new JobView<>(runningRoot);
+
+        int result = refJobView.getRunningCount() + refJobView.getFinishedCount() + runningJobView.getTimeoutCandidates().size();
+        result += DifferenceResolverUtils.countActiveNotStartedTasks(refJobView, runningJobView);
+        result += DifferenceResolverUtils.getUnassignedIpAllocations(refJobView).size();
+        if (runningJobView.getTaskById(lastTaskId) != null) {
+            result++;
+        }
+        return result;
+    }
+}
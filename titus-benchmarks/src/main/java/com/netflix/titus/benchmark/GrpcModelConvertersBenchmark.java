@@ -0,0 +1,95 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.LogStorageInfo;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.runtime.endpoint.common.EmptyLogStorageInfo;
+import com.netflix.titus.runtime.endpoint.v3.grpc.GrpcJobManagementModelConverters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Core to gRPC, and gRPC to core model conversions with {@link GrpcJobManagementModelConverters}, for all jobs and
+ * tasks in the data set.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GrpcModelConvertersBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int taskCount;
+
+    private final LogStorageInfo<Task> logStorageInfo = EmptyLogStorageInfo.INSTANCE;
+
+    private JobDataSet dataSet;
+    private List<com.netflix.titus.grpc.protogen.Task> grpcTasks;
+
+    @Setup
+    public void setUp() {
+        this.dataSet = JobDataSet.newDataSet(taskCount);
+        this.grpcTasks = new ArrayList<>();
+        for (Task task : dataSet.getTasks()) {
+            grpcTasks.add(GrpcJobManagementModelConverters.toGrpcTask(task, logStorageInfo));
+        }
+    }
+
+    @Benchmark
+    public int toGrpcJobs() {
+        int size = 0;
+        for (Job<?> job : dataSet.getJobs()) {
+            size += GrpcJobManagementModelConverters.toGrpcJob(job).getStatusHistoryCount();
+        }
+        return size;
+    }
+
+    @Benchmark
+    public int toGrpcTasks() {
+        int size = 0;
+        for (Task task : dataSet.getTasks()) {
+            size += GrpcJobManagementModelConverters.toGrpcTask(task, logStorageInfo).getTaskContextCount();
+        }
+        return size;
+    }
+
+    @Benchmark
+    public int toCoreTasks() {
+        int size = 0;
+        for (com.netflix.titus.grpc.protogen.Task grpcTask : grpcTasks) {
+            size += GrpcJobManagementModelConverters.toCoreTask(dataSet.getJob(grpcTask.getJobId()), grpcTask).getTaskContext().size();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.benchmark;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableMap;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.common.framework.reconciler.EntityHolder;
+import com.netflix.titus.common.framework.reconciler.internal.IndexSet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link IndexSet} update with all tasks, as done by the reconciliation engine after each reference model change,
+ * followed by an ordered read. Two indexes are maintained, the same as in the job manager (by task id and by the
+ * task status timestamp).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IndexSetBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int taskCount;
+
+    private IndexSet<EntityHolder> indexSet;
+    private List<EntityHolder> holders;
+
+    @Setup
+    public void setUp() {
+        Comparator<EntityHolder> byId = Comparator.comparing(EntityHolder::getId);
+        Comparator<EntityHolder> byStatusTimestamp = Comparator.comparing(holder -> holder.<Task>getEntity().getStatus().getTimestamp());
+        Map<Object, Comparator<EntityHolder>> comparators = ImmutableMap.of("byId", byId, "byStatusTimestamp", byStatusTimestamp);
+        this.indexSet = IndexSet.newIndexSet(comparators);
+
+        this.holders = new ArrayList<>();
+        for (Task task : JobDataSet.newDataSet(taskCount).getTasks()) {
+            holders.add(EntityHolder.newRoot(task.getId(), task));
+        }
+    }
+
+    @Benchmark
+    public int applyAndRead() {
+        IndexSet<EntityHolder> updated = indexSet.apply(holders);
+        return updated.getOrdered("byId").size() + updated.getOrdered("byStatusTimestamp").size();
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.jobmanager.model.job.ext.ServiceJobExt;
+import com.netflix.titus.common.util.time.Clock;
+import com.netflix.titus.common.util.time.Clocks;
+import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.testkit.model.job.JobDescriptorGenerator;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+
+/**
+ * Synthetic job and task data, generated with the testkit data generators. Jobs alternate between batch and service,
+ * each with {@link #TASKS_PER_JOB} tasks, and tasks are spread over all active states plus finished.
+ */
+public class JobDataSet {
+
+    public static final int TASKS_PER_JOB = 100;
+
+    private static final TaskState[] TASK_STATES = {
+            TaskState.Accepted, TaskState.Launched, TaskState.StartInitiated, TaskState.Started,
+            TaskState.Started, TaskState.Started, TaskState.KillInitiated, TaskState.Finished
+    };
+
+    private final List<Job<?>> jobs = new ArrayList<>();
+    private final List<Task> tasks = new ArrayList<>();
+    private final List<Pair<Job<?>, Task>> jobsAndTasks = new ArrayList<>();
+    private final Map<String, Job<?>> jobsById = new HashMap<>();
+    private final Map<String, List<Task>> tasksByJobId = new HashMap<>();
+
+    private JobDataSet(int taskCount) {
+        Clock clock = Clocks.system();
+        int jobCount = (taskCount + TASKS_PER_JOB - 1) / TASKS_PER_JOB;
+
+        List<Job<BatchJobExt>> batchJobs = JobGenerator.batchJobs(
+                JobFunctions.changeBatchJobSize(JobDescriptorGenerator.batchJobDescriptors().getValue(), TASKS_PER_JOB)
+        ).getValues((jobCount + 1) / 2);
+        List<Job<ServiceJobExt>> serviceJobs = JobGenerator.serviceJobs(
+                JobFunctions.changeServiceJobCapacity(JobDescriptorGenerator.serviceJobDescriptors().getValue(), TASKS_PER_JOB)
+        ).getValues(jobCount / 2);
+
+        for (int i = 0; i < jobCount; i++) {
+            int remaining = Math.min(TASKS_PER_JOB, taskCount - tasks.size());
+            Job<?> job;
+            List<? extends Task> jobTasks;
+            if (i % 2 == 0) {
+                Job<BatchJobExt> batchJob = batchJobs.get(i / 2);
+                job = batchJob;
+                jobTasks = JobGenerator.batchTasks(batchJob).getValues(remaining);
+            } else {
+                Job<ServiceJobExt> serviceJob = serviceJobs.get(i / 2);
+                job = serviceJob;
+                jobTasks = JobGenerator.serviceTasks(serviceJob).getValues(remaining);
+            }
+
+            List<Task> updatedTasks = new ArrayList<>(jobTasks.size());
+            for (int j = 0; j < jobTasks.size(); j++) {
+                Task task = JobFunctions.changeTaskStatus(jobTasks.get(j), TASK_STATES[j % TASK_STATES.length], TaskStatus.REASON_NORMAL, "Benchmark data", clock);
+                updatedTasks.add(task);
+                tasks.add(task);
+                jobsAndTasks.add(Pair.of(job, task));
+            }
+            jobs.add(job);
+            jobsById.put(job.getId(), job);
+            tasksByJobId.put(job.getId(), updatedTasks);
+        }
+    }
+
+    public List<Job<?>> getJobs() {
+        return Collections.unmodifiableList(jobs);
+    }
+
+    public List<Task> getTasks() {
+        return Collections.unmodifiableList(tasks);
+    }
+
+    public List<Pair<Job<?>, Task>> getJobsAndTasks() {
+        return Collections.unmodifiableList(jobsAndTasks);
+    }
+
+    public Job<?> getJob(String jobId) {
+        return jobsById.get(jobId);
+    }
+
+    public List<Task> getTasks(String jobId) {
+        return tasksByJobId.getOrDefault(jobId, Collections.emptyList());
+    }
+
+    public static JobDataSet newDataSet(int taskCount) {
+        return new JobDataSet(taskCount);
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.model.Page;
+import com.netflix.titus.api.model.PaginationUtil;
+import com.netflix.titus.runtime.jobmanager.JobManagerCursors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Task query pagination with {@link PaginationUtil}, as done in the job management gRPC endpoint, for the first page
+ * and for a page in the middle of the result set, selected with a cursor.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PaginationBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"1000", "10000", "100000"})
+    public int taskCount;
+
+    private List<Task> tasks;
+    private Page firstPage;
+    private Page middlePage;
+
+    @Setup
+    public void setUp() {
+        this.tasks = JobDataSet.newDataSet(taskCount).getTasks();
+
+        List<Task> sorted = new ArrayList<>(tasks);
+        sorted.sort(JobManagerCursors.coreTaskCursorOrderComparator());
+
+        this.firstPage = Page.newBuilder().withPageSize(PAGE_SIZE).build();
+        this.middlePage = Page.newBuilder()
+                .withPageSize(PAGE_SIZE)
+                .withCursor(JobManagerCursors.newCoreCursorFrom(sorted.get(sorted.size() / 2)))
+                .build();
+    }
+
+    @Benchmark
+    public int takeFirstPage() {
+        return takePage(firstPage);
+    }
+
+    @Benchmark
+    public int takeMiddlePageWithCursor() {
+        return takePage(middlePage);
+    }
+
+    private int takePage(Page page) {
+        return PaginationUtil.takePageWithCursor(
+                page,
+                tasks,
+                JobManagerCursors.coreTaskCursorOrderComparator(),
+                JobManagerCursors::coreTaskIndexOf,
+                JobManagerCursors::newCoreCursorFrom
+        ).getLeft().size();
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Preconditions;
+import com.netflix.titus.common.util.ProtobufExt;
+import com.netflix.titus.common.util.ProtobufProjector;
+import com.netflix.titus.grpc.protogen.Task;
+import com.netflix.titus.runtime.endpoint.common.EmptyLogStorageInfo;
+import com.netflix.titus.runtime.endpoint.v3.grpc.GrpcJobManagementModelConverters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static com.netflix.titus.common.util.CollectionsExt.asSet;
+
+/**
+ * Compares {@link ProtobufExt#copy(com.google.protobuf.Message, Set)} with {@link ProtobufProjector} on gRPC tasks,
+ * for a typical UI field selection. The projector is either created for each task, or once for all of them (as done
+ * for a page of results). The setup checks that both produce the same result.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProtobufProjectorBenchmark {
+
+    private static final Set<String> FIELDS = asSet(
+            "id", "jobId", "status", "statusHistory.state", "statusHistory.timestamp", "taskContext.agent.host", "taskContext.task.ipAddress"
+    );
+
+    @Param({"1000", "10000", "100000"})
+    public int taskCount;
+
+    private List<Task> tasks;
+
+    @Setup
+    public void setUp() {
+        this.tasks = new ArrayList<>();
+        for (com.netflix.titus.api.jobmanager.model.job.Task task : JobDataSet.newDataSet(taskCount).getTasks()) {
+            tasks.add(GrpcJobManagementModelConverters.toGrpcTask(task, EmptyLogStorageInfo.INSTANCE));
+        }
+        ProtobufProjector projector = ProtobufProjector.of(Task.getDescriptor(), FIELDS);
+        for (Task task : tasks) {
+            Preconditions.checkState(ProtobufExt.copy(task, FIELDS).equals(projector.project(task)), "Projection differs for task %s", task.getId());
+        }
+    }
+
+    @Benchmark
+    public int copy() {
+        int size = 0;
+        for (Task task : tasks) {
+            size += ProtobufExt.copy(task, FIELDS).getStatusHistoryCount();
+        }
+        return size;
+    }
+
+    @Benchmark
+    public int projectorPerTask() {
+        int size = 0;
+        for (Task task : tasks) {
+            size += ProtobufProjector.of(Task.getDescriptor(), FIELDS).project(task).getStatusHistoryCount();
+        }
+        return size;
+    }
+
+    @Benchmark
+    public int projectorPerPage() {
+        ProtobufProjector projector = ProtobufProjector.of(Task.getDescriptor(), FIELDS);
+        int size = 0;
+        for (Task task : tasks) {
+            size += projector.project(task).getStatusHistoryCount();
+        }
+        return size;
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.benchmark;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.spectator.api.NoopRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.common.util.limiter.Limiters;
+import com.netflix.titus.common.util.limiter.tokenbucket.TokenBucket;
+import com.netflix.titus.common.util.rx.batch.Batch;
+import com.netflix.titus.common.util.rx.batch.Batchable;
+import com.netflix.titus.common.util.rx.batch.LargestPerTimeBucket;
+import com.netflix.titus.common.util.rx.batch.Priority;
+import com.netflix.titus.common.util.rx.batch.RateLimitedBatcher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import rx.Observable;
+import rx.observers.AssertableSubscriber;
+import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
+
+/**
+ * Batching of task updates with {@link RateLimitedBatcher}, with two updates per task (the second one replacing the
+ * first), grouped into batches by job id. The token bucket is large enough to never rate limit, so the measured time
+ * is the batching and emission cost only. A test scheduler drives the flush loop, so no time is spent waiting.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RateLimitedBatcherBenchmark {
+
+    private static final long INITIAL_DELAY_MS = 1;
+    private static final long MAX_DELAY_MS = 1_000;
+    private static final long TIME_WINDOW_BUCKET_SIZE_MS = 1_000;
+
+    @Param({"1000", "10000", "100000"})
+    public int taskCount;
+
+    private final Registry registry = new NoopRegistry();
+
+    private TokenBucket tokenBucket;
+    private List<TaskUpdate> updates;
+
+    @Setup
+    public void setUp() {
+        this.tokenBucket = Limiters.createFixedIntervalTokenBucket(
+                "benchmark", Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE, 1, TimeUnit.SECONDS
+        );
+
+        List<Task> tasks = JobDataSet.newDataSet(taskCount).getTasks();
+        this.updates = new ArrayList<>(2 * tasks.size());
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = tasks.get(i);
+            Instant timestamp = Instant.ofEpochMilli(-10_000 + i % 10_000);
+            updates.add(new TaskUpdate(task, Priority.LOW, timestamp, "initial"));
+            updates.add(new TaskUpdate(task, Priority.LOW, timestamp.plusMillis(1), "updated"));
+        }
+    }
+
+    @Benchmark
+    public int batchAndEmit() {
+        TestScheduler testScheduler = Schedulers.test();
+        RateLimitedBatcher<TaskUpdate, String> batcher = RateLimitedBatcher.create(
+                tokenBucket,
+                INITIAL_DELAY_MS,
+                MAX_DELAY_MS,
+                TaskUpdate::getJobId,
+                new LargestPerTimeBucket(0, TIME_WINDOW_BUCKET_SIZE_MS, testScheduler),
+                "titus.benchmark.batcher",
+                registry,
+                testScheduler
+        );
+
+        AssertableSubscriber<Batch<TaskUpdate, String>> subscriber = Observable.from(updates).lift(batcher).test();
+        testScheduler.advanceTimeBy(INITIAL_DELAY_MS, TimeUnit.MILLISECONDS);
+        subscriber.assertCompleted();
+
+        return subscriber.getValueCount();
+    }
+
+    private static class TaskUpdate implements Batchable<String> {
+
+        private final String taskId;
+        private final String jobId;
+        private final Priority priority;
+        private final Instant timestamp;
+        private final String state;
+
+        private TaskUpdate(Task task, Priority priority, Instant timestamp, String state) {
+            this.taskId = task.getId();
+            this.jobId = task.getJobId();
+            this.priority = priority;
+            this.timestamp = timestamp;
+            this.state = state;
+        }
+
+        @Override
+        public String getIdentifier() {
+            return taskId;
+        }
+
+        private String getJobId() {
+            return jobId;
+        }
+
+        @Override
+        public Priority getPriority() {
+            return priority;
+        }
+
+        @Override
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        @Override
+        public boolean isEquivalent(Batchable<?> other) {
+            if (!(other instanceof TaskUpdate)) {
+                return false;
+            }
+            TaskUpdate otherUpdate = (TaskUpdate) other;
+            return priority == otherUpdate.priority && taskId.equals(otherUpdate.taskId) && state.equals(otherUpdate.state);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableMap;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.common.framework.reconciler.ChangeAction;
+import com.netflix.titus.common.framework.reconciler.EntityHolder;
+import com.netflix.titus.common.framework.reconciler.ModelActionHolder;
+import com.netflix.titus.common.framework.reconciler.ReconcileEventFactory;
+import com.netflix.titus.common.framework.reconciler.ReconciliationEngine;
+import com.netflix.titus.common.framework.reconciler.internal.DefaultReconciliationEngine;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * A single reconciliation loop iteration over all engines (one per job), in a steady state, when there are no
+ * pending changes. The difference resolver compares the reference and running task views, the same way the job
+ * manager difference resolvers do.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReconciliationLoopBenchmark {
+
+    private static final Object EVENT = new Object();
+
+    @Param({"1000", "10000", "100000"})
+    public int taskCount;
+
+    private final List<DefaultReconciliationEngine<Object>> engines = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        TitusRuntime titusRuntime = TitusRuntimes.internal();
+        Comparator<EntityHolder> byTaskId = Comparator.comparing(EntityHolder::getId);
+        Map<Object, Comparator<EntityHolder>> indexComparators = ImmutableMap.of("byTaskId", byTaskId);
+
+        JobDataSet dataSet = JobDataSet.newDataSet(taskCount);
+        for (Job<?> job : dataSet.getJobs()) {
+            EntityHolder root = EntityHolder.newRoot(job.getId(), job);
+            for (Task task : dataSet.getTasks(job.getId())) {
+                root = root.addChild(EntityHolder.newRoot(task.getId(), task));
+            }
+            DefaultReconciliationEngine<Object> engine = new DefaultReconciliationEngine<>(
+                    root,
+                    true,
+                    ReconciliationLoopBenchmark::difference,
+                    indexComparators,
+                    new BenchmarkEventFactory(),
+                    changeAction -> Collections.emptyList(),
+                    event -> Collections.emptyList(),
+                    titusRuntime
+            );
+            engines.add(engine);
+        }
+
+        // Emit the initial model events, so the measured iterations are in a steady state.
+        loopIteration();
+    }
+
+    @Benchmark
+    public int loopIteration() {
+        int activeEngines = 0;
+        for (DefaultReconciliationEngine<Object> engine : engines) {
+            engine.applyModelUpdates();
+            engine.emitEvents();
+            engine.closeFinishedTransactions();
+            if (engine.triggerActions()) {
+                activeEngines++;
+            }
+        }
+        return activeEngines;
+    }
+
+    private static List<ChangeAction> difference(ReconciliationEngine<Object> engine) {
+        EntityHolder runningView = engine.getRunningView();
+        for (EntityHolder referenceTask : engine.getReferenceView().getChildren()) {
+            Optional<EntityHolder> runningTask = runningView.findChildById(referenceTask.getId());
+            if (!runningTask.isPresent() || !runningTask.get().getEntity().equals(referenceTask.getEntity())) {
+                throw new IllegalStateException("Unexpected difference for task " + referenceTask.getId());
+            }
+        }
+        return Collections.emptyList();
+    }
+
+    private static class BenchmarkEventFactory implements ReconcileEventFactory<Object> {
+
+        @Override
+        public Object newBeforeChangeEvent(ReconciliationEngine<Object> engine, ChangeAction changeAction, String transactionId) {
+            return EVENT;
+        }
+
+        @Override
+        public Object newAfterChangeEvent(ReconciliationEngine<Object> engine, ChangeAction changeAction, long waitTimeMs, long executionTimeMs, String transactionId) {
+            return EVENT;
+        }
+
+        @Override
+        public Object newChangeErrorEvent(ReconciliationEngine<Object> engine, ChangeAction changeAction, Throwable error, long waitTimeMs, long executionTimeMs, String transactionId) {
+            return EVENT;
+        }
+
+        @Override
+        public Object newModelEvent(ReconciliationEngine<Object> engine, EntityHolder newRoot) {
+            return EVENT;
+        }
+
+        @Override
+        public Object newModelUpdateEvent(ReconciliationEngine<Object> engine, ChangeAction changeAction, ModelActionHolder modelActionHolder,
+                                          EntityHolder changedEntityHolder, Optional<EntityHolder> previousEntityHolder, String transactionId) {
+            return EVENT;
+        }
+
+        @Override
+        public Object newModelUpdateErrorEvent(ReconciliationEngine<Object> engine, ChangeAction changeAction, ModelActionHolder modelActionHolder,
+                                               EntityHolder previousEntityHolder, Throwable error, String transactionId) {
+            return EVENT;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Registry;
+import com.netflix.titus.common.util.rx.eventbus.RxEventBus;
+import com.netflix.titus.common.util.rx.eventbus.internal.DefaultRxEventBus;
+import com.netflix.titus.common.util.rx.eventbus.internal.RingBufferRxEventBus;
+import com.netflix.titus.common.util.rx.eventbus.internal.RingBufferRxEventBus.OverflowPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import rx.Subscription;
+import rx.schedulers.Schedulers;
+
+/**
+ * Publishing time of {@link #EVENTS_PER_PRODUCER} events by each of 4 producer threads, with {@link DefaultRxEventBus}
+ * and {@link RingBufferRxEventBus}, and two subscribers (one fast, and one slow, which cannot keep up with the publishers).
+ * The event bus is recreated for each iteration, as the unbounded {@link DefaultRxEventBus} buffers accumulate events
+ * for the slow subscriber.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, batchSize = RxEventBusBenchmark.EVENTS_PER_PRODUCER)
+@Measurement(iterations = 5, batchSize = RxEventBusBenchmark.EVENTS_PER_PRODUCER)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class RxEventBusBenchmark {
+
+    static final int EVENTS_PER_PRODUCER = 500_000;
+
+    private static final int BUFFER_SIZE = 10_000;
+
+    @Param({"default", "ringBuffer"})
+    public String eventBusType;
+
+    private final Registry registry = new DefaultRegistry();
+
+    private RxEventBus eventBus;
+    private Subscription fastSubscription;
+    private Subscription slowSubscription;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        if (eventBusType.equals("ringBuffer")) {
+            this.eventBus = new RingBufferRxEventBus(
+                    registry.createId("ringBuffer"), registry, BUFFER_SIZE, subscriberId -> OverflowPolicy.DropOldest, Schedulers.computation()
+            );
+        } else {
+            this.eventBus = new DefaultRxEventBus(registry.createId("default"), registry, Long.MAX_VALUE, Schedulers.computation());
+        }
+
+        AtomicLong fastCounter = new AtomicLong();
+        AtomicLong slowCounter = new AtomicLong();
+        this.fastSubscription = eventBus.listen("fast", Long.class).subscribe(event -> fastCounter.incrementAndGet());
+        this.slowSubscription = eventBus.listen("slow", Long.class)
+                .observeOn(Schedulers.io())
+                .subscribe(event -> {
+                    if (slowCounter.incrementAndGet() % 1_000 == 0) {
+                        sleep(1);
+                    }
+                }, e -> {
+                });
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() {
+        fastSubscription.unsubscribe();
+        slowSubscription.unsubscribe();
+        eventBus.close();
+    }
+
+    @Benchmark
+    public void publish() {
+        eventBus.publish(System.nanoTime());
+    }
+
+    private static void sleep(long ms) {
+        try {
+            Thread.sleep(ms);
+        } catch (InterruptedException ignore) {
+        }
+    }
+}
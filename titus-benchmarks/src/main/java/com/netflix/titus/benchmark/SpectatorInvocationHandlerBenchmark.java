@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.common.util.proxy.ProxyCatalog;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per call overhead of the Spectator proxy (see {@link ProxyCatalog#createSpectatorProxy}), with the default and
+ * the percentile timers, compared to a direct invocation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpectatorInvocationHandlerBenchmark {
+
+    private EchoApi rawApi;
+    private EchoApi proxiedApi;
+    private EchoApi percentileProxiedApi;
+
+    @Setup
+    public void setUp() {
+        TitusRuntime titusRuntime = TitusRuntimes.internal();
+        this.rawApi = value -> value;
+        this.proxiedApi = ProxyCatalog.createSpectatorProxy("benchmark", EchoApi.class, rawApi, titusRuntime, true);
+        this.percentileProxiedApi = ProxyCatalog.createSpectatorProxy("benchmarkPercentile", EchoApi.class, rawApi, titusRuntime, true, true);
+    }
+
+    @Benchmark
+    public String raw() {
+        return rawApi.echo("abc");
+    }
+
+    @Benchmark
+    public String proxy() {
+        return proxiedApi.echo("abc");
+    }
+
+    @Benchmark
+    public String percentileProxy() {
+        return percentileProxiedApi.echo("abc");
+    }
+
+    public interface EchoApi {
+        String echo(String value);
+    }
+}
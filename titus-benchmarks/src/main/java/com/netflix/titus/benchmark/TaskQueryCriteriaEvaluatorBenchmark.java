@@ -0,0 +1,113 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.benchmark;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.grpc.protogen.JobDescriptor;
+import com.netflix.titus.grpc.protogen.TaskStatus;
+import com.netflix.titus.runtime.endpoint.JobQueryCriteria;
+import com.netflix.titus.runtime.endpoint.v3.grpc.query.V3TaskQueryCriteriaEvaluator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static com.netflix.titus.common.util.CollectionsExt.asSet;
+
+/**
+ * Task query filtering with {@link V3TaskQueryCriteriaEvaluator}, for a task state only query (matches most tasks),
+ * and a query by job ids and task state (matches a few tasks).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskQueryCriteriaEvaluatorBenchmark {
+
+    private static final int QUERIED_JOB_COUNT = 5;
+
+    @Param({"1000", "10000", "100000"})
+    public int taskCount;
+
+    private List<Pair<Job<?>, Task>> jobsAndTasks;
+    private V3TaskQueryCriteriaEvaluator byStateEvaluator;
+    private V3TaskQueryCriteriaEvaluator byJobIdsAndStateEvaluator;
+
+    @Setup
+    public void setUp() {
+        TitusRuntime titusRuntime = TitusRuntimes.internal();
+        JobDataSet dataSet = JobDataSet.newDataSet(taskCount);
+        this.jobsAndTasks = dataSet.getJobsAndTasks();
+
+        Set<String> jobIds = new HashSet<>();
+        for (int i = 0; i < QUERIED_JOB_COUNT && i < dataSet.getJobs().size(); i++) {
+            jobIds.add(dataSet.getJobs().get(i * dataSet.getJobs().size() / QUERIED_JOB_COUNT).getId());
+        }
+
+        this.byStateEvaluator = new V3TaskQueryCriteriaEvaluator(
+                JobQueryCriteria.<TaskStatus.TaskState, JobDescriptor.JobSpecCase>newBuilder()
+                        .withTaskStates(asSet(TaskStatus.TaskState.Launched, TaskStatus.TaskState.StartInitiated, TaskStatus.TaskState.Started))
+                        .build(),
+                titusRuntime
+        );
+        this.byJobIdsAndStateEvaluator = new V3TaskQueryCriteriaEvaluator(
+                JobQueryCriteria.<TaskStatus.TaskState, JobDescriptor.JobSpecCase>newBuilder()
+                        .withJobIds(jobIds)
+                        .withTaskStates(asSet(TaskStatus.TaskState.Started))
+                        .build(),
+                titusRuntime
+        );
+    }
+
+    @Benchmark
+    public int filterByTaskState() {
+        return filter(byStateEvaluator);
+    }
+
+    @Benchmark
+    public int filterByJobIdsAndTaskState() {
+        return filter(byJobIdsAndStateEvaluator);
+    }
+
+    private int filter(V3TaskQueryCriteriaEvaluator evaluator) {
+        int matched = 0;
+        for (Pair<Job<?>, Task> jobAndTask : jobsAndTasks) {
+            if (evaluator.test(jobAndTask)) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}
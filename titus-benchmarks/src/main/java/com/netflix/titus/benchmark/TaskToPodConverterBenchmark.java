@@ -0,0 +1,107 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.master.mesos.kubeapiserver.direct.DefaultPodAffinityFactory;
+import com.netflix.titus.master.mesos.kubeapiserver.direct.DefaultTaskToPodConverter;
+import com.netflix.titus.master.mesos.kubeapiserver.direct.DirectKubeConfiguration;
+import com.netflix.titus.master.mesos.kubeapiserver.direct.taint.DefaultTaintTolerationFactory;
+import com.netflix.titus.master.service.management.ApplicationSlaManagementService;
+import io.kubernetes.client.openapi.models.V1Pod;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pod creation for all tasks in the data set with {@link DefaultTaskToPodConverter}. The cached variant reuses one
+ * converter, so the job level pod template is built once per job. The uncached variant creates a new converter per
+ * task, which is the cost of building every pod from scratch.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskToPodConverterBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int taskCount;
+
+    private JobDataSet dataSet;
+    private DirectKubeConfiguration configuration;
+    private ApplicationSlaManagementService capacityManagement;
+    private DefaultTaskToPodConverter converter;
+
+    @Setup
+    public void setUp() {
+        this.dataSet = JobDataSet.newDataSet(taskCount);
+
+        this.configuration = mock(DirectKubeConfiguration.class);
+        when(configuration.isJobDescriptorAnnotationEnabled()).thenReturn(true);
+        when(configuration.getKubeSchedulerName()).thenReturn("default-scheduler");
+        when(configuration.getDefaultKillWaitSeconds()).thenReturn(10);
+        when(configuration.getMaxKillWaitSeconds()).thenReturn(300);
+        this.capacityManagement = mock(ApplicationSlaManagementService.class);
+
+        this.converter = newConverter();
+    }
+
+    @Benchmark
+    public int applyWithTemplateCache() {
+        int size = 0;
+        for (Pair<Job<?>, Task> jobAndTask : dataSet.getJobsAndTasks()) {
+            size += converter.apply(jobAndTask.getLeft(), jobAndTask.getRight()).getMetadata().getAnnotations().size();
+        }
+        return size;
+    }
+
+    @Benchmark
+    public int applyWithoutTemplateCache() {
+        int size = 0;
+        for (Pair<Job<?>, Task> jobAndTask : dataSet.getJobsAndTasks()) {
+            V1Pod pod = newConverter().apply(jobAndTask.getLeft(), jobAndTask.getRight());
+            size += pod.getMetadata().getAnnotations().size();
+        }
+        return size;
+    }
+
+    private DefaultTaskToPodConverter newConverter() {
+        return new DefaultTaskToPodConverter(
+                configuration,
+                new DefaultPodAffinityFactory(configuration),
+                new DefaultTaintTolerationFactory(configuration, capacityManagement)
+        );
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.benchmark;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.api.eviction.model.SystemDisruptionBudget;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.model.FixedIntervalTokenBucketRefillPolicy;
+import com.netflix.titus.api.model.TokenBucketPolicy;
+import com.netflix.titus.api.model.reference.Reference;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.common.util.time.Clocks;
+import com.netflix.titus.master.eviction.service.quota.ConsumptionResult;
+import com.netflix.titus.master.eviction.service.quota.TitusQuotasManager;
+import com.netflix.titus.master.eviction.service.quota.job.SelfJobDisruptionBudgetResolver;
+import com.netflix.titus.master.eviction.service.quota.system.SystemQuotaController;
+import com.netflix.titus.testkit.model.job.JobComponentStub;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.budget;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.newBatchJob;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.perTaskRelocationLimitPolicy;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.ratePerInterval;
+
+/**
+ * {@link TitusQuotasManager#tryConsumeQuota(Job, Task)} throughput for {@link #JOB_COUNT} jobs with unlimited
+ * disruption budgets, with 1 and 32 threads. The 'globalLock' variant wraps each call in a single lock, which is
+ * equivalent to the previous implementation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TitusQuotasManagerBenchmark {
+
+    private static final int JOB_COUNT = 1_000;
+
+    @Param({"globalLock", "striped"})
+    public String lockMode;
+
+    private final Object globalLock = new Object();
+
+    private final List<Job<?>> jobs = new ArrayList<>();
+    private final List<Task> tasks = new ArrayList<>();
+
+    private TitusQuotasManager quotasManager;
+    private boolean useGlobalLock;
+
+    @Setup
+    public void setUp() {
+        TitusRuntime titusRuntime = TitusRuntimes.test(Clocks.testWorldClock("PST").jumpForwardTo(DayOfWeek.MONDAY).resetTime(9, 0, 0));
+        JobComponentStub jobComponentStub = new JobComponentStub(titusRuntime);
+
+        for (int i = 0; i < JOB_COUNT; i++) {
+            Job<BatchJobExt> job = newBatchJob(1, budget(perTaskRelocationLimitPolicy(Integer.MAX_VALUE), ratePerInterval(60_000, Integer.MAX_VALUE), Collections.emptyList()));
+            jobComponentStub.createJob(job);
+            Task task = jobComponentStub.createDesiredTasks(job).get(0);
+            jobComponentStub.moveTaskToState(task, TaskState.Started);
+            jobs.add(job);
+            tasks.add(task);
+        }
+
+        SystemDisruptionBudget systemBudget = SystemDisruptionBudget.newBuilder()
+                .withReference(Reference.system())
+                .withTokenBucketDescriptor(TokenBucketPolicy.newBuilder()
+                        .withInitialNumberOfTokens(0)
+                        .withCapacity(Long.MAX_VALUE / 2)
+                        .withRefillPolicy(FixedIntervalTokenBucketRefillPolicy.newBuilder()
+                                .withNumberOfTokensPerInterval(Long.MAX_VALUE / 2)
+                                .withIntervalMs(TimeUnit.HOURS.toMillis(24))
+                                .build()
+                        )
+                        .build()
+                )
+                .withTimeWindows(Collections.emptyList())
+                .build();
+        SystemQuotaController systemQuotaController = new SystemQuotaController(() -> Flux.just(systemBudget).concatWith(Flux.never()), titusRuntime);
+
+        this.quotasManager = new TitusQuotasManager(
+                jobComponentStub.getJobOperations(),
+                SelfJobDisruptionBudgetResolver.getInstance(),
+                jobComponentStub.getContainerHealthService(),
+                systemQuotaController,
+                titusRuntime
+        );
+        quotasManager.enterActiveMode();
+        this.useGlobalLock = lockMode.equals("globalLock");
+    }
+
+    @Benchmark
+    @Threads(1)
+    public ConsumptionResult singleThread() {
+        return tryConsumeQuota();
+    }
+
+    @Benchmark
+    @Threads(32)
+    public ConsumptionResult threads32() {
+        return tryConsumeQuota();
+    }
+
+    private ConsumptionResult tryConsumeQuota() {
+        int jobIdx = ThreadLocalRandom.current().nextInt(JOB_COUNT);
+        if (useGlobalLock) {
+            synchronized (globalLock) {
+                return quotasManager.tryConsumeQuota(jobs.get(jobIdx), tasks.get(jobIdx));
+            }
+        }
+        return quotasManager.tryConsumeQuota(jobs.get(jobIdx), tasks.get(jobIdx));
+    }
+}
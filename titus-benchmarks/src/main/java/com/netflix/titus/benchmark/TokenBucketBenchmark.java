@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Stopwatch;
+import com.netflix.titus.common.util.limiter.tokenbucket.TokenBucket;
+import com.netflix.titus.common.util.limiter.tokenbucket.internal.AtomicFixedIntervalRefillStrategy;
+import com.netflix.titus.common.util.limiter.tokenbucket.internal.AtomicTokenBucket;
+import com.netflix.titus.common.util.limiter.tokenbucket.internal.DefaultTokenBucket;
+import com.netflix.titus.common.util.limiter.tokenbucket.internal.FixedIntervalRefillStrategy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link TokenBucket#tryTake()} throughput of {@link DefaultTokenBucket} (synchronized) and {@link AtomicTokenBucket},
+ * with a single bucket shared by 64 threads. The refill rate is high enough to keep the bucket both admitting and
+ * rejecting requests during the measurement.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(64)
+@State(Scope.Benchmark)
+public class TokenBucketBenchmark {
+
+    private static final long CAPACITY = 10_000;
+    private static final long REFILL_PER_MS = 1_000;
+
+    @Param({"synchronized", "atomic"})
+    public String implementation;
+
+    private TokenBucket tokenBucket;
+
+    @Setup
+    public void setUp() {
+        if (implementation.equals("atomic")) {
+            this.tokenBucket = new AtomicTokenBucket("benchmark", CAPACITY,
+                    new AtomicFixedIntervalRefillStrategy(Stopwatch.createStarted(), REFILL_PER_MS, 1, TimeUnit.MILLISECONDS), CAPACITY
+            );
+        } else {
+            this.tokenBucket = new DefaultTokenBucket("benchmark", CAPACITY,
+                    new FixedIntervalRefillStrategy(Stopwatch.createStarted(), REFILL_PER_MS, 1, TimeUnit.MILLISECONDS), CAPACITY
+            );
+        }
+    }
+
+    @Benchmark
+    public boolean tryTake() {
+        return tokenBucket.tryTake();
+    }
+}
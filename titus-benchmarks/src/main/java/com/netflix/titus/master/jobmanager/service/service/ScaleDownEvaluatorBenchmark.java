@@ -0,0 +1,98 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.master.jobmanager.service.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.collect.ImmutableMap;
+import com.netflix.titus.api.jobmanager.TaskAttributes;
+import com.netflix.titus.api.jobmanager.model.job.ServiceJobTask;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import static com.netflix.titus.api.jobmanager.model.job.JobFunctions.changeServiceJobCapacity;
+import static com.netflix.titus.testkit.model.job.JobDescriptorGenerator.oneTaskServiceJobDescriptor;
+import static com.netflix.titus.testkit.model.job.JobGenerator.serviceJobs;
+import static com.netflix.titus.testkit.model.job.JobGenerator.serviceTasks;
+
+/**
+ * {@link ScaleDownEvaluator#selectTasksToTerminate(List, int, TitusRuntime)} for a large service job with started
+ * tasks spread unevenly over zones and agents, for scale downs of a growing number of tasks. The benchmark lives in
+ * the evaluator package, as the evaluator is package private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ScaleDownEvaluatorBenchmark {
+
+    private static final int JOB_SIZE = 20_000;
+    private static final int ZONE_COUNT = 3;
+    private static final int AGENT_COUNT = 2_000;
+
+    @Param({"10", "1000", "10000"})
+    public int scaleDownSize;
+
+    private final TitusRuntime titusRuntime = TitusRuntimes.internal();
+
+    private List<ServiceJobTask> tasks;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(123);
+        List<ServiceJobTask> generated = serviceTasks(
+                serviceJobs(changeServiceJobCapacity(oneTaskServiceJobDescriptor(), JOB_SIZE)).getValue()
+        ).getValues(JOB_SIZE);
+
+        this.tasks = new ArrayList<>();
+        for (ServiceJobTask task : generated) {
+            int agentIdx = random.nextInt(AGENT_COUNT);
+            tasks.add(task.toBuilder()
+                    .withStatus(TaskStatus.newBuilder().withState(TaskState.Started).withTimestamp(random.nextInt(1_000_000)).build())
+                    .addAllToTaskContext(ImmutableMap.of(
+                            TaskAttributes.TASK_ATTRIBUTES_AGENT_ZONE, "zone" + (agentIdx % ZONE_COUNT),
+                            TaskAttributes.TASK_ATTRIBUTES_AGENT_INSTANCE_ID, "agent" + agentIdx
+                    ))
+                    .build()
+            );
+        }
+    }
+
+    @Benchmark
+    public int selectTasksToTerminate() {
+        return ScaleDownEvaluator.selectTasksToTerminate(tasks, JOB_SIZE - scaleDownSize, titusRuntime).size();
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.master.loadbalancer.service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.titus.api.connector.cloud.LoadBalancer;
+import com.netflix.titus.api.connector.cloud.LoadBalancerConnector;
+import com.netflix.titus.api.jobmanager.TaskAttributes;
+import com.netflix.titus.api.jobmanager.model.job.ServiceJobTask;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.api.loadbalancer.model.JobLoadBalancer;
+import com.netflix.titus.api.loadbalancer.model.LoadBalancerTarget;
+import com.netflix.titus.api.loadbalancer.model.LoadBalancerTargetState;
+import com.netflix.titus.common.util.CollectionsExt;
+import com.netflix.titus.runtime.store.v3.memory.InMemoryLoadBalancerStore;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import rx.Completable;
+import rx.Single;
+import rx.Subscription;
+import rx.schedulers.Schedulers;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Duration of a load balancer reconciliation sweep against a simulated connector with a fixed per call latency,
+ * for a growing number of load balancers. 'fullSweep' is the first (full audit) pass of a new reconciler, and
+ * 'unchangedSweep' the following pass, where all load balancers are unchanged and skipped by their fingerprint.
+ * The benchmark lives in the reconciler package, as the reconciler constructors are package private.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class LoadBalancerReconcilerBenchmark {
+
+    private static final long CONNECTOR_LATENCY_MS = 5;
+    private static final int TASKS_PER_JOB = 5;
+    private static final long DELAY_MS = 1;
+
+    @State(Scope.Benchmark)
+    public static class DataSet {
+
+        @Param({"100", "500", "2000"})
+        public int loadBalancerCount;
+
+        @Param({"1", "10", "50"})
+        public int concurrency;
+
+        private InMemoryLoadBalancerStore store;
+        private V3JobOperations v3JobOperations;
+        private Map<String, LoadBalancer> loadBalancers;
+        private LoadBalancerConfiguration configuration;
+
+        @Setup
+        public void setUp() {
+            this.store = new InMemoryLoadBalancerStore();
+            this.v3JobOperations = mock(V3JobOperations.class);
+            this.loadBalancers = new HashMap<>();
+
+            for (int i = 0; i < loadBalancerCount; i++) {
+                String jobId = "job#" + i;
+                String loadBalancerId = "loadBalancer#" + i;
+                List<Task> tasks = buildTasksStarted(TASKS_PER_JOB, jobId);
+                when(v3JobOperations.getTasks(jobId)).thenReturn(tasks);
+
+                Set<String> ips = tasks.stream().map(t -> t.getTaskContext().get(TaskAttributes.TASK_ATTRIBUTES_CONTAINER_IP)).collect(Collectors.toSet());
+                loadBalancers.put(loadBalancerId, new LoadBalancer(loadBalancerId, LoadBalancer.State.ACTIVE, ips));
+
+                store.addOrUpdateLoadBalancer(new JobLoadBalancer(jobId, loadBalancerId), JobLoadBalancer.State.ASSOCIATED).await();
+                store.addOrUpdateTargets(tasks.stream()
+                        .map(task -> new LoadBalancerTargetState(
+                                new LoadBalancerTarget(loadBalancerId, task.getId(), task.getTaskContext().get(TaskAttributes.TASK_ATTRIBUTES_CONTAINER_IP)),
+                                LoadBalancerTarget.State.REGISTERED
+                        ))
+                        .collect(Collectors.toList())
+                ).block();
+            }
+
+            this.configuration = mock(LoadBalancerConfiguration.class);
+            when(configuration.getReconciliationDelayMs()).thenReturn(DELAY_MS);
+            when(configuration.getReconciliationTimeoutMs()).thenReturn(TimeUnit.MINUTES.toMillis(10));
+            when(configuration.getReconciliationConcurrency()).thenReturn(concurrency);
+            when(configuration.getReconciliationFullAuditIntervalMs()).thenReturn(TimeUnit.HOURS.toMillis(1));
+        }
+
+        private RunningReconciler newReconciler() {
+            return new RunningReconciler(this);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class SweptReconciler {
+
+        private RunningReconciler reconciler;
+
+        @Setup(Level.Invocation)
+        public void setUp(DataSet dataSet) throws InterruptedException {
+            this.reconciler = dataSet.newReconciler();
+            reconciler.awaitSweep();
+        }
+
+        @TearDown(Level.Invocation)
+        public void tearDown() {
+            reconciler.shutdown();
+        }
+    }
+
+    @Benchmark
+    public long fullSweep(DataSet dataSet) throws InterruptedException {
+        RunningReconciler reconciler = dataSet.newReconciler();
+        try {
+            return reconciler.awaitSweep();
+        } finally {
+            reconciler.shutdown();
+        }
+    }
+
+    @Benchmark
+    public long unchangedSweep(SweptReconciler sweptReconciler) throws InterruptedException {
+        return sweptReconciler.reconciler.awaitSweep();
+    }
+
+    private static List<Task> buildTasksStarted(int count, String jobId) {
+        return IntStream.range(0, count).mapToObj(i -> ServiceJobTask.newBuilder()
+                .withJobId(jobId)
+                .withId(UUID.randomUUID().toString())
+                .withStatus(TaskStatus.newBuilder().withState(TaskState.Started).build())
+                .withTaskContext(CollectionsExt.asMap(
+                        TaskAttributes.TASK_ATTRIBUTES_CONTAINER_IP, String.format("%1$d.%1$d.%1$d.%1$d", i + 1)
+                ))
+                .build()
+        ).collect(Collectors.toList());
+    }
+
+    private static class RunningReconciler {
+
+        private final LinkedBlockingQueue<Long> completions = new LinkedBlockingQueue<>();
+        private final DefaultLoadBalancerReconciler reconciler;
+        private final Subscription subscription;
+
+        private RunningReconciler(DataSet dataSet) {
+            this.reconciler = new DefaultLoadBalancerReconciler(dataSet.configuration, dataSet.store,
+                    new SimulatedConnector(dataSet.loadBalancers), new LoadBalancerJobOperations(dataSet.v3JobOperations),
+                    () -> completions.add(System.nanoTime()), new DefaultRegistry(), Schedulers.computation());
+            this.subscription = reconciler.events().subscribe();
+        }
+
+        private long awaitSweep() throws InterruptedException {
+            return completions.take();
+        }
+
+        private void shutdown() {
+            subscription.unsubscribe();
+            reconciler.shutdown();
+        }
+    }
+
+    private static class SimulatedConnector implements LoadBalancerConnector {
+
+        private final Map<String, LoadBalancer> loadBalancers;
+
+        private SimulatedConnector(Map<String, LoadBalancer> loadBalancers) {
+            this.loadBalancers = loadBalancers;
+        }
+
+        @Override
+        public Completable registerAll(String loadBalancerId, Set<String> ipAddresses) {
+            return Completable.complete();
+        }
+
+        @Override
+        public Completable deregisterAll(String loadBalancerId, Set<String> ipAddresses) {
+            return Completable.complete();
+        }
+
+        @Override
+        public Completable isValid(String loadBalancerId) {
+            return Completable.complete();
+        }
+
+        @Override
+        public Single<LoadBalancer> getLoadBalancer(String loadBalancerId) {
+            return Single.just(loadBalancers.get(loadBalancerId)).delay(CONNECTOR_LATENCY_MS, TimeUnit.MILLISECONDS, Schedulers.io());
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.master.mesos.kubeapiserver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.netflix.titus.master.mesos.kubeapiserver.KubeInformerIndexes.NodeReadiness;
+import io.kubernetes.client.openapi.models.V1Node;
+import io.kubernetes.client.openapi.models.V1NodeCondition;
+import io.kubernetes.client.openapi.models.V1NodeStatus;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodSpec;
+import io.kubernetes.client.openapi.models.V1PodStatus;
+import org.joda.time.DateTime;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the cost of selecting GC candidates with full informer cache scans versus {@link KubeInformerIndexes}
+ * lookups, using a synthetic cache content of 100k pods and 5k nodes. The benchmark lives in the indexes package,
+ * as the indexes are package private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class KubeInformerIndexesBenchmark {
+
+    private static final int POD_COUNT = 100_000;
+    private static final int NODE_COUNT = 5_000;
+
+    private static final List<String> TERMINAL_PHASES = Arrays.asList("Succeeded", "Failed");
+
+    private final List<V1Pod> pods = new ArrayList<>();
+    private final List<V1Node> nodes = new ArrayList<>();
+    private final KubeInformerIndexes indexes = new KubeInformerIndexes();
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < NODE_COUNT; i++) {
+            // 1% of not ready nodes
+            V1Node node = newNode("node" + i, i % 100 == 0 ? "False" : "True");
+            nodes.add(node);
+            indexes.nodeAddedOrUpdated(node);
+        }
+        for (int i = 0; i < POD_COUNT; i++) {
+            // Mostly running pods, with a small fraction of finished, deleted or orphaned ones.
+            String phase = i % 50 == 0 ? "Succeeded" : (i % 77 == 0 ? "Pending" : "Running");
+            String nodeName = i % 1000 == 0 ? "unknownNode" + i : "node" + (i % NODE_COUNT);
+            V1Pod pod = newPod("pod" + i, nodeName, phase, i % 200 == 0);
+            pods.add(pod);
+            indexes.podAddedOrUpdated(pod);
+        }
+    }
+
+    @Benchmark
+    public int fullScan() {
+        Set<String> nodeNames = nodes.stream().map(n -> n.getMetadata().getName()).collect(Collectors.toSet());
+        int count = 0;
+        count += nodes.stream().filter(n -> KubeInformerIndexes.getNodeReadiness(n) != NodeReadiness.Ready).count();
+        count += pods.stream().filter(p -> !nodeNames.contains(p.getSpec().getNodeName())).count();
+        count += pods.stream().filter(p -> KubeUtil.isPodPhaseTerminal(p.getStatus().getPhase())).count();
+        count += pods.stream().filter(p -> !KubeUtil.isPodPhaseTerminal(p.getStatus().getPhase())).count();
+        count += pods.stream().filter(p -> p.getMetadata().getDeletionTimestamp() != null).count();
+        count += pods.stream().filter(p -> p.getMetadata().getDeletionTimestamp() != null && "Pending".equals(p.getStatus().getPhase())).count();
+        return count;
+    }
+
+    @Benchmark
+    public int indexed() {
+        int count = 0;
+        count += indexes.getNodesWithReadiness(NodeReadiness.NotReady).size() + indexes.getNodesWithReadiness(NodeReadiness.Stopped).size();
+        count += indexes.getPodsOnUnknownNodes().size();
+        for (String phase : TERMINAL_PHASES) {
+            count += indexes.getPodsInPhase(phase).size();
+        }
+        count += indexes.getPodsNotInPhases(TERMINAL_PHASES).size();
+        count += indexes.getPodsWithDeletionTimestamp().size();
+        count += indexes.getPodsWithDeletionTimestamp().stream().filter(p -> "Pending".equals(p.getStatus().getPhase())).count();
+        return count;
+    }
+
+    private static V1Pod newPod(String name, String nodeName, String phase, boolean deleted) {
+        V1ObjectMeta metadata = new V1ObjectMeta().name(name).creationTimestamp(DateTime.now());
+        if (deleted) {
+            metadata.deletionTimestamp(DateTime.now());
+        }
+        return new V1Pod()
+                .metadata(metadata)
+                .spec(new V1PodSpec().nodeName(nodeName))
+                .status(new V1PodStatus().phase(phase));
+    }
+
+    private static V1Node newNode(String name, String readyStatus) {
+        V1NodeStatus status = new V1NodeStatus().conditions(new ArrayList<>());
+        status.getConditions().add(new V1NodeCondition().type("Ready").status(readyStatus).lastHeartbeatTime(DateTime.now()));
+        return new V1Node()
+                .metadata(new V1ObjectMeta().name(name).annotations(Collections.emptyMap()))
+                .status(status);
+    }
+}
@@ -30,7 +30,9 @@ import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -67,6 +69,8 @@ public class DefaultLocalScheduler implements LocalScheduler {
 
     private static final ThreadGroup SCHEDULER_THREAD_GROUP = new ThreadGroup("LocalScheduler");
 
+    private static final long WORKER_KEEP_ALIVE_MS = 60_000;
+
     private static final Runnable DO_NOTHING = () -> {
     };
 
@@ -75,6 +79,8 @@ public class DefaultLocalScheduler implements LocalScheduler {
     private final Registry registry;
     private final Scheduler scheduler;
     private final Scheduler.Worker worker;
+    private final Optional<ThreadPoolExecutor> workerPool;
+    private final Scheduler actionScheduler;
 
     private final BlockingQueue<ScheduleHolder> newHolders = new LinkedBlockingQueue<>();
     private final ConcurrentMap<String, ScheduleHolder> activeHoldersById = new ConcurrentHashMap<>();
@@ -84,12 +90,29 @@ public class DefaultLocalScheduler implements LocalScheduler {
     private final Disposable transactionLoggerDisposable;
 
     public DefaultLocalScheduler(Duration internalLoopInterval, Scheduler scheduler, Clock clock, Registry registry) {
+        this(internalLoopInterval, 0, scheduler, clock, registry);
+    }
+
+    /**
+     * @param workerPoolSize number of threads running actions of the non-isolated schedules. If set to zero, the actions
+     *                       are run on the provided scheduler. Executions of the same schedule never overlap, as the
+     *                       next action of a schedule is created only after the previous one completes.
+     */
+    public DefaultLocalScheduler(Duration internalLoopInterval, int workerPoolSize, Scheduler scheduler, Clock clock, Registry registry) {
         this.internalLoopIntervalMs = internalLoopInterval.toMillis();
         this.scheduler = scheduler;
         this.clock = clock;
         this.registry = registry;
         this.worker = scheduler.createWorker();
-        this.metrics = new SchedulerMetrics(this, clock, registry);
+        if (workerPoolSize > 0) {
+            ThreadPoolExecutor pool = newWorkerPool(workerPoolSize);
+            this.workerPool = Optional.of(pool);
+            this.actionScheduler = Schedulers.fromExecutorService(pool);
+        } else {
+            this.workerPool = Optional.empty();
+            this.actionScheduler = scheduler;
+        }
+        this.metrics = new SchedulerMetrics(this, workerPool, clock, registry);
         this.transactionLoggerDisposable = LocalSchedulerTransactionLogger.logEvents(this);
 
         scheduleNextIteration();
@@ -97,10 +120,22 @@ public class DefaultLocalScheduler implements LocalScheduler {
 
     public void shutdown() {
         worker.dispose();
+        workerPool.ifPresent(ThreadPoolExecutor::shutdownNow);
         metrics.shutdown();
         ReactorExt.safeDispose(transactionLoggerDisposable);
     }
 
+    private static ThreadPoolExecutor newWorkerPool(int workerPoolSize) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(workerPoolSize, workerPoolSize, WORKER_KEEP_ALIVE_MS, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(SCHEDULER_THREAD_GROUP, r, "LocalScheduler-worker-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
     @Override
     public List<Schedule> getActiveSchedules() {
         Map<String, Schedule> all = new HashMap<>();
@@ -154,7 +189,7 @@ public class DefaultLocalScheduler implements LocalScheduler {
             actionScheduler = Schedulers.fromExecutorService(executorService);
             cleanup = executorService::shutdown;
         } else {
-            actionScheduler = this.scheduler;
+            actionScheduler = this.actionScheduler;
             cleanup = DO_NOTHING;
         }
 
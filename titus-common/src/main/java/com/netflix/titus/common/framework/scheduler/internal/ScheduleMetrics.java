@@ -16,9 +16,12 @@
 
 package com.netflix.titus.common.framework.scheduler.internal;
 
+import java.util.concurrent.TimeUnit;
+
 import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Timer;
 import com.netflix.spectator.api.patterns.PolledMeter;
 import com.netflix.titus.common.framework.scheduler.model.Schedule;
 import com.netflix.titus.common.framework.scheduler.model.SchedulingStatus.SchedulingState;
@@ -38,13 +41,16 @@ class ScheduleMetrics {
 
     private final Counter successes;
     private final Counter failures;
+    private final Timer startDelay;
 
     private final Id waitingId;
     private final Id runningId;
     private final Id cancellingId;
+    private final Id lastStartDelayId;
 
     private FsmMetrics<SchedulingState> currentState;
     private Schedule lastSchedule;
+    private volatile long lastStartDelayMs;
 
     ScheduleMetrics(Schedule schedule, Clock clock, Registry registry) {
         this.lastSchedule = schedule;
@@ -66,6 +72,13 @@ class ScheduleMetrics {
                 "status", "failed"
         );
 
+        // Difference between the expected and the actual start time of an action, which includes time spent in the worker queue.
+        this.startDelay = registry.timer(ROOT_NAME + "startDelay", "scheduleName", schedule.getDescriptor().getName());
+        this.lastStartDelayId = registry.createId(ROOT_NAME + "lastStartDelayMs", "scheduleName", schedule.getDescriptor().getName());
+        PolledMeter.using(registry)
+                .withId(lastStartDelayId)
+                .monitorValue(this, self -> self.lastStartDelayMs);
+
         this.waitingId = registry.createId(ROOT_NAME + "waitingTimeMs", "scheduleName", schedule.getDescriptor().getName());
         PolledMeter.using(registry)
                 .withId(waitingId)
@@ -99,6 +112,12 @@ class ScheduleMetrics {
         }
     }
 
+    void onActionStarted(long expectedStartTime) {
+        long delayMs = Math.max(0, clock.wallTime() - expectedStartTime);
+        this.lastStartDelayMs = delayMs;
+        startDelay.record(delayMs, TimeUnit.MILLISECONDS);
+    }
+
     void onScheduleRemoved(Schedule schedule) {
         this.lastSchedule = schedule;
         currentState.transition(SchedulingState.Failed);
@@ -106,6 +125,7 @@ class ScheduleMetrics {
         PolledMeter.remove(registry, waitingId);
         PolledMeter.remove(registry, runningId);
         PolledMeter.remove(registry, cancellingId);
+        PolledMeter.remove(registry, lastStartDelayId);
     }
 
     private long howLongInState(SchedulingState expectedState) {
@@ -189,7 +189,8 @@ class ScheduledActionExecutor {
 
     private boolean handleWaitingState() {
         long now = clock.wallTime();
-        if (action.getStatus().getExpectedStartTime() > now) {
+        long expectedStartTime = action.getStatus().getExpectedStartTime();
+        if (expectedStartTime > now) {
             return false;
         }
         SchedulingStatus oldStatus = action.getStatus();
@@ -214,6 +215,7 @@ class ScheduledActionExecutor {
                                     .withIteration(action.getExecutionId())
                                     .build()
                     )
+                    .doOnSubscribe(subscription -> scheduleMetrics.onActionStarted(expectedStartTime))
                     .timeout(descriptor.getTimeout())
                     .subscribeOn(scheduler)
                     .publishOn(scheduler)
@@ -16,6 +16,8 @@
 
 package com.netflix.titus.common.framework.scheduler.internal;
 
+import java.util.Optional;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 
 import com.netflix.spectator.api.Id;
@@ -33,11 +35,13 @@ class SchedulerMetrics {
     private final Id activeSchedulesId;
     private final Id archivedSchedulesId;
     private final Id lastEvaluationId;
+    private final Id workerPoolQueueSizeId;
+    private final Id workerPoolActiveId;
     private final Timer evaluationTimer;
 
     private long lastEvaluationTime;
 
-    SchedulerMetrics(DefaultLocalScheduler scheduler, Clock clock, Registry registry) {
+    SchedulerMetrics(DefaultLocalScheduler scheduler, Optional<ThreadPoolExecutor> workerPool, Clock clock, Registry registry) {
         this.clock = clock;
         this.registry = registry;
         this.scheduler = scheduler;
@@ -57,12 +61,26 @@ class SchedulerMetrics {
         PolledMeter.using(registry)
                 .withId(lastEvaluationId)
                 .monitorValue(this, self -> self.clock.wallTime() - self.lastEvaluationTime);
+
+        // Worker pool saturation (queued actions waiting for a free thread), for sizing the pool.
+        this.workerPoolQueueSizeId = registry.createId(ScheduleMetrics.ROOT_NAME + "workerPool.queueSize");
+        this.workerPoolActiveId = registry.createId(ScheduleMetrics.ROOT_NAME + "workerPool.activeThreads");
+        workerPool.ifPresent(pool -> {
+            PolledMeter.using(registry)
+                    .withId(workerPoolQueueSizeId)
+                    .monitorValue(pool, p -> p.getQueue().size());
+            PolledMeter.using(registry)
+                    .withId(workerPoolActiveId)
+                    .monitorValue(pool, ThreadPoolExecutor::getActiveCount);
+        });
     }
 
     void shutdown() {
         PolledMeter.remove(registry, activeSchedulesId);
         PolledMeter.remove(registry, archivedSchedulesId);
         PolledMeter.remove(registry, lastEvaluationId);
+        PolledMeter.remove(registry, workerPoolQueueSizeId);
+        PolledMeter.remove(registry, workerPoolActiveId);
     }
 
     void recordEvaluationTime(long evaluationTimeMs) {
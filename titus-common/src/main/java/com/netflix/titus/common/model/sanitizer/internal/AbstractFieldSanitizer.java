@@ -22,6 +22,8 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
+import com.netflix.titus.common.model.sanitizer.internal.JavaBeanReflection.FieldInfo;
+
 /**
  */
 abstract class AbstractFieldSanitizer<CONTEXT> implements Function<Object, Optional<Object>> {
@@ -31,18 +33,24 @@ abstract class AbstractFieldSanitizer<CONTEXT> implements Function<Object, Optio
     protected Optional<Object> apply(Object entity, CONTEXT context) {
         JavaBeanReflection javaBeanRefl = JavaBeanReflection.forType(entity.getClass());
 
-        Map<Field, Object> fixedValues = new HashMap<>();
-        javaBeanRefl.getFields().forEach(field -> {
-            Object fieldValue = javaBeanRefl.getFieldValue(entity, field);
-            sanitizeFieldValue(field, fieldValue, context).ifPresent(newValue -> fixedValues.put(field, newValue));
-        });
+        Map<Field, Object> fixedValues = null;
+        for (FieldInfo fieldInfo : javaBeanRefl.getFieldInfos()) {
+            Object fieldValue = javaBeanRefl.getFieldValue(entity, fieldInfo.getField());
+            Optional<Object> newValue = sanitizeFieldValue(fieldInfo, fieldValue, context);
+            if (newValue.isPresent()) {
+                if (fixedValues == null) {
+                    fixedValues = new HashMap<>();
+                }
+                fixedValues.put(fieldInfo.getField(), newValue.get());
+            }
+        }
 
-        if (fixedValues.isEmpty()) {
+        if (fixedValues == null) {
             return Optional.empty();
         }
 
         return Optional.of(javaBeanRefl.create(entity, fixedValues));
     }
 
-    protected abstract Optional<Object> sanitizeFieldValue(Field field, Object value, CONTEXT context);
+    protected abstract Optional<Object> sanitizeFieldValue(FieldInfo fieldInfo, Object value, CONTEXT context);
 }
@@ -24,11 +24,10 @@ import java.util.function.Function;
 
 import com.google.common.base.Preconditions;
 import com.netflix.titus.common.model.sanitizer.FieldSanitizer;
-import com.netflix.titus.common.util.ReflectionExt;
+import com.netflix.titus.common.model.sanitizer.internal.JavaBeanReflection.FieldInfo;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
 
 import static com.netflix.titus.common.util.ReflectionExt.isNumeric;
 import static java.lang.String.format;
@@ -37,14 +36,16 @@ import static java.lang.String.format;
  */
 public class AnnotationBasedSanitizer extends AbstractFieldSanitizer<Object> {
 
-    private static final SanitizerInfo EMPTY_SANITIZER_INFO = new SanitizerInfo(false, null, null, -1, -1);
-
-    private final static ConcurrentMap<Field, SanitizerInfo> FIELD_SANITIZER_INFOS = new ConcurrentHashMap<>();
-
-    private final ExpressionParser parser = new SpelExpressionParser();
+    private final ExpressionParser parser = SpELExpressions.newParser();
     private final EvaluationContext spelContext;
     private final Function<Class<?>, Boolean> innerEntityPredicate;
 
+    /**
+     * Sanitizer infos are kept per instance, as compiled SpEL expressions may bind to the functions registered in
+     * the evaluation context of this sanitizer.
+     */
+    private final ConcurrentMap<Field, SanitizerInfo> fieldSanitizerInfos = new ConcurrentHashMap<>();
+
     public AnnotationBasedSanitizer(EvaluationContext spelContext,
                                     Function<Class<?>, Boolean> innerEntityPredicate) {
         this.innerEntityPredicate = innerEntityPredicate;
@@ -57,12 +58,12 @@ public class AnnotationBasedSanitizer extends AbstractFieldSanitizer<Object> {
     }
 
     @Override
-    protected Optional<Object> sanitizeFieldValue(Field field, Object value, Object context) {
+    protected Optional<Object> sanitizeFieldValue(FieldInfo fieldInfo, Object value, Object context) {
         // If has annotation, sanitize
-        SanitizerInfo sanitizerInfo = getSanitizerInfo(field);
-        if (sanitizerInfo != EMPTY_SANITIZER_INFO) {
+        if (fieldInfo.getFieldSanitizer() != null) {
+            SanitizerInfo sanitizerInfo = getSanitizerInfo(fieldInfo);
             return sanitizerInfo.isNumeric()
-                    ? sanitizeNumericValue(field, value, sanitizerInfo)
+                    ? sanitizeNumericValue(fieldInfo.getField(), value, sanitizerInfo)
                     : sanitizeNotNumericValue(value, sanitizerInfo);
         }
 
@@ -71,8 +72,7 @@ public class AnnotationBasedSanitizer extends AbstractFieldSanitizer<Object> {
             return Optional.empty();
         }
         // Skip primitive type or enum or collections/maps/optional
-        Class<?> fieldType = field.getType();
-        if (ReflectionExt.isStandardDataType(fieldType) || value.getClass().isEnum() || ReflectionExt.isContainerType(field)) {
+        if (fieldInfo.isStandardOrContainerType() || value.getClass().isEnum()) {
             return Optional.empty();
         }
 
@@ -141,11 +141,8 @@ public class AnnotationBasedSanitizer extends AbstractFieldSanitizer<Object> {
         return sanitizerInfo.getAdjusterExpression().map(e -> (T) e.getValue(spelContext, new SpELFieldValidator.Root(value)));
     }
 
-    private SanitizerInfo getSanitizerInfo(Field field) {
-        return FIELD_SANITIZER_INFOS.computeIfAbsent(field, f -> {
-            FieldSanitizer annotation = f.getAnnotation(FieldSanitizer.class);
-            return annotation == null ? EMPTY_SANITIZER_INFO : buildSanitizerInfo(field, annotation);
-        });
+    private SanitizerInfo getSanitizerInfo(FieldInfo fieldInfo) {
+        return fieldSanitizerInfos.computeIfAbsent(fieldInfo.getField(), f -> buildSanitizerInfo(f, fieldInfo.getFieldSanitizer()));
     }
 
     private SanitizerInfo buildSanitizerInfo(Field field, FieldSanitizer annotation) {
@@ -28,8 +28,12 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import com.google.common.base.Preconditions;
+import com.netflix.titus.common.model.sanitizer.FieldSanitizer;
+import com.netflix.titus.common.model.sanitizer.Template;
 
 import static com.netflix.titus.common.util.ReflectionExt.getAllFields;
+import static com.netflix.titus.common.util.ReflectionExt.isContainerType;
+import static com.netflix.titus.common.util.ReflectionExt.isStandardDataType;
 import static java.lang.String.format;
 import static java.util.Arrays.stream;
 
@@ -39,6 +43,7 @@ class JavaBeanReflection {
 
     private final Constructor<?> constructor;
     private final List<Field> fields;
+    private final List<FieldInfo> fieldInfos;
 
     JavaBeanReflection(Class<?> entityType) {
         Preconditions.checkArgument(entityType.getConstructors().length == 1, "Expected single constructor in class %s", entityType);
@@ -54,10 +59,11 @@ class JavaBeanReflection {
                     return field;
                 })
                 .collect(Collectors.toList());
+        this.fieldInfos = fields.stream().map(FieldInfo::new).collect(Collectors.toList());
     }
 
     Object create(Object entity, Map<Field, Object> overrides) {
-        List<Object> newValues = new ArrayList<>();
+        List<Object> newValues = new ArrayList<>(fields.size());
         for (Field field : fields) {
             Object newValue = overrides.get(field);
             if (newValue != null) {
@@ -77,6 +83,13 @@ class JavaBeanReflection {
         return fields;
     }
 
+    /**
+     * Returns the same fields as {@link #getFields()}, with the field level annotations and type information resolved.
+     */
+    List<FieldInfo> getFieldInfos() {
+        return fieldInfos;
+    }
+
     Object getFieldValue(Object entity, Field field) {
         try {
             return field.get(entity);
@@ -88,4 +101,55 @@ class JavaBeanReflection {
     static JavaBeanReflection forType(Class<?> entityType) {
         return CACHE.computeIfAbsent(entityType, JavaBeanReflection::new);
     }
+
+    /**
+     * Field metadata used by the sanitizers, resolved once per entity type.
+     */
+    static final class FieldInfo {
+
+        private final Field field;
+        private final boolean standardOrContainerType;
+        private final FieldSanitizer fieldSanitizer;
+        private final Template template;
+
+        private FieldInfo(Field field) {
+            this.field = field;
+            this.standardOrContainerType = isStandardDataType(field.getType()) || isContainerType(field);
+            this.fieldSanitizer = field.getAnnotation(FieldSanitizer.class);
+            this.template = field.getAnnotation(Template.class);
+        }
+
+        Field getField() {
+            return field;
+        }
+
+        String getName() {
+            return field.getName();
+        }
+
+        Class<?> getType() {
+            return field.getType();
+        }
+
+        /**
+         * True for primitive and other standard data types, and for collections, maps and optionals.
+         */
+        boolean isStandardOrContainerType() {
+            return standardOrContainerType;
+        }
+
+        /**
+         * Returns {@link FieldSanitizer} annotation or null, if not present.
+         */
+        FieldSanitizer getFieldSanitizer() {
+            return fieldSanitizer;
+        }
+
+        /**
+         * Returns {@link Template} annotation or null, if not present.
+         */
+        Template getTemplate() {
+            return template;
+        }
+    }
 }
@@ -28,14 +28,13 @@ import com.netflix.titus.common.util.CollectionsExt;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
 
 /**
  * Spring EL JavaBean validation framework class-level validator.
  */
 public class SpELClassValidator extends AbstractConstraintValidator<ClassInvariant, Object> {
 
-    private final ExpressionParser parser = new SpelExpressionParser();
+    private final ExpressionParser parser = SpELExpressions.newParser();
     private final VerifierMode verifierMode;
     private final Supplier<EvaluationContext> spelContextFactory;
 
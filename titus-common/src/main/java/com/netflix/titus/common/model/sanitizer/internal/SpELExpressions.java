@@ -0,0 +1,39 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.common.model.sanitizer.internal;
+
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.SpelCompilerMode;
+import org.springframework.expression.spel.SpelParserConfiguration;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+/**
+ * SpEL parser factory for the sanitizer annotations. Expressions are parsed once, when a validator or sanitizer
+ * is initialized, and evaluated in the {@link SpelCompilerMode#MIXED} mode. In this mode an expression is compiled
+ * to bytecode after a number of interpreted evaluations, and falls back to the interpreted mode if the compiled form
+ * fails (for example when the runtime types change), so the evaluation result is the same as in the interpreted mode.
+ */
+final class SpELExpressions {
+
+    private SpELExpressions() {
+    }
+
+    static ExpressionParser newParser() {
+        return new SpelExpressionParser(new SpelParserConfiguration(SpelCompilerMode.MIXED, SpELExpressions.class.getClassLoader()));
+    }
+}
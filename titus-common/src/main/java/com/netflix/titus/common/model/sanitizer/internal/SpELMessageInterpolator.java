@@ -20,31 +20,47 @@ import java.util.Locale;
 import java.util.function.Supplier;
 import javax.validation.MessageInterpolator;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.netflix.titus.common.model.sanitizer.FieldInvariant;
 import org.springframework.expression.EvaluationContext;
 import org.springframework.expression.Expression;
 import org.springframework.expression.ExpressionParser;
 import org.springframework.expression.common.TemplateParserContext;
-import org.springframework.expression.spel.standard.SpelExpressionParser;
 
 public class SpELMessageInterpolator implements MessageInterpolator {
 
-    private final ExpressionParser parser = new SpelExpressionParser();
-    private final Supplier<EvaluationContext> spelContextFactory;
+    /**
+     * Message templates come from the constraint annotations, but also from the violation messages built at runtime,
+     * so the parsed template cache must be bounded.
+     */
+    private static final int TEMPLATE_CACHE_SIZE = 1_000;
+
+    private final ExpressionParser parser = SpELExpressions.newParser();
+    private final TemplateParserContext templateParserContext = new TemplateParserContext();
+    private final EvaluationContext spelContext;
+
+    private final Cache<String, Expression> templates = CacheBuilder.newBuilder()
+            .maximumSize(TEMPLATE_CACHE_SIZE)
+            .build();
 
     public SpELMessageInterpolator(Supplier<EvaluationContext> spelContextFactory) {
-        this.spelContextFactory = spelContextFactory;
+        this.spelContext = spelContextFactory.get();
     }
 
     @Override
     public String interpolate(String messageTemplate, Context context) {
-        Expression expression = parser.parseExpression(messageTemplate, new TemplateParserContext());
+        Expression expression = templates.getIfPresent(messageTemplate);
+        if (expression == null) {
+            expression = parser.parseExpression(messageTemplate, templateParserContext);
+            templates.put(messageTemplate, expression);
+        }
 
         Object effectiveValue = context.getValidatedValue();
         if (context.getConstraintDescriptor().getAnnotation() instanceof FieldInvariant) {
             effectiveValue = new SpELFieldValidator.Root(effectiveValue);
         }
-        return (String) expression.getValue(spelContextFactory.get(), effectiveValue);
+        return (String) expression.getValue(spelContext, effectiveValue);
     }
 
     @Override
@@ -16,10 +16,11 @@
 
 package com.netflix.titus.common.model.sanitizer.internal;
 
-import java.lang.reflect.Field;
 import java.util.Optional;
 import java.util.function.Function;
 
+import com.netflix.titus.common.model.sanitizer.internal.JavaBeanReflection.FieldInfo;
+
 public class StdValueSanitizer extends AbstractFieldSanitizer<Object> {
 
     private final Function<Class<?>, Boolean> innerEntityPredicate;
@@ -34,8 +35,8 @@ public class StdValueSanitizer extends AbstractFieldSanitizer<Object> {
     }
 
     @Override
-    protected Optional<Object> sanitizeFieldValue(Field field, Object fieldValue, Object context) {
-        Class<?> fieldType = field.getType();
+    protected Optional<Object> sanitizeFieldValue(FieldInfo fieldInfo, Object fieldValue, Object context) {
+        Class<?> fieldType = fieldInfo.getType();
         if (fieldType.isPrimitive()) {
             return Optional.empty();
         }
@@ -16,14 +16,13 @@
 
 package com.netflix.titus.common.model.sanitizer.internal;
 
-import java.lang.reflect.Field;
 import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
 import java.util.function.Function;
 
 import com.netflix.titus.common.model.sanitizer.Template;
-import com.netflix.titus.common.util.ReflectionExt;
+import com.netflix.titus.common.model.sanitizer.internal.JavaBeanReflection.FieldInfo;
 
 /**
  */
@@ -44,53 +43,52 @@ public class TemplateSanitizer extends AbstractFieldSanitizer<String> {
     }
 
     @Override
-    protected Optional<Object> sanitizeFieldValue(Field field, Object value, String path) {
-        String fieldPath = path.isEmpty() ? field.getName() : path + '.' + field.getName();
+    protected Optional<Object> sanitizeFieldValue(FieldInfo fieldInfo, Object value, String path) {
+        Template template = fieldInfo.getTemplate();
         if (value == null) {
-            return isEnabled(field) ? templateResolver.apply(fieldPath) : Optional.empty();
+            return template != null ? templateResolver.apply(buildFieldPath(fieldInfo, path)) : Optional.empty();
         }
-        Class<?> fieldType = field.getType();
+        Class<?> fieldType = fieldInfo.getType();
 
         // Process empty collection/map/optional/string
         if (Collection.class.isAssignableFrom(fieldType)) {
             Collection<?> collectionValue = (Collection<?>) value;
-            if (collectionValue.isEmpty() && replaceEmptyValue(field)) {
-                return templateResolver.apply(fieldPath);
+            if (collectionValue.isEmpty() && replaceEmptyValue(template)) {
+                return templateResolver.apply(buildFieldPath(fieldInfo, path));
             }
         } else if (Map.class.isAssignableFrom(fieldType)) {
             Map<?, ?> mapValue = (Map<?, ?>) value;
-            if (mapValue.isEmpty() && replaceEmptyValue(field)) {
-                return templateResolver.apply(fieldPath);
+            if (mapValue.isEmpty() && replaceEmptyValue(template)) {
+                return templateResolver.apply(buildFieldPath(fieldInfo, path));
             }
         } else if (Optional.class == fieldType) {
             Optional optionalValue = (Optional) value;
-            if (!optionalValue.isPresent() && replaceEmptyValue(field)) {
-                return templateResolver.apply(fieldPath);
+            if (!optionalValue.isPresent() && replaceEmptyValue(template)) {
+                return templateResolver.apply(buildFieldPath(fieldInfo, path));
             }
         } else if (String.class == fieldType) {
             String stringValue = (String) value;
-            if (stringValue.isEmpty() && replaceEmptyValue(field)) {
-                return templateResolver.apply(fieldPath);
+            if (stringValue.isEmpty() && replaceEmptyValue(template)) {
+                return templateResolver.apply(buildFieldPath(fieldInfo, path));
             }
         }
 
         // Skip primitive type or collections/maps/optional
-        if (ReflectionExt.isStandardDataType(fieldType) || ReflectionExt.isContainerType(field)) {
+        if (fieldInfo.isStandardOrContainerType()) {
             return Optional.empty();
         }
 
         if (!innerEntityPredicate.apply(fieldType)) {
             return Optional.empty();
         }
-        return apply(value, fieldPath);
+        return apply(value, buildFieldPath(fieldInfo, path));
     }
 
-    private static boolean isEnabled(Field field) {
-        return field.getAnnotation(Template.class) != null;
+    private static String buildFieldPath(FieldInfo fieldInfo, String path) {
+        return path.isEmpty() ? fieldInfo.getName() : path + '.' + fieldInfo.getName();
     }
 
-    private static boolean replaceEmptyValue(Field field) {
-        Template annotation = field.getAnnotation(Template.class);
+    private static boolean replaceEmptyValue(Template annotation) {
         return annotation != null && annotation.onEmpty();
     }
 }
@@ -37,6 +37,13 @@ public final class TitusRuntimes {
     }
 
     public static TitusRuntime internal(Duration localSchedulerLoopInterval) {
+        return internal(localSchedulerLoopInterval, DefaultTitusRuntime.DEFAULT_LOCAL_SCHEDULER_WORKER_POOL_SIZE);
+    }
+
+    /**
+     * @param localSchedulerWorkerPoolSize number of local scheduler worker threads, or 0 for the single loop
+     */
+    public static TitusRuntime internal(Duration localSchedulerLoopInterval, int localSchedulerWorkerPoolSize) {
         return new DefaultTitusRuntime(
                 new LoggingCodePointTracker(),
                 LoggingCodeInvariants.getDefault(),
@@ -44,6 +51,7 @@ public final class TitusRuntimes {
                 false,
                 LoggingSystemAbortListener.getDefault(),
                 localSchedulerLoopInterval,
+                localSchedulerWorkerPoolSize,
                 new DefaultRegistry(),
                 Clocks.system(),
                 false
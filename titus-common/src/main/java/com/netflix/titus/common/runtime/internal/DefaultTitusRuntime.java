@@ -25,6 +25,7 @@ import javax.inject.Inject;
 import javax.inject.Named;
 import javax.inject.Singleton;
 
+import com.google.common.base.Preconditions;
 import com.netflix.spectator.api.BasicTag;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spectator.api.Tag;
@@ -57,6 +58,14 @@ public class DefaultTitusRuntime implements TitusRuntime {
 
     public static final String FIT_ACTIVATION_PROPERTY = "titus.runtime.fit.enabled";
 
+    /**
+     * System property with the number of local scheduler worker threads. Set to 0 to run all schedules from the
+     * single local scheduler loop (the legacy behavior).
+     */
+    public static final String LOCAL_SCHEDULER_WORKER_POOL_SIZE_PROPERTY = "titus.runtime.localScheduler.workerPoolSize";
+
+    public static final int DEFAULT_LOCAL_SCHEDULER_WORKER_POOL_SIZE = 8;
+
     private static final String METRICS_RUNTIME_ROOT = "titus.system.";
     private static final String METRICS_PERSISTENT_STREAM = METRICS_RUNTIME_ROOT + "persistentStream";
 
@@ -90,6 +99,7 @@ public class DefaultTitusRuntime implements TitusRuntime {
                 systemExitOnFailure,
                 systemAbortListener,
                 LOCAL_SCHEDULER_LOOP_INTERVAL,
+                Integer.getInteger(LOCAL_SCHEDULER_WORKER_POOL_SIZE_PROPERTY, DEFAULT_LOCAL_SCHEDULER_WORKER_POOL_SIZE),
                 registry,
                 Clocks.system(),
                 "true".equals(System.getProperty(FIT_ACTIVATION_PROPERTY, "false"))
@@ -105,6 +115,35 @@ public class DefaultTitusRuntime implements TitusRuntime {
                                Registry registry,
                                Clock clock,
                                boolean isFitEnabled) {
+        this(
+                codePointTracker,
+                codeInvariants,
+                systemLogService,
+                systemExitOnFailure,
+                systemAbortListener,
+                localSchedulerLoopInterval,
+                DEFAULT_LOCAL_SCHEDULER_WORKER_POOL_SIZE,
+                registry,
+                clock,
+                isFitEnabled
+        );
+    }
+
+    /**
+     * @param localSchedulerWorkerPoolSize number of local scheduler worker threads, or 0 to run all schedules from
+     *                                     the single local scheduler loop
+     */
+    public DefaultTitusRuntime(CodePointTracker codePointTracker,
+                               CodeInvariants codeInvariants,
+                               SystemLogService systemLogService,
+                               boolean systemExitOnFailure,
+                               SystemAbortListener systemAbortListener,
+                               Duration localSchedulerLoopInterval,
+                               int localSchedulerWorkerPoolSize,
+                               Registry registry,
+                               Clock clock,
+                               boolean isFitEnabled) {
+        Preconditions.checkArgument(localSchedulerWorkerPoolSize >= 0, "Local scheduler worker pool size must be >= 0: %s", localSchedulerWorkerPoolSize);
         this.codePointTracker = codePointTracker;
         this.codeInvariants = codeInvariants;
         this.systemLogService = systemLogService;
@@ -113,7 +152,7 @@ public class DefaultTitusRuntime implements TitusRuntime {
         this.registry = registry;
         this.clock = clock;
         this.fitFramework = isFitEnabled ? FitFramework.newFitFramework() : FitFramework.inactiveFitFramework();
-        this.localScheduler = new DefaultLocalScheduler(localSchedulerLoopInterval, Schedulers.parallel(), clock, registry);
+        this.localScheduler = new DefaultLocalScheduler(localSchedulerLoopInterval, localSchedulerWorkerPoolSize, Schedulers.parallel(), clock, registry);
     }
 
     @Override
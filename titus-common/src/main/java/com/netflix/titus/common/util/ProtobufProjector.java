@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.MapEntry;
+import com.google.protobuf.Message;
+import com.netflix.titus.common.util.tuple.Pair;
+
+/**
+ * Field set projection for protobuf messages, equivalent to {@link ProtobufExt#copy(Message, Set)}, but with the
+ * field names resolved once per message type and field set. The result of the resolution is cached, so a projector
+ * can be obtained for each request, and next applied to all messages in the reply.
+ * <p>
+ * The projected message is built from an empty builder, with only the selected fields, instead of clearing
+ * the not selected fields in a full copy. If a field is selected both as a whole and with nested names (for example
+ * 'status' and 'status.state'), the whole field is included.
+ */
+public final class ProtobufProjector {
+
+    private static final int CACHE_SIZE = 1_000;
+
+    private static final Cache<Pair<Descriptors.Descriptor, Set<String>>, ProtobufProjector> PROJECTORS = CacheBuilder.newBuilder()
+            .maximumSize(CACHE_SIZE)
+            .build();
+
+    private final Descriptors.Descriptor descriptor;
+    private final List<FieldProjection> fieldProjections;
+
+    private ProtobufProjector(Descriptors.Descriptor descriptor, Set<String> fields) {
+        this.descriptor = descriptor;
+
+        Map<String, Set<String>> topNames = PropertiesExt.splitNames(fields, 1);
+        for (String field : fields) {
+            if (PropertiesExt.split(field, 1) == null) {
+                topNames.put(field, null);
+            }
+        }
+
+        this.fieldProjections = new ArrayList<>();
+        for (Descriptors.FieldDescriptor field : descriptor.getFields()) {
+            if (topNames.containsKey(field.getName())) {
+                Set<String> nested = topNames.get(field.getName());
+                fieldProjections.add(new FieldProjection(field, nested == null || field.getJavaType() != Descriptors.FieldDescriptor.JavaType.MESSAGE
+                        ? null
+                        : new ProtobufProjector(field.getMessageType(), nested), nested
+                ));
+            }
+        }
+    }
+
+    public Descriptors.Descriptor getDescriptor() {
+        return descriptor;
+    }
+
+    /**
+     * Creates a copy of the given message, with only the selected fields included.
+     */
+    public <T extends Message> T project(T entity) {
+        Message.Builder builder = entity.newBuilderForType();
+        for (FieldProjection projection : fieldProjections) {
+            projection.apply(entity, builder);
+        }
+        builder.setUnknownFields(entity.getUnknownFields());
+        return (T) builder.build();
+    }
+
+    /**
+     * Returns a (possibly cached) projector for the given message type and field set.
+     */
+    public static ProtobufProjector of(Descriptors.Descriptor descriptor, Set<String> fields) {
+        Set<String> key = new HashSet<>(fields);
+        try {
+            return PROJECTORS.get(Pair.of(descriptor, key), () -> new ProtobufProjector(descriptor, key));
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Cannot create protobuf projector for " + descriptor.getFullName(), e.getCause());
+        }
+    }
+
+    private static class FieldProjection {
+
+        private final Descriptors.FieldDescriptor field;
+        private final ProtobufProjector nestedProjector;
+        private final Set<String> nestedNames;
+
+        private FieldProjection(Descriptors.FieldDescriptor field, ProtobufProjector nestedProjector, Set<String> nestedNames) {
+            this.field = field;
+            this.nestedProjector = nestedProjector;
+            this.nestedNames = nestedNames;
+        }
+
+        private void apply(Message entity, Message.Builder builder) {
+            if (field.isRepeated()) {
+                if (entity.getRepeatedFieldCount(field) == 0) {
+                    return;
+                }
+                Object value = entity.getField(field);
+                builder.setField(field, nestedProjector == null ? value : projectCollection((Collection<?>) value));
+            } else if (entity.hasField(field)) {
+                Object value = entity.getField(field);
+                builder.setField(field, nestedProjector == null ? value : nestedProjector.project((Message) value));
+            }
+        }
+
+        /**
+         * Maps with string keys are filtered by the nested names, and nested messages projected. Other collections are
+         * copied as is, the same way as in {@link ProtobufExt#copy(Message, Set)}.
+         */
+        private Object projectCollection(Collection<?> collection) {
+            Object first = CollectionsExt.first(collection);
+            if (first instanceof MapEntry) {
+                if (!(((MapEntry) first).getKey() instanceof String)) {
+                    return collection;
+                }
+                List<Object> filtered = new ArrayList<>();
+                for (Object item : collection) {
+                    if (nestedNames.contains(((MapEntry) item).getKey())) {
+                        filtered.add(item);
+                    }
+                }
+                return filtered;
+            }
+            if (first instanceof Message) {
+                List<Message> projected = new ArrayList<>(collection.size());
+                for (Object item : collection) {
+                    projected.add(nestedProjector.project((Message) item));
+                }
+                return projected;
+            }
+            return collection;
+        }
+    }
+}
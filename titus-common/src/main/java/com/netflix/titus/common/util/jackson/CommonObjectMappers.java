@@ -20,6 +20,9 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonView;
@@ -31,6 +34,7 @@ import com.fasterxml.jackson.databind.AnnotationIntrospector;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.MapperFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.deser.Deserializers;
@@ -38,10 +42,13 @@ import com.fasterxml.jackson.databind.introspect.Annotated;
 import com.fasterxml.jackson.databind.module.SimpleDeserializers;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
 import com.fasterxml.jackson.databind.ser.PropertyWriter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.protobuf.Message;
 import com.netflix.titus.common.util.PropertiesExt;
 import com.netflix.titus.common.util.ReflectionExt;
@@ -51,6 +58,7 @@ import com.netflix.titus.common.util.jackson.internal.CustomDeserializerSimpleMo
 import com.netflix.titus.common.util.jackson.internal.ProtobufMessageDeserializer;
 import com.netflix.titus.common.util.jackson.internal.ProtobufMessageSerializer;
 import com.netflix.titus.common.util.jackson.internal.TrimmingStringDeserializer;
+import com.netflix.titus.common.util.tuple.Pair;
 import rx.exceptions.Exceptions;
 
 /**
@@ -74,6 +82,17 @@ public class CommonObjectMappers {
     private static final ObjectMapper COMPACT = createCompactMapper();
     private static final ObjectMapper PROTOBUF = createProtobufMapper();
 
+    private static final int FIELDS_FILTER_WRITERS_CACHE_SIZE = 1_000;
+
+    /**
+     * Copies of the original mappers with the Titus filter introspector, shared by all field filtering writers.
+     */
+    private static final Cache<ObjectMapper, ObjectMapper> FILTERING_MAPPERS = CacheBuilder.newBuilder().weakKeys().build();
+
+    private static final Cache<Pair<ObjectMapper, Set<String>>, ObjectWriter> FIELDS_FILTER_WRITERS = CacheBuilder.newBuilder()
+            .maximumSize(FIELDS_FILTER_WRITERS_CACHE_SIZE)
+            .build();
+
     public static ObjectMapper jacksonDefaultMapper() {
         return JACKSON_DEFAULT;
     }
@@ -107,20 +126,52 @@ public class CommonObjectMappers {
     }
 
     /**
-     * Serializes only the specified fields in Titus POJOs.
+     * Serializes only the specified fields in Titus POJOs. Each invocation creates a new copy of the original mapper,
+     * which must rebuild its serializer caches. Prefer {@link #applyFieldsFilterWriter(ObjectMapper, Collection)},
+     * which reuses pre-built writers.
      */
     public static ObjectMapper applyFieldsFilter(ObjectMapper original, Collection<String> fields) {
         Preconditions.checkArgument(!fields.isEmpty(), "Fields filter, with no field names provided");
 
-        PropertiesExt.PropertyNode<Boolean> rootNode = PropertiesExt.fullSplit(fields);
-        SimpleModule module = new SimpleModule() {
+        ObjectMapper newMapper = original.copy().registerModule(newTitusFilterModule());
+        newMapper.setFilterProvider(newFieldsFilterProvider(fields));
+        return newMapper;
+    }
+
+    /**
+     * Returns an {@link ObjectWriter} which serializes only the specified fields in Titus POJOs. The output is
+     * the same as the output of the mapper returned by {@link #applyFieldsFilter(ObjectMapper, Collection)}. The writers
+     * are cached by the original mapper and the field set, and all of them share a single copy of the original mapper,
+     * so the serializer caches are not rebuilt on each invocation. As the copy is made once, the original mapper
+     * must not be reconfigured after it is first used here.
+     */
+    public static ObjectWriter applyFieldsFilterWriter(ObjectMapper original, Collection<String> fields) {
+        Preconditions.checkArgument(!fields.isEmpty(), "Fields filter, with no field names provided");
+
+        Set<String> normalizedFields = new TreeSet<>(fields);
+        try {
+            return FIELDS_FILTER_WRITERS.get(
+                    Pair.of(original, normalizedFields),
+                    () -> FILTERING_MAPPERS.get(original, () -> original.copy().registerModule(newTitusFilterModule()))
+                            .writer(newFieldsFilterProvider(normalizedFields))
+            );
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Cannot create fields filter writer", e.getCause());
+        }
+    }
+
+    private static SimpleModule newTitusFilterModule() {
+        return new SimpleModule() {
             @Override
             public void setupModule(SetupContext context) {
                 super.setupModule(context);
                 context.appendAnnotationIntrospector(new TitusAnnotationIntrospector());
             }
         };
-        ObjectMapper newMapper = original.copy().registerModule(module);
+    }
+
+    private static FilterProvider newFieldsFilterProvider(Collection<String> fields) {
+        PropertiesExt.PropertyNode<Boolean> rootNode = PropertiesExt.fullSplit(fields);
 
         SimpleBeanPropertyFilter filter = new SimpleBeanPropertyFilter() {
 
@@ -176,8 +227,7 @@ public class CommonObjectMappers {
             }
         };
 
-        newMapper.setFilterProvider(new SimpleFilterProvider().addFilter("titusFilter", filter));
-        return newMapper;
+        return new SimpleFilterProvider().addFilter("titusFilter", filter);
     }
 
     private static class TitusAnnotationIntrospector extends AnnotationIntrospector {
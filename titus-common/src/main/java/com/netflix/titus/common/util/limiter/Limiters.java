@@ -25,6 +25,8 @@ import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.util.limiter.tokenbucket.FixedIntervalTokenBucketConfiguration;
 import com.netflix.titus.common.util.limiter.tokenbucket.RefillStrategy;
 import com.netflix.titus.common.util.limiter.tokenbucket.TokenBucket;
+import com.netflix.titus.common.util.limiter.tokenbucket.internal.AtomicFixedIntervalRefillStrategy;
+import com.netflix.titus.common.util.limiter.tokenbucket.internal.AtomicTokenBucket;
 import com.netflix.titus.common.util.limiter.tokenbucket.internal.DefaultTokenBucket;
 import com.netflix.titus.common.util.limiter.tokenbucket.internal.DynamicTokenBucketDelegate;
 import com.netflix.titus.common.util.limiter.tokenbucket.internal.FixedIntervalRefillStrategy;
@@ -48,6 +50,17 @@ public class Limiters {
         return tokenBucket;
     }
 
+    /**
+     * Functionally equivalent to {@link #createFixedIntervalTokenBucket(String, long, long, long, long, TimeUnit)},
+     * but lock free. Recommended for buckets shared by many concurrent callers.
+     */
+    public static TokenBucket createAtomicFixedIntervalTokenBucket(String name, long capacity, long initialNumberOfTokens,
+                                                                   long numberOfTokensPerInterval, long interval, TimeUnit unit) {
+        RefillStrategy refillStrategy = new AtomicFixedIntervalRefillStrategy(Stopwatch.createStarted(),
+                numberOfTokensPerInterval, interval, unit);
+        return new AtomicTokenBucket(name, capacity, refillStrategy, initialNumberOfTokens);
+    }
+
     /**
      * Create a {@link TokenBucket} with a fixed interval {@link RefillStrategy}. The token bucket configuration is
      * checked on each invocation, and the bucket is automatically recreated if it changes.
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.limiter.tokenbucket.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Stopwatch;
+import com.netflix.titus.common.util.DateTimeExt;
+import com.netflix.titus.common.util.limiter.tokenbucket.RefillStrategy;
+
+/**
+ * Lock free version of {@link FixedIntervalRefillStrategy}, with the same refill semantics. The last refill time is
+ * advanced with a CAS operation, so each elapsed interval is returned to exactly one caller.
+ */
+public class AtomicFixedIntervalRefillStrategy implements RefillStrategy {
+
+    private final Stopwatch stopwatch;
+    private final long numberOfTokensPerInterval;
+    private final long intervalInNanos;
+    private final String toStringValue;
+    private final AtomicLong lastRefillTime;
+
+    public AtomicFixedIntervalRefillStrategy(Stopwatch stopwatch, long numberOfTokensPerInterval, long interval, TimeUnit unit) {
+        this.stopwatch = stopwatch;
+        this.numberOfTokensPerInterval = numberOfTokensPerInterval;
+        this.intervalInNanos = unit.toNanos(interval);
+        this.toStringValue = "AtomicFixedIntervalRefillStrategy{refillRate=" + DateTimeExt.toRateString(interval, numberOfTokensPerInterval, unit, "refill") + '}';
+        this.lastRefillTime = new AtomicLong(-intervalInNanos);
+
+        if (!this.stopwatch.isRunning()) {
+            this.stopwatch.start();
+        }
+    }
+
+    @Override
+    public long refill() {
+        long elapsed = stopwatch.elapsed(TimeUnit.NANOSECONDS);
+        while (true) {
+            long last = lastRefillTime.get();
+            if (elapsed < last + intervalInNanos) {
+                return 0;
+            }
+            long numberOfIntervals = (elapsed - last) / intervalInNanos;
+            if (lastRefillTime.compareAndSet(last, last + numberOfIntervals * intervalInNanos)) {
+                return numberOfIntervals * numberOfTokensPerInterval;
+            }
+        }
+    }
+
+    @Override
+    public long getTimeUntilNextRefill(TimeUnit unit) {
+        long elapsed = stopwatch.elapsed(TimeUnit.NANOSECONDS);
+        return unit.convert(Math.max(0, lastRefillTime.get() + intervalInNanos - elapsed), TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public String toString() {
+        return toStringValue;
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.limiter.tokenbucket.internal;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Preconditions;
+import com.google.common.base.Strings;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.netflix.titus.common.util.limiter.tokenbucket.RefillStrategy;
+import com.netflix.titus.common.util.limiter.tokenbucket.TokenBucket;
+
+/**
+ * Lock free version of {@link DefaultTokenBucket}. The number of tokens is updated with CAS operations, so concurrent
+ * callers never block each other. To make the whole take path lock free, use it with a non blocking refill strategy,
+ * like {@link AtomicFixedIntervalRefillStrategy}.
+ */
+public class AtomicTokenBucket implements TokenBucket {
+
+    private final String name;
+    private final long capacity;
+    private final RefillStrategy refillStrategy;
+    private final AtomicLong numberOfTokens;
+
+    public AtomicTokenBucket(String name, long capacity, RefillStrategy refillStrategy, long initialNumberOfTokens) {
+        Preconditions.checkArgument(!Strings.isNullOrEmpty(name), "Name must not be null or empty.");
+        Preconditions.checkArgument(capacity > 0, "Capacity must be greater than 0.");
+        Preconditions.checkNotNull(refillStrategy);
+        Preconditions.checkArgument(initialNumberOfTokens >= 0, "Capacity must not be negative.");
+
+        this.name = name;
+        this.capacity = capacity;
+        this.refillStrategy = refillStrategy;
+        this.numberOfTokens = new AtomicLong(Math.min(capacity, initialNumberOfTokens));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public long getNumberOfTokens() {
+        refill(refillStrategy.refill());
+        return numberOfTokens.get();
+    }
+
+    @Override
+    public boolean tryTake() {
+        return tryTake(1);
+    }
+
+    @Override
+    public boolean tryTake(long numberOfTokens) {
+        Preconditions.checkArgument(numberOfTokens > 0, "Number of tokens must be greater than 0.");
+        Preconditions.checkArgument(numberOfTokens <= capacity, "Number of tokens must not be greater than the capacity.");
+
+        refill(refillStrategy.refill());
+
+        while (true) {
+            long current = this.numberOfTokens.get();
+            if (current < numberOfTokens) {
+                return false;
+            }
+            if (this.numberOfTokens.compareAndSet(current, current - numberOfTokens)) {
+                return true;
+            }
+        }
+    }
+
+    @Override
+    public void take() {
+        take(1);
+    }
+
+    @Override
+    public void take(long numberOfTokens) {
+        Preconditions.checkArgument(numberOfTokens > 0, "Number of tokens must be greater than 0.");
+        Preconditions.checkArgument(numberOfTokens <= capacity, "Number of tokens must not be greater than the capacity.");
+
+        while (true) {
+            if (tryTake(numberOfTokens)) {
+                break;
+            }
+            long timeUntilNextRefill = refillStrategy.getTimeUntilNextRefill(TimeUnit.NANOSECONDS);
+            if (timeUntilNextRefill > 0) {
+                Uninterruptibles.sleepUninterruptibly(timeUntilNextRefill, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    @Override
+    public void refill(long numberOfTokens) {
+        if (numberOfTokens == 0) {
+            return;
+        }
+        while (true) {
+            long current = this.numberOfTokens.get();
+            long next = Math.min(capacity, Math.max(0, current + numberOfTokens));
+            if (next == current || this.numberOfTokens.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public RefillStrategy getRefillStrategy() {
+        return refillStrategy;
+    }
+
+    @Override
+    public String toString() {
+        return "AtomicTokenBucket{" +
+                "name='" + name + '\'' +
+                ", capacity=" + capacity +
+                ", refillStrategy=" + refillStrategy +
+                ", numberOfTokens=" + numberOfTokens.get() +
+                '}';
+    }
+}
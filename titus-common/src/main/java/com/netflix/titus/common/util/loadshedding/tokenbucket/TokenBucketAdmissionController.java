@@ -79,7 +79,7 @@ public class TokenBucketAdmissionController implements AdmissionController {
     private static final int MAX_CACHE_SIZE = 10_000;
     private static final Duration CACHE_ITEM_TIMEOUT = Duration.ofSeconds(600);
 
-    private final List<TokenBucketConfiguration> tokenBucketConfigurations;
+    private final TokenBucketRuleMatcher ruleMatcher;
 
     /**
      * Bucket id consists of a caller id (or caller pattern), and endpoint pattern.
@@ -94,7 +94,7 @@ public class TokenBucketAdmissionController implements AdmissionController {
 
     public TokenBucketAdmissionController(List<TokenBucketConfiguration> tokenBucketConfigurations,
                                           TitusRuntime titusRuntime) {
-        this.tokenBucketConfigurations = tokenBucketConfigurations;
+        this.ruleMatcher = new TokenBucketRuleMatcher(tokenBucketConfigurations);
 
         this.bucketsById = Caches.instrumentedCacheWithMaxSize(
                 MAX_CACHE_SIZE,
@@ -124,10 +124,7 @@ public class TokenBucketAdmissionController implements AdmissionController {
             }
         }
 
-        TokenBucketConfiguration tokenBucketConfiguration = tokenBucketConfigurations.stream()
-                .filter(configuration -> matches(configuration, request))
-                .findFirst()
-                .orElse(null);
+        TokenBucketConfiguration tokenBucketConfiguration = findConfiguration(request);
 
         if (tokenBucketConfiguration == null) {
             return Optional.empty();
@@ -146,18 +143,12 @@ public class TokenBucketAdmissionController implements AdmissionController {
         return Optional.ofNullable(bucketsById.get(bucketId, i -> new TokenBucketInstance(effectiveCallerId, tokenBucketConfiguration)));
     }
 
-    private boolean matches(TokenBucketConfiguration configuration, AdmissionControllerRequest request) {
+    private TokenBucketConfiguration findConfiguration(AdmissionControllerRequest request) {
         try {
-            if (!configuration.getCallerPattern().matcher(request.getCallerId()).matches()) {
-                return false;
-            }
-            if (!configuration.getEndpointPattern().matcher(request.getEndpointName()).matches()) {
-                return false;
-            }
-            return true;
+            return ruleMatcher.findFirst(request.getCallerId(), request.getEndpointName());
         } catch (Exception e) {
             logger.warn("Unexpected error", e);
-            return false;
+            return null;
         }
     }
 
@@ -194,7 +185,7 @@ public class TokenBucketAdmissionController implements AdmissionController {
 
         private TokenBucketInstance(String effectiveCallerId, TokenBucketConfiguration configuration) {
             this.configuration = configuration;
-            this.tokenBucket = Limiters.createFixedIntervalTokenBucket(
+            this.tokenBucket = Limiters.createAtomicFixedIntervalTokenBucket(
                     configuration.getName(),
                     configuration.getCapacity(),
                     configuration.getCapacity(),
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.loadshedding.tokenbucket;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+/**
+ * Token bucket rules from {@link TokenBucketConfiguration} list, with the caller and endpoint patterns compiled into
+ * matchers. Most patterns in practice are either a match all ('.*'), an exact name, or a name prefix ('get.*'), and
+ * these are evaluated with plain string operations. The remaining patterns fall back to the regular expression
+ * matching. The rules are evaluated in the declaration order, the same way as before.
+ */
+class TokenBucketRuleMatcher {
+
+    private static final String ANY_SUFFIX = ".*";
+    private static final String REGEX_SPECIAL_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    private final List<CompiledRule> rules;
+
+    TokenBucketRuleMatcher(List<TokenBucketConfiguration> configurations) {
+        this.rules = new ArrayList<>(configurations.size());
+        for (TokenBucketConfiguration configuration : configurations) {
+            rules.add(new CompiledRule(configuration));
+        }
+    }
+
+    /**
+     * Returns the first configuration matching the caller id and endpoint name, or null if there is none.
+     */
+    TokenBucketConfiguration findFirst(String callerId, String endpointName) {
+        for (CompiledRule rule : rules) {
+            if (rule.callerMatcher.test(callerId) && rule.endpointMatcher.test(endpointName)) {
+                return rule.configuration;
+            }
+        }
+        return null;
+    }
+
+    static Predicate<String> compile(String patternString, Pattern pattern) {
+        if (ANY_SUFFIX.equals(patternString)) {
+            return TokenBucketRuleMatcher::hasNoLineTerminator;
+        }
+        if (isLiteral(patternString)) {
+            return patternString::equals;
+        }
+        if (patternString.endsWith(ANY_SUFFIX)) {
+            String prefix = patternString.substring(0, patternString.length() - ANY_SUFFIX.length());
+            if (isLiteral(prefix)) {
+                return value -> value.startsWith(prefix) && hasNoLineTerminator(value, prefix.length());
+            }
+        }
+        return value -> pattern.matcher(value).matches();
+    }
+
+    private static boolean isLiteral(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (REGEX_SPECIAL_CHARACTERS.indexOf(value.charAt(i)) >= 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasNoLineTerminator(String value) {
+        return hasNoLineTerminator(value, 0);
+    }
+
+    /**
+     * Without the DOTALL flag, '.' in a regular expression does not match line terminators, so the fast paths must
+     * reject them as well.
+     */
+    private static boolean hasNoLineTerminator(String value, int from) {
+        for (int i = from; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static class CompiledRule {
+
+        private final TokenBucketConfiguration configuration;
+        private final Predicate<String> callerMatcher;
+        private final Predicate<String> endpointMatcher;
+
+        private CompiledRule(TokenBucketConfiguration configuration) {
+            this.configuration = configuration;
+            this.callerMatcher = compile(configuration.getCallerPatternString(), configuration.getCallerPattern());
+            this.endpointMatcher = compile(configuration.getEndpointPatternString(), configuration.getEndpointPattern());
+        }
+    }
+}
@@ -53,10 +53,25 @@ public final class ProxyCatalog {
                                                                        INSTANCE instance,
                                                                        TitusRuntime titusRuntime,
                                                                        boolean followObservableResults) {
+        return createSpectatorProxy(instanceName, apiInterface, instance, titusRuntime, followObservableResults, false);
+    }
+
+    /**
+     * Spectator proxy, which optionally records method execution times with percentile timers.
+     */
+    public static <API, INSTANCE extends API> API createSpectatorProxy(String instanceName,
+                                                                       Class<API> apiInterface,
+                                                                       INSTANCE instance,
+                                                                       TitusRuntime titusRuntime,
+                                                                       boolean followObservableResults,
+                                                                       boolean percentileTimers) {
         return (API) Proxy.newProxyInstance(
                 apiInterface.getClassLoader(),
                 new Class<?>[]{apiInterface},
-                new InvocationHandlerBridge<>(new SpectatorInvocationHandler<>(instanceName, apiInterface, titusRuntime, followObservableResults), instance)
+                new InvocationHandlerBridge<>(
+                        new SpectatorInvocationHandler<>(instanceName, apiInterface, titusRuntime, followObservableResults, percentileTimers),
+                        instance
+                )
         );
     }
 
@@ -20,13 +20,18 @@ import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import com.netflix.spectator.api.BasicTag;
+import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spectator.api.Tag;
+import com.netflix.spectator.api.Timer;
+import com.netflix.spectator.api.histogram.PercentileTimer;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.util.time.Clock;
 import reactor.core.Disposable;
@@ -58,17 +63,38 @@ public class SpectatorInvocationHandler<API, NATIVE> extends InterceptingInvocat
 
     private final Registry registry;
     private final Clock clock;
+    private final boolean percentileTimers;
 
     private final List<Tag> commonTags;
 
+    /**
+     * Metrics of all interface methods are created upfront. The map is updated only if the handler is called
+     * with a method not found in the interface.
+     */
+    private final ConcurrentMap<Method, MethodMetrics> methodMetrics = new ConcurrentHashMap<>();
+
     public SpectatorInvocationHandler(String instanceName, Class<API> apiInterface, TitusRuntime titusRuntime, boolean followObservableResults) {
+        this(instanceName, apiInterface, titusRuntime, followObservableResults, false);
+    }
+
+    /**
+     * @param percentileTimers if true, execution times are recorded with percentile timers, which provide latency
+     *                         distribution at the cost of a larger number of time series per method
+     */
+    public SpectatorInvocationHandler(String instanceName,
+                                      Class<API> apiInterface,
+                                      TitusRuntime titusRuntime,
+                                      boolean followObservableResults,
+                                      boolean percentileTimers) {
         super(apiInterface, followObservableResults);
         this.registry = titusRuntime.getRegistry();
         this.clock = titusRuntime.getClock();
+        this.percentileTimers = percentileTimers;
         this.commonTags = asList(
                 new BasicTag("instance", instanceName),
                 new BasicTag("class", apiInterface.getName())
         );
+        getIncludedMethods().forEach(method -> methodMetrics.put(method, new MethodMetrics(method)));
     }
 
     @Override
@@ -78,89 +104,52 @@ public class SpectatorInvocationHandler<API, NATIVE> extends InterceptingInvocat
 
     @Override
     protected void after(Method method, Object result, Long startTime) {
-        registry.counter(
-                INVOCATION_COUNTER_METRIC_NAME,
-                tags(
-                        "method", method.getName(),
-                        "status", "success"
-                )
-        ).increment();
+        MethodMetrics metrics = getMethodMetrics(method);
+        metrics.successCounter.increment();
 
-        reportExecutionTime(method, startTime, TAG_STATUS_SUCCESS, TAG_CALL_STAGE_ON_METHOD_EXIT);
+        long executionTime = clock.wallTime() - startTime;
+        metrics.successOnMethodExitTimer.record(executionTime, TimeUnit.MILLISECONDS);
 
         if (!isAsynchronous(result)) {
-            reportExecutionTime(method, startTime, TAG_STATUS_SUCCESS, TAG_CALL_STAGE_ON_COMPLETED);
+            metrics.successOnCompletedTimer.record(executionTime, TimeUnit.MILLISECONDS);
         }
     }
 
     @Override
     protected void afterException(Method method, Throwable error, Long startTime) {
-        registry.counter(
-                INVOCATION_COUNTER_METRIC_NAME,
-                tags(
-                        "method", method.getName(),
-                        "status", "error",
-                        "exception", getExceptionName(error)
-                )
-        ).increment();
-
-        reportExecutionTime(method, startTime, TAG_STATUS_ERROR, TAG_CALL_STAGE_ON_METHOD_EXIT);
+        MethodMetrics metrics = getMethodMetrics(method);
+        metrics.getErrorCounter(getExceptionName(error)).increment();
+
+        metrics.errorOnMethodExitTimer.record(clock.wallTime() - startTime, TimeUnit.MILLISECONDS);
     }
 
     @Override
     protected Observable<Object> afterObservable(Method method, Observable<Object> result, Long startTime) {
+        MethodMetrics metrics = getMethodMetrics(method);
         long methodExitTime = clock.wallTime();
 
         return Observable.unsafeCreate(subscriber -> {
             long subscriptionTime = clock.wallTime();
 
-            registry.counter(
-                    RESULT_SUBSCRIPTION_COUNT_METRIC_NAME,
-                    tags(
-                            "method", method.getName(),
-                            "subscriptionStage", "subscribed"
-                    )
-            ).increment();
-            reportSubscriptionExecutionTime(method, methodExitTime, subscriptionTime);
+            metrics.subscribedCounter.increment();
+            metrics.subscriptionTimer.record(subscriptionTime - methodExitTime, TimeUnit.MILLISECONDS);
 
             Subscription subscription = result.doOnUnsubscribe(() -> {
-                registry.counter(
-                        RESULT_SUBSCRIPTION_COUNT_METRIC_NAME,
-                        tags(
-                                "method", method.getName(),
-                                "subscriptionStage", "unsubscribed"
-                        )
-                ).increment();
+                metrics.unsubscribedCounter.increment();
             }).subscribe(
                     next -> {
-                        registry.counter(
-                                RESULT_SUBSCRIPTION_EMITS_METRIC_NAME,
-                                tags("method", method.getName())
-                        ).increment();
+                        metrics.emitsCounter.increment();
                         subscriber.onNext(next);
                     },
                     error -> {
-                        registry.counter(
-                                RESULT_SUBSCRIPTION_COUNT_METRIC_NAME,
-                                tags(
-                                        "method", method.getName(),
-                                        "subscriptionStage", "onError",
-                                        "exception", getExceptionName(error)
-                                )
-                        ).increment();
-                        reportExecutionTime(method, subscriptionTime, TAG_STATUS_ERROR, TAG_CALL_STAGE_ON_COMPLETED);
+                        metrics.getSubscriptionErrorCounter(getExceptionName(error)).increment();
+                        record(metrics.errorOnCompletedTimer, subscriptionTime);
 
                         subscriber.onError(error);
                     },
                     () -> {
-                        registry.counter(
-                                RESULT_SUBSCRIPTION_COUNT_METRIC_NAME,
-                                tags(
-                                        "method", method.getName(),
-                                        "subscriptionStage", "onCompleted"
-                                )
-                        ).increment();
-                        reportExecutionTime(method, subscriptionTime, TAG_STATUS_SUCCESS, TAG_CALL_STAGE_ON_COMPLETED);
+                        metrics.onCompletedCounter.increment();
+                        record(metrics.successOnCompletedTimer, subscriptionTime);
 
                         subscriber.onCompleted();
                     }
@@ -172,58 +161,31 @@ public class SpectatorInvocationHandler<API, NATIVE> extends InterceptingInvocat
 
     @Override
     protected Flux<Object> afterFlux(Method method, Flux<Object> result, Long startTime) {
+        MethodMetrics metrics = getMethodMetrics(method);
         long methodExitTime = clock.wallTime();
 
         return Flux.create(emitter -> {
             long subscriptionTime = clock.wallTime();
 
-            registry.counter(
-                    RESULT_SUBSCRIPTION_COUNT_METRIC_NAME,
-                    tags(
-                            "method", method.getName(),
-                            "subscriptionStage", "subscribed"
-                    )
-            ).increment();
-            reportSubscriptionExecutionTime(method, methodExitTime, subscriptionTime);
+            metrics.subscribedCounter.increment();
+            metrics.subscriptionTimer.record(subscriptionTime - methodExitTime, TimeUnit.MILLISECONDS);
 
             Disposable subscription = result.doOnCancel(() -> {
-                registry.counter(
-                        RESULT_SUBSCRIPTION_COUNT_METRIC_NAME,
-                        tags(
-                                "method", method.getName(),
-                                "subscriptionStage", "unsubscribed"
-                        )
-                ).increment();
+                metrics.unsubscribedCounter.increment();
             }).subscribe(
                     next -> {
-                        registry.counter(
-                                RESULT_SUBSCRIPTION_EMITS_METRIC_NAME,
-                                tags("method", method.getName())
-                        ).increment();
+                        metrics.emitsCounter.increment();
                         emitter.next(next);
                     },
                     error -> {
-                        registry.counter(
-                                RESULT_SUBSCRIPTION_COUNT_METRIC_NAME,
-                                tags(
-                                        "method", method.getName(),
-                                        "subscriptionStage", "onError",
-                                        "exception", getExceptionName(error)
-                                )
-                        ).increment();
-                        reportExecutionTime(method, subscriptionTime, TAG_STATUS_ERROR, TAG_CALL_STAGE_ON_COMPLETED);
+                        metrics.getSubscriptionErrorCounter(getExceptionName(error)).increment();
+                        record(metrics.errorOnCompletedTimer, subscriptionTime);
 
                         emitter.error(error);
                     },
                     () -> {
-                        registry.counter(
-                                RESULT_SUBSCRIPTION_COUNT_METRIC_NAME,
-                                tags(
-                                        "method", method.getName(),
-                                        "subscriptionStage", "onCompleted"
-                                )
-                        ).increment();
-                        reportExecutionTime(method, subscriptionTime, TAG_STATUS_SUCCESS, TAG_CALL_STAGE_ON_COMPLETED);
+                        metrics.onCompletedCounter.increment();
+                        record(metrics.successOnCompletedTimer, subscriptionTime);
 
                         emitter.complete();
                     }
@@ -235,52 +197,28 @@ public class SpectatorInvocationHandler<API, NATIVE> extends InterceptingInvocat
 
     @Override
     protected Completable afterCompletable(Method method, Completable result, Long aLong) {
+        MethodMetrics metrics = getMethodMetrics(method);
         long methodExitTime = clock.wallTime();
 
         return Completable.create(subscriber -> {
             long subscriptionTime = clock.wallTime();
 
-            registry.counter(
-                    RESULT_SUBSCRIPTION_COUNT_METRIC_NAME,
-                    tags(
-                            "method", method.getName(),
-                            "subscriptionStage", "subscribed"
-                    )
-            ).increment();
-            reportSubscriptionExecutionTime(method, methodExitTime, subscriptionTime);
+            metrics.subscribedCounter.increment();
+            metrics.subscriptionTimer.record(subscriptionTime - methodExitTime, TimeUnit.MILLISECONDS);
 
             Subscription subscription = result
                     .doOnUnsubscribe(() -> {
-                        registry.counter(
-                                RESULT_SUBSCRIPTION_COUNT_METRIC_NAME,
-                                tags(
-                                        "method", method.getName(),
-                                        "subscriptionStage", "unsubscribed"
-                                )
-                        ).increment();
+                        metrics.unsubscribedCounter.increment();
                     }).subscribe(
                             () -> {
-                                registry.counter(
-                                        RESULT_SUBSCRIPTION_COUNT_METRIC_NAME,
-                                        tags(
-                                                "method", method.getName(),
-                                                "subscriptionStage", "onCompleted"
-                                        )
-                                ).increment();
-                                reportExecutionTime(method, subscriptionTime, TAG_STATUS_SUCCESS, TAG_CALL_STAGE_ON_COMPLETED);
+                                metrics.onCompletedCounter.increment();
+                                record(metrics.successOnCompletedTimer, subscriptionTime);
 
                                 subscriber.onCompleted();
                             },
                             error -> {
-                                registry.counter(
-                                        RESULT_SUBSCRIPTION_COUNT_METRIC_NAME,
-                                        tags(
-                                                "method", method.getName(),
-                                                "subscriptionStage", "onError",
-                                                "exception", getExceptionName(error)
-                                        )
-                                ).increment();
-                                reportExecutionTime(method, subscriptionTime, TAG_STATUS_ERROR, TAG_CALL_STAGE_ON_COMPLETED);
+                                metrics.getSubscriptionErrorCounter(getExceptionName(error)).increment();
+                                record(metrics.errorOnCompletedTimer, subscriptionTime);
 
                                 subscriber.onError(error);
                             }
@@ -292,69 +230,37 @@ public class SpectatorInvocationHandler<API, NATIVE> extends InterceptingInvocat
 
     @Override
     protected Mono<Object> afterMono(Method method, Mono<Object> result, Long aLong) {
+        MethodMetrics metrics = getMethodMetrics(method);
         long methodExitTime = clock.wallTime();
 
         return Mono.create(sink -> {
             long subscriptionTime = clock.wallTime();
 
-            registry.counter(
-                    RESULT_SUBSCRIPTION_COUNT_METRIC_NAME,
-                    tags(
-                            "method", method.getName(),
-                            "subscriptionStage", "subscribed"
-                    )
-            ).increment();
-            reportSubscriptionExecutionTime(method, methodExitTime, subscriptionTime);
+            metrics.subscribedCounter.increment();
+            metrics.subscriptionTimer.record(subscriptionTime - methodExitTime, TimeUnit.MILLISECONDS);
 
             AtomicBoolean emittedValue = new AtomicBoolean();
             Disposable subscription = result
                     .doOnCancel(() -> {
-                        registry.counter(
-                                RESULT_SUBSCRIPTION_COUNT_METRIC_NAME,
-                                tags(
-                                        "method", method.getName(),
-                                        "subscriptionStage", "unsubscribed"
-                                )
-                        ).increment();
+                        metrics.unsubscribedCounter.increment();
                     }).subscribe(
                             next -> {
                                 emittedValue.set(true);
-                                registry.counter(
-                                        RESULT_SUBSCRIPTION_COUNT_METRIC_NAME,
-                                        tags(
-                                                "method", method.getName(),
-                                                "subscriptionStage", "onSuccess",
-                                                "monoWithValue", "true"
-                                        )
-                                ).increment();
-                                reportExecutionTime(method, subscriptionTime, TAG_STATUS_SUCCESS, TAG_CALL_STAGE_ON_MONO_SUCCESS);
+                                metrics.monoWithValueCounter.increment();
+                                record(metrics.successOnMonoSuccessTimer, subscriptionTime);
 
                                 sink.success(next);
                             },
                             error -> {
-                                registry.counter(
-                                        RESULT_SUBSCRIPTION_COUNT_METRIC_NAME,
-                                        tags(
-                                                "method", method.getName(),
-                                                "subscriptionStage", "onError",
-                                                "exception", getExceptionName(error)
-                                        )
-                                ).increment();
-                                reportExecutionTime(method, subscriptionTime, TAG_STATUS_ERROR, TAG_CALL_STAGE_ON_MONO_SUCCESS);
+                                metrics.getSubscriptionErrorCounter(getExceptionName(error)).increment();
+                                record(metrics.errorOnMonoSuccessTimer, subscriptionTime);
 
                                 sink.error(error);
                             },
                             () -> {
                                 if (!emittedValue.get()) {
-                                    registry.counter(
-                                            RESULT_SUBSCRIPTION_COUNT_METRIC_NAME,
-                                            tags(
-                                                    "method", method.getName(),
-                                                    "subscriptionStage", "onSuccess",
-                                                    "monoWithValue", "false"
-                                            )
-                                    ).increment();
-                                    reportExecutionTime(method, subscriptionTime, TAG_STATUS_SUCCESS, TAG_CALL_STAGE_ON_MONO_SUCCESS);
+                                    metrics.monoWithoutValueCounter.increment();
+                                    record(metrics.successOnMonoSuccessTimer, subscriptionTime);
 
                                     sink.success();
                                 }
@@ -365,18 +271,13 @@ public class SpectatorInvocationHandler<API, NATIVE> extends InterceptingInvocat
         });
     }
 
-    private void reportExecutionTime(Method method, Long startTime, Tag... tags) {
-        Id id = registry.createId(INVOCATION_TIME_METRIC_NAME,
-                tags("method", method.getName())
-        ).withTags(tags);
-        registry.timer(id).record(clock.wallTime() - startTime, TimeUnit.MILLISECONDS);
+    private MethodMetrics getMethodMetrics(Method method) {
+        MethodMetrics metrics = methodMetrics.get(method);
+        return metrics != null ? metrics : methodMetrics.computeIfAbsent(method, MethodMetrics::new);
     }
 
-    private void reportSubscriptionExecutionTime(Method method, Long startTime, long endTime) {
-        registry.timer(
-                RESULT_SUBSCRIPTION_TIME_METRIC_NAME,
-                tags("method", method.getName())
-        ).record(endTime - startTime, TimeUnit.MILLISECONDS);
+    private void record(Timer timer, long startTime) {
+        timer.record(clock.wallTime() - startTime, TimeUnit.MILLISECONDS);
     }
 
     private boolean isAsynchronous(Object result) {
@@ -397,4 +298,77 @@ public class SpectatorInvocationHandler<API, NATIVE> extends InterceptingInvocat
         }
         return result;
     }
+
+    private class MethodMetrics {
+
+        private final String methodName;
+
+        private final Counter successCounter;
+        private final ConcurrentMap<String, Counter> errorCounters = new ConcurrentHashMap<>();
+
+        private final Timer successOnMethodExitTimer;
+        private final Timer successOnCompletedTimer;
+        private final Timer successOnMonoSuccessTimer;
+        private final Timer errorOnMethodExitTimer;
+        private final Timer errorOnCompletedTimer;
+        private final Timer errorOnMonoSuccessTimer;
+
+        private final Counter subscribedCounter;
+        private final Counter unsubscribedCounter;
+        private final Counter onCompletedCounter;
+        private final Counter monoWithValueCounter;
+        private final Counter monoWithoutValueCounter;
+        private final ConcurrentMap<String, Counter> subscriptionErrorCounters = new ConcurrentHashMap<>();
+        private final Counter emitsCounter;
+        private final Timer subscriptionTimer;
+
+        private MethodMetrics(Method method) {
+            this.methodName = method.getName();
+
+            this.successCounter = registry.counter(INVOCATION_COUNTER_METRIC_NAME, tags("method", methodName, "status", "success"));
+
+            Id executionTimeId = registry.createId(INVOCATION_TIME_METRIC_NAME, tags("method", methodName));
+            this.successOnMethodExitTimer = newTimer(executionTimeId.withTags(TAG_STATUS_SUCCESS, TAG_CALL_STAGE_ON_METHOD_EXIT));
+            this.successOnCompletedTimer = newTimer(executionTimeId.withTags(TAG_STATUS_SUCCESS, TAG_CALL_STAGE_ON_COMPLETED));
+            this.successOnMonoSuccessTimer = newTimer(executionTimeId.withTags(TAG_STATUS_SUCCESS, TAG_CALL_STAGE_ON_MONO_SUCCESS));
+            this.errorOnMethodExitTimer = newTimer(executionTimeId.withTags(TAG_STATUS_ERROR, TAG_CALL_STAGE_ON_METHOD_EXIT));
+            this.errorOnCompletedTimer = newTimer(executionTimeId.withTags(TAG_STATUS_ERROR, TAG_CALL_STAGE_ON_COMPLETED));
+            this.errorOnMonoSuccessTimer = newTimer(executionTimeId.withTags(TAG_STATUS_ERROR, TAG_CALL_STAGE_ON_MONO_SUCCESS));
+
+            this.subscribedCounter = newSubscriptionCounter("subscriptionStage", "subscribed");
+            this.unsubscribedCounter = newSubscriptionCounter("subscriptionStage", "unsubscribed");
+            this.onCompletedCounter = newSubscriptionCounter("subscriptionStage", "onCompleted");
+            this.monoWithValueCounter = newSubscriptionCounter("subscriptionStage", "onSuccess", "monoWithValue", "true");
+            this.monoWithoutValueCounter = newSubscriptionCounter("subscriptionStage", "onSuccess", "monoWithValue", "false");
+            this.emitsCounter = registry.counter(RESULT_SUBSCRIPTION_EMITS_METRIC_NAME, tags("method", methodName));
+            this.subscriptionTimer = newTimer(registry.createId(RESULT_SUBSCRIPTION_TIME_METRIC_NAME, tags("method", methodName)));
+        }
+
+        private Counter getErrorCounter(String exceptionName) {
+            Counter counter = errorCounters.get(exceptionName);
+            return counter != null ? counter : errorCounters.computeIfAbsent(exceptionName, name -> registry.counter(
+                    INVOCATION_COUNTER_METRIC_NAME,
+                    tags("method", methodName, "status", "error", "exception", name)
+            ));
+        }
+
+        private Counter getSubscriptionErrorCounter(String exceptionName) {
+            Counter counter = subscriptionErrorCounters.get(exceptionName);
+            return counter != null ? counter : subscriptionErrorCounters.computeIfAbsent(exceptionName, name ->
+                    newSubscriptionCounter("subscriptionStage", "onError", "exception", name)
+            );
+        }
+
+        private Counter newSubscriptionCounter(String... tagValues) {
+            String[] allTagValues = new String[tagValues.length + 2];
+            allTagValues[0] = "method";
+            allTagValues[1] = methodName;
+            System.arraycopy(tagValues, 0, allTagValues, 2, tagValues.length);
+            return registry.counter(RESULT_SUBSCRIPTION_COUNT_METRIC_NAME, tags(allTagValues));
+        }
+
+        private Timer newTimer(Id id) {
+            return percentileTimers ? PercentileTimer.get(registry, id) : registry.timer(id);
+        }
+    }
 }
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.rx.eventbus.internal;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Bounded, lock-free ring buffer, based on the Dmitry Vyukov's array queue algorithm. Each slot has a sequence number,
+ * which tells if the slot is free for the producer at a given position, or ready for the consumer. Producers
+ * and consumers contend only on the tail and head counters respectively.
+ * <p>
+ * The event bus has a single consumer (the drain loop), but with the drop-oldest overflow policy producers remove
+ * elements as well, so {@link #poll()} is safe to call concurrently.
+ */
+class RingBuffer<T> {
+
+    private final int limit;
+    private final int mask;
+    private final AtomicReferenceArray<T> buffer;
+    private final AtomicLongArray sequences;
+
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * @param limit maximum number of elements in the buffer
+     */
+    RingBuffer(int limit) {
+        Preconditions.checkArgument(limit > 0, "Ring buffer limit must be > 0: %s", limit);
+        this.limit = limit;
+
+        // The algorithm requires at least two slots, and a power of two size for the index mask.
+        int capacity = Math.max(2, Integer.highestOneBit(limit - 1) << 1);
+        this.mask = capacity - 1;
+        this.buffer = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Adds an element to the buffer. Returns false if the buffer is full.
+     */
+    boolean offer(T value) {
+        for (; ; ) {
+            long position = tail.get();
+            if (position - head.get() >= limit) {
+                return false;
+            }
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    buffer.lazySet(index, value);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+            } else if (difference < 0) {
+                return false;
+            }
+            // Another producer took this position, try again.
+        }
+    }
+
+    /**
+     * Removes the oldest element from the buffer, or returns null if the buffer is empty.
+     */
+    T poll() {
+        for (; ; ) {
+            long position = head.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - (position + 1);
+            if (difference == 0) {
+                if (head.compareAndSet(position, position + 1)) {
+                    T value = buffer.get(index);
+                    buffer.lazySet(index, null);
+                    sequences.set(index, position + mask + 1);
+                    return value;
+                }
+            } else if (difference < 0) {
+                return null;
+            }
+            // Another consumer took this position, try again.
+        }
+    }
+
+    boolean isEmpty() {
+        return size() == 0;
+    }
+
+    int size() {
+        // Read head first, so the result is never negative.
+        long currentHead = head.get();
+        long currentTail = tail.get();
+        return (int) Math.max(0, Math.min(limit, currentTail - currentHead));
+    }
+}
@@ -69,12 +69,20 @@ class RxEventBusMetrics {
         }
     }
 
+    void dropped(String subscriberId, long queueSize) {
+        SubscriberMetrics metrics = this.subscriberMetrics.get(subscriberId);
+        if (metrics != null) { // Should always be non-null
+            metrics.dropped(queueSize);
+        }
+    }
+
     private class SubscriberMetrics {
         private final Id eventCounterId;
 
         private final AtomicLong queueSizeGauge;
         private final AtomicLong latencyGauge;
         private final AtomicLong overflowGauge;
+        private final Counter droppedCounter;
         private final ConcurrentMap<Class<?>, Counter> eventCounters = new ConcurrentHashMap<>();
 
         SubscriberMetrics(String subscriberId) {
@@ -84,6 +92,7 @@ class RxEventBusMetrics {
             this.queueSizeGauge = registry.gauge(idFor(myId, "queueSize"), new AtomicLong());
             this.latencyGauge = registry.gauge(idFor(myId, "latency"), new AtomicLong());
             this.overflowGauge = registry.gauge(idFor(myId, "overflow"), new AtomicLong());
+            this.droppedCounter = registry.counter(idFor(myId, "dropped"));
         }
 
         private Id idFor(Id myId, String suffix) {
@@ -109,5 +118,10 @@ class RxEventBusMetrics {
         void overflowed() {
             overflowGauge.set(1);
         }
+
+        void dropped(long queueSize) {
+            queueSizeGauge.set(queueSize);
+            droppedCounter.increment();
+        }
     }
 }
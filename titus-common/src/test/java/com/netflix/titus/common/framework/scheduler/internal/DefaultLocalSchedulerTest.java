@@ -162,6 +162,50 @@ public class DefaultLocalSchedulerTest {
         expectScheduleUpdateEvent(SchedulingState.Succeeded);
     }
 
+    @Test(timeout = 60_000)
+    public void testWorkerPool() throws Exception {
+        DefaultRegistry registry = new DefaultRegistry();
+        DefaultLocalScheduler pooledScheduler = new DefaultLocalScheduler(Duration.ofMillis(1), 2, Schedulers.parallel(), Clocks.system(), registry);
+        try {
+            // Slow action occupies one worker thread, but must never run concurrently with itself.
+            AtomicInteger slowRunning = new AtomicInteger();
+            AtomicInteger slowOverlaps = new AtomicInteger();
+            AtomicLong slowCounter = new AtomicLong();
+            pooledScheduler.schedule(
+                    scheduleDescriptor.toBuilder().withName("slow").withTimeout(Duration.ofSeconds(5)).build(),
+                    context -> {
+                        if (slowRunning.incrementAndGet() > 1) {
+                            slowOverlaps.incrementAndGet();
+                        }
+                        try {
+                            Thread.sleep(50);
+                        } catch (InterruptedException ignore) {
+                        } finally {
+                            slowRunning.decrementAndGet();
+                            slowCounter.incrementAndGet();
+                        }
+                    },
+                    false
+            );
+
+            AtomicLong fastCounter = new AtomicLong();
+            pooledScheduler.schedule(
+                    scheduleDescriptor.toBuilder().withName("fast").build(),
+                    context -> {
+                        assertThat(Thread.currentThread().getName()).startsWith("LocalScheduler-worker-");
+                        fastCounter.incrementAndGet();
+                    },
+                    false
+            );
+
+            await().atMost(30, TimeUnit.SECONDS).until(() -> slowCounter.get() >= 5 && fastCounter.get() > slowCounter.get());
+            assertThat(slowOverlaps.get()).isEqualTo(0);
+            assertThat(registry.timer(ScheduleMetrics.ROOT_NAME + "startDelay", "scheduleName", "fast").count()).isGreaterThan(0);
+        } finally {
+            pooledScheduler.shutdown();
+        }
+    }
+
     private void expectScheduleAdded(ScheduleReference reference) throws InterruptedException {
         assertThat(reference.isClosed()).isFalse();
 
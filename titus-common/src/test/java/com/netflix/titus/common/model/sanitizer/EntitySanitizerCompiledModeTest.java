@@ -0,0 +1,86 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.common.model.sanitizer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import static com.netflix.titus.common.util.ReflectionExt.isStandardDataType;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SpEL expressions are evaluated in the mixed mode, and are compiled after a number of interpreted evaluations.
+ * This test checks that the validation and sanitization results do not change once the expressions are compiled.
+ */
+public class EntitySanitizerCompiledModeTest {
+
+    private static final int ITERATIONS = 500;
+
+    private static final List<Object> CORPUS = Arrays.asList(
+            new TestModel.Root(null, new TestModel.Child(null, -2, 1), new TestModel.NullableChild(null)),
+            new TestModel.Root("root1", new TestModel.Child("child1", 0, 2), new TestModel.NullableChild("child2")),
+            new TestModel.Root("Root1", new TestModel.Child("Child1", 3, 2), new TestModel.NullableChild("Child2")),
+            new TestModel.Root("Root1", new TestModel.Child("Child1", 20, 1), new TestModel.NullableChild("Child2")),
+            new TestModel.Root("Root1", new TestModel.Child("Child1", 5, 25), new TestModel.NullableChild("Child2")),
+            new TestModel.Root("Root1", new TestModel.Child("Child1", 2, 150), new TestModel.NullableChild(null)),
+            new TestModel.Child("child1", 1, 2),
+            new TestModel.Child("", -1, 300),
+            new TestModel.StringWithPrefixCheck("testXXX"),
+            new TestModel.StringWithPrefixCheck(null)
+    );
+
+    @Test
+    public void testCompiledExpressionsProduceSameResults() {
+        List<Set<String>> expectedViolations = CORPUS.stream()
+                .map(entity -> toStrings(newSanitizer().validate(entity)))
+                .collect(Collectors.toList());
+        EntitySanitizer referenceSanitizer = newSanitizer();
+        List<Optional<Set<String>>> expectedSanitizedViolations = CORPUS.stream()
+                .map(entity -> newSanitizer().sanitize(entity).map(sanitized -> toStrings(referenceSanitizer.validate(sanitized))))
+                .collect(Collectors.toList());
+
+        EntitySanitizer sanitizer = newSanitizer();
+        for (int i = 0; i < ITERATIONS; i++) {
+            for (int j = 0; j < CORPUS.size(); j++) {
+                Object entity = CORPUS.get(j);
+                assertThat(toStrings(sanitizer.validate(entity))).describedAs("iteration %s, entity %s", i, j).isEqualTo(expectedViolations.get(j));
+
+                Optional<Set<String>> sanitizedViolations = sanitizer.sanitize(entity).map(sanitized -> toStrings(sanitizer.validate(sanitized)));
+                assertThat(sanitizedViolations).describedAs("iteration %s, entity %s", i, j).isEqualTo(expectedSanitizedViolations.get(j));
+            }
+        }
+    }
+
+    private static EntitySanitizer newSanitizer() {
+        return EntitySanitizerBuilder.stdBuilder()
+                .processEntities(type -> !isStandardDataType(type))
+                .addTemplateResolver(path -> path.equals("child.childName") ? Optional.of("GuestChild") : Optional.empty())
+                .registerFunction("fit", TestModel.getFitMethod())
+                .registerBean("myObj", new TestModel.SampleValidationMethods("test"))
+                .build();
+    }
+
+    private static Set<String> toStrings(Set<ValidationError> violations) {
+        return violations.stream().map(v -> v.getField() + ": " + v.getDescription()).collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import com.google.protobuf.Descriptors;
+import com.google.protobuf.Descriptors.FieldDescriptor;
+import com.google.protobuf.DynamicMessage;
+import com.google.protobuf.Message;
+import com.google.protobuf.UnknownFieldSet;
+import org.junit.Test;
+
+import static com.netflix.titus.common.util.CollectionsExt.asSet;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ProtobufProjectorTest {
+
+    private static final int ITERATIONS = 5_000;
+
+    private static final List<String> FIELD_NAMES = Arrays.asList(
+            "objectField",
+            "primitiveField",
+            "objectArrayField",
+            "objectField.stringField1",
+            "objectField.stringField2",
+            "objectField.missingField",
+            "objectArrayField.stringField1",
+            "objectArrayField.stringField2",
+            "primitiveField.nested",
+            "missingField",
+            "missingField.nested"
+    );
+
+    private static final Descriptors.Descriptor INNER_TYPE = ProtoMessageBuilder.newInner("a", "b").getDescriptorForType();
+    private static final Descriptors.Descriptor OUTER_TYPE = ProtoMessageBuilder.newOuter(ProtoMessageBuilder.newInner("a", "b"), 1).getDescriptorForType();
+
+    private final Random random = new Random(123);
+
+    @Test
+    public void testEquivalenceWithCopy() {
+        for (int i = 0; i < ITERATIONS; i++) {
+            Message message = newRandomOuter();
+            Set<String> fields = newRandomFieldSet();
+
+            Message expected = ProtobufExt.copy(message, fields);
+            Message actual = ProtobufProjector.of(OUTER_TYPE, fields).project(message);
+
+            assertThat(actual).describedAs("fields=%s, message=%s", fields, message).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testUnknownFieldsArePreserved() {
+        UnknownFieldSet unknownFields = UnknownFieldSet.newBuilder()
+                .addField(100, UnknownFieldSet.Field.newBuilder().addVarint(1).build())
+                .build();
+        Message message = newRandomOuter().toBuilder().setUnknownFields(unknownFields).build();
+
+        Message projected = ProtobufProjector.of(OUTER_TYPE, asSet("primitiveField")).project(message);
+        assertThat(projected).isEqualTo(ProtobufExt.copy(message, asSet("primitiveField")));
+        assertThat(projected.getUnknownFields()).isEqualTo(unknownFields);
+    }
+
+    @Test
+    public void testWholeFieldSelectionTakesPrecedenceOverNestedNames() {
+        Message message = ProtoMessageBuilder.newOuter(ProtoMessageBuilder.newInner("value1", "value2"), 1);
+        FieldDescriptor objectField = ProtoMessageBuilder.getAndAssertField(OUTER_TYPE, "objectField");
+
+        Message projected = ProtobufProjector.of(OUTER_TYPE, asSet("objectField.stringField1", "objectField")).project(message);
+        assertThat(projected.getField(objectField)).isEqualTo(message.getField(objectField));
+    }
+
+    @Test
+    public void testProjectorIsCached() {
+        ProtobufProjector first = ProtobufProjector.of(OUTER_TYPE, asSet("objectField.stringField1", "primitiveField"));
+        ProtobufProjector second = ProtobufProjector.of(OUTER_TYPE, new HashSet<>(Arrays.asList("primitiveField", "objectField.stringField1")));
+        assertThat(second).isSameAs(first);
+        assertThat(ProtobufProjector.of(OUTER_TYPE, asSet("primitiveField"))).isNotSameAs(first);
+    }
+
+    private Message newRandomOuter() {
+        DynamicMessage.Builder builder = DynamicMessage.newBuilder(OUTER_TYPE);
+        if (random.nextBoolean()) {
+            builder.setField(OUTER_TYPE.findFieldByName("objectField"), newRandomInner());
+        }
+        if (random.nextBoolean()) {
+            builder.setField(OUTER_TYPE.findFieldByName("primitiveField"), random.nextInt());
+        }
+        int arraySize = random.nextInt(4);
+        List<Message> array = new ArrayList<>();
+        for (int i = 0; i < arraySize; i++) {
+            array.add(newRandomInner());
+        }
+        if (!array.isEmpty()) {
+            builder.setField(OUTER_TYPE.findFieldByName("objectArrayField"), array);
+        }
+        return builder.build();
+    }
+
+    private Message newRandomInner() {
+        DynamicMessage.Builder builder = DynamicMessage.newBuilder(INNER_TYPE);
+        if (random.nextBoolean()) {
+            builder.setField(INNER_TYPE.findFieldByName("stringField1"), "value#" + random.nextInt(100));
+        }
+        if (random.nextBoolean()) {
+            builder.setField(INNER_TYPE.findFieldByName("stringField2"), "value#" + random.nextInt(100));
+        }
+        return builder.build();
+    }
+
+    /**
+     * {@link ProtobufExt#copy(Message, Set)} result depends on the iteration order, if a field is selected both as
+     * a whole and with nested names, so these combinations are excluded here.
+     */
+    private Set<String> newRandomFieldSet() {
+        Set<String> fields = new HashSet<>();
+        int count = random.nextInt(FIELD_NAMES.size());
+        for (int i = 0; i < count; i++) {
+            fields.add(FIELD_NAMES.get(random.nextInt(FIELD_NAMES.size())));
+        }
+        fields.removeIf(name -> {
+            int idx = name.indexOf('.');
+            return idx > 0 && fields.contains(name.substring(0, idx));
+        });
+        return fields;
+    }
+}
@@ -22,6 +22,7 @@ import java.util.List;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import org.junit.Test;
 
 import static com.netflix.titus.common.util.jackson.CommonObjectMappers.compactMapper;
@@ -62,6 +63,27 @@ public class CommonObjectMappersTest {
         assertThat(deserialized.objectValue.intValue).isEqualTo(0);
     }
 
+    @Test
+    public void testFieldsFilterWriterOutputIsSameAsFilteringMapper() throws Exception {
+        List<List<String>> fieldSets = asList(
+                asList("stringValue", "objectValue.intValue", "objectValues.intValue"),
+                Collections.singletonList("objectValue"),
+                Collections.singletonList("objectValue.intValue.fakeField")
+        );
+        for (List<String> fields : fieldSets) {
+            byte[] expected = CommonObjectMappers.applyFieldsFilter(compactMapper(), fields).writeValueAsBytes(NESTED_OBJECT);
+            byte[] actual = CommonObjectMappers.applyFieldsFilterWriter(compactMapper(), fields).writeValueAsBytes(NESTED_OBJECT);
+            assertThat(actual).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void testFieldsFilterWriterIsCachedByNormalizedFieldSet() {
+        ObjectWriter writer = CommonObjectMappers.applyFieldsFilterWriter(compactMapper(), asList("stringValue", "objectValue.intValue"));
+        assertThat(CommonObjectMappers.applyFieldsFilterWriter(compactMapper(), asList("objectValue.intValue", "stringValue", "stringValue"))).isSameAs(writer);
+        assertThat(CommonObjectMappers.applyFieldsFilterWriter(compactMapper(), asList("objectValue.intValue"))).isNotSameAs(writer);
+    }
+
     private OuterClass filter(List<String> fields) throws Exception {
         ObjectMapper mapper = CommonObjectMappers.applyFieldsFilter(compactMapper(), fields);
 
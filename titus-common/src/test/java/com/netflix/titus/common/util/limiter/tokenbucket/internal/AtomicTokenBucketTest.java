@@ -0,0 +1,124 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.limiter.tokenbucket.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.base.Stopwatch;
+import com.google.common.base.Ticker;
+import com.netflix.titus.common.util.limiter.tokenbucket.RefillStrategy;
+import com.netflix.titus.common.util.limiter.tokenbucket.TokenBucket;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AtomicTokenBucketTest {
+
+    private static final int THREAD_COUNT = 16;
+    private static final int CAPACITY = 10_000;
+
+    private final TestTicker ticker = new TestTicker();
+
+    @Test
+    public void testTryTakeAndRefill() {
+        TokenBucket tokenBucket = newTokenBucket(10, 5, 5);
+
+        assertThat(tokenBucket.tryTake(5)).isTrue();
+        assertThat(tokenBucket.tryTake()).isFalse();
+
+        ticker.advance(1, TimeUnit.SECONDS);
+        assertThat(tokenBucket.getNumberOfTokens()).isEqualTo(5);
+
+        // Refill never exceeds the capacity
+        ticker.advance(10, TimeUnit.SECONDS);
+        assertThat(tokenBucket.getNumberOfTokens()).isEqualTo(10);
+        assertThat(tokenBucket.tryTake(10)).isTrue();
+        assertThat(tokenBucket.getNumberOfTokens()).isEqualTo(0);
+    }
+
+    @Test
+    public void testRefillStrategyEquivalentToFixedIntervalRefillStrategy() {
+        Stopwatch stopwatch = Stopwatch.createStarted(ticker);
+        RefillStrategy expected = new FixedIntervalRefillStrategy(stopwatch, 3, 100, TimeUnit.MILLISECONDS);
+        RefillStrategy actual = new AtomicFixedIntervalRefillStrategy(stopwatch, 3, 100, TimeUnit.MILLISECONDS);
+
+        long[] steps = {0, 10, 90, 1, 99, 250, 50, 1_000, 0, 7};
+        for (long step : steps) {
+            ticker.advance(step, TimeUnit.MILLISECONDS);
+            assertThat(actual.refill()).isEqualTo(expected.refill());
+            assertThat(actual.getTimeUntilNextRefill(TimeUnit.NANOSECONDS)).isEqualTo(expected.getTimeUntilNextRefill(TimeUnit.NANOSECONDS));
+        }
+    }
+
+    @Test
+    public void testNoOverAdmissionUnderContention() throws InterruptedException {
+        // No refill after the initial one, so exactly the capacity can be admitted in total.
+        TokenBucket tokenBucket = newTokenBucket(CAPACITY, CAPACITY, 1);
+
+        AtomicLong admitted = new AtomicLong();
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < THREAD_COUNT; i++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    startLatch.await();
+                } catch (InterruptedException ignore) {
+                    return;
+                }
+                for (int j = 0; j < 2 * CAPACITY / THREAD_COUNT; j++) {
+                    if (tokenBucket.tryTake()) {
+                        admitted.incrementAndGet();
+                    }
+                }
+            }, "tokenBucketTest-" + i);
+            thread.start();
+            threads.add(thread);
+        }
+        startLatch.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(admitted.get()).isEqualTo(CAPACITY);
+        assertThat(tokenBucket.getNumberOfTokens()).isEqualTo(0);
+    }
+
+    private TokenBucket newTokenBucket(long capacity, long initialNumberOfTokens, long tokensPerSecond) {
+        RefillStrategy refillStrategy = new AtomicFixedIntervalRefillStrategy(Stopwatch.createStarted(ticker), tokensPerSecond, 1, TimeUnit.SECONDS);
+        // Consume the initial refill, so only the initial number of tokens is available.
+        refillStrategy.refill();
+        return new AtomicTokenBucket("testBucket", capacity, refillStrategy, initialNumberOfTokens);
+    }
+
+    private static class TestTicker extends Ticker {
+
+        private final AtomicLong nanos = new AtomicLong();
+
+        private void advance(long time, TimeUnit unit) {
+            nanos.addAndGet(unit.toNanos(time));
+        }
+
+        @Override
+        public long read() {
+            return nanos.get();
+        }
+    }
+}
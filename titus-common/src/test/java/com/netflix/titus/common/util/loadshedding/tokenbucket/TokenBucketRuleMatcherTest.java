@@ -0,0 +1,68 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.loadshedding.tokenbucket;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class TokenBucketRuleMatcherTest {
+
+    private static final List<String> PATTERNS = Arrays.asList(
+            ".*", "", "getJob", "get.*", "get.Job", "myUser.*", "(get|find).*", "get\\.x.*", ".*Job", "a+.*", "[a-z]*"
+    );
+
+    private static final List<String> VALUES = Arrays.asList(
+            "", "getJob", "getJobs", "get", "getXJob", "get.xyz", "findJob", "myUser", "myUser1", "myUser\n1",
+            "getJob\n", "\n", "aaa", "aaab", "createJob", "GETJOB", "get Job"
+    );
+
+    @Test
+    public void testCompiledPatternsEquivalentToRegex() {
+        for (String patternString : PATTERNS) {
+            Pattern pattern = Pattern.compile(patternString);
+            Predicate<String> matcher = TokenBucketRuleMatcher.compile(patternString, pattern);
+            for (String value : VALUES) {
+                assertThat(matcher.test(value))
+                        .describedAs("pattern=%s, value=%s", patternString, value)
+                        .isEqualTo(pattern.matcher(value).matches());
+            }
+        }
+    }
+
+    @Test
+    public void testFirstMatchInDeclarationOrder() {
+        TokenBucketConfiguration getters = newConfiguration("getters", ".*", "get.*");
+        TokenBucketConfiguration myUser = newConfiguration("myUser", "myUser", ".*");
+        TokenBucketConfiguration any = newConfiguration("any", ".*", ".*");
+        TokenBucketRuleMatcher matcher = new TokenBucketRuleMatcher(Arrays.asList(getters, myUser, any));
+
+        assertThat(matcher.findFirst("myUser", "getJob")).isEqualTo(getters);
+        assertThat(matcher.findFirst("myUser", "createJob")).isEqualTo(myUser);
+        assertThat(matcher.findFirst("otherUser", "createJob")).isEqualTo(any);
+        assertThat(new TokenBucketRuleMatcher(Arrays.asList(getters, myUser)).findFirst("otherUser", "createJob")).isNull();
+    }
+
+    private TokenBucketConfiguration newConfiguration(String name, String callerPattern, String endpointPattern) {
+        return new TokenBucketConfiguration(name, 1, true, callerPattern, endpointPattern, 10, 1);
+    }
+}
@@ -16,6 +16,9 @@
 
 package com.netflix.titus.common.util.proxy.internal;
 
+import com.netflix.spectator.api.Meter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.Tag;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.runtime.TitusRuntimes;
 import com.netflix.titus.common.util.proxy.MyApi;
@@ -76,4 +79,55 @@ public class SpectatorInvocationHandlerTest {
     public void testMonoVoid() {
         assertThat(myApi.okMonoVoid().block()).isNull();
     }
+
+    @Test
+    public void testInvocationCounters() {
+        myApi.echo("abc");
+        myApi.echo("abc");
+        try {
+            myApi.echo(null);
+        } catch (NullPointerException ignore) {
+        }
+
+        Registry registry = titusRuntime.getRegistry();
+        assertThat(registry.counter("titusMaster.api.invocation.count",
+                "instance", "myInstance", "class", MyApi.class.getName(), "method", "echo", "status", "success"
+        ).count()).isEqualTo(2);
+        assertThat(registry.counter("titusMaster.api.invocation.count",
+                "instance", "myInstance", "class", MyApi.class.getName(), "method", "echo", "status", "error",
+                "exception", NullPointerException.class.getName()
+        ).count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testPercentileTimers() {
+        MyApi percentileApi = ProxyCatalog.createSpectatorProxy("percentileInstance", MyApi.class, new MyApi.MyApiImpl(), titusRuntime, true, true);
+        assertThat(percentileApi.echo("abc")).startsWith("abc");
+
+        boolean hasPercentiles = false;
+        for (Meter meter : titusRuntime.getRegistry()) {
+            if (hasTag(meter, "instance", "percentileInstance") && hasTag(meter, "method", "echo") && hasTagKey(meter, "percentile")) {
+                hasPercentiles = true;
+            }
+        }
+        assertThat(hasPercentiles).isTrue();
+    }
+
+    private boolean hasTag(Meter meter, String key, String value) {
+        for (Tag tag : meter.id().tags()) {
+            if (tag.key().equals(key) && tag.value().equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean hasTagKey(Meter meter, String key) {
+        for (Tag tag : meter.id().tags()) {
+            if (tag.key().equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
\ No newline at end of file
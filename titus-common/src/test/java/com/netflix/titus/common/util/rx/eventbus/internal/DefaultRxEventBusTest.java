@@ -16,102 +16,19 @@
 
 package com.netflix.titus.common.util.rx.eventbus.internal;
 
-import java.util.concurrent.atomic.AtomicBoolean;
-
-import com.netflix.spectator.api.DefaultRegistry;
 import com.netflix.spectator.api.Registry;
 import com.netflix.titus.common.util.rx.eventbus.RxEventBus;
 import com.netflix.titus.testkit.junit.resource.Log4jExternalResource;
-import com.netflix.titus.testkit.rx.ExtTestSubscriber;
-import org.junit.After;
 import org.junit.Rule;
-import org.junit.Test;
-import rx.Subscriber;
-import rx.schedulers.Schedulers;
 import rx.schedulers.TestScheduler;
 
-import static org.assertj.core.api.Assertions.assertThat;
-
-public class DefaultRxEventBusTest {
-
-    private static final long MAX_QUEUE_SIZE = 1;
+public class DefaultRxEventBusTest extends AbstractRxEventBusTest {
 
     @Rule
     public final Log4jExternalResource loggingActivator = Log4jExternalResource.enableFor(DefaultRxEventBus.class);
 
-    private final TestScheduler testScheduler = Schedulers.test();
-
-    private final Registry registry = new DefaultRegistry();
-
-    private final RxEventBus eventBus = new DefaultRxEventBus(registry.createId("test"), registry, MAX_QUEUE_SIZE, testScheduler);
-
-    @After
-    public void tearDown() throws Exception {
-        eventBus.close();
-    }
-
-    @Test
-    public void testDirectEventPublishing() throws Exception {
-        ExtTestSubscriber<String> testSubscriber = new ExtTestSubscriber<>();
-        eventBus.listen("myClient", String.class).subscribe(testSubscriber);
-
-        eventBus.publish("event1");
-
-        assertThat(testSubscriber.takeNext()).isEqualTo("event1");
-        assertThat(testSubscriber.takeNext()).isNull();
-    }
-
-    @Test
-    public void testAsyncEventPublishing() throws Exception {
-        ExtTestSubscriber<String> testSubscriber = new ExtTestSubscriber<>();
-        eventBus.listen("myClient", String.class).subscribe(testSubscriber);
-
-        assertThat(testSubscriber.takeNext()).isNull();
-        eventBus.publishAsync("event1");
-        testScheduler.triggerActions();
-
-        assertThat(testSubscriber.takeNext()).isEqualTo("event1");
-        assertThat(testSubscriber.takeNext()).isNull();
-    }
-
-    @Test
-    public void testEventBusCloseTerminatesSubscriptions() throws Exception {
-        ExtTestSubscriber<String> testSubscriber = new ExtTestSubscriber<>();
-        eventBus.listen("myClient", String.class).subscribe(testSubscriber);
-
-        eventBus.close();
-        testSubscriber.assertOnCompleted();
-    }
-
-    @Test
-    public void testSlowConsumerTerminatesWithOverflowError() throws Exception {
-        AtomicBoolean failed = new AtomicBoolean();
-        Subscriber<String> slowSubscriber = new Subscriber<String>() {
-            @Override
-            public void onStart() {
-                request(0);
-            }
-
-            @Override
-            public void onCompleted() {
-            }
-
-            @Override
-            public void onError(Throwable e) {
-                failed.set(true);
-            }
-
-            @Override
-            public void onNext(String s) {
-            }
-        };
-
-        eventBus.listen("myClient", String.class).subscribe(slowSubscriber);
-        for (int i = 0; i <= MAX_QUEUE_SIZE; i++) {
-            eventBus.publish("event" + i);
-        }
-
-        assertThat(failed.get()).isTrue();
-        assertThat(slowSubscriber.isUnsubscribed()).isTrue();
+    @Override
+    protected RxEventBus newEventBus(Registry registry, int maxQueueSize, TestScheduler testScheduler) {
+        return new DefaultRxEventBus(registry.createId("test"), registry, maxQueueSize, testScheduler);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.rx.eventbus.internal;
+
+import com.netflix.spectator.api.Registry;
+import com.netflix.titus.common.util.rx.eventbus.RxEventBus;
+import com.netflix.titus.common.util.rx.eventbus.internal.RingBufferRxEventBus.OverflowPolicy;
+import com.netflix.titus.testkit.junit.resource.Log4jExternalResource;
+import org.junit.Rule;
+import org.junit.Test;
+import rx.observers.TestSubscriber;
+import rx.schedulers.TestScheduler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RingBufferRxEventBusTest extends AbstractRxEventBusTest {
+
+    private static final int BUFFER_SIZE = 3;
+
+    @Rule
+    public final Log4jExternalResource loggingActivator = Log4jExternalResource.enableFor(RingBufferRxEventBus.class);
+
+    @Override
+    protected RxEventBus newEventBus(Registry registry, int maxQueueSize, TestScheduler testScheduler) {
+        return new RingBufferRxEventBus(registry.createId("test"), registry, maxQueueSize, subscriberId -> OverflowPolicy.Disconnect, testScheduler);
+    }
+
+    @Test
+    public void testDropOldestOverflowPolicy() {
+        RxEventBus policyEventBus = newPolicyEventBus();
+        TestSubscriber<String> testSubscriber = subscribeSlow(policyEventBus, OverflowPolicy.DropOldest);
+
+        publish(policyEventBus, 5);
+        testSubscriber.requestMore(Long.MAX_VALUE);
+
+        testSubscriber.assertValues("event2", "event3", "event4");
+        testSubscriber.assertNoTerminalEvent();
+        assertThat(getDroppedCount(OverflowPolicy.DropOldest)).isEqualTo(2);
+    }
+
+    @Test
+    public void testDropNewestOverflowPolicy() {
+        RxEventBus policyEventBus = newPolicyEventBus();
+        TestSubscriber<String> testSubscriber = subscribeSlow(policyEventBus, OverflowPolicy.DropNewest);
+
+        publish(policyEventBus, 5);
+        testSubscriber.requestMore(Long.MAX_VALUE);
+
+        testSubscriber.assertValues("event0", "event1", "event2");
+        testSubscriber.assertNoTerminalEvent();
+        assertThat(getDroppedCount(OverflowPolicy.DropNewest)).isEqualTo(2);
+    }
+
+    @Test
+    public void testDisconnectOverflowPolicy() {
+        RxEventBus policyEventBus = newPolicyEventBus();
+        TestSubscriber<String> testSubscriber = subscribeSlow(policyEventBus, OverflowPolicy.Disconnect);
+
+        publish(policyEventBus, BUFFER_SIZE + 1);
+
+        testSubscriber.assertError(IllegalStateException.class);
+        assertThat(testSubscriber.isUnsubscribed()).isTrue();
+        assertThat(getDroppedCount(OverflowPolicy.Disconnect)).isEqualTo(0);
+    }
+
+    @Test
+    public void testOverflowPolicyIsPerSubscriber() {
+        RxEventBus policyEventBus = newPolicyEventBus();
+        TestSubscriber<String> dropSubscriber = subscribeSlow(policyEventBus, OverflowPolicy.DropNewest);
+        TestSubscriber<String> disconnectSubscriber = subscribeSlow(policyEventBus, OverflowPolicy.Disconnect);
+
+        publish(policyEventBus, BUFFER_SIZE + 1);
+
+        dropSubscriber.assertNoTerminalEvent();
+        disconnectSubscriber.assertError(IllegalStateException.class);
+    }
+
+    /**
+     * Subscriber ids are the overflow policy names.
+     */
+    private RxEventBus newPolicyEventBus() {
+        return new RingBufferRxEventBus(registry.createId("policyTest"), registry, BUFFER_SIZE, OverflowPolicy::valueOf, testScheduler);
+    }
+
+    private TestSubscriber<String> subscribeSlow(RxEventBus policyEventBus, OverflowPolicy policy) {
+        TestSubscriber<String> testSubscriber = new TestSubscriber<>(0);
+        policyEventBus.listen(policy.name(), String.class).subscribe(testSubscriber);
+        return testSubscriber;
+    }
+
+    private void publish(RxEventBus policyEventBus, int count) {
+        for (int i = 0; i < count; i++) {
+            policyEventBus.publish("event" + i);
+        }
+    }
+
+    private long getDroppedCount(OverflowPolicy policy) {
+        return registry.counters()
+                .filter(counter -> counter.id().name().endsWith(".dropped"))
+                .filter(counter -> counter.id().toString().contains(policy.name()))
+                .mapToLong(counter -> counter.count())
+                .sum();
+    }
+}
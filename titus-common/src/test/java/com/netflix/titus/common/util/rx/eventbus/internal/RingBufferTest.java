@@ -0,0 +1,99 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.common.util.rx.eventbus.internal;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class RingBufferTest {
+
+    @Test
+    public void testLimitIsExact() {
+        for (int limit = 1; limit <= 9; limit++) {
+            RingBuffer<Integer> buffer = new RingBuffer<>(limit);
+            for (int i = 0; i < limit; i++) {
+                assertThat(buffer.offer(i)).isTrue();
+            }
+            assertThat(buffer.offer(limit)).isFalse();
+            assertThat(buffer.size()).isEqualTo(limit);
+        }
+    }
+
+    @Test
+    public void testWrapAround() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(3);
+        for (int i = 0; i < 100; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+            assertThat(buffer.offer(i + 1000)).isTrue();
+            assertThat(buffer.poll()).isEqualTo(i);
+            assertThat(buffer.poll()).isEqualTo(i + 1000);
+            assertThat(buffer.isEmpty()).isTrue();
+        }
+        assertThat(buffer.poll()).isNull();
+    }
+
+    @Test
+    public void testConcurrentProducers() throws InterruptedException {
+        int producerCount = 4;
+        int eventsPerProducer = 100_000;
+        RingBuffer<int[]> buffer = new RingBuffer<>(1024);
+
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < producerCount; p++) {
+            int producerId = p;
+            Thread producer = new Thread(() -> {
+                try {
+                    startLatch.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < eventsPerProducer; i++) {
+                    while (!buffer.offer(new int[]{producerId, i})) {
+                        Thread.yield();
+                    }
+                }
+            });
+            producer.start();
+            producers.add(producer);
+        }
+
+        // Events from each producer must be received in order, with no gaps.
+        int[] nextExpected = new int[producerCount];
+        startLatch.countDown();
+        int received = 0;
+        while (received < producerCount * eventsPerProducer) {
+            int[] event = buffer.poll();
+            if (event == null) {
+                Thread.yield();
+                continue;
+            }
+            assertThat(event[1]).isEqualTo(nextExpected[event[0]]);
+            nextExpected[event[0]]++;
+            received++;
+        }
+        for (Thread producer : producers) {
+            producer.join();
+        }
+        assertThat(buffer.isEmpty()).isTrue();
+    }
+}
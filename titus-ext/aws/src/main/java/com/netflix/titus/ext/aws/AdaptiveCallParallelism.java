@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.ext.aws;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.amazonaws.AmazonServiceException;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import rx.Observable;
+
+/**
+ * Number of AWS describe calls a connector operation may run in parallel. The value is halved each time AWS rejects
+ * a call due to throttling, and next grows back by one with each successful call, up to the configured maximum.
+ */
+class AdaptiveCallParallelism {
+
+    private static final String METRICS_ROOT = "titus.aws.instanceCloudConnector.";
+
+    private final int maxParallelism;
+
+    private final AtomicInteger parallelism;
+    private final Counter throttledCounter;
+
+    AdaptiveCallParallelism(int maxParallelism, Registry registry) {
+        this.maxParallelism = maxParallelism;
+        this.parallelism = registry.gauge(METRICS_ROOT + "parallelism", new AtomicInteger(maxParallelism));
+        this.throttledCounter = registry.counter(METRICS_ROOT + "throttled");
+    }
+
+    int get() {
+        return parallelism.get();
+    }
+
+    /**
+     * Adjusts the parallelism level, according to the outcome of the given AWS call.
+     */
+    <T> Observable<T> apply(Observable<T> awsCall) {
+        return awsCall
+                .doOnCompleted(() -> parallelism.updateAndGet(current -> Math.min(maxParallelism, current + 1)))
+                .doOnError(error -> {
+                    if (isThrottlingError(error)) {
+                        throttledCounter.increment();
+                        parallelism.updateAndGet(current -> Math.max(1, current / 2));
+                    }
+                });
+    }
+
+    static boolean isThrottlingError(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof AmazonServiceException) {
+                String errorCode = ((AmazonServiceException) cause).getErrorCode();
+                if ("Throttling".equals(errorCode) || "ThrottlingException".equals(errorCode) || "RequestLimitExceeded".equals(errorCode)) {
+                    return true;
+                }
+            }
+            if (cause.getMessage() != null && cause.getMessage().contains("Rate exceeded")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
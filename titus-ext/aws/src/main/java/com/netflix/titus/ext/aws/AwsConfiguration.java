@@ -57,6 +57,13 @@ public interface AwsConfiguration {
     @DefaultValue("10000")
     long getAwsRequestTimeoutMs();
 
+    /**
+     * Amount of time to cache instance and instance group records in {@link AwsInstanceCloudConnector}, before making
+     * another call to AWS. Records changed by the connector itself are evicted immediately.
+     */
+    @DefaultValue("5000")
+    long getInstanceCacheTimeToLiveMs();
+
     /**
      * Interval at which a cleaner process will run to terminate agents with {@link AwsInstanceCloudConnector#TAG_TERMINATE}
      * tag on them.
@@ -107,4 +114,18 @@ public interface AwsConfiguration {
 
     @DefaultValue("3600")
     int getControlPlaneRoleSessionDurationSeconds();
+
+    /**
+     * Maximum number of load balancer target health requests (DescribeTargetHealth) that can be issued at once for
+     * a single AWS account. Set to 0 to disable the per account rate limiting.
+     */
+    @DefaultValue("20")
+    long getLoadBalancerDescribeBurstPerAccount();
+
+    /**
+     * Sustained rate of load balancer target health requests (DescribeTargetHealth) per second for a single AWS
+     * account. Set to 0 to disable the per account rate limiting.
+     */
+    @DefaultValue("10")
+    long getLoadBalancerDescribeRatePerAccountPerSec();
 }
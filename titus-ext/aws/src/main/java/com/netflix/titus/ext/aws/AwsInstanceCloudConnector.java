@@ -16,6 +16,7 @@
 
 package com.netflix.titus.ext.aws;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -61,6 +62,7 @@ import com.amazonaws.services.ec2.model.Tag;
 import com.amazonaws.services.ec2.model.TerminateInstancesRequest;
 import com.amazonaws.services.ec2.model.TerminateInstancesResult;
 import com.google.common.base.Strings;
+import com.netflix.spectator.api.Registry;
 import com.netflix.titus.api.connector.cloud.CloudConnectorException;
 import com.netflix.titus.api.connector.cloud.Instance;
 import com.netflix.titus.api.connector.cloud.Instance.InstanceState;
@@ -107,6 +109,8 @@ public class AwsInstanceCloudConnector implements InstanceCloudConnector {
     static final String TAG_ASG_FILTER_NAME = "tag:" + TAG_ASG_NAME;
     static final String DEFAULT_INSTANCE_TYPE = "unknown";
 
+    static final String METRICS_ROOT = "titus.aws.instanceCloudConnector";
+
     private static final int PENDING = 0;
     private static final int RUNNING = 16;
     private static final int SHUTTING_DOWN = 32;
@@ -119,21 +123,42 @@ public class AwsInstanceCloudConnector implements InstanceCloudConnector {
     private final AmazonAutoScalingAsync autoScalingClient;
     private final Scheduler scheduler;
 
+    private final AdaptiveCallParallelism parallelism;
+    private final AwsLookupCache<Instance> instanceCache;
+    private final AwsLookupCache<InstanceGroup> instanceGroupCache;
+    private final AwsLookupCache<List<Instance>> instanceGroupInstancesCache;
+
     public AwsInstanceCloudConnector(AwsConfiguration configuration,
                                      AmazonEC2Async ec2Client,
                                      AmazonAutoScalingAsync autoScalingClient,
+                                     Registry registry,
                                      Scheduler scheduler) {
         this.configuration = configuration;
         this.ec2Client = ec2Client;
         this.autoScalingClient = autoScalingClient;
         this.scheduler = scheduler;
+
+        Duration cacheTimeToLive = Duration.ofMillis(configuration.getInstanceCacheTimeToLiveMs());
+        this.parallelism = new AdaptiveCallParallelism(AWS_PARALLELISM, registry);
+        this.instanceCache = new AwsLookupCache<>(
+                METRICS_ROOT + ".instances", AWS_INSTANCE_ID_MAX, 2, cacheTimeToLive, this::fetchInstances, parallelism, registry
+        );
+        this.instanceGroupCache = new AwsLookupCache<>(
+                METRICS_ROOT + ".instanceGroups", AWS_INSTANCE_ID_MAX, 1, cacheTimeToLive, this::fetchInstanceGroups, parallelism, registry
+        );
+        this.instanceGroupInstancesCache = new AwsLookupCache<>(
+                METRICS_ROOT + ".instanceGroupInstances", 1, 1, cacheTimeToLive,
+                ids -> fetchInstancesByInstanceGroupId(ids.get(0)).map(instances -> Collections.singletonMap(ids.get(0), instances)),
+                parallelism, registry
+        );
     }
 
     @Inject
     public AwsInstanceCloudConnector(AwsConfiguration configuration,
                                      AmazonEC2Async ec2Client,
-                                     @Named(DataPlaneAmazonAutoScalingAsyncProvider.NAME) AmazonAutoScalingAsync autoScalingClient) {
-        this(configuration, ec2Client, autoScalingClient, Schedulers.computation());
+                                     @Named(DataPlaneAmazonAutoScalingAsyncProvider.NAME) AmazonAutoScalingAsync autoScalingClient,
+                                     Registry registry) {
+        this(configuration, ec2Client, autoScalingClient, registry, Schedulers.computation());
     }
 
     @Activator
@@ -143,6 +168,9 @@ public class AwsInstanceCloudConnector implements InstanceCloudConnector {
 
     @PreDestroy
     public void shutdown() {
+        instanceCache.shutdown();
+        instanceGroupCache.shutdown();
+        instanceGroupInstancesCache.shutdown();
         autoScalingClient.shutdown();
     }
 
@@ -166,11 +194,7 @@ public class AwsInstanceCloudConnector implements InstanceCloudConnector {
             return Observable.just(Collections.emptyList());
         }
 
-        DescribeAutoScalingGroupsRequest request = new DescribeAutoScalingGroupsRequest().withAutoScalingGroupNames(instanceGroupIds);
-        Observable<DescribeAutoScalingGroupsResult> observable = toObservable(request, autoScalingClient::describeAutoScalingGroupsAsync);
-        return observable.map(
-                response -> toInstanceGroups(response.getAutoScalingGroups())
-        ).timeout(configuration.getAwsRequestTimeoutMs(), TimeUnit.MILLISECONDS);
+        return instanceGroupCache.get(instanceGroupIds).timeout(configuration.getAwsRequestTimeoutMs(), TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -205,22 +229,7 @@ public class AwsInstanceCloudConnector implements InstanceCloudConnector {
 
     @Override
     public Observable<List<Instance>> getInstances(List<String> instanceIds) {
-        if (instanceIds.isEmpty()) {
-            return Observable.just(Collections.emptyList());
-        }
-        List<Observable<List<Instance>>> chunkObservable = CollectionsExt.chop(instanceIds, AWS_INSTANCE_ID_MAX).stream()
-                .map(chunk -> {
-                    Observable<DescribeInstancesResult> ec2DescribeObservable = toObservable(new DescribeInstancesRequest().withInstanceIds(chunk), ec2Client::describeInstancesAsync);
-                    Observable<DescribeAutoScalingInstancesResult> asgDescribeObservable = toObservable(new DescribeAutoScalingInstancesRequest().withInstanceIds(chunk), autoScalingClient::describeAutoScalingInstancesAsync);
-                    return Observable.zip(ec2DescribeObservable, asgDescribeObservable, (ec2Data, autoScalerData) -> toInstances(ec2Data.getReservations(), autoScalerData.getAutoScalingInstances()));
-                })
-                .collect(Collectors.toList());
-        return Observable.merge(chunkObservable, AWS_PARALLELISM)
-                .timeout(configuration.getAwsRequestTimeoutMs(), TimeUnit.MILLISECONDS)
-                .reduce(new ArrayList<>(), (acc, result) -> {
-                    acc.addAll(result);
-                    return acc;
-                });
+        return instanceCache.get(instanceIds).timeout(configuration.getAwsRequestTimeoutMs(), TimeUnit.MILLISECONDS);
     }
 
     @Override
@@ -228,6 +237,27 @@ public class AwsInstanceCloudConnector implements InstanceCloudConnector {
         if (Strings.isNullOrEmpty(instanceGroupId)) {
             return Observable.just(Collections.emptyList());
         }
+        return instanceGroupInstancesCache.get(singletonList(instanceGroupId))
+                .map(result -> result.isEmpty() ? Collections.<Instance>emptyList() : result.get(0))
+                .timeout(configuration.getInstancesByInstanceGroupIdFetchTimeoutMs(), TimeUnit.MILLISECONDS);
+    }
+
+    private Observable<Map<String, Instance>> fetchInstances(List<String> instanceIds) {
+        Observable<DescribeInstancesResult> ec2DescribeObservable = toObservable(new DescribeInstancesRequest().withInstanceIds(instanceIds), ec2Client::describeInstancesAsync);
+        Observable<DescribeAutoScalingInstancesResult> asgDescribeObservable = toObservable(new DescribeAutoScalingInstancesRequest().withInstanceIds(instanceIds), autoScalingClient::describeAutoScalingInstancesAsync);
+        return Observable.zip(ec2DescribeObservable, asgDescribeObservable, (ec2Data, autoScalerData) -> toInstances(ec2Data.getReservations(), autoScalerData.getAutoScalingInstances()))
+                .map(instances -> instances.stream().collect(Collectors.toMap(Instance::getId, Function.identity())));
+    }
+
+    private Observable<Map<String, InstanceGroup>> fetchInstanceGroups(List<String> instanceGroupIds) {
+        DescribeAutoScalingGroupsRequest request = new DescribeAutoScalingGroupsRequest().withAutoScalingGroupNames(instanceGroupIds);
+        Observable<DescribeAutoScalingGroupsResult> observable = toObservable(request, autoScalingClient::describeAutoScalingGroupsAsync);
+        return observable.map(
+                response -> toInstanceGroups(response.getAutoScalingGroups()).stream().collect(Collectors.toMap(InstanceGroup::getId, Function.identity()))
+        );
+    }
+
+    private Observable<List<Instance>> fetchInstancesByInstanceGroupId(String instanceGroupId) {
         PageCollector<DescribeInstancesRequest, com.amazonaws.services.ec2.model.Instance> pageCollector = new PageCollector<>(
                 token -> new DescribeInstancesRequest().withFilters(new Filter().withName(TAG_ASG_FILTER_NAME).withValues(instanceGroupId))
                         .withNextToken(token),
@@ -247,8 +277,7 @@ public class AwsInstanceCloudConnector implements InstanceCloudConnector {
                             Optional<Tag> asgTagOptional = instance.getTags().stream().filter(tag -> tag.getKey().equals(TAG_ASG_NAME)).findFirst();
                             return asgTagOptional.isPresent() && asgTagOptional.get().getValue().equals(instanceGroupId);
                         })
-                        .map(instance -> toInstance(instance, instanceGroupId)).collect(Collectors.toList()))
-                .timeout(configuration.getInstancesByInstanceGroupIdFetchTimeoutMs(), TimeUnit.MILLISECONDS);
+                        .map(instance -> toInstance(instance, instanceGroupId)).collect(Collectors.toList()));
     }
 
     @Override
@@ -265,7 +294,9 @@ public class AwsInstanceCloudConnector implements InstanceCloudConnector {
             return request;
         };
         Observable<UpdateAutoScalingGroupResult> observable = toObservable(supplier, autoScalingClient::updateAutoScalingGroupAsync);
-        return observable.toCompletable().timeout(configuration.getAwsRequestTimeoutMs(), TimeUnit.MILLISECONDS);
+        return observable.toCompletable()
+                .timeout(configuration.getAwsRequestTimeoutMs(), TimeUnit.MILLISECONDS)
+                .doAfterTerminate(() -> invalidateInstanceGroup(instanceGroupId, Collections.emptyList()));
     }
 
     @Override
@@ -289,7 +320,9 @@ public class AwsInstanceCloudConnector implements InstanceCloudConnector {
                             .withDesiredCapacity(newDesired);
                     Observable<UpdateAutoScalingGroupResult> observable = toObservable(request, autoScalingClient::updateAutoScalingGroupAsync);
                     return observable;
-                }).toCompletable().timeout(configuration.getAwsRequestTimeoutMs(), TimeUnit.MILLISECONDS);
+                }).toCompletable()
+                .timeout(configuration.getAwsRequestTimeoutMs(), TimeUnit.MILLISECONDS)
+                .doAfterTerminate(() -> invalidateInstanceGroup(instanceGroupId, Collections.emptyList()));
     }
 
     @Override
@@ -318,7 +351,16 @@ public class AwsInstanceCloudConnector implements InstanceCloudConnector {
                 }
             }
             return instanceResults;
-        });
+        }).doAfterTerminate(() -> invalidateInstanceGroup(instanceGroup, instanceIds));
+    }
+
+    /**
+     * Drops cached data of an instance group and its instances, after they were changed by this connector.
+     */
+    private void invalidateInstanceGroup(String instanceGroupId, List<String> instanceIds) {
+        instanceGroupCache.invalidate(singletonList(instanceGroupId));
+        instanceGroupInstancesCache.invalidate(singletonList(instanceGroupId));
+        instanceCache.invalidate(instanceIds);
     }
 
     /**
@@ -357,7 +399,7 @@ public class AwsInstanceCloudConnector implements InstanceCloudConnector {
                 new TerminateInstancesRequest(ids),
                 ec2Client::terminateInstancesAsync
         );
-        return observable.toCompletable();
+        return observable.toCompletable().doAfterTerminate(() -> instanceCache.invalidate(ids));
     }
 
     private Observable<Either<Boolean, Throwable>> terminateChunk(String instanceGroup, List<String> instanceIds, boolean shrink) {
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.ext.aws;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
+import com.netflix.titus.common.util.CollectionsExt;
+import com.netflix.titus.common.util.cache.Cache;
+import com.netflix.titus.common.util.cache.Caches;
+import rx.Observable;
+
+/**
+ * Short lived cache of AWS resource descriptions, keyed by resource id. Resources which are neither cached, nor
+ * already being fetched, are loaded in chunks. A lookup of a resource which is being fetched by another request, joins
+ * that request, so concurrent lookups of the same resource share a single AWS call. A cache entry is discarded when its
+ * time to live expires, or when the resource is invalidated, after it was changed by the connector. A resource
+ * invalidated while it is being fetched, is not cached when the fetch completes.
+ */
+class AwsLookupCache<V> {
+
+    private static final long MAX_CACHE_SIZE = 100_000;
+
+    private final int chunkSize;
+    private final int callsPerChunk;
+    private final Function<List<String>, Observable<Map<String, V>>> loader;
+    private final AdaptiveCallParallelism parallelism;
+
+    private final Cache<String, Optional<V>> cache;
+    private final Map<String, PendingLoad> pendingLoads = new HashMap<>();
+
+    private final Counter coalescedCounter;
+    private final Counter savedCallsCounter;
+
+    /**
+     * @param chunkSize     maximum number of resource ids in a single load request
+     * @param callsPerChunk number of AWS calls made by the loader for a single chunk
+     * @param loader        fetches resources with the given ids. Resources not found are omitted in the result map.
+     */
+    AwsLookupCache(String metricNameRoot,
+                   int chunkSize,
+                   int callsPerChunk,
+                   Duration timeToLive,
+                   Function<List<String>, Observable<Map<String, V>>> loader,
+                   AdaptiveCallParallelism parallelism,
+                   Registry registry) {
+        this.chunkSize = chunkSize;
+        this.callsPerChunk = callsPerChunk;
+        this.loader = loader;
+        this.parallelism = parallelism;
+        this.cache = Caches.instrumentedCacheWithMaxSize(MAX_CACHE_SIZE, timeToLive, metricNameRoot, registry);
+        this.coalescedCounter = registry.counter(metricNameRoot + ".coalesced");
+        this.savedCallsCounter = registry.counter(metricNameRoot + ".savedCalls");
+    }
+
+    void shutdown() {
+        cache.shutdown();
+    }
+
+    /**
+     * Returns resources with the given ids, in the id order. Resources that do not exist are not included.
+     */
+    Observable<List<V>> get(List<String> ids) {
+        if (ids.isEmpty()) {
+            return Observable.just(Collections.emptyList());
+        }
+        return Observable.defer(() -> {
+            List<String> distinctIds = new ArrayList<>(new LinkedHashSet<>(ids));
+            Map<String, Optional<V>> cached = new HashMap<>(cache.getAllPresent(distinctIds));
+
+            List<Observable<Map<String, V>>> loads = new ArrayList<>();
+            int newLoads = 0;
+            synchronized (pendingLoads) {
+                List<String> toLoad = new ArrayList<>();
+                for (String id : distinctIds) {
+                    if (cached.containsKey(id)) {
+                        continue;
+                    }
+                    PendingLoad pending = pendingLoads.get(id);
+                    if (pending == null) {
+                        toLoad.add(id);
+                    } else if (!loads.contains(pending.result)) {
+                        loads.add(pending.result);
+                        coalescedCounter.increment();
+                    }
+                }
+                if (!toLoad.isEmpty()) {
+                    for (List<String> chunk : CollectionsExt.chop(toLoad, chunkSize)) {
+                        PendingLoad pending = new PendingLoad(chunk);
+                        chunk.forEach(id -> pendingLoads.put(id, pending));
+                        loads.add(pending.result);
+                        newLoads++;
+                    }
+                }
+            }
+            int uncachedLoads = (distinctIds.size() + chunkSize - 1) / chunkSize;
+            savedCallsCounter.increment((uncachedLoads - newLoads) * callsPerChunk);
+
+            Map<String, V> found = new HashMap<>();
+            cached.forEach((id, value) -> value.ifPresent(v -> found.put(id, v)));
+            return Observable.merge(loads, parallelism.get())
+                    .reduce(found, (acc, loaded) -> {
+                        acc.putAll(loaded);
+                        return acc;
+                    })
+                    .map(all -> {
+                        List<V> result = new ArrayList<>();
+                        for (String id : distinctIds) {
+                            V value = all.get(id);
+                            if (value != null) {
+                                result.add(value);
+                            }
+                        }
+                        return result;
+                    });
+        });
+    }
+
+    /**
+     * Drops the cached values for the given resource ids. Loads which are already running complete, but their results
+     * for these ids are not cached.
+     */
+    void invalidate(List<String> ids) {
+        synchronized (pendingLoads) {
+            ids.forEach(pendingLoads::remove);
+        }
+        cache.invalidateAll(ids);
+    }
+
+    private class PendingLoad {
+
+        private final List<String> ids;
+        private final Observable<Map<String, V>> result;
+
+        private PendingLoad(List<String> ids) {
+            this.ids = ids;
+            this.result = parallelism.apply(Observable.defer(() -> loader.apply(ids)))
+                    .doOnNext(this::onLoaded)
+                    .doOnError(error -> release())
+                    .cache();
+        }
+
+        private void onLoaded(Map<String, V> loaded) {
+            synchronized (pendingLoads) {
+                for (String id : ids) {
+                    if (pendingLoads.remove(id, this)) {
+                        cache.put(id, Optional.ofNullable(loaded.get(id)));
+                    }
+                }
+            }
+        }
+
+        private void release() {
+            synchronized (pendingLoads) {
+                ids.forEach(id -> pendingLoads.remove(id, this));
+            }
+        }
+    }
+}
@@ -76,12 +76,14 @@ public class AwsModule extends AbstractModule {
     @Singleton
     public InstanceCloudConnector getInstanceCloudConnector(
             AwsConfiguration configuration,
-            @Named(DataPlaneControllerCredentialsProvider.NAME) AWSCredentialsProvider dataPlaneControllerCredentials) {
+            @Named(DataPlaneControllerCredentialsProvider.NAME) AWSCredentialsProvider dataPlaneControllerCredentials,
+            TitusRuntime titusRuntime) {
 
         return new AwsInstanceCloudConnector(
                 configuration,
                 new AmazonEC2AsyncProvider(configuration, dataPlaneControllerCredentials).get(),
-                new DataPlaneAmazonAutoScalingAsyncProvider(configuration, dataPlaneControllerCredentials).get()
+                new DataPlaneAmazonAutoScalingAsyncProvider(configuration, dataPlaneControllerCredentials).get(),
+                titusRuntime.getRegistry()
         );
     }
 
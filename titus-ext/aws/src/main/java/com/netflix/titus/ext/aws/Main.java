@@ -246,7 +246,8 @@ public class Main {
                 AmazonAutoScalingAsyncClientBuilder.standard()
                         .withRegion(currentRegion.getName())
                         .withCredentials(credentialsProvider)
-                        .build()
+                        .build(),
+                new DefaultRegistry()
         );
     }
 
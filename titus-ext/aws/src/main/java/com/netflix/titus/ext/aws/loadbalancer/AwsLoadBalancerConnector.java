@@ -18,6 +18,9 @@ package com.netflix.titus.ext.aws.loadbalancer;
 
 import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
@@ -39,7 +42,10 @@ import com.netflix.titus.api.connector.cloud.LoadBalancerConnector;
 import com.netflix.titus.common.util.CollectionsExt;
 import com.netflix.titus.common.util.guice.ProxyType;
 import com.netflix.titus.common.util.guice.annotation.ProxyConfiguration;
+import com.netflix.titus.common.util.limiter.Limiters;
+import com.netflix.titus.common.util.limiter.tokenbucket.TokenBucket;
 import com.netflix.titus.ext.aws.AmazonClientProvider;
+import com.netflix.titus.ext.aws.AwsConfiguration;
 import com.netflix.titus.ext.aws.AwsObservableExt;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -55,19 +61,29 @@ public class AwsLoadBalancerConnector implements LoadBalancerConnector {
     private static final Logger logger = LoggerFactory.getLogger(AwsLoadBalancerConnector.class);
     private static final String AWS_IP_TARGET_TYPE = "ip";
 
+    private static final RuntimeException DESCRIBE_BUDGET_EXHAUSTED = new IllegalStateException("DescribeTargetHealth rate budget exhausted");
+
     private final AmazonClientProvider clientProvider;
+    private final AwsConfiguration configuration;
     private final Scheduler scheduler;
     private final Registry registry;
 
     private AwsLoadBalancerConnectorMetrics connectorMetrics;
 
+    /**
+     * DescribeTargetHealth rate budgets, keyed by AWS account id. Load balancer reconciliation describes all target
+     * groups periodically, so without a budget a full sweep could consume the whole AWS API quota of an account.
+     */
+    private final ConcurrentMap<String, TokenBucket> describeBudgets = new ConcurrentHashMap<>();
+
     @Inject
-    public AwsLoadBalancerConnector(AmazonClientProvider clientProvider, Registry registry) {
-        this(clientProvider, Schedulers.computation(), registry);
+    public AwsLoadBalancerConnector(AmazonClientProvider clientProvider, AwsConfiguration configuration, Registry registry) {
+        this(clientProvider, configuration, Schedulers.computation(), registry);
     }
 
-    private AwsLoadBalancerConnector(AmazonClientProvider clientProvider, Scheduler scheduler, Registry registry) {
+    private AwsLoadBalancerConnector(AmazonClientProvider clientProvider, AwsConfiguration configuration, Scheduler scheduler, Registry registry) {
         this.clientProvider = clientProvider;
+        this.configuration = configuration;
         this.scheduler = scheduler;
         this.registry = registry;
         this.connectorMetrics = new AwsLoadBalancerConnectorMetrics(registry);
@@ -163,11 +179,11 @@ public class AwsLoadBalancerConnector implements LoadBalancerConnector {
     public Single<LoadBalancer> getLoadBalancer(String loadBalancerId) {
         final DescribeTargetHealthRequest request = new DescribeTargetHealthRequest().withTargetGroupArn(loadBalancerId);
 
-        long startTime = registry.clock().wallTime();
-        Single<DescribeTargetHealthResult> asyncResult = AwsObservableExt.asyncActionSingle(
+        Single<DescribeTargetHealthResult> asyncResult = acquireDescribeBudget(loadBalancerId).andThen(AwsObservableExt.asyncActionSingle(
                 factory -> getClient(loadBalancerId).describeTargetHealthAsync(request, factory.handler())
-        );
+        ));
 
+        long startTime = registry.clock().wallTime();
         return asyncResult
                 .observeOn(scheduler)
                 .map(result -> {
@@ -186,6 +202,28 @@ public class AwsLoadBalancerConnector implements LoadBalancerConnector {
                 });
     }
 
+    /**
+     * Completes when a DescribeTargetHealth request for the load balancer account can be issued. While the account
+     * budget is exhausted, the token bucket is polled at the refill rate.
+     */
+    private Completable acquireDescribeBudget(String loadBalancerId) {
+        long burst = configuration.getLoadBalancerDescribeBurstPerAccount();
+        long ratePerSec = configuration.getLoadBalancerDescribeRatePerAccountPerSec();
+        if (burst <= 0 || ratePerSec <= 0) {
+            return Completable.complete();
+        }
+        String accountId = Arn.fromString(loadBalancerId).getAccountId();
+        TokenBucket budget = describeBudgets.computeIfAbsent(accountId, id -> Limiters.createAtomicFixedIntervalTokenBucket(
+                "describeTargetHealth-" + id, burst, burst, ratePerSec, 1, TimeUnit.SECONDS
+        ));
+        long retryDelayMs = Math.max(1, 1_000 / ratePerSec);
+        return Completable.defer(() -> budget.tryTake() ? Completable.complete() : Completable.error(DESCRIBE_BUDGET_EXHAUSTED))
+                .retryWhen(errors -> errors.flatMap(error -> error == DESCRIBE_BUDGET_EXHAUSTED
+                        ? Observable.timer(retryDelayMs, TimeUnit.MILLISECONDS, scheduler)
+                        : Observable.error(error)
+                ));
+    }
+
     private AmazonElasticLoadBalancingAsync getClient(String loadBalancerId) {
         Arn arn = Arn.fromString(loadBalancerId);
         return clientProvider.getLoadBalancingClient(arn.getAccountId());
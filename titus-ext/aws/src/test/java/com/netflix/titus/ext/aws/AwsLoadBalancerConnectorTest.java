@@ -157,6 +157,6 @@ public class AwsLoadBalancerConnectorTest {
     private AwsLoadBalancerConnector getAwsLoadBalancerConnector(AmazonElasticLoadBalancingAsync albClient) {
         AmazonClientProvider amazonClientProvider = mock(AmazonClientProvider.class);
         when(amazonClientProvider.getLoadBalancingClient(any())).thenReturn(albClient);
-        return new AwsLoadBalancerConnector(amazonClientProvider, new DefaultRegistry());
+        return new AwsLoadBalancerConnector(amazonClientProvider, mock(AwsConfiguration.class), new DefaultRegistry());
     }
 }
@@ -0,0 +1,146 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.ext.aws;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import com.amazonaws.AmazonServiceException;
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.spectator.api.Registry;
+import org.junit.After;
+import org.junit.Test;
+import rx.observers.AssertableSubscriber;
+import rx.subjects.PublishSubject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AwsLookupCacheTest {
+
+    private static final String METRICS_ROOT = "test.lookup";
+
+    private final Registry registry = new DefaultRegistry();
+
+    private final AdaptiveCallParallelism parallelism = new AdaptiveCallParallelism(5, registry);
+
+    private final List<List<String>> loadRequests = new ArrayList<>();
+    private final List<PublishSubject<Map<String, String>>> loadResults = new ArrayList<>();
+
+    private final AwsLookupCache<String> cache = new AwsLookupCache<>(
+            METRICS_ROOT, 2, 2, Duration.ofHours(1),
+            ids -> {
+                PublishSubject<Map<String, String>> result = PublishSubject.create();
+                loadRequests.add(ids);
+                loadResults.add(result);
+                return result;
+            },
+            parallelism,
+            registry
+    );
+
+    @After
+    public void tearDown() {
+        cache.shutdown();
+    }
+
+    @Test
+    public void testLoadInChunksAndCache() {
+        AssertableSubscriber<List<String>> subscriber = cache.get(Arrays.asList("a", "b", "c")).test();
+        assertThat(loadRequests).containsExactly(Arrays.asList("a", "b"), Collections.singletonList("c"));
+
+        completeLoad(0, "a", "b");
+        completeLoad(1);
+        subscriber.assertValue(Arrays.asList("a#value", "b#value"));
+
+        // Cached, including the missing resource
+        cache.get(Arrays.asList("c", "b", "a")).test().assertValue(Arrays.asList("b#value", "a#value"));
+        assertThat(loadRequests).hasSize(2);
+        assertThat(registry.counter(METRICS_ROOT + ".savedCalls").count()).isEqualTo(4);
+    }
+
+    @Test
+    public void testConcurrentLookupsShareLoad() {
+        AssertableSubscriber<List<String>> first = cache.get(Arrays.asList("a", "b")).test();
+        AssertableSubscriber<List<String>> second = cache.get(Arrays.asList("b", "a")).test();
+        assertThat(loadRequests).hasSize(1);
+
+        completeLoad(0, "a", "b");
+        first.assertValue(Arrays.asList("a#value", "b#value"));
+        second.assertValue(Arrays.asList("b#value", "a#value"));
+        assertThat(registry.counter(METRICS_ROOT + ".coalesced").count()).isEqualTo(1);
+        assertThat(registry.counter(METRICS_ROOT + ".savedCalls").count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testInvalidation() {
+        cache.get(Collections.singletonList("a")).test();
+        completeLoad(0, "a");
+
+        cache.invalidate(Collections.singletonList("a"));
+        cache.get(Collections.singletonList("a")).test();
+        assertThat(loadRequests).hasSize(2);
+    }
+
+    @Test
+    public void testInvalidationDuringLoadIsNotOverridden() {
+        AssertableSubscriber<List<String>> subscriber = cache.get(Collections.singletonList("a")).test();
+        cache.invalidate(Collections.singletonList("a"));
+        completeLoad(0, "a");
+        subscriber.assertValue(Collections.singletonList("a#value"));
+
+        cache.get(Collections.singletonList("a")).test();
+        assertThat(loadRequests).hasSize(2);
+    }
+
+    @Test
+    public void testFailedLoadIsNotCached() {
+        AssertableSubscriber<List<String>> subscriber = cache.get(Collections.singletonList("a")).test();
+        loadResults.get(0).onError(new RuntimeException("simulated error"));
+        subscriber.assertError(RuntimeException.class);
+
+        cache.get(Collections.singletonList("a")).test();
+        assertThat(loadRequests).hasSize(2);
+    }
+
+    @Test
+    public void testThrottlingReducesParallelism() {
+        AmazonServiceException throttled = new AmazonServiceException("Rate exceeded");
+        throttled.setErrorCode("Throttling");
+        assertThat(AdaptiveCallParallelism.isThrottlingError(throttled)).isTrue();
+        assertThat(AdaptiveCallParallelism.isThrottlingError(new RuntimeException("other"))).isFalse();
+
+        cache.get(Collections.singletonList("a")).test();
+        loadResults.get(0).onError(throttled);
+        assertThat(parallelism.get()).isEqualTo(2);
+
+        cache.get(Collections.singletonList("a")).test();
+        completeLoad(1, "a");
+        assertThat(parallelism.get()).isEqualTo(3);
+    }
+
+    private void completeLoad(int index, String... ids) {
+        PublishSubject<Map<String, String>> result = loadResults.get(index);
+        result.onNext(Arrays.stream(ids).collect(Collectors.toMap(id -> id, id -> id + "#value")));
+        result.onCompleted();
+    }
+}
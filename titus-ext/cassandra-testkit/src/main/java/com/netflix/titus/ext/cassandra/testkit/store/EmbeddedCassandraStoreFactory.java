@@ -90,6 +90,31 @@ public class EmbeddedCassandraStoreFactory {
         public boolean isTracingEnabled() {
             return false;
         }
+
+        @Override
+        public String getJobRecordFormat() {
+            return "json";
+        }
+
+        @Override
+        public boolean isJobRecordBinaryColumnsEnabled() {
+            return false;
+        }
+
+        @Override
+        public boolean isJobRecordRewriteEnabled() {
+            return false;
+        }
+
+        @Override
+        public long getJobRecordRewriteIntervalMs() {
+            return 300_000;
+        }
+
+        @Override
+        public long getJobRecordRewriteMinRecordAgeMs() {
+            return 10_000;
+        }
     };
 
     private final Session session;
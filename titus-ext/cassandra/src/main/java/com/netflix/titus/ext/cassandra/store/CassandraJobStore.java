@@ -16,15 +16,18 @@
 
 package com.netflix.titus.ext.cassandra.store;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -42,6 +45,8 @@ import com.google.common.util.concurrent.FutureCallback;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.netflix.spectator.api.Counter;
+import com.netflix.spectator.api.Registry;
 import com.netflix.titus.api.jobmanager.model.job.Job;
 import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
 import com.netflix.titus.api.jobmanager.model.job.JobState;
@@ -57,7 +62,12 @@ import com.netflix.titus.api.jobmanager.store.JobStoreFitAction;
 import com.netflix.titus.api.json.ObjectMappers;
 import com.netflix.titus.common.framework.fit.FitFramework;
 import com.netflix.titus.common.framework.fit.FitInjection;
+import com.netflix.titus.common.framework.scheduler.ScheduleReference;
+import com.netflix.titus.common.framework.scheduler.model.ScheduleDescriptor;
 import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.util.Evaluators;
+import com.netflix.titus.common.util.ExecutorsExt;
+import com.netflix.titus.common.util.StringExt;
 import com.netflix.titus.common.util.guice.annotation.ProxyConfiguration;
 import com.netflix.titus.common.util.tuple.Either;
 import com.netflix.titus.common.util.tuple.Pair;
@@ -85,38 +95,28 @@ public class CassandraJobStore implements JobStore {
     // SELECT Queries
     private static final String RETRIEVE_ACTIVE_JOB_ID_BUCKETS_STRING = "SELECT distinct bucket FROM active_job_ids";
     private static final String RETRIEVE_ACTIVE_JOB_IDS_STRING = "SELECT job_id FROM active_job_ids WHERE bucket = ?;";
-    private static final String RETRIEVE_ACTIVE_JOB_STRING = "SELECT value FROM active_jobs WHERE job_id = ?;";
-    private static final String RETRIEVE_ARCHIVED_JOB_STRING = "SELECT value FROM archived_jobs WHERE job_id = ?;";
     private static final String RETRIEVE_ACTIVE_TASK_IDS_FOR_JOB_STRING = "SELECT task_id FROM active_task_ids WHERE job_id = ?;";
     private static final String RETRIEVE_ARCHIVED_TASK_IDS_FOR_JOB_STRING = "SELECT task_id FROM archived_task_ids WHERE job_id = ?;";
-    private static final String RETRIEVE_ACTIVE_TASK_STRING = "SELECT value FROM active_tasks WHERE task_id = ?;";
-    private static final String RETRIEVE_ARCHIVED_TASK_STRING = "SELECT value FROM archived_tasks WHERE task_id = ?;";
 
     private final PreparedStatement retrieveActiveJobIdBucketsStatement;
     private final PreparedStatement retrieveActiveJobIdsStatement;
-    private final PreparedStatement retrieveActiveJobStatement;
-    private final PreparedStatement retrieveArchivedJobStatement;
     private final PreparedStatement retrieveActiveTaskIdsForJobStatement;
     private final PreparedStatement retrieveArchivedTaskIdsForJobStatement;
-    private final PreparedStatement retrieveActiveTaskStatement;
-    private final PreparedStatement retrieveArchivedTaskStatement;
 
     // INSERT Queries
     private static final String INSERT_ACTIVE_JOB_ID_STRING = "INSERT INTO active_job_ids (bucket, job_id) VALUES (?, ?);";
-    private static final String INSERT_ACTIVE_JOB_STRING = "INSERT INTO active_jobs (job_id, value) VALUES (?, ?);";
-    private static final String INSERT_ARCHIVED_JOB_STRING = "INSERT INTO archived_jobs (job_id, value) VALUES (?, ?);";
     private static final String INSERT_ACTIVE_TASK_ID_STRING = "INSERT INTO active_task_ids (job_id, task_id) VALUES (?, ?);";
-    private static final String INSERT_ACTIVE_TASK_STRING = "INSERT INTO active_tasks (task_id, value) VALUES (?, ?);";
     private static final String INSERT_ARCHIVED_TASK_ID_STRING = "INSERT INTO archived_task_ids (job_id, task_id) VALUES (?, ?);";
-    private static final String INSERT_ARCHIVED_TASK_STRING = "INSERT INTO archived_tasks (task_id, value) VALUES (?, ?);";
 
-    private final PreparedStatement insertActiveJobStatement;
     private final PreparedStatement insertActiveJobIdStatement;
-    private final PreparedStatement insertArchivedJobStatement;
-    private final PreparedStatement insertActiveTaskStatement;
     private final PreparedStatement insertActiveTaskIdStatement;
     private final PreparedStatement insertArchivedTaskIdStatement;
-    private final PreparedStatement insertArchivedTaskStatement;
+
+    // Job and task records
+    private final JobRecordTable activeJobs;
+    private final JobRecordTable archivedJobs;
+    private final JobRecordTable activeTasks;
+    private final JobRecordTable archivedTasks;
 
     // DELETE Queries
     private static final String DELETE_ACTIVE_JOB_ID_STRING = "DELETE FROM active_job_ids WHERE bucket = ? and job_id = ?";
@@ -131,12 +131,20 @@ public class CassandraJobStore implements JobStore {
 
     private final TitusRuntime titusRuntime;
     private final Session session;
-    private final ObjectMapper mapper;
+    private final JobRecordCodec codec;
     private final BalancedBucketManager<String> activeJobIdsBucketManager;
     private final CassandraStoreConfiguration configuration;
     private final Optional<FitInjection> fitDriverInjection;
     private final Optional<FitInjection> fitBadDataInjection;
 
+    private final Counter rewriteConvertedCounter;
+    private final Counter rewriteSkippedCounter;
+    private final Counter rewriteFailedCounter;
+
+    private final boolean binaryColumnsEnabled;
+    private volatile String lastInvalidJobRecordFormat;
+    private ScheduleReference rewriteScheduleRef;
+
     @Inject
     public CassandraJobStore(CassandraStoreConfiguration configuration,
                              Session session,
@@ -174,25 +182,30 @@ public class CassandraJobStore implements JobStore {
             this.fitBadDataInjection = Optional.empty();
         }
 
-        this.mapper = mapper;
+        this.binaryColumnsEnabled = configuration.isJobRecordBinaryColumnsEnabled()
+                || configuration.isJobRecordRewriteEnabled()
+                || JobRecordFormat.Smile.name().equalsIgnoreCase(configuration.getJobRecordFormat());
+        this.codec = new JobRecordCodec(mapper, ObjectMappers.binaryStoreMapper(), this::resolveJobRecordFormat);
         this.activeJobIdsBucketManager = new BalancedBucketManager<>(initialBucketCount, maxBucketSize, METRIC_NAME_ROOT, titusRuntime.getRegistry());
 
+        Registry registry = titusRuntime.getRegistry();
+        this.rewriteConvertedCounter = registry.counter(METRIC_NAME_ROOT + ".recordRewrite", "result", "converted");
+        this.rewriteSkippedCounter = registry.counter(METRIC_NAME_ROOT + ".recordRewrite", "result", "skipped");
+        this.rewriteFailedCounter = registry.counter(METRIC_NAME_ROOT + ".recordRewrite", "result", "failed");
+
         retrieveActiveJobIdBucketsStatement = session.prepare(RETRIEVE_ACTIVE_JOB_ID_BUCKETS_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
         retrieveActiveJobIdsStatement = session.prepare(RETRIEVE_ACTIVE_JOB_IDS_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
-        retrieveActiveJobStatement = session.prepare(RETRIEVE_ACTIVE_JOB_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
-        retrieveArchivedJobStatement = session.prepare(RETRIEVE_ARCHIVED_JOB_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
         retrieveActiveTaskIdsForJobStatement = session.prepare(RETRIEVE_ACTIVE_TASK_IDS_FOR_JOB_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
         retrieveArchivedTaskIdsForJobStatement = session.prepare(RETRIEVE_ARCHIVED_TASK_IDS_FOR_JOB_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
-        retrieveActiveTaskStatement = session.prepare(RETRIEVE_ACTIVE_TASK_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
-        retrieveArchivedTaskStatement = session.prepare(RETRIEVE_ARCHIVED_TASK_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
 
-        insertActiveJobStatement = session.prepare(INSERT_ACTIVE_JOB_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
         insertActiveJobIdStatement = session.prepare(INSERT_ACTIVE_JOB_ID_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
-        insertArchivedJobStatement = session.prepare(INSERT_ARCHIVED_JOB_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
-        insertActiveTaskStatement = session.prepare(INSERT_ACTIVE_TASK_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
         insertActiveTaskIdStatement = session.prepare(INSERT_ACTIVE_TASK_ID_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
         insertArchivedTaskIdStatement = session.prepare(INSERT_ARCHIVED_TASK_ID_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
-        insertArchivedTaskStatement = session.prepare(INSERT_ARCHIVED_TASK_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+
+        activeJobs = new JobRecordTable(session, "active_jobs", "job_id", binaryColumnsEnabled);
+        archivedJobs = new JobRecordTable(session, "archived_jobs", "job_id", binaryColumnsEnabled);
+        activeTasks = new JobRecordTable(session, "active_tasks", "task_id", binaryColumnsEnabled);
+        archivedTasks = new JobRecordTable(session, "archived_tasks", "task_id", binaryColumnsEnabled);
 
         deleteActiveJobIdStatement = session.prepare(DELETE_ACTIVE_JOB_ID_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
         deleteActiveJobStatement = session.prepare(DELETE_ACTIVE_JOB_STRING).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
@@ -233,14 +246,95 @@ public class CassandraJobStore implements JobStore {
                         completables.add(completable);
                     }
                     return Completable.merge(Observable.from(completables), getConcurrencyLimit()).toObservable();
-                })).toCompletable();
+                })).toCompletable().doOnCompleted(this::scheduleRecordRewrite);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        Evaluators.acceptNotNull(rewriteScheduleRef, ScheduleReference::cancel);
+    }
+
+    private synchronized void scheduleRecordRewrite() {
+        if (rewriteScheduleRef != null || !configuration.isJobRecordRewriteEnabled()) {
+            return;
+        }
+        ScheduleDescriptor scheduleDescriptor = ScheduleDescriptor.newBuilder()
+                .withName("cassandraJobRecordRewrite")
+                .withDescription("Rewrite active job and task records in the configured format")
+                .withInitialDelay(Duration.ofMillis(configuration.getJobRecordRewriteIntervalMs()))
+                .withInterval(Duration.ofMillis(configuration.getJobRecordRewriteIntervalMs()))
+                .withTimeout(Duration.ofMinutes(30))
+                .build();
+        this.rewriteScheduleRef = titusRuntime.getLocalScheduler().schedule(
+                scheduleDescriptor,
+                e -> rewriteActiveRecords(),
+                ExecutorsExt.namedSingleThreadExecutor(CassandraJobStore.class.getSimpleName() + "-recordRewrite")
+        );
+    }
+
+    /**
+     * Rewrites active job and task records, which are not encoded in the configured format. The store writes are not
+     * lightweight transactions, so the rewrite does not use them either. Instead each record is updated with
+     * the write timestamp of the version that was read plus one microsecond. A record updated or archived
+     * concurrently has a later timestamp, and is never overwritten by the rewrite. Records modified within
+     * {@link CassandraStoreConfiguration#getJobRecordRewriteMinRecordAgeMs()} are left for the next iteration.
+     * Returns the number of rewritten records.
+     */
+    int rewriteActiveRecords() {
+        int converted = Observable.from(activeJobIdsBucketManager.getItems())
+                .flatMap(jobId -> Observable.concat(
+                        rewriteRecord(activeJobs, jobId, Job.class),
+                        execute(retrieveActiveTaskIdsForJobStatement.bind(jobId).setFetchSize(Integer.MAX_VALUE))
+                                .flatMapIterable(ResultSet::all)
+                                .concatMap(row -> rewriteRecord(activeTasks, row.getString(0), Task.class))
+                ).onErrorResumeNext(e -> {
+                    logger.warn("Cannot rewrite records of job {}: {}", jobId, e.getMessage());
+                    rewriteFailedCounter.increment();
+                    return Observable.empty();
+                }), getConcurrencyLimit())
+                .filter(applied -> applied)
+                .count()
+                .toBlocking()
+                .first();
+        if (converted > 0) {
+            logger.info("Rewritten {} active job/task records in {} format", converted, codec.getWriteFormat());
+        }
+        return converted;
+    }
+
+    private Observable<Boolean> rewriteRecord(JobRecordTable table, String id, Class<?> type) {
+        return execute(table.getSelectForRewriteStatement().bind(id)).flatMap(resultSet -> {
+            Row row = resultSet.one();
+            if (row == null || codec.getFormat(row) == codec.getWriteFormat()) {
+                return Observable.just(false);
+            }
+            long recordAgeMs = titusRuntime.getClock().wallTime() - codec.getWriteTimeMicros(row) / 1_000;
+            if (recordAgeMs < configuration.getJobRecordRewriteMinRecordAgeMs()) {
+                rewriteSkippedCounter.increment();
+                return Observable.just(false);
+            }
+            Optional<Statement> rewriteStatement;
+            try {
+                rewriteStatement = codec.newRewriteStatement(table, id, row, type);
+            } catch (Exception e) {
+                logger.warn("Cannot rewrite record {} in table {}: {}", id, table.getTableName(), e.getMessage());
+                rewriteFailedCounter.increment();
+                return Observable.just(false);
+            }
+            return rewriteStatement
+                    .map(statement -> execute(statement).map(rewriteResult -> {
+                        rewriteConvertedCounter.increment();
+                        return true;
+                    }))
+                    .orElse(Observable.just(false));
+        });
     }
 
     @Override
     public Observable<Pair<List<Job<?>>, Integer>> retrieveJobs() {
         Observable result = Observable.fromCallable(() -> {
             List<String> jobIds = activeJobIdsBucketManager.getItems();
-            return jobIds.stream().map(retrieveActiveJobStatement::bind).map(this::execute).collect(Collectors.toList());
+            return jobIds.stream().map(activeJobs.getSelectStatement()::bind).map(this::execute).collect(Collectors.toList());
         }).flatMap(observables -> Observable.merge(observables, getConcurrencyLimit()).flatMapIterable(resultSet -> {
             List<Row> allRows = resultSet.all();
             if (allRows.isEmpty()) {
@@ -248,20 +342,15 @@ public class CassandraJobStore implements JobStore {
                 return Collections.emptyList();
             }
             return allRows.stream()
-                    .map(row -> row.getString(0))
-                    .map(value -> {
-                        String effectiveValue;
-                        if (fitBadDataInjection.isPresent()) {
-                            effectiveValue = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.CorruptedRawJobRecords.name(), value);
-                        } else {
-                            effectiveValue = value;
-                        }
-
+                    .map(row -> {
                         Job<?> job;
                         try {
-                            job = ObjectMappers.readValue(mapper, effectiveValue, Job.class);
+                            job = codec.decode(row, Job.class, value -> fitBadDataInjection
+                                    .map(injection -> injection.afterImmediate(JobStoreFitAction.ErrorKind.CorruptedRawJobRecords.name(), value))
+                                    .orElse(value)
+                            );
                         } catch (Exception e) {
-                            logger.error("Cannot map serialized job data to Job class: {}", effectiveValue, e);
+                            logger.error("Cannot map serialized job data to Job class: {}", toRecordSummary(row), e);
                             return Either.ofError(e);
                         }
 
@@ -305,14 +394,13 @@ public class CassandraJobStore implements JobStore {
     public Observable<Job<?>> retrieveJob(String jobId) {
         return Observable.fromCallable((Callable<Statement>) () -> {
             checkIfJobIsActive(jobId);
-            return retrieveActiveJobStatement.bind(jobId);
+            return activeJobs.getSelectStatement().bind(jobId);
         }).flatMap(statement -> execute(statement).map(resultSet -> {
             Row row = resultSet.one();
             if (row == null) {
                 throw JobStoreException.jobDoesNotExist(jobId);
             }
-            String value = row.getString(0);
-            return (Job<?>) ObjectMappers.readValue(mapper, value, Job.class);
+            return (Job<?>) codec.decode(row, Job.class);
         }));
     }
 
@@ -323,45 +411,40 @@ public class CassandraJobStore implements JobStore {
                     String jobId = job.getId();
                     checkIfJobAlreadyExists(jobId);
 
-                    String jobJsonString = writeJobToString(job);
+                    Statement jobStatement = codec.newInsertStatement(activeJobs, jobId, job);
 
                     int bucket = activeJobIdsBucketManager.getNextBucket();
                     activeJobIdsBucketManager.addItem(bucket, jobId);
-                    Statement jobStatement = insertActiveJobStatement.bind(jobId, jobJsonString);
                     Statement jobIdStatement = insertActiveJobIdStatement.bind(bucket, jobId);
 
                     BatchStatement batchStatement = new BatchStatement();
                     batchStatement.add(jobStatement);
                     batchStatement.add(jobIdStatement);
 
-                    transactionLogger().logBeforeCreate(insertActiveJobStatement, "storeJob", job);
+                    transactionLogger().logBeforeCreate(activeJobs.getInsertJsonStatement(), "storeJob", job);
 
                     return batchStatement;
                 })
                 .flatMap(statement -> execute(statement)
-                        .doOnNext(rs -> transactionLogger().logAfterCreate(insertActiveJobStatement, "storeJob", job))
+                        .doOnNext(rs -> transactionLogger().logAfterCreate(activeJobs.getInsertJsonStatement(), "storeJob", job))
                         .doOnError(throwable -> activeJobIdsBucketManager.deleteItem(job.getId()))
                 )
                 .toCompletable();
     }
 
-    private String writeJobToString(Job job) {
-        return ObjectMappers.writeValueAsString(mapper, job);
-    }
-
     @Override
     public Completable updateJob(Job job) {
         return Observable
                 .fromCallable((Callable<Statement>) () -> {
                     String jobId = job.getId();
                     checkIfJobIsActive(jobId);
-                    String jobJsonString = writeJobToString(job);
+                    Statement jobStatement = codec.newInsertStatement(activeJobs, jobId, job);
 
-                    transactionLogger().logBeforeUpdate(insertActiveJobStatement, "updateJob", job);
-                    return insertActiveJobStatement.bind(jobId, jobJsonString);
+                    transactionLogger().logBeforeUpdate(activeJobs.getInsertJsonStatement(), "updateJob", job);
+                    return jobStatement;
                 })
                 .flatMap(statement ->
-                        execute(statement).doOnNext(rs -> transactionLogger().logAfterUpdate(insertActiveJobStatement, "updateJob", job))
+                        execute(statement).doOnNext(rs -> transactionLogger().logAfterUpdate(activeJobs.getInsertJsonStatement(), "updateJob", job))
                 )
                 .toCompletable();
     }
@@ -435,23 +518,17 @@ public class CassandraJobStore implements JobStore {
                     })
                     .collect(Collectors.toList());
 
-            List<Observable<ResultSet>> observables = taskIds.stream().map(retrieveActiveTaskStatement::bind).map(this::execute).collect(Collectors.toList());
+            List<Observable<ResultSet>> observables = taskIds.stream().map(activeTasks.getSelectStatement()::bind).map(this::execute).collect(Collectors.toList());
 
             return Observable.merge(observables, getConcurrencyLimit()).flatMapIterable(tasksResultSet -> {
                 List<Either<Task, Throwable>> tasks = new ArrayList<>();
                 for (Row row : tasksResultSet.all()) {
-                    String value = row.getString(0);
-
-                    String effectiveValue;
-                    if (fitBadDataInjection.isPresent()) {
-                        effectiveValue = fitBadDataInjection.get().afterImmediate(JobStoreFitAction.ErrorKind.CorruptedRawTaskRecords.name(), value);
-                    } else {
-                        effectiveValue = value;
-                    }
-
                     Task task;
                     try {
-                        task = deserializeTask(effectiveValue);
+                        task = deserializeTask(row, value -> fitBadDataInjection
+                                .map(injection -> injection.afterImmediate(JobStoreFitAction.ErrorKind.CorruptedRawTaskRecords.name(), value))
+                                .orElse(value)
+                        );
 
                         if (!fitBadDataInjection.isPresent()) {
                             tasks.add(Either.ofValue(task));
@@ -462,9 +539,9 @@ public class CassandraJobStore implements JobStore {
                             tasks.add(Either.ofValue(effectiveTask));
                         }
 
-                        transactionLogger().logAfterRead(retrieveActiveTaskStatement, "retrieveTasksForJob", task);
+                        transactionLogger().logAfterRead(activeTasks.getSelectStatement(), "retrieveTasksForJob", task);
                     } catch (Exception e) {
-                        logger.error("Cannot map serialized task data to Task class: {}", effectiveValue, e);
+                        logger.error("Cannot map serialized task data to Task class: {}", toRecordSummary(row), e);
                         tasks.add(Either.ofError(e));
                     }
                 }
@@ -481,16 +558,15 @@ public class CassandraJobStore implements JobStore {
     public Observable<Task> retrieveTask(String taskId) {
         return Observable
                 .fromCallable((Callable<Statement>) () -> {
-                    transactionLogger().logBeforeRead(retrieveActiveTaskStatement, "retrieveTask", taskId);
-                    return retrieveActiveTaskStatement.bind(taskId);
+                    transactionLogger().logBeforeRead(activeTasks.getSelectStatement(), "retrieveTask", taskId);
+                    return activeTasks.getSelectStatement().bind(taskId);
                 })
                 .flatMap(statement -> execute(statement).flatMap(resultSet -> {
                     Row row = resultSet.one();
                     if (row != null) {
-                        String value = row.getString(0);
-                        Task task = deserializeTask(value);
+                        Task task = deserializeTask(row, UnaryOperator.identity());
 
-                        transactionLogger().logAfterRead(retrieveActiveTaskStatement, "retrieveTask", task);
+                        transactionLogger().logAfterRead(activeTasks.getSelectStatement(), "retrieveTask", task);
 
                         return Observable.just(task);
                     } else {
@@ -505,19 +581,18 @@ public class CassandraJobStore implements JobStore {
             String jobId = task.getJobId();
             String taskId = task.getId();
             checkIfJobIsActive(jobId);
-            String taskJsonString = ObjectMappers.writeValueAsString(mapper, task);
-            Statement taskStatement = insertActiveTaskStatement.bind(taskId, taskJsonString);
+            Statement taskStatement = codec.newInsertStatement(activeTasks, taskId, task);
             Statement taskIdStatement = insertActiveTaskIdStatement.bind(jobId, taskId);
 
             BatchStatement batchStatement = new BatchStatement();
             batchStatement.add(taskStatement);
             batchStatement.add(taskIdStatement);
 
-            transactionLogger().logBeforeCreate(insertActiveTaskStatement, "storeTask", task);
+            transactionLogger().logBeforeCreate(activeTasks.getInsertJsonStatement(), "storeTask", task);
 
             return batchStatement;
         }).flatMap(statement ->
-                execute(statement).doOnNext(rs -> transactionLogger().logAfterCreate(insertActiveTaskStatement, "storeTask", task))
+                execute(statement).doOnNext(rs -> transactionLogger().logAfterCreate(activeTasks.getInsertJsonStatement(), "storeTask", task))
         ).toCompletable();
     }
 
@@ -527,13 +602,13 @@ public class CassandraJobStore implements JobStore {
             String jobId = task.getJobId();
             String taskId = task.getId();
             checkIfJobIsActive(jobId);
-            String taskJsonString = ObjectMappers.writeValueAsString(mapper, task);
+            Statement taskStatement = codec.newInsertStatement(activeTasks, taskId, task);
 
-            transactionLogger().logBeforeUpdate(insertActiveTaskStatement, "updateTask", task);
+            transactionLogger().logBeforeUpdate(activeTasks.getInsertJsonStatement(), "updateTask", task);
 
-            return insertActiveTaskStatement.bind(taskId, taskJsonString);
+            return taskStatement;
         }).flatMap(statement -> {
-                    transactionLogger().logAfterUpdate(insertActiveTaskStatement, "updateTask", task);
+                    transactionLogger().logAfterUpdate(activeTasks.getInsertJsonStatement(), "updateTask", task);
                     return execute(statement);
                 }
         ).toCompletable();
@@ -545,11 +620,10 @@ public class CassandraJobStore implements JobStore {
             String jobId = newTask.getJobId();
             checkIfJobIsActive(jobId);
             String taskId = newTask.getId();
-            String taskJsonString = ObjectMappers.writeValueAsString(mapper, newTask);
 
             BatchStatement batchStatement = getArchiveTaskBatchStatement(oldTask);
 
-            Statement insertTaskStatement = insertActiveTaskStatement.bind(taskId, taskJsonString);
+            Statement insertTaskStatement = codec.newInsertStatement(activeTasks, taskId, newTask);
             Statement insertTaskIdStatement = insertActiveTaskIdStatement.bind(jobId, taskId);
 
             batchStatement.add(insertTaskStatement);
@@ -575,18 +649,17 @@ public class CassandraJobStore implements JobStore {
             checkIfJobIsActive(jobFrom.getId());
             checkIfJobIsActive(jobTo.getId());
 
-            String taskJsonString = ObjectMappers.writeValueAsString(mapper, taskAfter);
-            transactionLogger().logBeforeUpdate(insertActiveTaskStatement, "moveTask", taskJsonString);
+            transactionLogger().logBeforeUpdate(activeTasks.getInsertJsonStatement(), "moveTask", taskAfter);
 
             BatchStatement batchStatement = new BatchStatement();
-            batchStatement.add(insertActiveJobStatement.bind(jobFrom.getId(), ObjectMappers.writeValueAsString(mapper, jobFrom)));
-            batchStatement.add(insertActiveJobStatement.bind(jobTo.getId(), ObjectMappers.writeValueAsString(mapper, jobTo)));
-            batchStatement.add(insertActiveTaskStatement.bind(taskAfter.getId(), taskJsonString));
+            batchStatement.add(codec.newInsertStatement(activeJobs, jobFrom.getId(), jobFrom));
+            batchStatement.add(codec.newInsertStatement(activeJobs, jobTo.getId(), jobTo));
+            batchStatement.add(codec.newInsertStatement(activeTasks, taskAfter.getId(), taskAfter));
             batchStatement.add(deleteActiveTaskIdStatement.bind(jobFrom.getId(), taskAfter.getId()));
             batchStatement.add(insertActiveTaskIdStatement.bind(jobTo.getId(), taskAfter.getId()));
 
             return batchStatement;
-        }).flatMap(this::execute).toCompletable().doOnCompleted(() -> transactionLogger().logAfterUpdate(insertActiveTaskStatement, "moveTask", taskAfter));
+        }).flatMap(this::execute).toCompletable().doOnCompleted(() -> transactionLogger().logAfterUpdate(activeTasks.getInsertJsonStatement(), "moveTask", taskAfter));
     }
 
     @Override
@@ -612,8 +685,8 @@ public class CassandraJobStore implements JobStore {
      */
     @Override
     public Observable<Job<?>> retrieveArchivedJob(String jobId) {
-        Observable<Job> action = retrieveEntityById(jobId, Job.class, retrieveArchivedJobStatement)
-                .switchIfEmpty(retrieveEntityById(jobId, Job.class, retrieveActiveJobStatement)
+        Observable<Job> action = retrieveEntityById(jobId, Job.class, archivedJobs)
+                .switchIfEmpty(retrieveEntityById(jobId, Job.class, activeJobs)
                         .filter(job -> job.getStatus().getState() == JobState.Finished)
                 )
                 .switchIfEmpty(Observable.error(JobStoreException.jobDoesNotExist(jobId)));
@@ -627,13 +700,13 @@ public class CassandraJobStore implements JobStore {
      */
     @Override
     public Observable<Task> retrieveArchivedTasksForJob(String jobId) {
-        return retrieveTasksForJob(jobId, retrieveArchivedTaskIdsForJobStatement, retrieveArchivedTaskStatement)
-                .switchIfEmpty(retrieveTasksForJob(jobId, retrieveActiveTaskIdsForJobStatement, retrieveActiveTaskStatement)
+        return retrieveTasksForJob(jobId, retrieveArchivedTaskIdsForJobStatement, archivedTasks)
+                .switchIfEmpty(retrieveTasksForJob(jobId, retrieveActiveTaskIdsForJobStatement, activeTasks)
                         .filter(task -> task.getStatus().getState() == TaskState.Finished)
                 );
     }
 
-    private Observable<Task> retrieveTasksForJob(String jobId, PreparedStatement taskIdStatement, PreparedStatement taskStatement) {
+    private Observable<Task> retrieveTasksForJob(String jobId, PreparedStatement taskIdStatement, JobRecordTable taskTable) {
         return Observable.fromCallable(() -> taskIdStatement.bind(jobId).setFetchSize(Integer.MAX_VALUE))
                 .flatMap(retrieveActiveTaskIdsForJob ->
                         execute(retrieveActiveTaskIdsForJob).flatMap(taskIdsResultSet -> {
@@ -642,12 +715,11 @@ public class CassandraJobStore implements JobStore {
                                 return Observable.empty();
                             }
                             List<Observable<ResultSet>> observables = taskIds.stream()
-                                    .map(taskStatement::bind)
+                                    .map(taskTable.getSelectStatement()::bind)
                                     .map(this::execute)
                                     .collect(Collectors.toList());
                             return Observable.merge(observables, getConcurrencyLimit()).flatMapIterable(tasksResultSet -> tasksResultSet.all().stream()
-                                    .map(row -> row.getString(0))
-                                    .map(this::deserializeTask)
+                                    .map(row -> deserializeTask(row, UnaryOperator.identity()))
                                     .collect(Collectors.toList()));
                         }));
     }
@@ -663,15 +735,15 @@ public class CassandraJobStore implements JobStore {
      */
     @Override
     public Observable<Task> retrieveArchivedTask(String taskId) {
-        return retrieveEntityById(taskId, Task.class, retrieveArchivedTaskStatement)
-                .switchIfEmpty(retrieveEntityById(taskId, Task.class, retrieveActiveTaskStatement)
+        return retrieveEntityById(taskId, Task.class, archivedTasks)
+                .switchIfEmpty(retrieveEntityById(taskId, Task.class, activeTasks)
                         .filter(task -> task.getStatus().getState() == TaskState.Finished)
                 )
                 .switchIfEmpty(Observable.error(JobStoreException.taskDoesNotExist(taskId)));
     }
 
-    private <T> Observable<T> retrieveEntityById(String id, Class<T> type, PreparedStatement preparedStatement) {
-        return Observable.fromCallable((Callable<Statement>) () -> preparedStatement.bind(id))
+    private <T> Observable<T> retrieveEntityById(String id, Class<T> type, JobRecordTable table) {
+        return Observable.fromCallable((Callable<Statement>) () -> table.getSelectStatement().bind(id))
                 .flatMap(this::execute)
                 .flatMap(resultSet -> {
                     Row row = resultSet.one();
@@ -679,19 +751,18 @@ public class CassandraJobStore implements JobStore {
                         return Observable.empty();
                     }
                     try {
-                        String value = row.getString(0);
                         if (type.isAssignableFrom(Task.class)) {
-                            return Observable.just((T) deserializeTask(value));
+                            return Observable.just((T) deserializeTask(row, UnaryOperator.identity()));
                         }
-                        return Observable.just(ObjectMappers.readValue(mapper, value, type));
+                        return Observable.just(codec.decode(row, type));
                     } catch (Exception e) {
                         return Observable.error(e);
                     }
                 });
     }
 
-    private Task deserializeTask(String value) {
-        Task task = ObjectMappers.readValue(mapper, value, Task.class);
+    private Task deserializeTask(Row row, UnaryOperator<String> jsonInterceptor) {
+        Task task = codec.decode(row, Task.class, jsonInterceptor);
 
         // Task attributes field check
         if (task.getAttributes() == null) {
@@ -708,11 +779,10 @@ public class CassandraJobStore implements JobStore {
     private BatchStatement getArchiveJobBatchStatement(Job job) {
         String jobId = job.getId();
         int bucket = activeJobIdsBucketManager.getItemBucket(jobId);
-        String jobJsonString = writeJobToString(job);
 
         Statement deleteJobStatement = deleteActiveJobStatement.bind(jobId);
         Statement deleteJobIdStatement = deleteActiveJobIdStatement.bind(bucket, jobId);
-        Statement insertJobStatement = insertArchivedJobStatement.bind(jobId, jobJsonString);
+        Statement insertJobStatement = codec.newInsertStatement(archivedJobs, jobId, job);
 
         BatchStatement statement = new BatchStatement();
         statement.add(deleteJobStatement);
@@ -725,11 +795,10 @@ public class CassandraJobStore implements JobStore {
     private BatchStatement getArchiveTaskBatchStatement(Task task) {
         String jobId = task.getJobId();
         String taskId = task.getId();
-        String taskJsonString = ObjectMappers.writeValueAsString(mapper, task);
 
         Statement deleteTaskStatement = deleteActiveTaskStatement.bind(taskId);
         Statement deleteTaskIdStatement = deleteActiveTaskIdStatement.bind(jobId, taskId);
-        Statement insertTaskStatement = insertArchivedTaskStatement.bind(taskId, taskJsonString);
+        Statement insertTaskStatement = codec.newInsertStatement(archivedTasks, taskId, task);
         Statement insertTaskIdStatement = insertArchivedTaskIdStatement.bind(jobId, taskId);
 
         BatchStatement batchStatement = new BatchStatement();
@@ -776,6 +845,34 @@ public class CassandraJobStore implements JobStore {
         ).doOnError(e -> logger.error("Cassandra operation error: {}", e.getMessage()));
     }
 
+    private JobRecordFormat resolveJobRecordFormat() {
+        String formatName = configuration.getJobRecordFormat();
+        try {
+            JobRecordFormat format = StringExt.parseEnumIgnoreCase(formatName, JobRecordFormat.class);
+            if (format == JobRecordFormat.Json || binaryColumnsEnabled) {
+                return format;
+            }
+            if (!formatName.equals(lastInvalidJobRecordFormat)) {
+                logger.warn("Job record format {} requires the binary record columns, which were not enabled at startup; using {}", formatName, JobRecordFormat.Json);
+                lastInvalidJobRecordFormat = formatName;
+            }
+        } catch (Exception e) {
+            if (!formatName.equals(lastInvalidJobRecordFormat)) {
+                logger.warn("Invalid job record format {}; using {}", formatName, JobRecordFormat.Json);
+                lastInvalidJobRecordFormat = formatName;
+            }
+        }
+        return JobRecordFormat.Json;
+    }
+
+    private String toRecordSummary(Row row) {
+        JobRecordFormat format = codec.getFormat(row);
+        if (format == JobRecordFormat.Json) {
+            return row.getString(0);
+        }
+        return String.format("{format=%s, size=%s}", format, row.isNull(1) ? 0 : row.getBytes(1).remaining());
+    }
+
     private int getConcurrencyLimit() {
         return Math.max(2, configuration.getConcurrencyLimit());
     }
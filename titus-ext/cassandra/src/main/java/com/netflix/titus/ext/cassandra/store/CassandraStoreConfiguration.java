@@ -80,4 +80,51 @@ public interface CassandraStoreConfiguration {
     @DefaultValue("false")
     boolean isTracingEnabled();
 
+    /**
+     * Format in which job and task records are written ('json' or 'smile'). Records in both formats can always be
+     * read, but the format should be changed only if all deployed masters can read it. The 'smile' format requires
+     * the binary record columns (see {@link #isJobRecordBinaryColumnsEnabled()}). If they were not enabled at startup,
+     * records are written as 'json'.
+     *
+     * @see JobRecordFormat
+     */
+    @DefaultValue("json")
+    String getJobRecordFormat();
+
+    /**
+     * If enabled, the job and task record statements use the 'binary_value' and 'codec' columns. They are also used
+     * if the 'smile' format or the record rewrite is enabled at startup. Otherwise only the 'value' column is accessed,
+     * so the store works with tables which were not migrated yet. The upgrade order is:
+     * <ul>
+     * <li>deploy the new version with the default configuration (no schema change is required)</li>
+     * <li>add the columns to the active_jobs, archived_jobs, active_tasks and archived_tasks tables:
+     * <tt>ALTER TABLE &lt;table&gt; ADD binary_value blob; ALTER TABLE &lt;table&gt; ADD codec int;</tt></li>
+     * <li>enable the 'smile' format, and optionally the record rewrite</li>
+     * </ul>
+     * Archived records are never rewritten, so after switching back to 'json', this property must stay enabled,
+     * as long as there are 'smile' records to read.
+     */
+    @DefaultValue("false")
+    boolean isJobRecordBinaryColumnsEnabled();
+
+    /**
+     * If enabled, active job and task records which are not in the {@link #getJobRecordFormat()} format, are rewritten
+     * in the background.
+     */
+    @DefaultValue("false")
+    boolean isJobRecordRewriteEnabled();
+
+    /**
+     * Interval between subsequent runs of the job and task record rewrite process.
+     */
+    @DefaultValue("300000")
+    long getJobRecordRewriteIntervalMs();
+
+    /**
+     * Records modified more recently than this are not rewritten, and are left for the next iteration. The rewrite
+     * is timestamped just after the record it replaces, so it must not race with updates of frequently changing records.
+     */
+    @DefaultValue("10000")
+    long getJobRecordRewriteMinRecordAgeMs();
+
 }
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.ext.cassandra.store;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import com.datastax.driver.core.Row;
+import com.datastax.driver.core.Statement;
+import com.datastax.driver.core.utils.Bytes;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.titus.api.json.ObjectMappers;
+
+/**
+ * Reads and writes job and task records in the {@link JobRecordFormat formats} supported by {@link CassandraJobStore}.
+ * Records are always written in the currently configured format, and can be read in any of them.
+ */
+class JobRecordCodec {
+
+    private static final int VALUE_COLUMN = 0;
+    private static final int BINARY_VALUE_COLUMN = 1;
+    private static final int CODEC_COLUMN = 2;
+    private static final int VALUE_WRITE_TIME_COLUMN = 3;
+    private static final int CODEC_WRITE_TIME_COLUMN = 4;
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper binaryMapper;
+    private final Supplier<JobRecordFormat> writeFormatSupplier;
+
+    JobRecordCodec(ObjectMapper jsonMapper, ObjectMapper binaryMapper, Supplier<JobRecordFormat> writeFormatSupplier) {
+        this.jsonMapper = jsonMapper;
+        this.binaryMapper = binaryMapper;
+        this.writeFormatSupplier = writeFormatSupplier;
+    }
+
+    JobRecordFormat getWriteFormat() {
+        return writeFormatSupplier.get();
+    }
+
+    /**
+     * Creates an insert statement for the given entity, encoded in the configured format.
+     */
+    Statement newInsertStatement(JobRecordTable table, String id, Object entity) {
+        if (getWriteFormat() == JobRecordFormat.Smile) {
+            return table.getInsertBinaryStatement().bind(id, ByteBuffer.wrap(writeBinary(entity)));
+        }
+        return table.getInsertJsonStatement().bind(id, ObjectMappers.writeValueAsString(jsonMapper, entity));
+    }
+
+    /**
+     * Returns the format of a record selected with {@link JobRecordTable#getSelectStatement()}. Records selected
+     * without the codec column (binary columns not enabled) are JSON.
+     */
+    JobRecordFormat getFormat(Row row) {
+        if (row.getColumnDefinitions().size() <= CODEC_COLUMN || row.isNull(CODEC_COLUMN)) {
+            return JobRecordFormat.Json;
+        }
+        return JobRecordFormat.fromId(row.getInt(CODEC_COLUMN));
+    }
+
+    /**
+     * Decodes a record selected with {@link JobRecordTable#getSelectStatement()}.
+     *
+     * @param jsonInterceptor applied to JSON records before they are parsed (used for fault injection)
+     */
+    <T> T decode(Row row, Class<T> type, UnaryOperator<String> jsonInterceptor) {
+        if (getFormat(row) == JobRecordFormat.Smile) {
+            ByteBuffer value = row.getBytes(BINARY_VALUE_COLUMN);
+            if (value == null) {
+                throw new IllegalStateException("Binary record with no value");
+            }
+            try {
+                return binaryMapper.readValue(Bytes.getArray(value), type);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Cannot parse binary record of type " + type.getSimpleName(), e);
+            }
+        }
+        return ObjectMappers.readValue(jsonMapper, jsonInterceptor.apply(row.getString(VALUE_COLUMN)), type);
+    }
+
+    <T> T decode(Row row, Class<T> type) {
+        return decode(row, type, UnaryOperator.identity());
+    }
+
+    /**
+     * Returns the write timestamp (in microseconds) of a record selected with {@link JobRecordTable#getSelectForRewriteStatement()}.
+     * Records written before the codec column was introduced have only the value column set.
+     */
+    long getWriteTimeMicros(Row row) {
+        return row.isNull(CODEC_WRITE_TIME_COLUMN) ? row.getLong(VALUE_WRITE_TIME_COLUMN) : row.getLong(CODEC_WRITE_TIME_COLUMN);
+    }
+
+    /**
+     * Returns an update statement converting a record selected with {@link JobRecordTable#getSelectForRewriteStatement()}
+     * to the configured format, or {@link Optional#empty()} if the record is already in this format. The update has
+     * the write timestamp of the record plus one microsecond, so it loses to any later write or delete of the record.
+     */
+    Optional<Statement> newRewriteStatement(JobRecordTable table, String id, Row row, Class<?> type) {
+        JobRecordFormat writeFormat = getWriteFormat();
+        if (getFormat(row) == writeFormat) {
+            return Optional.empty();
+        }
+
+        Object entity = decode(row, type);
+        String newValue = null;
+        ByteBuffer newBinaryValue = null;
+        if (writeFormat == JobRecordFormat.Smile) {
+            newBinaryValue = ByteBuffer.wrap(writeBinary(entity));
+        } else {
+            newValue = ObjectMappers.writeValueAsString(jsonMapper, entity);
+        }
+        return Optional.of(table.getRewriteStatement().bind(
+                getWriteTimeMicros(row) + 1, newValue, newBinaryValue, writeFormat.getId(), id
+        ));
+    }
+
+    private byte[] writeBinary(Object entity) {
+        try {
+            return binaryMapper.writeValueAsBytes(entity);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Cannot serialize entity of type " + entity.getClass().getSimpleName(), e);
+        }
+    }
+}
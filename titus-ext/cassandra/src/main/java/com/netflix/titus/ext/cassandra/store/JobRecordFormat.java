@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.ext.cassandra.store;
+
+/**
+ * Encoding of job and task records in Cassandra. The format id is stored in the 'codec' column of each record, with
+ * missing value meaning {@link #Json}, which is the format used before the column was added.
+ */
+public enum JobRecordFormat {
+
+    /**
+     * JSON text, stored in the 'value' column.
+     */
+    Json(0),
+
+    /**
+     * Binary JSON (Smile), stored in the 'binary_value' column. Smile is a lossless encoding of the same document
+     * as {@link #Json}, but it is more compact, and cheaper to parse.
+     */
+    Smile(1);
+
+    private final int id;
+
+    JobRecordFormat(int id) {
+        this.id = id;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public static JobRecordFormat fromId(int id) {
+        for (JobRecordFormat format : values()) {
+            if (format.id == id) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown job record format id: " + id);
+    }
+}
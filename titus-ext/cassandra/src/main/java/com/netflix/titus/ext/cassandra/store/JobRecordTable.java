@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.ext.cassandra.store;
+
+import com.datastax.driver.core.ConsistencyLevel;
+import com.datastax.driver.core.PreparedStatement;
+import com.datastax.driver.core.Session;
+import com.google.common.base.Preconditions;
+
+import static java.lang.String.format;
+
+/**
+ * Prepared statements for a table with job or task records (active_jobs, archived_jobs, active_tasks, archived_tasks).
+ * If the binary columns are not enabled, the statements access the 'value' column only, and the binary insert and
+ * the rewrite statements are not available.
+ */
+class JobRecordTable {
+
+    private final String tableName;
+    private final PreparedStatement selectStatement;
+    private final PreparedStatement insertJsonStatement;
+    private final PreparedStatement insertBinaryStatement;
+    private final PreparedStatement selectForRewriteStatement;
+    private final PreparedStatement rewriteStatement;
+
+    JobRecordTable(Session session, String tableName, String idColumn, boolean binaryColumnsEnabled) {
+        this.tableName = tableName;
+        if (!binaryColumnsEnabled) {
+            this.selectStatement = prepare(session, format("SELECT value FROM %s WHERE %s = ?;", tableName, idColumn));
+            this.insertJsonStatement = prepare(session, format("INSERT INTO %s (%s, value) VALUES (?, ?);", tableName, idColumn));
+            this.insertBinaryStatement = null;
+            this.selectForRewriteStatement = null;
+            this.rewriteStatement = null;
+            return;
+        }
+        this.selectStatement = prepare(session, format("SELECT value, binary_value, codec FROM %s WHERE %s = ?;", tableName, idColumn));
+        this.insertJsonStatement = prepare(session, format(
+                "INSERT INTO %s (%s, value, codec) VALUES (?, ?, %s);", tableName, idColumn, JobRecordFormat.Json.getId()
+        ));
+        this.insertBinaryStatement = prepare(session, format(
+                "INSERT INTO %s (%s, value, binary_value, codec) VALUES (?, null, ?, %s);", tableName, idColumn, JobRecordFormat.Smile.getId()
+        ));
+        this.selectForRewriteStatement = prepare(session, format(
+                "SELECT value, binary_value, codec, WRITETIME(value), WRITETIME(codec) FROM %s WHERE %s = ?;", tableName, idColumn
+        ));
+        // The timestamp is provided by the caller (see JobRecordCodec#newRewriteStatement).
+        this.rewriteStatement = prepare(session, format(
+                "UPDATE %s USING TIMESTAMP ? SET value = ?, binary_value = ?, codec = ? WHERE %s = ?;", tableName, idColumn
+        ));
+    }
+
+    String getTableName() {
+        return tableName;
+    }
+
+    /**
+     * Returns a statement selecting value, binary_value and codec columns (in this order) for a given record id.
+     * If the binary columns are not enabled, only the value column is selected.
+     */
+    PreparedStatement getSelectStatement() {
+        return selectStatement;
+    }
+
+    /**
+     * Insert statement with (id, json_value) parameters.
+     */
+    PreparedStatement getInsertJsonStatement() {
+        return insertJsonStatement;
+    }
+
+    /**
+     * Insert statement with (id, binary_value) parameters.
+     */
+    PreparedStatement getInsertBinaryStatement() {
+        return checkBinaryColumnsEnabled(insertBinaryStatement);
+    }
+
+    /**
+     * Returns a statement selecting value, binary_value, codec columns and the write timestamps of the value and codec
+     * columns (in this order) for a given record id.
+     */
+    PreparedStatement getSelectForRewriteStatement() {
+        return checkBinaryColumnsEnabled(selectForRewriteStatement);
+    }
+
+    /**
+     * Update statement with (timestamp, value, binary_value, codec, id) parameters.
+     */
+    PreparedStatement getRewriteStatement() {
+        return checkBinaryColumnsEnabled(rewriteStatement);
+    }
+
+    private PreparedStatement checkBinaryColumnsEnabled(PreparedStatement statement) {
+        Preconditions.checkState(statement != null, "Binary record columns not enabled for table %s", tableName);
+        return statement;
+    }
+
+    private static PreparedStatement prepare(Session session, String query) {
+        return session.prepare(query).setConsistencyLevel(ConsistencyLevel.LOCAL_QUORUM);
+    }
+}
@@ -21,7 +21,9 @@ import java.util.List;
 import java.util.UUID;
 
 import com.datastax.driver.core.ResultSet;
+import com.datastax.driver.core.Row;
 import com.datastax.driver.core.Session;
+import com.datastax.driver.core.Statement;
 import com.netflix.titus.api.jobmanager.model.job.BatchJobTask;
 import com.netflix.titus.api.jobmanager.model.job.Job;
 import com.netflix.titus.api.jobmanager.model.job.JobDescriptor;
@@ -432,8 +434,215 @@ public class CassandraJobStoreTest {
         jobToTasksLoaded.getLeft().forEach(t -> assertThat(t.getJobId()).isEqualTo(jobTo.getId()));
     }
 
+    @Test
+    public void testBinaryRecordFormat() {
+        CassandraJobStore store = getJobStore(JobRecordFormat.Smile);
+        store.init().await();
+
+        Job<BatchJobExt> job = createBatchJobObject();
+        store.storeJob(job).await();
+        Task task = createTaskObject(job);
+        store.storeTask(task).await();
+
+        assertThat(store.retrieveJobs().toBlocking().first().getLeft()).containsExactly(job);
+        assertThat(store.retrieveTask(task.getId()).toBlocking().first()).isEqualTo(task);
+        assertThat(readRecordFormats("active_jobs")).containsOnly(JobRecordFormat.Smile);
+        assertThat(readRecordFormats("active_tasks")).containsOnly(JobRecordFormat.Smile);
+
+        Task finishedTask = JobFunctions.changeTaskStatus(task, TaskStatus.newBuilder().withState(TaskState.Finished).build());
+        store.updateTask(finishedTask).await();
+        store.deleteTask(finishedTask).await();
+        assertThat(store.retrieveArchivedTask(task.getId()).toBlocking().first()).isEqualTo(finishedTask);
+        assertThat(readRecordFormats("archived_tasks")).containsOnly(JobRecordFormat.Smile);
+    }
+
+    @Test
+    public void testJsonRecordFormatWithoutBinaryColumns() {
+        Session session = cassandraCqlUnit.getSession();
+        for (String table : new String[]{"active_jobs", "archived_jobs", "active_tasks", "archived_tasks"}) {
+            session.execute("ALTER TABLE " + table + " DROP binary_value;");
+            session.execute("ALTER TABLE " + table + " DROP codec;");
+        }
+
+        // Tables not migrated yet, accessed with the default configuration
+        JobStore store = new CassandraJobStore(new TestCassandraStoreConfiguration(JobRecordFormat.Json, false), session, TitusRuntimes.internal(),
+                ObjectMappers.storeMapper(), INITIAL_BUCKET_COUNT, MAX_BUCKET_SIZE);
+        store.init().await();
+
+        Job<BatchJobExt> job = createBatchJobObject();
+        store.storeJob(job).await();
+        Task task = createTaskObject(job);
+        store.storeTask(task).await();
+
+        assertThat(store.retrieveJobs().toBlocking().first().getLeft()).containsExactly(job);
+        assertThat(store.retrieveTask(task.getId()).toBlocking().first()).isEqualTo(task);
+
+        Task finishedTask = JobFunctions.changeTaskStatus(task, TaskStatus.newBuilder().withState(TaskState.Finished).build());
+        store.updateTask(finishedTask).await();
+        store.deleteTask(finishedTask).await();
+        assertThat(store.retrieveArchivedTask(task.getId()).toBlocking().first()).isEqualTo(finishedTask);
+    }
+
+    @Test
+    public void testDualFormatRead() {
+        CassandraJobStore jsonStore = getJobStore(JobRecordFormat.Json);
+        jsonStore.init().await();
+        Job<BatchJobExt> jsonJob = createBatchJobObject();
+        jsonStore.storeJob(jsonJob).await();
+        Task jsonTask = createTaskObject(jsonJob);
+        jsonStore.storeTask(jsonTask).await();
+
+        // Store in the binary format reads JSON records, and adds its own ones.
+        CassandraJobStore binaryStore = getJobStore(JobRecordFormat.Smile);
+        binaryStore.init().await();
+        assertThat(binaryStore.retrieveJobs().toBlocking().first().getLeft()).containsExactly(jsonJob);
+        assertThat(binaryStore.retrieveTasksForJob(jsonJob.getId()).toBlocking().first().getLeft()).containsExactly(jsonTask);
+        Job<BatchJobExt> binaryJob = createBatchJobObject();
+        binaryStore.storeJob(binaryJob).await();
+
+        // And the other way around.
+        CassandraJobStore jsonStore2 = getJobStore(JobRecordFormat.Json);
+        jsonStore2.init().await();
+        Pair<List<Job<?>>, Integer> jobsAndErrors = jsonStore2.retrieveJobs().toBlocking().first();
+        assertThat(jobsAndErrors.getLeft()).containsOnly(jsonJob, binaryJob);
+        assertThat(jobsAndErrors.getRight()).isEqualTo(0);
+        assertThat(readRecordFormats("active_jobs")).containsOnly(JobRecordFormat.Json, JobRecordFormat.Smile);
+    }
+
+    @Test
+    public void testRewriteActiveRecords() {
+        CassandraJobStore jsonStore = getJobStore(JobRecordFormat.Json);
+        jsonStore.init().await();
+        List<Job<?>> jobs = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Job<BatchJobExt> job = createBatchJobObject();
+            jsonStore.storeJob(job).await();
+            Task task = createTaskObject(job);
+            jsonStore.storeTask(task).await();
+            jobs.add(job);
+            tasks.add(task);
+        }
+
+        CassandraJobStore binaryStore = getJobStore(JobRecordFormat.Smile);
+        binaryStore.init().await();
+        assertThat(binaryStore.rewriteActiveRecords()).isEqualTo(6);
+        assertThat(readRecordFormats("active_jobs")).containsOnly(JobRecordFormat.Smile);
+        assertThat(readRecordFormats("active_tasks")).containsOnly(JobRecordFormat.Smile);
+        assertThat(binaryStore.rewriteActiveRecords()).isEqualTo(0);
+
+        // Records are readable after the migration, and can be migrated back.
+        CassandraJobStore jsonStore2 = getJobStore(JobRecordFormat.Json);
+        jsonStore2.init().await();
+        assertThat(jsonStore2.retrieveJobs().toBlocking().first().getLeft()).containsOnlyElementsOf(jobs);
+        for (Task task : tasks) {
+            assertThat(jsonStore2.retrieveTask(task.getId()).toBlocking().first()).isEqualTo(task);
+        }
+        assertThat(jsonStore2.rewriteActiveRecords()).isEqualTo(6);
+        assertThat(readRecordFormats("active_jobs")).containsOnly(JobRecordFormat.Json);
+    }
+
+    @Test
+    public void testRecordRewriteDoesNotOverwriteConcurrentUpdate() {
+        CassandraJobStore jsonStore = getJobStore(JobRecordFormat.Json);
+        jsonStore.init().await();
+        Job<BatchJobExt> job = createBatchJobObject();
+        jsonStore.storeJob(job).await();
+        Task task = createTaskObject(job);
+        jsonStore.storeTask(task).await();
+
+        // The rewrite reads the records, and the store updates them before the rewrite is written.
+        Statement jobRewrite = newStaleRewriteStatement("active_jobs", "job_id", job.getId(), Job.class);
+        Statement taskRewrite = newStaleRewriteStatement("active_tasks", "task_id", task.getId(), Task.class);
+
+        Job<BatchJobExt> updatedJob = job.toBuilder()
+                .withStatus(JobStatus.newBuilder().withState(JobState.KillInitiated).build())
+                .build();
+        jsonStore.updateJob(updatedJob).await();
+        jsonStore.deleteTask(task).await();
+
+        cassandraCqlUnit.getSession().execute(jobRewrite);
+        cassandraCqlUnit.getSession().execute(taskRewrite);
+
+        assertThat(jsonStore.retrieveJob(job.getId()).toBlocking().first()).isEqualTo(updatedJob);
+        assertThat(readRecordFormats("active_jobs")).containsOnly(JobRecordFormat.Json);
+        assertThat(readRecordFormats("active_tasks")).isEmpty();
+        assertThat(jsonStore.retrieveArchivedTask(task.getId()).toBlocking().first()).isEqualTo(task);
+
+        // A rewrite reading the latest version converts it.
+        CassandraJobStore binaryStore = getJobStore(JobRecordFormat.Smile);
+        binaryStore.init().await();
+        assertThat(binaryStore.rewriteActiveRecords()).isEqualTo(1);
+        assertThat(readRecordFormats("active_jobs")).containsOnly(JobRecordFormat.Smile);
+        assertThat(binaryStore.retrieveJob(job.getId()).toBlocking().first()).isEqualTo(updatedJob);
+    }
+
+    @Test
+    public void testBinaryRecordsAreSmallerThanJson() {
+        int jobCount = 10;
+        int tasksPerJob = 10;
+
+        CassandraJobStore jsonStore = getJobStore(JobRecordFormat.Json);
+        jsonStore.init().await();
+        List<Job<?>> jobs = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < jobCount; i++) {
+            Job<BatchJobExt> job = createBatchJobObject();
+            jsonStore.storeJob(job).await();
+            jobs.add(job);
+            for (int j = 0; j < tasksPerJob; j++) {
+                Task task = createTaskObject(job);
+                jsonStore.storeTask(task).await();
+                tasks.add(task);
+            }
+        }
+        long jsonSize = readRecordsSize();
+
+        CassandraJobStore binaryStore = getJobStore(JobRecordFormat.Smile);
+        binaryStore.init().await();
+        assertThat(binaryStore.rewriteActiveRecords()).isEqualTo(jobCount * (tasksPerJob + 1));
+        assertThat(readRecordsSize()).isLessThan(jsonSize);
+
+        assertThat(binaryStore.retrieveJobs().toBlocking().first().getLeft()).containsOnlyElementsOf(jobs);
+        for (Task task : tasks) {
+            assertThat(binaryStore.retrieveTask(task.getId()).toBlocking().first()).isEqualTo(task);
+        }
+    }
+
+    private long readRecordsSize() {
+        long size = 0;
+        for (String table : new String[]{"active_jobs", "active_tasks"}) {
+            for (Row row : cassandraCqlUnit.getSession().execute("SELECT value, binary_value FROM " + table)) {
+                size += row.isNull(0) ? 0 : row.getString(0).getBytes().length;
+                size += row.isNull(1) ? 0 : row.getBytes(1).remaining();
+            }
+        }
+        return size;
+    }
+
+    private Statement newStaleRewriteStatement(String tableName, String idColumn, String id, Class<?> type) {
+        Session session = cassandraCqlUnit.getSession();
+        JobRecordTable table = new JobRecordTable(session, tableName, idColumn, true);
+        JobRecordCodec binaryCodec = new JobRecordCodec(ObjectMappers.storeMapper(), ObjectMappers.binaryStoreMapper(), () -> JobRecordFormat.Smile);
+        Row row = session.execute(table.getSelectForRewriteStatement().bind(id)).one();
+        return binaryCodec.newRewriteStatement(table, id, row, type).orElseThrow(() -> new IllegalStateException("Expected JSON record"));
+    }
+
+    private List<JobRecordFormat> readRecordFormats(String table) {
+        List<JobRecordFormat> formats = new ArrayList<>();
+        for (Row row : cassandraCqlUnit.getSession().execute("SELECT codec FROM " + table)) {
+            formats.add(row.isNull(0) ? JobRecordFormat.Json : JobRecordFormat.fromId(row.getInt(0)));
+        }
+        return formats;
+    }
+
+    private CassandraJobStore getJobStore(JobRecordFormat format) {
+        return new CassandraJobStore(new TestCassandraStoreConfiguration(format), cassandraCqlUnit.getSession(), TitusRuntimes.internal(),
+                ObjectMappers.storeMapper(), INITIAL_BUCKET_COUNT, MAX_BUCKET_SIZE);
+    }
+
     private JobStore getJobStore() {
-        return getJobStore(null);
+        return getJobStore((Session) null);
     }
 
     private JobStore getJobStore(Session session) {
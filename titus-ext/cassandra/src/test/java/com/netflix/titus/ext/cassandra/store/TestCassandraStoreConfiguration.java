@@ -17,6 +17,23 @@
 package com.netflix.titus.ext.cassandra.store;
 
 public class TestCassandraStoreConfiguration implements CassandraStoreConfiguration {
+
+    private final JobRecordFormat jobRecordFormat;
+    private final boolean binaryColumnsEnabled;
+
+    public TestCassandraStoreConfiguration() {
+        this(JobRecordFormat.Json, false);
+    }
+
+    public TestCassandraStoreConfiguration(JobRecordFormat jobRecordFormat) {
+        this(jobRecordFormat, true);
+    }
+
+    public TestCassandraStoreConfiguration(JobRecordFormat jobRecordFormat, boolean binaryColumnsEnabled) {
+        this.jobRecordFormat = jobRecordFormat;
+        this.binaryColumnsEnabled = binaryColumnsEnabled;
+    }
+
     @Override
     public String getV2KeySpace() {
         return "dev";
@@ -61,4 +78,29 @@ public class TestCassandraStoreConfiguration implements CassandraStoreConfigurat
     public boolean isTracingEnabled() {
         return false;
     }
+
+    @Override
+    public String getJobRecordFormat() {
+        return jobRecordFormat.name();
+    }
+
+    @Override
+    public boolean isJobRecordBinaryColumnsEnabled() {
+        return binaryColumnsEnabled;
+    }
+
+    @Override
+    public boolean isJobRecordRewriteEnabled() {
+        return false;
+    }
+
+    @Override
+    public long getJobRecordRewriteIntervalMs() {
+        return 300_000;
+    }
+
+    @Override
+    public long getJobRecordRewriteMinRecordAgeMs() {
+        return 0;
+    }
 }
@@ -33,7 +33,7 @@ import com.netflix.titus.api.federation.model.Cell;
 import com.netflix.titus.api.model.callmetadata.CallMetadata;
 import com.netflix.titus.api.service.TitusServiceException;
 import com.netflix.titus.common.util.CollectionsExt;
-import com.netflix.titus.common.util.ProtobufExt;
+import com.netflix.titus.common.util.ProtobufProjector;
 import com.netflix.titus.common.util.StringExt;
 import com.netflix.titus.common.util.concurrency.CallbackCountDownLatch;
 import com.netflix.titus.common.util.rx.EmitterWithMultipleSubscriptions;
@@ -264,8 +264,9 @@ public class AggregatingJobServiceGateway implements JobServiceGateway {
                     );
 
                     if (!CollectionsExt.isNullOrEmpty(fields)) {
+                        ProtobufProjector projector = ProtobufProjector.of(Job.getDescriptor(), fields);
                         combinedPage = combinedPage.mapLeft(jobs -> jobs.stream()
-                                .map(job -> ProtobufExt.copy(job, fields))
+                                .map(projector::project)
                                 .collect(Collectors.toList())
                         );
                     }
@@ -386,8 +387,9 @@ public class AggregatingJobServiceGateway implements JobServiceGateway {
                     );
 
                     if (!CollectionsExt.isNullOrEmpty(fields)) {
+                        ProtobufProjector projector = ProtobufProjector.of(Task.getDescriptor(), fields);
                         combinedPage = combinedPage.mapLeft(tasks -> tasks.stream()
-                                .map(task -> ProtobufExt.copy(task, fields))
+                                .map(projector::project)
                                 .collect(Collectors.toList())
                         );
                     }
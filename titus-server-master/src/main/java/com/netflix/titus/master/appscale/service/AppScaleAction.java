@@ -64,6 +64,15 @@ public class AppScaleAction {
     }
 
 
+    @Override
+    public String toString() {
+        return "AppScaleAction{" +
+                "actionType=" + actionType +
+                ", jobId='" + jobId + '\'' +
+                ", policyRefId=" + autoScalingPolicy.map(AutoScalingPolicy::getRefId).orElse(policyRefId.orElse(null)) +
+                '}';
+    }
+
     public static AppScaleActionsBuilder newBuilder() {
         return new AppScaleActionsBuilder();
     }
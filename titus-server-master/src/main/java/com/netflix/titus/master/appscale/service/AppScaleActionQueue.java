@@ -0,0 +1,292 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.appscale.service;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import com.netflix.titus.api.appscale.model.AutoScalingPolicy;
+import com.netflix.titus.common.util.limiter.Limiters;
+import com.netflix.titus.common.util.limiter.tokenbucket.TokenBucket;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import rx.Completable;
+import rx.Scheduler;
+
+/**
+ * Queue of pending {@link AppScaleAction}s, executed with a bounded concurrency, and within the AWS call budget.
+ * <ul>
+ *     <li>actions are coalesced per scaling policy (create/delete) and per job (scalable target update); a new action
+ *     replaces a pending one for the same key, keeping its position in the queue</li>
+ *     <li>at most one action per key is executed at a time</li>
+ *     <li>each action takes from a token bucket as many tokens as the number of AWS calls it makes; if there are not
+ *     enough tokens, the execution is postponed</li>
+ *     <li>if AWS throttles a request, the action is put back into the queue, and the execution is paused with
+ *     an exponential backoff</li>
+ * </ul>
+ */
+class AppScaleActionQueue {
+
+    private static final Logger logger = LoggerFactory.getLogger(AppScaleActionQueue.class);
+
+    private static final long BUDGET_RETRY_INTERVAL_MS = 100;
+
+    /**
+     * Number of AWS calls made by each action type (scalable target + policy + alarm for create/delete, and
+     * scalable target create + read for a target update).
+     */
+    private static final int CREATE_OR_DELETE_POLICY_COST = 3;
+    private static final int UPDATE_TARGET_COST = 2;
+
+    private final Function<AppScaleAction, Completable> actionExecutor;
+    private final AppScaleManagerConfiguration configuration;
+    private final AppScaleManagerMetrics metrics;
+    private final Scheduler executionScheduler;
+    private final Scheduler.Worker timerWorker;
+    private final TokenBucket awsCallBudget;
+
+    private final Object lock = new Object();
+    private final LinkedHashMap<String, PendingAction> pendingActions = new LinkedHashMap<>();
+    private final Set<String> inFlightKeys = new HashSet<>();
+    private final AtomicInteger wip = new AtomicInteger();
+
+    private long backoffMs;
+    private long pausedUntil;
+    private boolean drainScheduled;
+    private volatile boolean shutdown;
+
+    AppScaleActionQueue(Function<AppScaleAction, Completable> actionExecutor,
+                        AppScaleManagerConfiguration configuration,
+                        AppScaleManagerMetrics metrics,
+                        Scheduler executionScheduler,
+                        Scheduler timerScheduler) {
+        this.actionExecutor = actionExecutor;
+        this.configuration = configuration;
+        this.metrics = metrics;
+        this.executionScheduler = executionScheduler;
+        this.timerWorker = timerScheduler.createWorker();
+
+        long callsPerSecond = Math.max(CREATE_OR_DELETE_POLICY_COST, configuration.getAwsCallsPerSecond());
+        this.awsCallBudget = Limiters.createFixedIntervalTokenBucket(
+                "appScaleAwsCalls", callsPerSecond, callsPerSecond, callsPerSecond, 1, TimeUnit.SECONDS
+        );
+    }
+
+    void shutdown() {
+        shutdown = true;
+        timerWorker.unsubscribe();
+    }
+
+    void add(AppScaleAction action) {
+        String key = keyOf(action);
+        synchronized (lock) {
+            PendingAction previous = pendingActions.get(key);
+            if (previous == null) {
+                pendingActions.put(key, new PendingAction(key, action, timerWorker.now()));
+            } else {
+                pendingActions.put(key, previous.replaceWith(action));
+                metrics.reportCoalescedAction();
+            }
+            reportState();
+        }
+        drain();
+    }
+
+    int getQueueSize() {
+        synchronized (lock) {
+            return pendingActions.size();
+        }
+    }
+
+    int getInFlightCount() {
+        synchronized (lock) {
+            return inFlightKeys.size();
+        }
+    }
+
+    private void drain() {
+        if (wip.getAndIncrement() != 0) {
+            return;
+        }
+        do {
+            PendingAction next;
+            while ((next = takeNext()) != null) {
+                execute(next);
+            }
+        } while (wip.decrementAndGet() != 0);
+    }
+
+    private PendingAction takeNext() {
+        synchronized (lock) {
+            if (shutdown || pendingActions.isEmpty() || inFlightKeys.size() >= Math.max(1, configuration.getReconcilerConcurrency())) {
+                return null;
+            }
+            long now = timerWorker.now();
+            if (now < pausedUntil) {
+                scheduleDrain(pausedUntil - now);
+                return null;
+            }
+
+            PendingAction next = null;
+            for (Iterator<PendingAction> it = pendingActions.values().iterator(); it.hasNext() && next == null; ) {
+                PendingAction candidate = it.next();
+                if (!inFlightKeys.contains(candidate.getKey())) {
+                    next = candidate;
+                }
+            }
+            if (next == null) {
+                return null;
+            }
+            if (!awsCallBudget.tryTake(costOf(next.getAction()))) {
+                scheduleDrain(BUDGET_RETRY_INTERVAL_MS);
+                return null;
+            }
+
+            pendingActions.remove(next.getKey());
+            inFlightKeys.add(next.getKey());
+            reportState();
+            return next;
+        }
+    }
+
+    private void execute(PendingAction pendingAction) {
+        Completable action;
+        try {
+            action = actionExecutor.apply(pendingAction.getAction());
+        } catch (Exception e) {
+            action = Completable.error(e);
+        }
+        action.subscribeOn(executionScheduler).subscribe(
+                () -> onCompleted(pendingAction),
+                e -> onError(pendingAction, e)
+        );
+    }
+
+    private void onCompleted(PendingAction pendingAction) {
+        synchronized (lock) {
+            inFlightKeys.remove(pendingAction.getKey());
+            backoffMs = 0;
+            reportState();
+        }
+        metrics.reportConvergenceTime(pendingAction.getAction().getType(), timerWorker.now() - pendingAction.getQueuedTimestamp());
+        drain();
+    }
+
+    private void onError(PendingAction pendingAction, Throwable error) {
+        synchronized (lock) {
+            inFlightKeys.remove(pendingAction.getKey());
+            if (isThrottlingError(error)) {
+                metrics.reportThrottledAction();
+                backoffMs = backoffMs == 0
+                        ? configuration.getThrottlingInitialBackoffMs()
+                        : Math.min(backoffMs * 2, configuration.getThrottlingMaxBackoffMs());
+                pausedUntil = timerWorker.now() + backoffMs;
+                logger.warn("AWS request throttled while executing {}; pausing for {}ms", pendingAction.getAction(), backoffMs);
+
+                // A newer action for the same key takes precedence over the one being retried.
+                if (!pendingActions.containsKey(pendingAction.getKey())) {
+                    pendingActions.put(pendingAction.getKey(), pendingAction);
+                }
+            } else {
+                logger.error("Exception in processing appScaleAction {}: {}", pendingAction.getAction(), error.getMessage());
+            }
+            reportState();
+        }
+        drain();
+    }
+
+    private void scheduleDrain(long delayMs) {
+        if (!drainScheduled) {
+            drainScheduled = true;
+            timerWorker.schedule(() -> {
+                synchronized (lock) {
+                    drainScheduled = false;
+                }
+                drain();
+            }, delayMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void reportState() {
+        metrics.reportActionQueueState(pendingActions.size(), inFlightKeys.size());
+    }
+
+    static String keyOf(AppScaleAction action) {
+        switch (action.getType()) {
+            case CREATE_SCALING_POLICY:
+            case DELETE_SCALING_POLICY:
+                return "policy/" + action.getAutoScalingPolicy().map(AutoScalingPolicy::getRefId).orElse(action.getJobId());
+            case UPDATE_SCALABLE_TARGET:
+            default:
+                return "target/" + action.getJobId();
+        }
+    }
+
+    private static int costOf(AppScaleAction action) {
+        return action.getType() == AppScaleAction.ActionType.UPDATE_SCALABLE_TARGET ? UPDATE_TARGET_COST : CREATE_OR_DELETE_POLICY_COST;
+    }
+
+    /**
+     * AWS clients map errors to {@link com.netflix.titus.api.appscale.service.AutoScalePolicyException} with
+     * the original message only, so throttling is recognized by the AWS error code or message in the cause chain.
+     */
+    static boolean isThrottlingError(Throwable error) {
+        Throwable e = error;
+        while (e != null) {
+            String message = e.getMessage();
+            if (message != null && (message.contains("Throttling") || message.contains("Rate exceeded") || message.contains("RequestLimitExceeded"))) {
+                return true;
+            }
+            e = e.getCause();
+        }
+        return false;
+    }
+
+    private static class PendingAction {
+
+        private final String key;
+        private final AppScaleAction action;
+        private final long queuedTimestamp;
+
+        private PendingAction(String key, AppScaleAction action, long queuedTimestamp) {
+            this.key = key;
+            this.action = action;
+            this.queuedTimestamp = queuedTimestamp;
+        }
+
+        private String getKey() {
+            return key;
+        }
+
+        private AppScaleAction getAction() {
+            return action;
+        }
+
+        private long getQueuedTimestamp() {
+            return queuedTimestamp;
+        }
+
+        private PendingAction replaceWith(AppScaleAction newAction) {
+            return new PendingAction(key, newAction, queuedTimestamp);
+        }
+    }
+}
@@ -33,4 +33,26 @@ public interface AppScaleManagerConfiguration {
 
     @DefaultValue("30")
     long getReconcileAllPendingAndDeletingRequestsIntervalMins();
+
+    /**
+     * Maximum number of scaling policy and scalable target actions executed concurrently.
+     */
+    @DefaultValue("4")
+    int getReconcilerConcurrency();
+
+    /**
+     * Number of AWS App Auto Scaling and CloudWatch calls per second the reconciler may issue.
+     */
+    @DefaultValue("20")
+    long getAwsCallsPerSecond();
+
+    /**
+     * Initial delay before resuming the action execution after the AWS API throttled a request. It is doubled
+     * on each consecutive throttling error, up to {@link #getThrottlingMaxBackoffMs()}.
+     */
+    @DefaultValue("1000")
+    long getThrottlingInitialBackoffMs();
+
+    @DefaultValue("60000")
+    long getThrottlingMaxBackoffMs();
 }
@@ -18,6 +18,7 @@ package com.netflix.titus.master.appscale.service;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import com.netflix.spectator.api.Counter;
@@ -33,7 +34,11 @@ public class AppScaleManagerMetrics {
     private final Id errorMetricId;
     private Registry registry;
     private final AtomicInteger numTargets;
-    private final Counter droppedRequestsCount;
+    private final AtomicInteger actionQueueSize;
+    private final AtomicInteger actionsInFlight;
+    private final Counter coalescedActionsCount;
+    private final Counter throttledActionsCount;
+    private final Id convergenceTimeId;
 
 
     private volatile Map<String, SpectatorExt.FsmMetrics<PolicyStatus>> fsmMetricsMap;
@@ -43,13 +48,21 @@ public class AppScaleManagerMetrics {
         fsmMetricsMap = new ConcurrentHashMap<>();
         numTargets = registry.gauge(METRIC_TITUS_APPSCALE_NUM_TARGETS, new AtomicInteger(0));
         this.registry = registry;
-        droppedRequestsCount = registry.counter(METRIC_BACK_PRESSURE_DROP_COUNT);
+        actionQueueSize = registry.gauge(METRIC_ACTION_QUEUE_SIZE, new AtomicInteger(0));
+        actionsInFlight = registry.gauge(METRIC_ACTIONS_IN_FLIGHT, new AtomicInteger(0));
+        coalescedActionsCount = registry.counter(METRIC_COALESCED_ACTIONS);
+        throttledActionsCount = registry.counter(METRIC_THROTTLED_ACTIONS);
+        convergenceTimeId = registry.createId(METRIC_CONVERGENCE_TIME);
     }
 
     private static final String METRIC_APPSCALE_ERRORS = "titus.appScale.errors";
     private static final String METRIC_TITUS_APPSCALE_NUM_TARGETS = "titus.appScale.numTargets";
     private static final String METRIC_TITUS_APPSCALE_POLICY = "titus.appScale.policy.";
-    private static final String METRIC_BACK_PRESSURE_DROP_COUNT = "titus.appScale.droppedRequests";
+    private static final String METRIC_ACTION_QUEUE_SIZE = "titus.appScale.actionQueue.size";
+    private static final String METRIC_ACTIONS_IN_FLIGHT = "titus.appScale.actionQueue.inFlight";
+    private static final String METRIC_COALESCED_ACTIONS = "titus.appScale.actionQueue.coalesced";
+    private static final String METRIC_THROTTLED_ACTIONS = "titus.appScale.actionQueue.throttled";
+    private static final String METRIC_CONVERGENCE_TIME = "titus.appScale.actionQueue.convergenceTime";
 
     private Id stateIdOf(AutoScalingPolicy autoScalingPolicy) {
         return registry.createId(METRIC_TITUS_APPSCALE_POLICY, "t.jobId", autoScalingPolicy.getJobId());
@@ -80,7 +93,24 @@ public class AppScaleManagerMetrics {
         registry.counter(errorMetricId.withTag("errorCode", autoScalePolicyException.getErrorCode().name())).increment();
     }
 
-    public void reportDroppedRequest() {
-        droppedRequestsCount.increment();
+    public void reportActionQueueState(int queueSize, int inFlight) {
+        actionQueueSize.set(queueSize);
+        actionsInFlight.set(inFlight);
+    }
+
+    public void reportCoalescedAction() {
+        coalescedActionsCount.increment();
+    }
+
+    public void reportThrottledAction() {
+        throttledActionsCount.increment();
+    }
+
+    /**
+     * Time from the moment an action for a policy or a scalable target was first queued, until it was executed
+     * successfully.
+     */
+    public void reportConvergenceTime(AppScaleAction.ActionType actionType, long convergenceTimeMs) {
+        registry.timer(convergenceTimeId.withTag("actionType", actionType.name())).record(convergenceTimeMs, TimeUnit.MILLISECONDS);
     }
 }
@@ -50,31 +50,24 @@ import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.util.ExecutorsExt;
 import com.netflix.titus.common.util.guice.annotation.Activator;
 import com.netflix.titus.common.util.rx.ObservableExt;
-import com.netflix.titus.common.util.rx.RetryHandlerBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import rx.Completable;
 import rx.Observable;
 import rx.Scheduler;
 import rx.Subscription;
-import rx.functions.Action1;
 import rx.schedulers.Schedulers;
-import rx.subjects.PublishSubject;
-import rx.subjects.SerializedSubject;
 
 
 @Singleton
 public class DefaultAppScaleManager implements AppScaleManager {
-    public static final long INITIAL_RETRY_DELAY_SEC = 5;
-    public static final long MAX_RETRY_DELAY_SEC = 30;
     private static Logger logger = LoggerFactory.getLogger(DefaultAppScaleManager.class);
 
     private static final long SHUTDOWN_TIMEOUT_MS = 5_000;
     private static final String DEFAULT_JOB_GROUP_SEQ = "v000";
-    private static final int ASYNC_HANDLER_BUFFER_CAPACITY = 10_000;
 
     private final AppScaleManagerMetrics metrics;
-    private final SerializedSubject<AppScaleAction, AppScaleAction> appScaleActionsSubject;
+    private final AppScaleActionQueue actionQueue;
     private final AppScalePolicyStore appScalePolicyStore;
     private final CloudAlarmClient cloudAlarmClient;
     private final AppAutoScalingClient appAutoScalingClient;
@@ -88,7 +81,6 @@ public class DefaultAppScaleManager implements AppScaleManager {
     private volatile Subscription reconcileScalableTargetsSub;
 
     private volatile ExecutorService awsInteractionExecutor;
-    private Subscription appScaleActionsSub;
 
     @Inject
     public DefaultAppScaleManager(AppScalePolicyStore appScalePolicyStore, CloudAlarmClient cloudAlarmClient,
@@ -131,23 +123,8 @@ public class DefaultAppScaleManager implements AppScaleManager {
         this.titusRuntime = titusRuntime;
         this.scalableTargets = new ConcurrentHashMap<>();
         this.metrics = new AppScaleManagerMetrics(registry);
-        this.appScaleActionsSubject = PublishSubject.<AppScaleAction>create().toSerialized();
-
-        this.appScaleActionsSub = appScaleActionsSubject
-                .onBackpressureDrop(appScaleAction -> {
-                    logger.warn("Dropping {}", appScaleAction);
-                    metrics.reportDroppedRequest();
-                })
-                .observeOn(awsInteractionScheduler, ASYNC_HANDLER_BUFFER_CAPACITY)
-                .doOnError(e -> logger.error("Exception in appScaleActionsSubject ", e))
-                .retryWhen(RetryHandlerBuilder.retryHandler()
-                        .withUnlimitedRetries()
-                        .withScheduler(awsInteractionScheduler)
-                        .withDelay(INITIAL_RETRY_DELAY_SEC, MAX_RETRY_DELAY_SEC, TimeUnit.SECONDS)
-                        .withTitle("Auto-retry for appScaleActionsSubject")
-                        .buildExponentialBackoff()
-                )
-                .subscribe(new AppScaleActionHandler());
+        this.actionQueue = new AppScaleActionQueue(this::executeAction, appScaleManagerConfiguration, metrics,
+                awsInteractionScheduler, Schedulers.computation());
     }
 
     @Activator
@@ -207,8 +184,8 @@ public class DefaultAppScaleManager implements AppScaleManager {
 
     @PreDestroy
     public void shutdown() {
-        ObservableExt.safeUnsubscribe(reconcileFinishedJobsSub, reconcileScalableTargetsSub,
-                reconcileAllPendingRequests, appScaleActionsSub);
+        ObservableExt.safeUnsubscribe(reconcileFinishedJobsSub, reconcileScalableTargetsSub, reconcileAllPendingRequests);
+        actionQueue.shutdown();
         if (awsInteractionExecutor == null) {
             return; // nothing else to do
         }
@@ -242,8 +219,9 @@ public class DefaultAppScaleManager implements AppScaleManager {
     private Observable<String> reconcileFinishedJobs() {
         return appScalePolicyStore.retrievePolicies(false)
                 .map(AutoScalingPolicy::getJobId)
+                .distinct()
                 .filter(jobId -> !isJobActive(jobId))
-                .flatMap(jobId -> removePoliciesForJob(jobId).andThen(Observable.just(jobId)))
+                .flatMap(jobId -> removePoliciesForJob(jobId).andThen(Observable.just(jobId)), getStoreConcurrency())
                 .doOnError(e -> logger.error("Exception in reconcileFinishedJobs -> ", e))
                 .onErrorResumeNext(e -> saveStatusOnError(e).andThen(Observable.empty()));
     }
@@ -476,35 +454,35 @@ public class DefaultAppScaleManager implements AppScaleManager {
         return Optional.empty();
     }
 
-    public class AppScaleActionHandler implements Action1<AppScaleAction> {
-        @Override
-        public void call(AppScaleAction appScaleAction) {
-            try {
-                switch (appScaleAction.getType()) {
-                    case CREATE_SCALING_POLICY:
-                        if (appScaleAction.getAutoScalingPolicy().isPresent()) {
-                            String policyId = createOrUpdateScalingPolicyWorkflow(appScaleAction.getAutoScalingPolicy().get()).toBlocking().first();
-                            logger.info("AutoScalingPolicy {} created/updated", policyId);
-                        }
-                        break;
-                    case DELETE_SCALING_POLICY:
-                        if (appScaleAction.getAutoScalingPolicy().isPresent()) {
-                            String policyIdDeleted = deleteScalingPolicyWorkflow(appScaleAction.getAutoScalingPolicy().get()).toBlocking().first();
-                            logger.info("Autoscaling policy {} deleted", policyIdDeleted);
-                        }
-                        break;
-                    case UPDATE_SCALABLE_TARGET:
-                        if (appScaleAction.getPolicyRefId().isPresent()) {
-                            logger.info("Asked to remove {}", appScaleAction.getPolicyRefId());
-                            AutoScalableTarget updatedTarget = updateScalableTargetWorkflow(appScaleAction.getPolicyRefId().get(), appScaleAction.getJobId()).toBlocking().first();
-                            logger.info("AutoScalableTarget updated {}", updatedTarget);
-                        }
-                        break;
+    /**
+     * Executed by {@link AppScaleActionQueue}. The policy workflows save non-retryable errors in the policy status,
+     * and complete, so only AWS throttling errors are propagated, for the queue to retry the action later.
+     */
+    private Completable executeAction(AppScaleAction appScaleAction) {
+        switch (appScaleAction.getType()) {
+            case CREATE_SCALING_POLICY:
+                if (appScaleAction.getAutoScalingPolicy().isPresent()) {
+                    return createOrUpdateScalingPolicyWorkflow(appScaleAction.getAutoScalingPolicy().get())
+                            .doOnNext(policyId -> logger.info("AutoScalingPolicy {} created/updated", policyId))
+                            .toCompletable();
                 }
-            } catch (Exception ex) {
-                logger.error("Exception in processing appScaleAction {}", ex.getMessage());
-            }
+                break;
+            case DELETE_SCALING_POLICY:
+                if (appScaleAction.getAutoScalingPolicy().isPresent()) {
+                    return deleteScalingPolicyWorkflow(appScaleAction.getAutoScalingPolicy().get())
+                            .doOnNext(policyIdDeleted -> logger.info("Autoscaling policy {} deleted", policyIdDeleted))
+                            .toCompletable();
+                }
+                break;
+            case UPDATE_SCALABLE_TARGET:
+                if (appScaleAction.getPolicyRefId().isPresent()) {
+                    return updateScalableTargetWorkflow(appScaleAction.getPolicyRefId().get(), appScaleAction.getJobId())
+                            .doOnNext(updatedTarget -> logger.info("AutoScalableTarget updated {}", updatedTarget))
+                            .toCompletable();
+                }
+                break;
         }
+        return Completable.complete();
     }
 
     private Observable<AutoScalableTarget> updateScalableTargetWorkflow(String policyRefId, String jobId) {
@@ -577,7 +555,7 @@ public class DefaultAppScaleManager implements AppScaleManager {
 
         return Observable.mergeDelayError(targetPolicyObservable, stepPolicyObservable)
                 .doOnError(e -> logger.error("Exception in createOrUpdateScalingPolicyImpl -> ", e))
-                .onErrorResumeNext(e -> saveStatusOnError(e).andThen(Observable.empty()));
+                .onErrorResumeNext(this::handleWorkflowError);
     }
 
 
@@ -622,24 +600,38 @@ public class DefaultAppScaleManager implements AppScaleManager {
                             }
                         }))
                 .doOnError(e -> logger.error("Exception in processDeletingPolicyRequests -> ", e))
-                .onErrorResumeNext(e -> saveStatusOnError(e).andThen(Observable.empty()));
+                .onErrorResumeNext(this::handleWorkflowError);
+    }
+
+    /**
+     * Throttled requests are retried by the action queue, so the error is not recorded in the policy status.
+     */
+    private Observable<String> handleWorkflowError(Throwable e) {
+        if (AppScaleActionQueue.isThrottlingError(e)) {
+            return Observable.error(e);
+        }
+        return saveStatusOnError(e).andThen(Observable.empty());
+    }
+
+    private int getStoreConcurrency() {
+        return Math.max(1, appScaleManagerConfiguration.getReconcilerConcurrency());
     }
 
     private AppScaleAction sendUpdateTargetAction(AutoScalingPolicy autoScalingPolicy) {
         AppScaleAction updateTargetAction = AppScaleAction.newBuilder().buildUpdateTargetAction(autoScalingPolicy.getJobId(), autoScalingPolicy.getRefId());
-        appScaleActionsSubject.onNext(updateTargetAction);
+        actionQueue.add(updateTargetAction);
         return updateTargetAction;
     }
 
     private AppScaleAction sendCreatePolicyAction(AutoScalingPolicy autoScalingPolicy) {
         AppScaleAction createPolicyAction = AppScaleAction.newBuilder().buildCreatePolicyAction(autoScalingPolicy.getJobId(), autoScalingPolicy);
-        appScaleActionsSubject.onNext(createPolicyAction);
+        actionQueue.add(createPolicyAction);
         return createPolicyAction;
     }
 
     private AppScaleAction sendDeletePolicyAction(AutoScalingPolicy autoScalingPolicy) {
         AppScaleAction deletePolicyAction = AppScaleAction.newBuilder().buildDeletePolicyAction(autoScalingPolicy.getJobId(), autoScalingPolicy);
-        appScaleActionsSubject.onNext(deletePolicyAction);
+        actionQueue.add(deletePolicyAction);
         return deletePolicyAction;
     }
 
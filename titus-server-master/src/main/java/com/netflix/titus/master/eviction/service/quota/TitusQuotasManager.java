@@ -37,6 +37,7 @@ import com.netflix.titus.common.util.guice.annotation.Activator;
 import com.netflix.titus.common.util.rx.ReactorExt;
 import com.netflix.titus.common.util.rx.ReactorRetriers;
 import com.netflix.titus.master.eviction.service.quota.job.EffectiveJobDisruptionBudgetResolver;
+import com.netflix.titus.master.eviction.service.quota.job.JobHealthCounters;
 import com.netflix.titus.master.eviction.service.quota.job.JobQuotaController;
 import com.netflix.titus.master.eviction.service.quota.system.SystemQuotaController;
 import org.slf4j.Logger;
@@ -62,10 +63,17 @@ public class TitusQuotasManager {
     private final SystemQuotaController systemQuotaController;
     private final TitusRuntime titusRuntime;
 
+    /**
+     * Number of lock stripes guarding the job quota controllers. Consumption requests for different jobs mapped to
+     * different stripes proceed in parallel.
+     */
+    private static final int JOB_LOCK_STRIPES = 64;
+
     private final ConcurrentMap<String, JobQuotaController> jobQuotaControllersByJobId = new ConcurrentHashMap<>();
 
-    private final Object lock = new Object();
+    private final Object[] jobLocks = new Object[JOB_LOCK_STRIPES];
 
+    private JobHealthCounters jobHealthCounters;
     private Disposable jobUpdateDisposable;
 
     @Inject
@@ -79,10 +87,15 @@ public class TitusQuotasManager {
         this.systemQuotaController = systemQuotaController;
         this.jobOperations = jobOperations;
         this.titusRuntime = titusRuntime;
+
+        for (int i = 0; i < JOB_LOCK_STRIPES; i++) {
+            jobLocks[i] = new Object();
+        }
     }
 
     @Activator
     public void enterActiveMode() {
+        this.jobHealthCounters = new JobHealthCounters(jobOperations, containerHealthService);
         this.jobUpdateDisposable = jobOperations.observeJobsReactor()
                 .filter(event -> event instanceof JobUpdateEvent)
                 .map(event -> (Job) event.getCurrent())
@@ -94,39 +107,58 @@ public class TitusQuotasManager {
     @PreDestroy
     public void shutdown() {
         ReactorExt.safeDispose(jobUpdateDisposable);
+        if (jobHealthCounters != null) {
+            jobHealthCounters.shutdown();
+        }
     }
 
+    /**
+     * Consumes the system and the job quota for the given task. The system quota is backed by a token bucket, which is
+     * updated atomically, and the job quota is guarded by a per job lock stripe, so there is no cell wide lock on this
+     * path. If only one of the two quotas is available, the consumed one is given back, so the quota is never
+     * over-consumed. A concurrent request may however observe the transiently consumed token and be rejected.
+     */
     public ConsumptionResult tryConsumeQuota(Job<?> job, Task task) {
-        JobQuotaController jobQuotaController = jobQuotaControllersByJobId.get(job.getId());
-        if (jobQuotaController == null) {
+        if (!jobQuotaControllersByJobId.containsKey(job.getId())) {
             return UNKNOWN_JOB;
         }
 
         String taskId = task.getId();
 
-        synchronized (lock) {
-            ConsumptionResult systemResult = systemQuotaController.consume(taskId);
-            ConsumptionResult jobResult = jobQuotaController.consume(taskId);
-
-            if (systemResult.isApproved() && jobResult.isApproved()) {
-                return jobResult;
+        ConsumptionResult systemResult = systemQuotaController.consume(taskId);
+        ConsumptionResult jobResult;
+        synchronized (getJobLock(job.getId())) {
+            JobQuotaController jobQuotaController = jobQuotaControllersByJobId.get(job.getId());
+            if (jobQuotaController == null) { // Job finished in the meantime
+                if (systemResult.isApproved()) {
+                    systemQuotaController.giveBackConsumedQuota(taskId);
+                }
+                return UNKNOWN_JOB;
             }
-
-            if (!systemResult.isApproved() && !jobResult.isApproved()) {
+            if (!systemResult.isApproved()) {
+                // Check the job quota only to build a complete rejection message.
+                jobResult = jobQuotaController.consume(taskId);
+                if (jobResult.isApproved()) {
+                    jobQuotaController.giveBackConsumedQuota(taskId);
+                    return systemResult;
+                }
                 return ConsumptionResult.rejected(String.format(
                         "No job and system quota: {systemQuota=%s, jobQuota=%s}",
                         systemResult.getRejectionReason().get(), jobResult.getRejectionReason().get()
                 ));
             }
+            jobResult = jobQuotaController.consume(taskId);
+        }
 
-            if (systemResult.isApproved()) {
-                systemQuotaController.giveBackConsumedQuota(taskId);
-                return jobResult;
+        if (!jobResult.isApproved()) {
+            systemQuotaController.giveBackConsumedQuota(taskId);
+            if (logger.isDebugEnabled()) {
+                // Iterates over all job tasks, so it is built only for diagnostics, and outside of the job lock.
+                logger.debug("Job quota rejected: jobId={}, taskId={}, reason={}, healthReport={}",
+                        job.getId(), taskId, jobResult.getRejectionReason().orElse("none"), jobHealthCounters.buildNotHealthyReport(job.getId()));
             }
-
-            jobQuotaController.giveBackConsumedQuota(taskId);
-            return systemResult;
         }
+        return jobResult;
     }
 
     public Optional<EvictionQuota> findEvictionQuota(Reference reference) {
@@ -158,12 +190,19 @@ public class TitusQuotasManager {
     }
 
     private void updateRunningJobController(Job<?> newJob) {
-        JobQuotaController jobQuotaController = jobQuotaControllersByJobId.get(newJob.getId());
-
-        if (jobQuotaController != null) {
-            jobQuotaControllersByJobId.put(newJob.getId(), jobQuotaController.update(newJob));
-        } else {
-            jobQuotaControllersByJobId.put(newJob.getId(), new JobQuotaController(newJob, jobOperations, budgetResolver, containerHealthService, titusRuntime));
+        // The updated controller carries over the state of the current one, so it must not be changed concurrently.
+        synchronized (getJobLock(newJob.getId())) {
+            JobQuotaController jobQuotaController = jobQuotaControllersByJobId.get(newJob.getId());
+
+            if (jobQuotaController != null) {
+                jobQuotaControllersByJobId.put(newJob.getId(), jobQuotaController.update(newJob));
+            } else {
+                jobQuotaControllersByJobId.put(newJob.getId(), new JobQuotaController(newJob, jobOperations, budgetResolver, jobHealthCounters, titusRuntime));
+            }
         }
     }
+
+    private Object getJobLock(String jobId) {
+        return jobLocks[(jobId.hashCode() & Integer.MAX_VALUE) % JOB_LOCK_STRIPES];
+    }
 }
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.eviction.service.quota.job;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.netflix.titus.api.containerhealth.model.ContainerHealthState;
+import com.netflix.titus.api.containerhealth.model.ContainerHealthStatus;
+import com.netflix.titus.api.containerhealth.model.event.ContainerHealthEvent;
+import com.netflix.titus.api.containerhealth.model.event.ContainerHealthUpdateEvent;
+import com.netflix.titus.api.containerhealth.service.ContainerHealthService;
+import com.netflix.titus.api.jobmanager.TaskAttributes;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobState;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.event.JobManagerEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.JobUpdateEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.TaskUpdateEvent;
+import com.netflix.titus.api.jobmanager.service.JobManagerException;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.common.util.rx.ReactorExt;
+import com.netflix.titus.common.util.rx.ReactorRetriers;
+import com.netflix.titus.common.util.tuple.Pair;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import static com.netflix.titus.common.util.StringExt.startWithLowercase;
+
+/**
+ * Keeps the number of started and healthy tasks per job, so {@link UnhealthyTasksLimitTracker} quota checks do not
+ * iterate over all job tasks. The state of a job is loaded on first access, and next kept up to date from the job
+ * and the container health event streams. Both streams are merged into a single, serialized handler. A health event
+ * re-reads the current task state, and task events arrive in order, so a finished task cannot be brought back by
+ * a health update processed after its final task event.
+ */
+public class JobHealthCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(JobHealthCounters.class);
+
+    private static final Duration RETRY_INTERVAL = Duration.ofSeconds(5);
+
+    private static final int TASK_ID_REPORT_LIMIT = 20;
+
+    private final V3JobOperations jobOperations;
+    private final ContainerHealthService containerHealthService;
+
+    private final ConcurrentMap<String, JobHealthState> jobHealthStates = new ConcurrentHashMap<>();
+
+    private final Disposable eventsDisposable;
+
+    public JobHealthCounters(V3JobOperations jobOperations, ContainerHealthService containerHealthService) {
+        this.jobOperations = jobOperations;
+        this.containerHealthService = containerHealthService;
+
+        // Events missed during a stream resubscription are not recoverable, so all job states are reloaded after an error.
+        this.eventsDisposable = Flux.<Object>merge(
+                jobOperations.observeJobsReactor()
+                        .doOnError(e -> jobHealthStates.clear())
+                        .compose(ReactorRetriers.instrumentedRetryer("jobHealthCountersJobEvents", RETRY_INTERVAL, logger)),
+                containerHealthService.events(false)
+                        .doOnError(e -> jobHealthStates.clear())
+                        .compose(ReactorRetriers.instrumentedRetryer("jobHealthCountersHealthEvents", RETRY_INTERVAL, logger))
+        ).subscribe(event -> {
+            if (event instanceof JobManagerEvent) {
+                onJobEvent((JobManagerEvent<?>) event);
+            } else if (event instanceof ContainerHealthEvent) {
+                onHealthEvent((ContainerHealthEvent) event);
+            }
+        });
+    }
+
+    public void shutdown() {
+        ReactorExt.safeDispose(eventsDisposable);
+    }
+
+    /**
+     * Returns the number of tasks in the {@link TaskState#Started} state, which are healthy.
+     */
+    public int getHealthyCount(String jobId) {
+        JobHealthState state = jobHealthStates.get(jobId);
+        if (state == null) {
+            state = loadJobHealthState(jobId);
+        }
+        return state == null ? 0 : state.getHealthyCount();
+    }
+
+    /**
+     * Builds a human readable report of the not started or unhealthy tasks. As it requires iterating over all job
+     * tasks, it should be called only for diagnostics, and not while holding a job quota lock.
+     */
+    public String buildNotHealthyReport(String jobId) {
+        List<Task> tasks;
+        try {
+            tasks = jobOperations.getTasks(jobId);
+        } catch (JobManagerException e) {
+            return "job not found";
+        }
+
+        Map<String, String> notStartedOrUnhealthyTasks = new HashMap<>();
+        for (Task task : tasks) {
+            if (task.getStatus().getState() == TaskState.Started) {
+                Optional<ContainerHealthStatus> statusOpt = containerHealthService.findHealthStatus(task.getId());
+                if (!statusOpt.isPresent() || statusOpt.get().getState() != ContainerHealthState.Healthy) {
+                    String report = statusOpt
+                            .map(status -> startWithLowercase(status.getState().name()) + '(' + status.getReason() + ')')
+                            .orElse("health not found");
+                    notStartedOrUnhealthyTasks.put(task.getId(), report);
+                }
+            } else {
+                notStartedOrUnhealthyTasks.put(task.getId(), String.format("Not started (current task state=%s)", task.getStatus().getState()));
+            }
+        }
+        if (notStartedOrUnhealthyTasks.isEmpty()) {
+            return "";
+        }
+
+        StringBuilder builder = new StringBuilder("not started and healthy: ");
+        builder.append("total=").append(notStartedOrUnhealthyTasks.size());
+        builder.append(", tasks=[");
+        int counter = 0;
+        for (Map.Entry<String, String> entry : notStartedOrUnhealthyTasks.entrySet()) {
+            builder.append(entry.getKey()).append('=').append(entry.getValue());
+            counter++;
+            if (counter >= TASK_ID_REPORT_LIMIT && counter < notStartedOrUnhealthyTasks.size()) {
+                builder.append(",... dropped ").append(notStartedOrUnhealthyTasks.size() - counter).append(" tasks");
+                break;
+            }
+            if (counter < notStartedOrUnhealthyTasks.size()) {
+                builder.append(", ");
+            }
+        }
+        return builder.append(']').toString();
+    }
+
+    private void onJobEvent(JobManagerEvent<?> event) {
+        try {
+            if (event instanceof JobUpdateEvent) {
+                JobUpdateEvent jobUpdateEvent = (JobUpdateEvent) event;
+                Job<?> job = jobUpdateEvent.getCurrent();
+                if (job.getStatus().getState() == JobState.Finished) {
+                    jobHealthStates.remove(job.getId());
+                } else if (jobUpdateEvent.getPrevious().map(previous -> !haveSameHealthProviders(previous, job)).orElse(false)) {
+                    // Health of all job tasks may change, so the job state is reloaded on next access.
+                    jobHealthStates.remove(job.getId());
+                }
+            } else if (event instanceof TaskUpdateEvent) {
+                TaskUpdateEvent taskUpdateEvent = (TaskUpdateEvent) event;
+                Task task = taskUpdateEvent.getCurrentTask();
+                if (task == null) {
+                    return;
+                }
+                if (taskUpdateEvent.isMovedFromAnotherJob()) {
+                    // There is no event for the source job, so the task is removed from its state here.
+                    String sourceJobId = task.getTaskContext().get(TaskAttributes.TASK_ATTRIBUTES_MOVED_FROM_JOB);
+                    JobHealthState sourceState = sourceJobId == null ? null : jobHealthStates.get(sourceJobId);
+                    if (sourceState != null) {
+                        sourceState.remove(task.getId());
+                    } else if (sourceJobId == null) {
+                        // Source job unknown, so all states holding the task are reloaded on next access.
+                        jobHealthStates.values().removeIf(state -> state.contains(task.getId()));
+                    }
+                }
+                JobHealthState state = jobHealthStates.get(task.getJobId());
+                if (state != null) {
+                    state.update(task);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Unexpected error when processing job event: {}", event, e);
+        }
+    }
+
+    private void onHealthEvent(ContainerHealthEvent event) {
+        if (!(event instanceof ContainerHealthUpdateEvent)) {
+            return;
+        }
+        String taskId = ((ContainerHealthUpdateEvent) event).getContainerHealthStatus().getTaskId();
+        try {
+            jobOperations.findTaskById(taskId).map(Pair::getRight).ifPresent(task -> {
+                JobHealthState state = jobHealthStates.get(task.getJobId());
+                if (state != null) {
+                    state.update(task);
+                }
+            });
+        } catch (Exception e) {
+            logger.warn("Unexpected error when processing container health event: {}", event, e);
+        }
+    }
+
+    /**
+     * The job state is registered before the job tasks are read, so task events arriving during the initial load are
+     * not lost. They are applied after the load completes, as the load holds the job state lock.
+     */
+    private JobHealthState loadJobHealthState(String jobId) {
+        JobHealthState newState = new JobHealthState();
+        synchronized (newState) {
+            JobHealthState existing = jobHealthStates.putIfAbsent(jobId, newState);
+            if (existing != null) {
+                return existing;
+            }
+            try {
+                jobOperations.getTasks(jobId).forEach(newState::update);
+            } catch (JobManagerException e) {
+                jobHealthStates.remove(jobId, newState);
+                return null;
+            }
+        }
+        return newState;
+    }
+
+    private boolean haveSameHealthProviders(Job<?> first, Job<?> second) {
+        return Objects.equals(
+                first.getJobDescriptor().getDisruptionBudget().getContainerHealthProviders(),
+                second.getJobDescriptor().getDisruptionBudget().getContainerHealthProviders()
+        );
+    }
+
+    private boolean isStartedAndHealthy(Task task) {
+        if (task.getStatus().getState() != TaskState.Started) {
+            return false;
+        }
+        return containerHealthService.findHealthStatus(task.getId())
+                .map(status -> status.getState() == ContainerHealthState.Healthy)
+                .orElse(false);
+    }
+
+    private class JobHealthState {
+
+        private final Map<String, Boolean> healthyByTaskId = new HashMap<>();
+        private int healthyCount;
+
+        private synchronized int getHealthyCount() {
+            return healthyCount;
+        }
+
+        private synchronized void update(Task task) {
+            boolean healthy = isStartedAndHealthy(task);
+            Boolean previous = task.getStatus().getState() == TaskState.Finished
+                    ? healthyByTaskId.remove(task.getId())
+                    : healthyByTaskId.put(task.getId(), healthy);
+
+            healthyCount += (healthy ? 1 : 0) - (Boolean.TRUE.equals(previous) ? 1 : 0);
+        }
+
+        private synchronized void remove(String taskId) {
+            if (Boolean.TRUE.equals(healthyByTaskId.remove(taskId))) {
+                healthyCount--;
+            }
+        }
+
+        private synchronized boolean contains(String taskId) {
+            return healthyByTaskId.containsKey(taskId);
+        }
+    }
+}
@@ -21,7 +21,6 @@ import java.util.List;
 import java.util.function.Supplier;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.netflix.titus.api.containerhealth.service.ContainerHealthService;
 import com.netflix.titus.api.eviction.model.EvictionQuota;
 import com.netflix.titus.api.jobmanager.model.job.Job;
 import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
@@ -48,7 +47,7 @@ public class JobQuotaController implements QuotaController<Job<?>> {
     private final Job<?> job;
     private final V3JobOperations jobOperations;
     private final EffectiveJobDisruptionBudgetResolver effectiveDisruptionBudgetResolver;
-    private final ContainerHealthService containerHealthService;
+    private final JobHealthCounters jobHealthCounters;
     private final TitusRuntime titusRuntime;
     private final List<QuotaTracker> quotaTrackers;
     private final List<QuotaController<Job<?>>> quotaControllers;
@@ -56,31 +55,31 @@ public class JobQuotaController implements QuotaController<Job<?>> {
     public JobQuotaController(Job<?> job,
                               V3JobOperations jobOperations,
                               EffectiveJobDisruptionBudgetResolver effectiveDisruptionBudgetResolver,
-                              ContainerHealthService containerHealthService,
+                              JobHealthCounters jobHealthCounters,
                               TitusRuntime titusRuntime) {
         this.job = job;
         this.jobOperations = jobOperations;
         this.effectiveDisruptionBudgetResolver = effectiveDisruptionBudgetResolver;
-        this.containerHealthService = containerHealthService;
+        this.jobHealthCounters = jobHealthCounters;
         this.titusRuntime = titusRuntime;
 
-        this.quotaTrackers = buildQuotaTrackers(job, jobOperations, effectiveDisruptionBudgetResolver, containerHealthService, titusRuntime);
+        this.quotaTrackers = buildQuotaTrackers(job, jobOperations, effectiveDisruptionBudgetResolver, jobHealthCounters, titusRuntime);
         this.quotaControllers = buildQuotaControllers(job, jobOperations, effectiveDisruptionBudgetResolver, titusRuntime);
     }
 
     private JobQuotaController(Job<?> newJob,
                                V3JobOperations jobOperations,
                                EffectiveJobDisruptionBudgetResolver effectiveDisruptionBudgetResolver,
-                               ContainerHealthService containerHealthService,
+                               JobHealthCounters jobHealthCounters,
                                JobQuotaController previousJobQuotaController,
                                TitusRuntime titusRuntime) {
         this.job = newJob;
         this.jobOperations = jobOperations;
         this.effectiveDisruptionBudgetResolver = effectiveDisruptionBudgetResolver;
-        this.containerHealthService = containerHealthService;
+        this.jobHealthCounters = jobHealthCounters;
         this.titusRuntime = titusRuntime;
 
-        this.quotaTrackers = buildQuotaTrackers(job, jobOperations, effectiveDisruptionBudgetResolver, containerHealthService, titusRuntime);
+        this.quotaTrackers = buildQuotaTrackers(job, jobOperations, effectiveDisruptionBudgetResolver, jobHealthCounters, titusRuntime);
         this.quotaControllers = mergeQuotaControllers(previousJobQuotaController.quotaControllers, newJob, jobOperations, effectiveDisruptionBudgetResolver, titusRuntime);
     }
 
@@ -158,7 +157,7 @@ public class JobQuotaController implements QuotaController<Job<?>> {
                 updatedJob,
                 jobOperations,
                 effectiveDisruptionBudgetResolver,
-                containerHealthService,
+                jobHealthCounters,
                 this,
                 titusRuntime
         );
@@ -190,7 +189,7 @@ public class JobQuotaController implements QuotaController<Job<?>> {
     static List<QuotaTracker> buildQuotaTrackers(Job<?> job,
                                                  V3JobOperations jobOperations,
                                                  EffectiveJobDisruptionBudgetResolver effectiveDisruptionBudgetResolver,
-                                                 ContainerHealthService containerHealthService,
+                                                 JobHealthCounters jobHealthCounters,
                                                  TitusRuntime titusRuntime) {
         List<QuotaTracker> quotaTrackers = new ArrayList<>();
 
@@ -201,9 +200,9 @@ public class JobQuotaController implements QuotaController<Job<?>> {
 
         DisruptionBudgetPolicy policy = effectiveBudget.getDisruptionBudgetPolicy();
         if (policy instanceof AvailabilityPercentageLimitDisruptionBudgetPolicy) {
-            quotaTrackers.add(UnhealthyTasksLimitTracker.percentageLimit(job, (AvailabilityPercentageLimitDisruptionBudgetPolicy) policy, jobOperations, containerHealthService));
+            quotaTrackers.add(UnhealthyTasksLimitTracker.percentageLimit(job, (AvailabilityPercentageLimitDisruptionBudgetPolicy) policy, jobHealthCounters));
         } else if (policy instanceof UnhealthyTasksLimitDisruptionBudgetPolicy) {
-            quotaTrackers.add(UnhealthyTasksLimitTracker.absoluteLimit(job, (UnhealthyTasksLimitDisruptionBudgetPolicy) policy, jobOperations, containerHealthService));
+            quotaTrackers.add(UnhealthyTasksLimitTracker.absoluteLimit(job, (UnhealthyTasksLimitDisruptionBudgetPolicy) policy, jobHealthCounters));
         }
 
         return quotaTrackers;
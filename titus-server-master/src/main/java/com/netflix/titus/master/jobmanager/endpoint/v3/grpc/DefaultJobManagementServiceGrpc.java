@@ -57,7 +57,7 @@ import com.netflix.titus.common.model.sanitizer.ValidationError;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.util.CollectionsExt;
 import com.netflix.titus.common.util.ExecutorsExt;
-import com.netflix.titus.common.util.ProtobufExt;
+import com.netflix.titus.common.util.ProtobufProjector;
 import com.netflix.titus.common.util.archaius2.ObjectConfigurationResolver;
 import com.netflix.titus.common.util.rx.ObservableExt;
 import com.netflix.titus.common.util.tuple.Pair;
@@ -258,7 +258,8 @@ public class DefaultJobManagementServiceGrpc extends JobManagementServiceGrpc.Jo
             } else {
                 Set<String> fields = new HashSet<>(jobQuery.getFieldsList());
                 fields.addAll(JOB_MINIMUM_FIELD_SET);
-                grpcQueryResult = toJobQueryResult(grpcJobs.stream().map(j -> ProtobufExt.copy(j, fields)).collect(Collectors.toList()), queryResult.getRight());
+                ProtobufProjector projector = ProtobufProjector.of(Job.getDescriptor(), fields);
+                grpcQueryResult = toJobQueryResult(grpcJobs.stream().map(projector::project).collect(Collectors.toList()), queryResult.getRight());
             }
 
             responseObserver.onNext(grpcQueryResult);
@@ -319,7 +320,8 @@ public class DefaultJobManagementServiceGrpc extends JobManagementServiceGrpc.Jo
             } else {
                 Set<String> fields = new HashSet<>(taskQuery.getFieldsList());
                 fields.addAll(TASK_MINIMUM_FIELD_SET);
-                grpcQueryResult = toTaskQueryResult(grpcTasks.stream().map(t -> ProtobufExt.copy(t, fields)).collect(Collectors.toList()), queryResult.getRight());
+                ProtobufProjector projector = ProtobufProjector.of(Task.getDescriptor(), fields);
+                grpcQueryResult = toTaskQueryResult(grpcTasks.stream().map(projector::project).collect(Collectors.toList()), queryResult.getRight());
             }
 
             responseObserver.onNext(grpcQueryResult);
@@ -0,0 +1,222 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.jobmanager.service;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
+import com.netflix.titus.api.jobmanager.model.job.JobState;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
+import com.netflix.titus.api.jobmanager.model.job.event.JobManagerEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.JobUpdateEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.TaskUpdateEvent;
+import com.netflix.titus.common.util.tuple.Pair;
+
+/**
+ * Job and task counters for {@link JobAndTaskMetrics}, maintained incrementally from the job manager events. Each job
+ * and task contributes to exactly one counter, which is recomputed when an event for it arrives. Finished jobs and
+ * tasks are removed. Events are applied as upserts, so an event replayed on top of a newer state does not corrupt
+ * the counters permanently (the next event or the next full recount fixes it).
+ * <p>
+ * The class is thread safe.
+ */
+class JobAndTaskCounters {
+
+    enum Counter {
+        EmptyJobs,
+        ServiceJobsOwnedByKubeScheduler,
+        ServiceJobsOwnedByFenzo,
+        BatchJobsOwnedByKubeScheduler,
+        BatchJobsOwnedByFenzo,
+        TasksWithPodCreated,
+        TasksWithoutPodCreated,
+        TasksOwnedByFenzo
+    }
+
+    interface TaskVisitor {
+        void visit(String capacityGroup, TaskState state, long timestamp);
+    }
+
+    private final Map<String, JobEntry> jobs = new HashMap<>();
+    private final Map<String, TaskEntry> tasks = new HashMap<>();
+    private final long[] counts = new long[Counter.values().length];
+
+    /**
+     * Builds counters from a full scan of the active jobs and tasks.
+     */
+    static JobAndTaskCounters recount(List<Pair<Job, List<Task>>> jobsAndTasks) {
+        JobAndTaskCounters counters = new JobAndTaskCounters();
+        for (Pair<Job, List<Task>> jobAndTasks : jobsAndTasks) {
+            Job<?> job = jobAndTasks.getLeft();
+            counters.applyJob(job);
+            if (job.getStatus().getState() != JobState.Finished) {
+                jobAndTasks.getRight().forEach(counters::applyTask);
+            }
+        }
+        return counters;
+    }
+
+    synchronized void apply(JobManagerEvent<?> event) {
+        if (event instanceof JobUpdateEvent) {
+            applyJob(((JobUpdateEvent) event).getCurrent());
+        } else if (event instanceof TaskUpdateEvent) {
+            TaskUpdateEvent taskEvent = (TaskUpdateEvent) event;
+            applyJob(taskEvent.getCurrentJob());
+            applyTask(taskEvent.getCurrentTask());
+        }
+    }
+
+    synchronized long get(Counter counter) {
+        return counts[counter.ordinal()];
+    }
+
+    synchronized Map<Counter, Long> getAll() {
+        Map<Counter, Long> result = new EnumMap<>(Counter.class);
+        for (Counter counter : Counter.values()) {
+            result.put(counter, counts[counter.ordinal()]);
+        }
+        return result;
+    }
+
+    /**
+     * Visits all active tasks, with the effective capacity group of their job.
+     */
+    synchronized void forEachTask(TaskVisitor visitor) {
+        tasks.values().forEach(entry -> {
+            JobEntry jobEntry = jobs.get(entry.jobId);
+            if (jobEntry != null) {
+                visitor.visit(jobEntry.capacityGroup, entry.state, entry.timestamp);
+            }
+        });
+    }
+
+    /**
+     * Compares the counters with a full recount, and replaces the current state with the recount result. The scan is
+     * done while holding the lock, so no event is applied in between.
+     *
+     * @return the difference between the recount and the incremental counter values
+     */
+    synchronized Map<Counter, Long> reconcile(Supplier<List<Pair<Job, List<Task>>>> jobsAndTasksSupplier) {
+        JobAndTaskCounters recount = recount(jobsAndTasksSupplier.get());
+
+        Map<Counter, Long> drift = new EnumMap<>(Counter.class);
+        for (Counter counter : Counter.values()) {
+            drift.put(counter, recount.counts[counter.ordinal()] - counts[counter.ordinal()]);
+        }
+
+        jobs.clear();
+        jobs.putAll(recount.jobs);
+        tasks.clear();
+        tasks.putAll(recount.tasks);
+        System.arraycopy(recount.counts, 0, counts, 0, counts.length);
+
+        return drift;
+    }
+
+    private void applyJob(Job<?> job) {
+        JobEntry previous = jobs.remove(job.getId());
+        if (previous != null) {
+            counts[previous.counter().ordinal()]--;
+        }
+        if (job.getStatus().getState() == JobState.Finished) {
+            return;
+        }
+        JobEntry current = new JobEntry(job, previous == null ? 0 : previous.kubeSchedulerTasks);
+        jobs.put(job.getId(), current);
+        counts[current.counter().ordinal()]++;
+    }
+
+    private void applyTask(Task task) {
+        TaskEntry previous = tasks.remove(task.getId());
+        if (previous != null) {
+            counts[previous.counter.ordinal()]--;
+            if (previous.ownedByKubeScheduler) {
+                changeKubeSchedulerTasks(previous.jobId, -1);
+            }
+        }
+        if (task.getStatus().getState() == TaskState.Finished) {
+            return;
+        }
+        TaskEntry current = new TaskEntry(task);
+        tasks.put(task.getId(), current);
+        counts[current.counter.ordinal()]++;
+        if (current.ownedByKubeScheduler) {
+            changeKubeSchedulerTasks(current.jobId, 1);
+        }
+    }
+
+    private void changeKubeSchedulerTasks(String jobId, int delta) {
+        JobEntry jobEntry = jobs.get(jobId);
+        if (jobEntry != null) {
+            counts[jobEntry.counter().ordinal()]--;
+            jobEntry.kubeSchedulerTasks += delta;
+            counts[jobEntry.counter().ordinal()]++;
+        }
+    }
+
+    private static class JobEntry {
+
+        private final boolean serviceJob;
+        private final boolean empty;
+        private final String capacityGroup;
+        private int kubeSchedulerTasks;
+
+        private JobEntry(Job<?> job, int kubeSchedulerTasks) {
+            this.serviceJob = JobFunctions.isServiceJob(job);
+            this.empty = JobFunctions.getJobDesiredSize(job) == 0;
+            this.capacityGroup = JobFunctions.getEffectiveCapacityGroup(job);
+            this.kubeSchedulerTasks = kubeSchedulerTasks;
+        }
+
+        private Counter counter() {
+            if (empty) {
+                return Counter.EmptyJobs;
+            }
+            boolean ownedByKubeScheduler = kubeSchedulerTasks > 0;
+            if (serviceJob) {
+                return ownedByKubeScheduler ? Counter.ServiceJobsOwnedByKubeScheduler : Counter.ServiceJobsOwnedByFenzo;
+            }
+            return ownedByKubeScheduler ? Counter.BatchJobsOwnedByKubeScheduler : Counter.BatchJobsOwnedByFenzo;
+        }
+    }
+
+    private static class TaskEntry {
+
+        private final String jobId;
+        private final boolean ownedByKubeScheduler;
+        private final Counter counter;
+        private final TaskState state;
+        private final long timestamp;
+
+        private TaskEntry(Task task) {
+            this.jobId = task.getJobId();
+            this.ownedByKubeScheduler = JobFunctions.isOwnedByKubeScheduler(task);
+            this.counter = ownedByKubeScheduler
+                    ? (TaskStatus.hasPod(task) ? Counter.TasksWithPodCreated : Counter.TasksWithoutPodCreated)
+                    : Counter.TasksOwnedByFenzo;
+            this.state = task.getStatus().getState();
+            this.timestamp = task.getStatus().getTimestamp();
+        }
+    }
+}
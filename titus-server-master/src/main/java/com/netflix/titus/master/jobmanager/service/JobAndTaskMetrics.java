@@ -21,8 +21,8 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
+import java.util.EnumMap;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
@@ -33,24 +33,22 @@ import javax.inject.Singleton;
 import com.netflix.spectator.api.Gauge;
 import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Registry;
-import com.netflix.titus.api.jobmanager.model.job.Job;
 import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
 import com.netflix.titus.api.jobmanager.model.job.Task;
 import com.netflix.titus.api.jobmanager.model.job.TaskState;
-import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
 import com.netflix.titus.api.jobmanager.model.job.event.TaskUpdateEvent;
 import com.netflix.titus.api.jobmanager.service.V3JobOperations;
 import com.netflix.titus.api.model.ApplicationSLA;
 import com.netflix.titus.api.model.Tier;
 import com.netflix.titus.common.util.CollectionsExt;
 import com.netflix.titus.common.util.DateTimeExt;
-import com.netflix.titus.common.util.StringExt;
 import com.netflix.titus.common.util.guice.annotation.Activator;
 import com.netflix.titus.common.util.histogram.Histogram;
 import com.netflix.titus.common.util.histogram.HistogramDescriptor;
 import com.netflix.titus.common.util.rx.ObservableExt;
 import com.netflix.titus.common.util.tuple.Pair;
 import com.netflix.titus.master.MetricConstants;
+import com.netflix.titus.master.jobmanager.service.JobAndTaskCounters.Counter;
 import com.netflix.titus.master.service.management.ApplicationSlaManagementService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -59,9 +57,10 @@ import rx.Subscription;
 import rx.schedulers.Schedulers;
 
 /**
- * Supplementary metrics based on both job/task state, and elapsed time. These metrics cannot be computed only
- * in response to system state change events. Instead, they are recomputed at regular interval.
- * <p>
+ * Supplementary metrics based on both job/task state, and elapsed time. The job and task counts are maintained
+ * incrementally from the job manager events (see {@link JobAndTaskCounters}), and periodically compared with a full
+ * recount. A non zero difference is reported as a drift metric. The task liveness histograms depend on the elapsed
+ * time, so they are recomputed at regular interval from the tracked tasks.
  */
 @Singleton
 public class JobAndTaskMetrics {
@@ -73,6 +72,7 @@ public class JobAndTaskMetrics {
     private static final String TASK_IN_STATE_ROOT_METRIC_NAME = MetricConstants.METRIC_ROOT + "jobManager.taskLiveness.";
     private static final String TASK_IN_STATE_METRIC_NAME = TASK_IN_STATE_ROOT_METRIC_NAME + "duration";
     private static final String TASK_STATE_CHANGE_METRIC_NAME = MetricConstants.METRIC_ROOT + "jobManager.taskStateUpdates";
+    private static final String METRICS_DRIFT_METRIC_NAME = MetricConstants.METRIC_ROOT + "jobManager.metricsDrift";
 
     private static final List<String> TRACKED_STATES = Arrays.asList(
             TaskState.Accepted.name(),
@@ -102,11 +102,13 @@ public class JobAndTaskMetrics {
     private final Registry registry;
 
     private final Map<String, Map<String, List<Gauge>>> capacityGroupsMetrics = new HashMap<>();
-    private final Id jobCountId;
-    private final Id taskCountId;
+    private final JobAndTaskCounters counters = new JobAndTaskCounters();
+    private final Map<Counter, Gauge> countGauges = new EnumMap<>(Counter.class);
+    private final Map<Counter, Gauge> driftGauges = new EnumMap<>(Counter.class);
 
     private Subscription taskLivenessRefreshSubscription;
     private Subscription taskStateUpdateSubscription;
+    private Subscription driftCheckSubscription;
 
     @Inject
     public JobAndTaskMetrics(ApplicationSlaManagementService applicationSlaManagementService,
@@ -118,8 +120,22 @@ public class JobAndTaskMetrics {
         this.configuration = configuration;
         this.registry = registry;
 
-        this.jobCountId = registry.createId(JOBS_METRIC_NAME);
-        this.taskCountId = registry.createId(TASKS_METRIC_NAME);
+        Id jobCountId = registry.createId(JOBS_METRIC_NAME);
+        countGauges.put(Counter.EmptyJobs, registry.gauge(jobCountId.withTag("emptyJobs", "true")));
+        countGauges.put(Counter.ServiceJobsOwnedByKubeScheduler, registry.gauge(jobCountId.withTags("jobType", "service", "kubeScheduler", "true")));
+        countGauges.put(Counter.ServiceJobsOwnedByFenzo, registry.gauge(jobCountId.withTags("jobType", "service", "kubeScheduler", "false")));
+        countGauges.put(Counter.BatchJobsOwnedByKubeScheduler, registry.gauge(jobCountId.withTags("jobType", "batch", "kubeScheduler", "true")));
+        countGauges.put(Counter.BatchJobsOwnedByFenzo, registry.gauge(jobCountId.withTags("jobType", "batch", "kubeScheduler", "false")));
+
+        Id taskCountId = registry.createId(TASKS_METRIC_NAME);
+        countGauges.put(Counter.TasksWithPodCreated, registry.gauge(taskCountId.withTags("kubeScheduler", "true", "podCreated", "true")));
+        countGauges.put(Counter.TasksWithoutPodCreated, registry.gauge(taskCountId.withTags("kubeScheduler", "true", "podCreated", "false")));
+        countGauges.put(Counter.TasksOwnedByFenzo, registry.gauge(taskCountId.withTag("kubeScheduler", "false")));
+
+        Id driftId = registry.createId(METRICS_DRIFT_METRIC_NAME);
+        for (Counter counter : Counter.values()) {
+            driftGauges.put(counter, registry.gauge(driftId.withTag("counter", counter.name())));
+        }
     }
 
     @Activator
@@ -128,6 +144,8 @@ public class JobAndTaskMetrics {
 
         this.taskStateUpdateSubscription = v3JobOperations.observeJobs().subscribe(
                 event -> {
+                    counters.apply(event);
+                    updateCountGauges();
                     if (event instanceof TaskUpdateEvent) {
                         updateTaskMetrics((TaskUpdateEvent) event);
                     }
@@ -136,17 +154,29 @@ public class JobAndTaskMetrics {
                 () -> logger.info("Event stream completed")
         );
 
+        // The initial load is not a drift, as the event stream does not emit the current state.
+        counters.reconcile(v3JobOperations::getJobsAndTasks);
+        updateCountGauges();
+
         this.taskLivenessRefreshSubscription = ObservableExt.schedule(
                 TASK_IN_STATE_ROOT_METRIC_NAME + "scheduler", registry, "TaskLivenessRefreshAction",
                 Completable.fromAction(this::refresh), intervalMs, intervalMs, TimeUnit.MILLISECONDS, Schedulers.computation()
         ).subscribe(result ->
                 result.ifPresent(error -> logger.warn("Task liveness metrics refresh error", error))
         );
+
+        long driftCheckIntervalMs = Math.max(1_000, configuration.getJobAndTaskMetricsDriftCheckIntervalMs());
+        this.driftCheckSubscription = ObservableExt.schedule(
+                MetricConstants.METRIC_ROOT + "jobManager.metricsDriftCheck", registry, "JobAndTaskMetricsDriftCheckAction",
+                Completable.fromAction(this::checkDrift), driftCheckIntervalMs, driftCheckIntervalMs, TimeUnit.MILLISECONDS, Schedulers.computation()
+        ).subscribe(result ->
+                result.ifPresent(error -> logger.warn("Job and task metrics drift check error", error))
+        );
     }
 
     @PreDestroy
     public void shutdown() {
-        ObservableExt.safeUnsubscribe(taskStateUpdateSubscription, taskLivenessRefreshSubscription);
+        ObservableExt.safeUnsubscribe(taskStateUpdateSubscription, taskLivenessRefreshSubscription, driftCheckSubscription);
     }
 
     private void updateTaskMetrics(TaskUpdateEvent event) {
@@ -161,17 +191,23 @@ public class JobAndTaskMetrics {
         ).increment();
     }
 
-    private void refresh() {
-        Map<String, Tier> tierMap = buildTierMap();
+    private void updateCountGauges() {
+        counters.getAll().forEach((counter, value) -> countGauges.get(counter).set(value));
+    }
 
-        List<Pair<Job, List<Task>>> jobsAndTasks = v3JobOperations.getJobsAndTasks();
-        List<Job> jobs = v3JobOperations.getJobs();
-        List<Task> tasks = v3JobOperations.getTasks();
+    private void checkDrift() {
+        Map<Counter, Long> drift = counters.reconcile(v3JobOperations::getJobsAndTasks);
+        drift.forEach((counter, value) -> driftGauges.get(counter).set(Math.abs(value)));
+        if (drift.values().stream().anyMatch(value -> value != 0)) {
+            logger.warn("Incrementally maintained job and task counters differ from the full recount: {}", drift);
+        }
+        updateCountGauges();
+    }
 
-        updateJobCounts(jobsAndTasks);
-        updateTaskCounts(tasks);
+    private void refresh() {
+        Map<String, Tier> tierMap = buildTierMap();
 
-        Map<String, Map<String, Histogram.Builder>> capacityGroupsHistograms = buildCapacityGroupsHistograms(tierMap.keySet(), jobs);
+        Map<String, Map<String, Histogram.Builder>> capacityGroupsHistograms = buildCapacityGroupsHistograms(tierMap.keySet());
         resetDroppedCapacityGroups(capacityGroupsHistograms.keySet());
         updateCapacityGroupCounters(capacityGroupsHistograms, tierMap);
     }
@@ -240,133 +276,27 @@ public class JobAndTaskMetrics {
         return gauges;
     }
 
-    /**
-     * Traverse all active jobs and update the count metrics
-     */
-    private void updateJobCounts(List<Pair<Job, List<Task>>> jobsAndTasks) {
-        int emptyJobs = 0;
-        int serviceJobsOwnedByKubeScheduler = 0;
-        int serviceJobsOwnedByFenzo = 0;
-        int batchJobsOwnedByKubeScheduler = 0;
-        int batchJobsOwnedByFenzo = 0;
-
-        for (Pair<Job, List<Task>> jobAndTasks : jobsAndTasks) {
-            Job job = jobAndTasks.getLeft();
-            List<Task> tasks = jobAndTasks.getRight();
-
-            if (JobFunctions.getJobDesiredSize(job) == 0) {
-                emptyJobs++;
-            } else {
-                boolean ownedByKubeScheduler = tasks.stream().anyMatch(JobFunctions::isOwnedByKubeScheduler);
-                boolean serviceJob = JobFunctions.isServiceJob(job);
-
-                if (ownedByKubeScheduler) {
-                    if (serviceJob) {
-                        serviceJobsOwnedByKubeScheduler++;
-                    } else {
-                        batchJobsOwnedByKubeScheduler++;
-                    }
-                } else {
-                    if (serviceJob) {
-                        serviceJobsOwnedByFenzo++;
-                    } else {
-                        batchJobsOwnedByFenzo++;
-                    }
-                }
-            }
-        }
-
-        registry.gauge(jobCountId.withTag("emptyJobs", "true")).set(emptyJobs);
-
-        registry.gauge(jobCountId.withTags(
-                "jobType", "service",
-                "kubeScheduler", "true"
-        )).set(serviceJobsOwnedByKubeScheduler);
-        registry.gauge(jobCountId.withTags(
-                "jobType", "service",
-                "kubeScheduler", "false"
-        )).set(serviceJobsOwnedByFenzo);
-
-        registry.gauge(jobCountId.withTags(
-                "jobType", "batch",
-                "kubeScheduler", "true"
-        )).set(batchJobsOwnedByKubeScheduler);
-        registry.gauge(jobCountId.withTags(
-                "jobType", "batch",
-                "kubeScheduler", "false"
-        )).set(batchJobsOwnedByFenzo);
-    }
-
-    /**
-     * Traverse all tasks and update the count metrics
-     */
-    private void updateTaskCounts(List<Task> tasks) {
-        int tasksOwnedByKubeScheduler = 0;
-        int tasksWithPodCreated = 0;
-        for (Task task : tasks) {
-            if (JobFunctions.isOwnedByKubeScheduler(task)) {
-                tasksOwnedByKubeScheduler++;
-                if (TaskStatus.hasPod(task)) {
-                    tasksWithPodCreated++;
-                }
-            }
-        }
-        registry.gauge(taskCountId.withTags(
-                "kubeScheduler", "true",
-                "podCreated", "true"
-        )).set(tasksWithPodCreated);
-        registry.gauge(taskCountId.withTags(
-                "kubeScheduler", "true",
-                "podCreated", "false"
-        )).set(tasksOwnedByKubeScheduler - tasksWithPodCreated);
-
-        registry.gauge(taskCountId.withTag("kubeScheduler", "false")).set(tasks.size() - tasksOwnedByKubeScheduler);
-    }
-
     /**
      * Traverse all active tasks and collect their state and the time they stayed in this state (the latter in form of histogram).
+     * Tasks of jobs with an unknown capacity group are assigned to the default one.
      *
      * @return mapOf(capacityGroupName - > mapOf ( taskState, histogram))
      */
-    private Map<String, Map<String, Histogram.Builder>> buildCapacityGroupsHistograms(Set<String> capacityGroups, List<Job> jobs) {
+    private Map<String, Map<String, Histogram.Builder>> buildCapacityGroupsHistograms(Set<String> capacityGroups) {
         Map<String, Map<String, Histogram.Builder>> capacityGroupsHistograms = newCapacityHistograms(capacityGroups);
-        jobs.forEach(job -> resolveCapacityGroup(job, capacityGroupsHistograms).ifPresent(capacityGroup ->
-                buildCapacityGroupHistogram(job, capacityGroup, capacityGroupsHistograms)
-        ));
-        return capacityGroupsHistograms;
-    }
-
-    private void buildCapacityGroupHistogram(Job<?> job, String capacityGroup, Map<String, Map<String, Histogram.Builder>> capacityGroupsHistograms) {
-        // 'capacityGroupsHistograms' is pre-initialized, but to avoid race condition we make extra check here.
-        Map<String, Histogram.Builder> capacityGroupHistograms = capacityGroupsHistograms.computeIfAbsent(capacityGroup, k -> new HashMap<>());
-        List<Task> tasks;
-        try {
-            tasks = v3JobOperations.getTasks(job.getId());
-        } catch (Exception e) {
-            // We work on live data, which may be removed at any point in time.
-            return;
-        }
-        tasks.forEach(task -> {
-            long timestamp = task.getStatus().getTimestamp();
+        long now = System.currentTimeMillis();
+        counters.forEachTask((capacityGroup, state, timestamp) -> {
             if (timestamp > 0) {
-                long durationMs = System.currentTimeMillis() - timestamp;
-                capacityGroupHistograms.computeIfAbsent(
-                        task.getStatus().getState().name(),
-                        name -> Histogram.newBuilder(HISTOGRAM_DESCRIPTOR)
-                ).increment(durationMs);
+                String effectiveCapacityGroup = capacityGroupsHistograms.containsKey(capacityGroup)
+                        ? capacityGroup
+                        : ApplicationSlaManagementService.DEFAULT_APPLICATION;
+                // 'capacityGroupsHistograms' is pre-initialized, but the default capacity group may not be in the tier map yet.
+                capacityGroupsHistograms.computeIfAbsent(effectiveCapacityGroup, k -> new HashMap<>())
+                        .computeIfAbsent(state.name(), name -> Histogram.newBuilder(HISTOGRAM_DESCRIPTOR))
+                        .increment(now - timestamp);
             }
         });
-    }
-
-    private Optional<String> resolveCapacityGroup(Job<?> job, Map<String, Map<String, Histogram.Builder>> capacityHistograms) {
-        String capacityGroup = job.getJobDescriptor().getCapacityGroup();
-        if (StringExt.isEmpty(capacityGroup)) {
-            capacityGroup = job.getJobDescriptor().getApplicationName();
-        }
-        if (StringExt.isEmpty(capacityGroup)) {
-            return Optional.of(ApplicationSlaManagementService.DEFAULT_APPLICATION);
-        }
-        return Optional.of(capacityHistograms.containsKey(capacityGroup) ? capacityGroup : ApplicationSlaManagementService.DEFAULT_APPLICATION);
+        return capacityGroupsHistograms;
     }
 
     private Map<String, Tier> buildTierMap() {
@@ -92,6 +92,12 @@ public interface JobManagerConfiguration {
     @DefaultValue("10000")
     long getTaskLivenessPollerIntervalMs();
 
+    /**
+     * Interval at which the incrementally maintained job and task counters are compared with a full recount.
+     */
+    @DefaultValue("300000")
+    long getJobAndTaskMetricsDriftCheckIntervalMs();
+
     /**
      * Feature flag controlling job/task validation process.
      */
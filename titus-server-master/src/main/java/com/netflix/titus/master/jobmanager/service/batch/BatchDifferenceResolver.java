@@ -168,13 +168,14 @@ public class BatchDifferenceResolver implements ReconciliationEngine.DifferenceR
     public List<ChangeAction> apply(ReconciliationEngine<JobManagerReconcilerEvent> engine) {
         List<ChangeAction> actions = new ArrayList<>();
         BatchJobView refJobView = new BatchJobView(engine.getReferenceView());
+        BatchJobView runningJobView = new BatchJobView(engine.getRunningView());
         EntityHolder storeModel = engine.getStoreView();
 
-        int activeNotStartedTasks = DifferenceResolverUtils.countActiveNotStartedTasks(refJobView.getJobHolder(), engine.getRunningView());
+        int activeNotStartedTasks = DifferenceResolverUtils.countActiveNotStartedTasks(refJobView, runningJobView);
         AtomicInteger allowedNewTasks = new AtomicInteger(Math.max(0, configuration.getActiveNotStartedTasksLimit() - activeNotStartedTasks));
 
         actions.addAll(applyStore(engine, refJobView, storeModel, allowedNewTasks));
-        actions.addAll(applyRuntime(engine, refJobView, engine.getRunningView(), storeModel, allowedNewTasks));
+        actions.addAll(applyRuntime(engine, refJobView, runningJobView, storeModel, allowedNewTasks));
 
         if (actions.isEmpty()) {
             actions.addAll(removeCompletedJob(engine.getReferenceView(), storeModel, jobStore));
@@ -183,10 +184,9 @@ public class BatchDifferenceResolver implements ReconciliationEngine.DifferenceR
         return actions;
     }
 
-    private List<ChangeAction> applyRuntime(ReconciliationEngine<JobManagerReconcilerEvent> engine, BatchJobView refJobView, EntityHolder runningModel, EntityHolder storeModel, AtomicInteger allowedNewTasks) {
+    private List<ChangeAction> applyRuntime(ReconciliationEngine<JobManagerReconcilerEvent> engine, BatchJobView refJobView, BatchJobView runningJobView, EntityHolder storeModel, AtomicInteger allowedNewTasks) {
         List<ChangeAction> actions = new ArrayList<>();
         EntityHolder referenceModel = refJobView.getJobHolder();
-        BatchJobView runningJobView = new BatchJobView(runningModel);
 
         if (DifferenceResolverUtils.hasJobState(referenceModel, JobState.KillInitiated)) {
             List<ChangeAction> killInitiatedActions = KillInitiatedActions.reconcilerInitiatedAllTasksKillInitiated(
@@ -217,8 +217,8 @@ public class BatchDifferenceResolver implements ReconciliationEngine.DifferenceR
      */
     private List<ChangeAction> findJobSizeInconsistencies(BatchJobView refJobView, EntityHolder storeModel, AtomicInteger allowedNewTasks) {
         boolean canUpdateStore = storeWriteRetryInterceptor.executionLimits(storeModel);
-        Set<String> unassignedIpAllocations = getUnassignedIpAllocations(refJobView);
         if (canUpdateStore && refJobView.getTasks().size() < refJobView.getRequiredSize()) {
+            Set<String> unassignedIpAllocations = getUnassignedIpAllocations(refJobView);
             List<ChangeAction> missingTasks = new ArrayList<>();
             for (int i = 0; i < refJobView.getRequiredSize() && allowedNewTasks.get() > 0; i++) {
                 if (!refJobView.getIndexes().contains(i)) {
@@ -234,9 +234,7 @@ public class BatchDifferenceResolver implements ReconciliationEngine.DifferenceR
 
     private Optional<TitusChangeAction> createNewTaskAction(BatchJobView refJobView, int taskIndex, Optional<EntityHolder> previousTask, Set<String> unassignedIpAllocations) {
         // Safety check
-        long numberOfNotFinishedTasks = refJobView.getJobHolder().getChildren().stream()
-                .filter(holder -> TaskState.isRunning(((Task) holder.getEntity()).getStatus().getState()))
-                .count();
+        long numberOfNotFinishedTasks = refJobView.getRunningCount();
         if (numberOfNotFinishedTasks >= refJobView.getRequiredSize()) {
             titusRuntime.getCodeInvariants().inconsistent(
                     "Batch job reconciler attempts to create too many tasks: jobId=%s, requiredSize=%s, current=%s",
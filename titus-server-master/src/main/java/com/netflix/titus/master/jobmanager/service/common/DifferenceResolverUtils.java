@@ -18,12 +18,12 @@ package com.netflix.titus.master.jobmanager.service.common;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
-import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -139,7 +139,7 @@ public class DifferenceResolverUtils {
         Clock clock = titusRuntime.getClock();
 
         List<ChangeAction> actions = new ArrayList<>();
-        runningJobView.getJobHolder().getChildren().forEach(taskHolder -> {
+        runningJobView.getTimeoutCandidates().forEach(taskHolder -> {
             Task task = taskHolder.getEntity();
             TaskState taskState = task.getStatus().getState();
 
@@ -222,19 +222,18 @@ public class DifferenceResolverUtils {
         return actions;
     }
 
-    public static int countActiveNotStartedTasks(EntityHolder refJobHolder, EntityHolder runningJobHolder) {
-        Set<String> pendingTaskIds = new HashSet<>();
-
-        Consumer<EntityHolder> countingFun = jobHolder -> jobHolder.getChildren().forEach(taskHolder -> {
-            TaskState state = ((Task) taskHolder.getEntity()).getStatus().getState();
-            if (state != TaskState.Started && state != TaskState.Finished) {
-                pendingTaskIds.add(taskHolder.getId());
+    /**
+     * Counts tasks that are not started yet, and not finished, in either the reference or the running view.
+     */
+    public static int countActiveNotStartedTasks(JobView refJobView, JobView runningJobView) {
+        Set<String> refTaskIds = refJobView.getActiveNotStartedTaskIds();
+        int count = refTaskIds.size();
+        for (String taskId : (Set<String>) runningJobView.getActiveNotStartedTaskIds()) {
+            if (!refTaskIds.contains(taskId)) {
+                count++;
             }
-        });
-        countingFun.accept(refJobHolder);
-        countingFun.accept(runningJobHolder);
-
-        return pendingTaskIds.size();
+        }
+        return count;
     }
 
     /**
@@ -248,10 +247,8 @@ public class DifferenceResolverUtils {
                 .collect(Collectors.toCollection(HashSet::new));
 
         // Filter out those that are assigned
-        for (Task task : (List<Task>) refJobView.getTasks()) {
-            if (!TaskState.isTerminalState(task.getStatus().getState())) {
-                unassignedIpAddressIds.remove(task.getTaskContext().getOrDefault(TASK_ATTRIBUTES_IP_ALLOCATION_ID, ""));
-            }
+        if (!unassignedIpAddressIds.isEmpty()) {
+            unassignedIpAddressIds.removeAll(refJobView.getAssignedIpAllocationIds());
         }
 
         return unassignedIpAddressIds;
@@ -289,6 +286,11 @@ public class DifferenceResolverUtils {
                 .orElseGet(() -> getInitialTaskContext(unassignedIpAllocations));
     }
 
+    /**
+     * A job with its tasks, and a summary of the task states. The summary is computed in a single pass over the tasks,
+     * when the view is created, so a difference resolver should create one view per model (reference, running) in each
+     * reconciliation pass, and take all state counts from it.
+     */
     public static class JobView<EXT extends JobDescriptor.JobDescriptorExt, TASK extends Task> {
 
         private final Job<EXT> job;
@@ -296,12 +298,47 @@ public class DifferenceResolverUtils {
         private final List<TASK> tasks;
         private final int requiredSize;
 
+        private int finishedCount;
+        private int runningCount;
+        private final Set<String> activeNotStartedTaskIds = new HashSet<>();
+        private final Set<String> assignedIpAllocationIds = new HashSet<>();
+        private final List<EntityHolder> timeoutCandidates = new ArrayList<>();
+
+        private Map<String, TASK> tasksById;
+
         @SuppressWarnings("unchecked")
         public JobView(EntityHolder jobHolder) {
             this.job = jobHolder.getEntity();
             this.jobHolder = jobHolder;
             this.requiredSize = apply(job, BatchJobExt::getSize, service -> service.getCapacity().getDesired());
-            this.tasks = jobHolder.getChildren().stream().map(h -> (TASK) h.getEntity()).collect(Collectors.toList());
+
+            boolean batch = isBatch(job);
+            List<EntityHolder> children = jobHolder.getChildren();
+            this.tasks = new ArrayList<>(children.size());
+            for (EntityHolder taskHolder : children) {
+                TASK task = taskHolder.getEntity();
+                tasks.add(task);
+
+                TaskState state = task.getStatus().getState();
+                if (state == TaskState.Finished) {
+                    finishedCount++;
+                } else {
+                    String ipAllocationId = task.getTaskContext().get(TASK_ATTRIBUTES_IP_ALLOCATION_ID);
+                    if (ipAllocationId != null) {
+                        assignedIpAllocationIds.add(ipAllocationId);
+                    }
+                    if (state != TaskState.Started) {
+                        activeNotStartedTaskIds.add(taskHolder.getId());
+                    }
+                }
+                if (TaskState.isRunning(state)) {
+                    runningCount++;
+                }
+                if (state == TaskState.Launched || state == TaskState.StartInitiated || state == TaskState.KillInitiated
+                        || (batch && state == TaskState.Started)) {
+                    timeoutCandidates.add(taskHolder);
+                }
+            }
         }
 
         public EntityHolder getJobHolder() {
@@ -316,12 +353,52 @@ public class DifferenceResolverUtils {
             return tasks;
         }
 
+        /**
+         * The task index is built on the first call, as {@link EntityHolder#findChildById(String)} scans all children
+         * when a task is not found.
+         */
         public TASK getTaskById(String refTaskId) {
-            return jobHolder.findChildById(refTaskId).map(h -> (TASK) h.getEntity()).orElse(null);
+            if (tasksById == null) {
+                tasksById = new HashMap<>();
+                for (TASK task : tasks) {
+                    tasksById.put(task.getId(), task);
+                }
+            }
+            return tasksById.get(refTaskId);
         }
 
         public int getRequiredSize() {
             return requiredSize;
         }
+
+        public int getFinishedCount() {
+            return finishedCount;
+        }
+
+        /**
+         * Number of tasks in one of the {@link TaskState#isRunning(TaskState)} states.
+         */
+        public int getRunningCount() {
+            return runningCount;
+        }
+
+        public Set<String> getActiveNotStartedTaskIds() {
+            return activeNotStartedTaskIds;
+        }
+
+        /**
+         * IP allocations assigned to tasks which are not finished.
+         */
+        public Set<String> getAssignedIpAllocationIds() {
+            return assignedIpAllocationIds;
+        }
+
+        /**
+         * Tasks that may have a state timeout (see {@link #findTaskStateTimeouts}). Tasks in other states are ignored
+         * by the timeout evaluation.
+         */
+        public List<EntityHolder> getTimeoutCandidates() {
+            return timeoutCandidates;
+        }
     }
 }
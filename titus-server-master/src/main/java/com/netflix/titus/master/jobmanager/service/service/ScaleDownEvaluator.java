@@ -23,7 +23,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.PriorityQueue;
+import java.util.TreeSet;
 
 import com.netflix.titus.api.jobmanager.TaskAttributes;
 import com.netflix.titus.api.jobmanager.model.job.ServiceJobTask;
@@ -159,17 +160,21 @@ class ScaleDownEvaluator {
             int largestGroup = region.getLargestTaskGroup();
 
             // Step 2: kill tasks from the largest groups, trying to maintain zone balancing
-            boolean hasMore = true;
-            while (tasksToKill.size() < targetTerminateCount && hasMore) {
-                Optional<Zone> zoneOpt = region.getLargestZoneWithTaskGroupSize(largestGroup);
-                if (hasMore = zoneOpt.isPresent()) {
-                    // Step 3: remove oldest task
-                    Optional<ServiceJobTask> removedTask = zoneOpt.get().removeOldestTaskFromLargestTaskGroup();
-                    removedTask.ifPresent(tasksToKill::add);
-                    if (!removedTask.isPresent()) {
-                        titusRuntime.getCodeInvariants().inconsistent("Expected task, but found nothing. Terminating evaluation loop of job %s", allTasks.get(0).getJobId());
-                        return tasksToKill;
-                    }
+            TreeSet<Zone> candidateZones = region.getZonesWithTaskGroupSize(largestGroup);
+            while (tasksToKill.size() < targetTerminateCount && !candidateZones.isEmpty()) {
+                Zone zone = candidateZones.pollFirst();
+
+                // Step 3: remove oldest task
+                Optional<ServiceJobTask> removedTask = zone.removeOldestTaskFromLargestTaskGroup();
+                if (!removedTask.isPresent()) {
+                    titusRuntime.getCodeInvariants().inconsistent("Expected task, but found nothing. Terminating evaluation loop of job %s", allTasks.get(0).getJobId());
+                    return tasksToKill;
+                }
+                tasksToKill.add(removedTask.get());
+
+                // Zone task count changed, so it must be re-inserted to restore the ordering
+                if (zone.getLargestTaskGroupSize() >= largestGroup) {
+                    candidateZones.add(zone);
                 }
             }
         }
@@ -177,14 +182,22 @@ class ScaleDownEvaluator {
         return tasksToKill;
     }
 
+    /**
+     * Zones are kept in the iteration order of the map they were grouped with. This order (rank) is used to break ties
+     * between zones and agent groups of the same size, so the selection is deterministic for a given task list.
+     */
     static class Region {
 
-        private final Map<String, Zone> zones;
+        private static final Comparator<Zone> LARGEST_ZONE_FIRST = Comparator.comparingInt(Zone::getTaskCount).reversed()
+                .thenComparingInt(Zone::getRank);
+
+        private final List<Zone> zones;
 
         Region(List<ServiceJobTask> allTasks) {
             Map<String, List<ServiceJobTask>> byZone = new HashMap<>();
             allTasks.forEach(task -> byZone.computeIfAbsent(toZoneId(task), t -> new ArrayList<>()).add(task));
-            this.zones = byZone.entrySet().stream().collect(Collectors.toMap(Map.Entry::getKey, e -> new Zone(e.getValue())));
+            this.zones = new ArrayList<>(byZone.size());
+            byZone.values().forEach(zoneTasks -> zones.add(new Zone(zones.size(), zoneTasks)));
         }
 
         String toZoneId(Task task) {
@@ -192,76 +205,116 @@ class ScaleDownEvaluator {
         }
 
         int getLargestTaskGroup() {
-            return zones.values().stream().mapToInt(Zone::getLargestTaskGroupSize).max().orElse(0);
+            int largest = 0;
+            for (Zone zone : zones) {
+                largest = Math.max(largest, zone.getLargestTaskGroupSize());
+            }
+            return largest;
         }
 
-        Optional<Zone> getLargestZoneWithTaskGroupSize(int largestGroup) {
-            Zone selectedZone = null;
-            for (Zone zone : zones.values()) {
+        /**
+         * Returns zones with a task group of at least the given size, ordered by the zone task count (largest first).
+         */
+        TreeSet<Zone> getZonesWithTaskGroupSize(int largestGroup) {
+            TreeSet<Zone> selected = new TreeSet<>(LARGEST_ZONE_FIRST);
+            for (Zone zone : zones) {
                 if (zone.getLargestTaskGroupSize() >= largestGroup) {
-                    if (selectedZone == null) {
-                        selectedZone = zone;
-                    } else {
-                        if (selectedZone.getTaskCount() < zone.getTaskCount()) {
-                            selectedZone = zone;
-                        }
-                    }
+                    selected.add(zone);
                 }
             }
-            return Optional.ofNullable(selectedZone);
+            return selected;
         }
 
         boolean hasMoreTasks() {
-            return zones.values().stream().anyMatch(z -> z.getTaskCount() > 0);
+            for (Zone zone : zones) {
+                if (zone.getTaskCount() > 0) {
+                    return true;
+                }
+            }
+            return false;
         }
     }
 
     static class Zone {
 
-        private final Map<String, List<ServiceJobTask>> tasksByAgentId;
+        private static final Comparator<AgentGroup> LARGEST_GROUP_FIRST = Comparator.comparingInt(AgentGroup::size).reversed()
+                .thenComparingInt(AgentGroup::getRank);
+
+        private final int rank;
+        private final TreeSet<AgentGroup> agentGroups = new TreeSet<>(LARGEST_GROUP_FIRST);
         private int taskCount;
 
-        Zone(List<ServiceJobTask> tasks) {
+        Zone(int rank, List<ServiceJobTask> tasks) {
+            this.rank = rank;
             this.taskCount = tasks.size();
-            this.tasksByAgentId = new HashMap<>();
+
+            Map<String, List<ServiceJobTask>> tasksByAgentId = new HashMap<>();
             tasks.forEach(task -> tasksByAgentId.computeIfAbsent(toAgentId(task), t -> new ArrayList<>()).add(task));
+            tasksByAgentId.values().forEach(agentTasks -> agentGroups.add(new AgentGroup(agentGroups.size(), agentTasks)));
         }
 
         String toAgentId(Task task) {
             return task.getTaskContext().getOrDefault(TaskAttributes.TASK_ATTRIBUTES_AGENT_INSTANCE_ID, "default");
         }
 
+        int getRank() {
+            return rank;
+        }
+
         int getLargestTaskGroupSize() {
-            return tasksByAgentId.values().stream().mapToInt(List::size).max().orElse(0);
+            return agentGroups.isEmpty() ? 0 : agentGroups.first().size();
         }
 
         Optional<ServiceJobTask> removeOldestTaskFromLargestTaskGroup() {
-            if (taskCount == 0) {
+            AgentGroup largestGroup = agentGroups.pollFirst();
+            if (largestGroup == null) {
                 return Optional.empty();
             }
-            return tasksByAgentId.entrySet().stream()
-                    .max(Comparator.comparingInt(l -> l.getValue().size()))
-                    .map(largestGroupEntry -> {
-                                List<ServiceJobTask> tasks = largestGroupEntry.getValue();
-
-                                int bestIdx = 0;
-                                long bestTimestamp = tasks.get(0).getStatus().getTimestamp();
-
-                                for (int i = 1; i < tasks.size(); i++) {
-                                    long currentTimestamp = tasks.get(i).getStatus().getTimestamp();
-                                    if (currentTimestamp < bestTimestamp) {
-                                        bestIdx = i;
-                                        bestTimestamp = currentTimestamp;
-                                    }
-                                }
-                                taskCount--;
-                                return tasks.remove(bestIdx);
-                            }
-                    );
+            ServiceJobTask task = largestGroup.removeOldestTask();
+            if (largestGroup.size() > 0) {
+                agentGroups.add(largestGroup);
+            }
+            taskCount--;
+            return Optional.of(task);
         }
 
         int getTaskCount() {
             return taskCount;
         }
     }
+
+    /**
+     * Tasks running on the same agent, ordered by their status timestamp. Tasks with the same timestamp are removed
+     * in the order they were provided.
+     */
+    static class AgentGroup {
+
+        private final int rank;
+        private final List<ServiceJobTask> tasks;
+        private final PriorityQueue<Integer> oldestFirst;
+
+        AgentGroup(int rank, List<ServiceJobTask> tasks) {
+            this.rank = rank;
+            this.tasks = tasks;
+            this.oldestFirst = new PriorityQueue<>(
+                    Math.max(1, tasks.size()),
+                    Comparator.<Integer>comparingLong(idx -> tasks.get(idx).getStatus().getTimestamp()).thenComparingInt(idx -> idx)
+            );
+            for (int i = 0; i < tasks.size(); i++) {
+                oldestFirst.add(i);
+            }
+        }
+
+        int getRank() {
+            return rank;
+        }
+
+        int size() {
+            return oldestFirst.size();
+        }
+
+        ServiceJobTask removeOldestTask() {
+            return tasks.get(oldestFirst.poll());
+        }
+    }
 }
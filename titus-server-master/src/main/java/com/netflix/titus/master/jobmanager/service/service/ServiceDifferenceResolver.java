@@ -169,13 +169,14 @@ public class ServiceDifferenceResolver implements ReconciliationEngine.Differenc
     public List<ChangeAction> apply(ReconciliationEngine<JobManagerReconcilerEvent> engine) {
         List<ChangeAction> actions = new ArrayList<>();
         ServiceJobView refJobView = new ServiceJobView(engine.getReferenceView());
+        ServiceJobView runningJobView = new ServiceJobView(engine.getRunningView());
 
-        int activeNotStartedTasks = DifferenceResolverUtils.countActiveNotStartedTasks(refJobView.getJobHolder(), engine.getRunningView());
+        int activeNotStartedTasks = DifferenceResolverUtils.countActiveNotStartedTasks(refJobView, runningJobView);
         AtomicInteger allowedNewTasks = new AtomicInteger(Math.max(0, configuration.getActiveNotStartedTasksLimit() - activeNotStartedTasks));
         AtomicInteger allowedTaskKills = new AtomicInteger(configuration.getConcurrentReconcilerStoreUpdateLimit());
 
         actions.addAll(applyStore(engine, refJobView, engine.getStoreView(), allowedNewTasks));
-        actions.addAll(applyRuntime(engine, refJobView, engine.getRunningView(), engine.getStoreView(), allowedNewTasks, allowedTaskKills));
+        actions.addAll(applyRuntime(engine, refJobView, runningJobView, engine.getStoreView(), allowedNewTasks, allowedTaskKills));
 
         if (actions.isEmpty()) {
             actions.addAll(removeCompletedJob(engine.getReferenceView(), engine.getStoreView(), jobStore));
@@ -186,12 +187,11 @@ public class ServiceDifferenceResolver implements ReconciliationEngine.Differenc
 
     private List<ChangeAction> applyRuntime(ReconciliationEngine<JobManagerReconcilerEvent> engine,
                                             ServiceJobView refJobView,
-                                            EntityHolder runningModel,
+                                            ServiceJobView runningJobView,
                                             EntityHolder storeModel,
                                             AtomicInteger allowedNewTasks,
                                             AtomicInteger allowedTaskKills) {
         EntityHolder referenceModel = refJobView.getJobHolder();
-        ServiceJobView runningJobView = new ServiceJobView(runningModel);
 
         if (hasJobState(referenceModel, JobState.KillInitiated)) {
             List<ChangeAction> killInitiatedActions = KillInitiatedActions.reconcilerInitiatedAllTasksKillInitiated(
@@ -230,8 +230,8 @@ public class ServiceDifferenceResolver implements ReconciliationEngine.Differenc
         boolean canUpdateStore = storeWriteRetryInterceptor.executionLimits(storeModel);
         List<ServiceJobTask> tasks = refJobView.getTasks();
         int missing = refJobView.getRequiredSize() - tasks.size();
-        Set<String> unassignedIpAllocations = getUnassignedIpAllocations(refJobView);
         if (canUpdateStore && missing > 0) {
+            Set<String> unassignedIpAllocations = getUnassignedIpAllocations(refJobView);
             List<ChangeAction> missingTasks = new ArrayList<>();
             for (int i = 0; i < missing && allowedNewTasks.get() > 0; i++) {
                 allowedNewTasks.decrementAndGet();
@@ -240,8 +240,7 @@ public class ServiceDifferenceResolver implements ReconciliationEngine.Differenc
             return missingTasks;
         } else if (missing < 0) {
             // Too many tasks (job was scaled down)
-            int finishedCount = (int) tasks.stream().filter(t -> t.getStatus().getState() == TaskState.Finished).count();
-            int toRemoveCount = Math.min(allowedTaskKills.get(), -missing - finishedCount);
+            int toRemoveCount = Math.min(allowedTaskKills.get(), -missing - refJobView.getFinishedCount());
             if (toRemoveCount > 0) {
                 List<ServiceJobTask> tasksToRemove = ScaleDownEvaluator.selectTasksToTerminate(tasks, tasks.size() - toRemoveCount, titusRuntime);
                 List<ChangeAction> killActions = tasksToRemove.stream()
@@ -259,7 +258,7 @@ public class ServiceDifferenceResolver implements ReconciliationEngine.Differenc
 
     private Optional<TitusChangeAction> createNewTaskAction(ServiceJobView refJobView, Optional<EntityHolder> previousTask, Set<String> unassignedIpAllocations) {
         // Safety check
-        long numberOfNotFinishedTasks = getNumberOfNotFinishedTasks(refJobView);
+        long numberOfNotFinishedTasks = refJobView.getRunningCount();
         if (numberOfNotFinishedTasks >= refJobView.getRequiredSize()) {
             titusRuntime.getCodeInvariants().inconsistent(
                     "Service job reconciler attempts to create too many tasks: jobId=%s, requiredSize=%s, current=%s",
@@ -375,14 +374,8 @@ public class ServiceDifferenceResolver implements ReconciliationEngine.Differenc
         return actions;
     }
 
-    private long getNumberOfNotFinishedTasks(ServiceJobView refJobView) {
-        return refJobView.getJobHolder().getChildren().stream()
-                .filter(holder -> TaskState.isRunning(((Task) holder.getEntity()).getStatus().getState()))
-                .count();
-    }
-
     private boolean hasEnoughTasksRunning(ServiceJobView refJobView) {
-        return getNumberOfNotFinishedTasks(refJobView) >= refJobView.getRequiredSize();
+        return refJobView.getRunningCount() >= refJobView.getRequiredSize();
     }
 
     private boolean isScaledDown(ServiceJobTask task) {
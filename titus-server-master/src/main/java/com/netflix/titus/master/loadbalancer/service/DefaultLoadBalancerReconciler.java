@@ -17,6 +17,7 @@
 package com.netflix.titus.master.loadbalancer.service;
 
 import java.time.Duration;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.Collection;
 import java.util.Collections;
@@ -30,11 +31,14 @@ import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 import com.google.common.collect.Sets;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
 import com.netflix.spectator.api.BasicTag;
 import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spectator.api.Tag;
+import com.netflix.spectator.api.Timer;
 import com.netflix.spectator.api.patterns.PolledMeter;
 import com.netflix.titus.api.connector.cloud.LoadBalancer;
 import com.netflix.titus.api.connector.cloud.LoadBalancerConnector;
@@ -74,18 +78,30 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
      */
     private static final int MAX_ORPHAN_CLEANUP_CONCURRENCY = 100;
 
+    private static final HashFunction FINGERPRINT_HASH = Hashing.murmur3_128();
+
     private final ConcurrentMap<LoadBalancerTarget, Instant> ignored = new ConcurrentHashMap<>();
 
     // this is not being accessed by multiple threads at the same time, but we still use a ConcurrentMap to ensure
     // visibility across multiple reconciliation runs, which may run on different threads
     private final Set<JobLoadBalancer> markedAsOrphan = ConcurrentHashMap.newKeySet();
 
+    /**
+     * Fingerprints of the associations and targets of load balancers found consistent in the last reconciliation. Those
+     * load balancers are not checked again until their fingerprint changes, or the next full audit. The fingerprints
+     * are kept in memory only, so a new leader always starts with a full audit.
+     */
+    private final ConcurrentMap<String, Long> reconciledFingerprints = new ConcurrentHashMap<>();
+    private volatile long lastFullAuditMs;
+
     private final LoadBalancerStore store;
     private final LoadBalancerConnector connector;
     private final LoadBalancerJobOperations jobOperations;
     // TODO: make dynamic and switch to a Supplier<Long>
     private final long delayMs;
     private final Supplier<Long> timeoutMs;
+    private final Supplier<Integer> concurrency;
+    private final Supplier<Long> fullAuditIntervalMs;
     private final Runnable afterReconciliation;
     private final Registry registry;
     private final Scheduler scheduler;
@@ -93,11 +109,12 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
     private final Counter registerCounter;
     private final Counter deregisterCounter;
     private final Counter removeCounter;
+    private final Counter skippedCounter;
     private final ContinuousSubscriptionMetrics fullReconciliationMetrics;
     private final ContinuousSubscriptionMetrics orphanUpdateMetrics;
     private final ContinuousSubscriptionMetrics removeMetrics;
     private final ContinuousSubscriptionMetrics removeTargetsMetrics;
-    private final ContinuousSubscriptionMetrics registeredIpsMetrics;
+    private final Timer registeredIpsLatency;
     private final Id ignoredMetricsId;
     private final Id orphanMetricsId;
 
@@ -123,6 +140,8 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
         this.jobOperations = loadBalancerJobOperations;
         this.delayMs = configuration.getReconciliationDelayMs();
         this.timeoutMs = configuration::getReconciliationTimeoutMs;
+        this.concurrency = configuration::getReconciliationConcurrency;
+        this.fullAuditIntervalMs = configuration::getReconciliationFullAuditIntervalMs;
         this.afterReconciliation = afterReconciliation;
         this.registry = registry;
         this.scheduler = scheduler;
@@ -132,11 +151,12 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
         this.registerCounter = registry.counter(updatesCounterId.withTag("operation", "register"));
         this.deregisterCounter = registry.counter(updatesCounterId.withTag("operation", "deregister"));
         this.removeCounter = registry.counter(updatesCounterId.withTag("operation", "remove"));
+        this.skippedCounter = registry.counter(METRIC_RECONCILER + ".skipped", tags);
         this.fullReconciliationMetrics = SpectatorExt.continuousSubscriptionMetrics(METRIC_RECONCILER + ".full", tags, registry);
         this.orphanUpdateMetrics = SpectatorExt.continuousSubscriptionMetrics(METRIC_RECONCILER + ".orphanUpdates", tags, registry);
         this.removeMetrics = SpectatorExt.continuousSubscriptionMetrics(METRIC_RECONCILER + ".remove", tags, registry);
         this.removeTargetsMetrics = SpectatorExt.continuousSubscriptionMetrics(METRIC_RECONCILER + ".removeTargets", tags, registry);
-        this.registeredIpsMetrics = SpectatorExt.continuousSubscriptionMetrics(METRIC_RECONCILER + ".getRegisteredIps", tags, registry);
+        this.registeredIpsLatency = registry.timer(METRIC_RECONCILER + ".getRegisteredIps.latency", tags);
         this.ignoredMetricsId = registry.createId(METRIC_RECONCILER + ".ignored", tags);
         this.orphanMetricsId = registry.createId(METRIC_RECONCILER + ".orphan", tags);
         PolledMeter.using(registry).withId(ignoredMetricsId).monitorSize(ignored);
@@ -155,7 +175,6 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
     public void shutdown() {
         orphanUpdateMetrics.remove();
         removeMetrics.remove();
-        registeredIpsMetrics.remove();
         PolledMeter.remove(registry, ignoredMetricsId);
         PolledMeter.remove(registry, orphanMetricsId);
     }
@@ -167,7 +186,7 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
 
         // full reconciliation run
         Observable<TargetStateBatchable> updatesForAll = cleanupOrphansAndSnapshot
-                .flatMap(entry -> reconcile(entry.getKey(), entry.getValue()), 1)
+                .flatMap(entry -> reconcile(entry.getKey(), entry.getValue()), Math.max(1, concurrency.get()))
                 .compose(ObservableExt.subscriptionTimeout(timeoutMs, TimeUnit.MILLISECONDS, scheduler))
                 .compose(fullReconciliationMetrics.asObservable())
                 .doOnError(e -> logger.error("reconciliation failed", e))
@@ -181,17 +200,29 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
     }
 
     private Observable<TargetStateBatchable> reconcile(String loadBalancerId, List<JobLoadBalancerState> associations) {
-        Observable<TargetStateBatchable> updatesForLoadBalancer = connector.getLoadBalancer(loadBalancerId)
-                // merge known targets
-                .flatMap(loadBalancer -> ReactorExt.toSingle(
-                        store.getLoadBalancerTargets(loadBalancer.getId())
-                                .collect(Collectors.toSet())
-                                .map(knownTargets -> new LoadBalancerWithKnownTargets(loadBalancer, knownTargets))
-                ))
-                // the same metrics transformer can be used for all subscriptions only because they are all being
-                // serialized with flatMap(maxConcurrent: 1)
-                .compose(registeredIpsMetrics.asSingle())
-                .flatMapObservable(loadBalancerTargets -> updatesFor(loadBalancerTargets, associations));
+        Set<LoadBalancerTarget> shouldBeRegistered = associations.stream()
+                .filter(JobLoadBalancerState::isStateAssociated)
+                .flatMap(association -> targetsForJobSafe(association).stream())
+                .collect(Collectors.toSet());
+        long fingerprint = fingerprintOf(associations, shouldBeRegistered);
+        Long reconciledFingerprint = reconciledFingerprints.get(loadBalancerId);
+        if (reconciledFingerprint != null && reconciledFingerprint == fingerprint) {
+            skippedCounter.increment();
+            return Observable.empty();
+        }
+
+        Observable<TargetStateBatchable> updatesForLoadBalancer = Observable.defer(() -> {
+            long startTime = registry.clock().wallTime();
+            return connector.getLoadBalancer(loadBalancerId)
+                    // merge known targets
+                    .flatMap(loadBalancer -> ReactorExt.toSingle(
+                            store.getLoadBalancerTargets(loadBalancer.getId())
+                                    .collect(Collectors.toSet())
+                                    .map(knownTargets -> new LoadBalancerWithKnownTargets(loadBalancer, knownTargets))
+                    ))
+                    .doOnSuccess(ignored -> registeredIpsLatency.record(registry.clock().wallTime() - startTime, TimeUnit.MILLISECONDS))
+                    .flatMapObservable(loadBalancerTargets -> updatesFor(loadBalancerTargets, associations, shouldBeRegistered, fingerprint));
+        });
 
         return updatesForLoadBalancer
                 .doOnError(e -> logger.error("Error while reconciling load balancer {}", loadBalancerId, e))
@@ -205,18 +236,33 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
      * {@link JobLoadBalancer} associations in the <tt>Dissociated</tt> state will be removed when it is safe to do so,
      * i.e.: when there is no more stored state to be cleaned up, and nothing to be deregistered on the load balancer.
      *
-     * @param loadBalancer tuple with ip addresses currently registered on the load balancer, and ip addresses
-     *                     previously registered with the load balancer
-     * @param associations jobs currently associated to the load balancer
+     * <p>
+     * If nothing needs to be changed, the fingerprint of the load balancer is recorded, so it is skipped in the
+     * next reconciliation runs, until its associations or targets change.
+     *
+     * @param loadBalancer       tuple with ip addresses currently registered on the load balancer, and ip addresses
+     *                           previously registered with the load balancer
+     * @param associations       jobs currently associated to the load balancer
+     * @param shouldBeRegistered targets of all jobs in the <tt>Associated</tt> state
+     * @param fingerprint        fingerprint of the associations and targets
      */
     private Observable<TargetStateBatchable> updatesFor(LoadBalancerWithKnownTargets loadBalancer,
-                                                        List<JobLoadBalancerState> associations) {
+                                                        List<JobLoadBalancerState> associations,
+                                                        Set<LoadBalancerTarget> shouldBeRegistered,
+                                                        long fingerprint) {
         Instant now = now();
 
-        ReconciliationUpdates updates = (loadBalancer.current.getState().equals(LoadBalancer.State.ACTIVE)) ?
-                updatesForActiveLoadBalancer(loadBalancer, associations)
+        boolean active = loadBalancer.current.getState().equals(LoadBalancer.State.ACTIVE);
+        ReconciliationUpdates updates = active ?
+                updatesForActiveLoadBalancer(loadBalancer, shouldBeRegistered)
                 : updatesForRemovedLoadBalancer(loadBalancer, associations);
 
+        if (active && updates.isEmpty() && associations.stream().noneMatch(JobLoadBalancerState::isStateDissociated)) {
+            reconciledFingerprints.put(loadBalancer.current.getId(), fingerprint);
+        } else {
+            reconciledFingerprints.remove(loadBalancer.current.getId());
+        }
+
         Completable cleanupTargets = (!updates.toRemove.isEmpty()) ?
                 ReactorExt.toCompletable(store.removeDeregisteredTargets(updates.toRemove))
                         // bring processing back the the Rx threads, otherwise it happens in the C* driver threadpool
@@ -246,12 +292,7 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
                 .andThen(updatesForLoadBalancer);
     }
 
-    private ReconciliationUpdates updatesForActiveLoadBalancer(LoadBalancerWithKnownTargets loadBalancer, List<JobLoadBalancerState> associations) {
-        Set<LoadBalancerTarget> shouldBeRegistered = associations.stream()
-                .filter(JobLoadBalancerState::isStateAssociated)
-                .flatMap(association -> targetsForJobSafe(association).stream())
-                .collect(Collectors.toSet());
-
+    private ReconciliationUpdates updatesForActiveLoadBalancer(LoadBalancerWithKnownTargets loadBalancer, Set<LoadBalancerTarget> shouldBeRegistered) {
         Set<LoadBalancerTarget> toRegister = shouldBeRegistered.stream()
                 .filter(target -> !loadBalancer.current.getRegisteredIps().contains(target.getIpAddress()))
                 .collect(Collectors.toSet());
@@ -306,6 +347,22 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
         return new ReconciliationUpdates(loadBalancer.current.getId(), Collections.emptySet(), toDeregister, toRemove);
     }
 
+    /**
+     * Order independent fingerprint of the job associations (with their state), and the targets that should be
+     * registered. Targets stored as registered by us change only together with the job tasks, so they do not need
+     * to be included.
+     */
+    private static long fingerprintOf(List<JobLoadBalancerState> associations, Set<LoadBalancerTarget> shouldBeRegistered) {
+        long fingerprint = 0;
+        for (JobLoadBalancerState association : associations) {
+            fingerprint += FINGERPRINT_HASH.hashString(association.getJobId() + '/' + association.getState(), StandardCharsets.UTF_8).asLong();
+        }
+        for (LoadBalancerTarget target : shouldBeRegistered) {
+            fingerprint += FINGERPRINT_HASH.hashString(target.getTaskId() + '/' + target.getIpAddress(), StandardCharsets.UTF_8).asLong();
+        }
+        return fingerprint;
+    }
+
     private boolean isNotIgnored(TargetStateBatchable update) {
         return !ignored.containsKey(update.getIdentifier());
     }
@@ -352,13 +409,24 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
         return Observable.defer(() -> {
             cleanupExpiredIgnored();
             logger.debug("Snapshotting current associations");
-            Set<Map.Entry<String, List<JobLoadBalancerState>>> pairs = store.getAssociations().stream()
-                    .collect(Collectors.groupingBy(JobLoadBalancerState::getLoadBalancerId))
-                    .entrySet();
-            return Observable.from(pairs);
+            Map<String, List<JobLoadBalancerState>> byLoadBalancer = store.getAssociations().stream()
+                    .collect(Collectors.groupingBy(JobLoadBalancerState::getLoadBalancerId));
+            startFullAuditIfDue();
+            reconciledFingerprints.keySet().retainAll(byLoadBalancer.keySet());
+            return Observable.from(byLoadBalancer.entrySet());
         });
     }
 
+    private void startFullAuditIfDue() {
+        long now = scheduler.now();
+        long intervalMs = fullAuditIntervalMs.get();
+        if (intervalMs <= 0 || now - lastFullAuditMs >= intervalMs) {
+            logger.debug("Starting full audit of all load balancers");
+            reconciledFingerprints.clear();
+            lastFullAuditMs = now;
+        }
+    }
+
     private void cleanupExpiredIgnored() {
         Instant now = Instant.ofEpochMilli(scheduler.now());
         ignored.forEach((target, untilWhen) -> {
@@ -428,6 +496,10 @@ public class DefaultLoadBalancerReconciler implements LoadBalancerReconciler {
             report();
         }
 
+        private boolean isEmpty() {
+            return toRegister.isEmpty() && toDeregister.isEmpty() && toRemove.isEmpty();
+        }
+
         private void report() {
             boolean found = false;
             if (!toRegister.isEmpty()) {
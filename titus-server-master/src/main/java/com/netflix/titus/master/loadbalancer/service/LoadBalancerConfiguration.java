@@ -51,6 +51,21 @@ public interface LoadBalancerConfiguration {
     @DefaultValue("30000")
     long getReconciliationDelayMs();
 
+    /**
+     * How many load balancers are reconciled in parallel. Rate limiting of the cloud provider calls is the
+     * responsibility of the {@link com.netflix.titus.api.connector.cloud.LoadBalancerConnector}.
+     */
+    @DefaultValue("10")
+    int getReconciliationConcurrency();
+
+    /**
+     * Load balancers with unchanged associations and targets, that were found consistent in a previous reconciliation,
+     * are not checked again until the next full audit. This interval controls how often all load balancers are checked,
+     * which is needed to detect changes made outside of Titus. Set to 0 to check all load balancers in each run.
+     */
+    @DefaultValue("600000")
+    long getReconciliationFullAuditIntervalMs();
+
     /**
      * Minimum time that items are held in a buffer for batching.
      */
@@ -18,10 +18,12 @@ package com.netflix.titus.master.mesos.kubeapiserver;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
@@ -33,6 +35,8 @@ import javax.inject.Singleton;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Stopwatch;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.gson.JsonSyntaxException;
 import com.google.inject.Injector;
 import com.netflix.fenzo.VirtualMachineLease;
@@ -42,9 +46,8 @@ import com.netflix.spectator.api.Counter;
 import com.netflix.spectator.api.Gauge;
 import com.netflix.spectator.api.Registry;
 import com.netflix.spectator.api.Timer;
-import com.netflix.spectator.api.histogram.BucketCounter;
-import com.netflix.spectator.api.histogram.BucketFunctions;
 import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobDescriptor;
 import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
 import com.netflix.titus.api.jobmanager.model.job.Task;
 import com.netflix.titus.api.jobmanager.model.job.TaskState;
@@ -73,6 +76,7 @@ import com.netflix.titus.master.mesos.kubeapiserver.client.KubeApiFacade;
 import com.netflix.titus.master.mesos.kubeapiserver.direct.DirectKubeConfiguration;
 import io.kubernetes.client.custom.Quantity;
 import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.informer.cache.Indexer;
 import io.kubernetes.client.openapi.ApiException;
 import io.kubernetes.client.openapi.models.V1Container;
 import io.kubernetes.client.openapi.models.V1ContainerStateTerminated;
@@ -130,6 +134,11 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
 
     private static final String TASK_STARTING = "TASK_STARTING";
 
+    private static final List<String> TERMINAL_POD_PHASES = Arrays.asList(SUCCEEDED, FAILED);
+
+    private static final int JOB_POD_ANNOTATIONS_CACHE_MAX_SIZE = 10_000;
+    private static final long JOB_POD_ANNOTATIONS_CACHE_TTL_MS = 60_000;
+
     static final String GC_UNKNOWN_PODS = "gcUnknownPods";
 
     static final String NODE_ATTRIBUTE_ID = "id";
@@ -156,10 +165,14 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
     private final Injector injector;
     private final KubeApiFacade kubeApiFacade;
     private final ContainerResultCodeResolver containerResultCodeResolver;
+    private final KubeInformerIndexes informerIndexes = new KubeInformerIndexes();
+    private final Cache<String, Pair<JobDescriptor<?>, Map<String, String>>> jobPodAnnotationsCache = CacheBuilder.newBuilder()
+            .maximumSize(JOB_POD_ANNOTATIONS_CACHE_MAX_SIZE)
+            .expireAfterWrite(JOB_POD_ANNOTATIONS_CACHE_TTL_MS, TimeUnit.MILLISECONDS)
+            .build();
 
     private final Counter launchTaskCounter;
     private final Timer launchTasksTimer;
-    private final BucketCounter podSizeMetrics;
     private final Counter rejectLeaseCounter;
     private final Counter killTaskCounter;
     private final Counter nodeAddCounter;
@@ -206,11 +219,6 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
         Registry registry = titusRuntime.getRegistry();
         launchTaskCounter = registry.counter(MetricConstants.METRIC_KUBERNETES + "launchTask");
         launchTasksTimer = registry.timer(MetricConstants.METRIC_KUBERNETES + "launchTasksLatency");
-        this.podSizeMetrics = BucketCounter.get(
-                registry,
-                registry.createId(MetricConstants.METRIC_KUBERNETES + "podSize"),
-                BucketFunctions.bytes(32768)
-        );
         rejectLeaseCounter = registry.counter(MetricConstants.METRIC_KUBERNETES + "rejectLease");
         killTaskCounter = registry.counter(MetricConstants.METRIC_KUBERNETES + "killTask");
         nodeAddCounter = registry.counter(MetricConstants.METRIC_KUBERNETES + "nodeAdd");
@@ -272,7 +280,6 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
                 V1Pod v1Pod = taskInfoToPod(request);
                 logger.info("creating pod: {}", v1Pod);
                 kubeApiFacade.getCoreV1Api().createNamespacedPod(KUBERNETES_NAMESPACE, v1Pod, null, null, null);
-                podSizeMetrics.record(KubeUtil.estimatePodSize(v1Pod));
             } catch (Exception e) {
                 logger.error("Unable to create pod with error: {}", KubeUtil.toErrorDetails(e), e);
             }
@@ -282,15 +289,14 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
     private void launchTasksConcurrently(List<TaskInfoRequest> requests) {
         List<Mono<Void>> podAddActions = new ArrayList<>(requests.size());
         for (TaskInfoRequest request : requests) {
-            V1Pod v1Pod = taskInfoToPod(request);
-            Mono<Void> podAddAction = KubeUtil
-                    .<V1Pod>toReact(handler -> kubeApiFacade.getCoreV1Api().createNamespacedPodAsync(
-                            KUBERNETES_NAMESPACE, v1Pod, null, null, null, handler
-                    ))
-                    .doOnSubscribe(subscription -> {
+            // Pods are built lazily, when the action is subscribed to, so only the pods within the concurrency window are kept in memory.
+            Mono<Void> podAddAction = Mono.defer(() -> {
+                        V1Pod v1Pod = taskInfoToPod(request);
                         launchTaskCounter.increment();
                         logger.info("creating pod: {}", v1Pod);
-                        podSizeMetrics.record(KubeUtil.estimatePodSize(v1Pod));
+                        return KubeUtil.<V1Pod>toReact(handler -> kubeApiFacade.getCoreV1Api().createNamespacedPodAsync(
+                                KUBERNETES_NAMESPACE, v1Pod, null, null, null, handler
+                        ));
                     })
                     .timeout(Duration.ofMillis(directKubeConfiguration.getKubeApiClientTimeoutMs()))
                     .ignoreElement()
@@ -372,6 +378,7 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
                     public void onAdd(V1Node node) {
                         logger.debug("Node Added: {}", node);
                         nodeAddCounter.increment();
+                        informerIndexes.nodeAddedOrUpdated(node);
                         nodeUpdated(node);
                     }
 
@@ -379,6 +386,7 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
                     public void onUpdate(V1Node oldNode, V1Node newNode) {
                         logger.debug("Node Updated Old: {}, New: {}", oldNode, newNode);
                         nodeUpdateCounter.increment();
+                        informerIndexes.nodeAddedOrUpdated(newNode);
                         nodeUpdated(newNode);
                     }
 
@@ -386,6 +394,7 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
                     public void onDelete(V1Node node, boolean deletedFinalStateUnknown) {
                         logger.debug("Node Deleted: {}, deletedFinalStateUnknown={}", node, deletedFinalStateUnknown);
                         nodeDeleteCounter.increment();
+                        informerIndexes.nodeDeleted(node);
                         nodeDeleted(node);
                     }
                 });
@@ -426,6 +435,7 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
                     public void onAdd(V1Pod pod) {
                         logger.debug("Pod Added: {}", pod);
                         podAddCounter.increment();
+                        informerIndexes.podAddedOrUpdated(pod);
                         podUpdated(pod);
                     }
 
@@ -433,6 +443,7 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
                     public void onUpdate(V1Pod oldPod, V1Pod newPod) {
                         logger.debug("Pod Updated Old: {}, New: {}", oldPod, newPod);
                         podUpdateCounter.increment();
+                        informerIndexes.podAddedOrUpdated(newPod);
                         podUpdated(newPod);
                     }
 
@@ -440,6 +451,7 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
                     public void onDelete(V1Pod pod, boolean deletedFinalStateUnknown) {
                         logger.debug("Pod Deleted: {}, deletedFinalStateUnknown={}", pod, deletedFinalStateUnknown);
                         podDeleteCounter.increment();
+                        informerIndexes.podDeleted(pod);
                         podUpdated(pod);
                     }
                 });
@@ -536,9 +548,8 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
         Protos.TaskInfo taskInfo = taskInfoRequest.getTaskInfo();
         String taskId = taskInfo.getName();
         String nodeName = taskInfo.getSlaveId().getValue();
-        Map<String, String> annotations = KubeUtil.createPodAnnotations(taskInfoRequest.getJob(), taskInfoRequest.getTask(),
-                taskInfo.getData().toByteArray(), taskInfoRequest.getPassthroughAttributes(),
-                mesosConfiguration.isJobDescriptorAnnotationEnabled());
+        Map<String, String> annotations = KubeUtil.createPodAnnotations(getJobPodAnnotations(taskInfoRequest.getJob()),
+                taskInfoRequest.getTask(), taskInfo.getData().toByteArray(), taskInfoRequest.getPassthroughAttributes());
 
         V1ObjectMeta metadata = new V1ObjectMeta()
                 .name(taskId)
@@ -560,6 +571,19 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
                 .spec(spec);
     }
 
+    /**
+     * Job level pod annotations (including the encoded job descriptor) are computed once per job version.
+     */
+    private Map<String, String> getJobPodAnnotations(Job<?> job) {
+        Pair<JobDescriptor<?>, Map<String, String>> cached = jobPodAnnotationsCache.getIfPresent(job.getId());
+        if (cached != null && (cached.getLeft() == job.getJobDescriptor() || cached.getLeft().equals(job.getJobDescriptor()))) {
+            return cached.getRight();
+        }
+        Map<String, String> annotations = KubeUtil.createJobPodAnnotations(job, mesosConfiguration.isJobDescriptorAnnotationEnabled());
+        jobPodAnnotationsCache.put(job.getId(), Pair.of(job.getJobDescriptor(), annotations));
+        return annotations;
+    }
+
     private V1ResourceRequirements taskInfoToResources(Protos.TaskInfo taskInfo) {
         Map<String, Quantity> requests = new HashMap<>();
         Map<String, Quantity> limits = new HashMap<>();
@@ -712,17 +736,15 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
             return;
         }
 
-        List<V1Node> nodes = kubeApiFacade.getNodeInformer().getIndexer().list();
-        List<V1Pod> pods = kubeApiFacade.getPodInformer().getIndexer().list();
         List<Task> tasks = v3JobOperations.getTasks();
         Map<String, Task> currentTasks = tasks.stream().collect(Collectors.toMap(Task::getId, Function.identity()));
 
-        gcTimedOutNodes(nodes);
-        gcOrphanedPodsWithoutValidNodes(nodes, pods);
-        gcTerminalPods(pods, currentTasks);
-        gcUnknownPods(pods, currentTasks);
-        gcPodsPastDeletionTimestamp(pods);
-        gcPendingPodsWithDeletionTimestamp(pods);
+        gcTimedOutNodes();
+        gcOrphanedPodsWithoutValidNodes();
+        gcTerminalPods(tasks, currentTasks);
+        gcUnknownPods(currentTasks);
+        gcPodsPastDeletionTimestamp();
+        gcPendingPodsWithDeletionTimestamp();
     }
 
     private void gcNode(V1Node node) {
@@ -797,8 +819,12 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
     /**
      * GC nodes that have timed out due to not publishing a heartbeat
      */
-    private void gcTimedOutNodes(List<V1Node> nodes) {
-        List<V1Node> timedOutNodesToGc = nodes.stream()
+    private void gcTimedOutNodes() {
+        List<V1Node> candidates = new ArrayList<>(informerIndexes.getNodesWithReadiness(KubeInformerIndexes.NodeReadiness.Stopped));
+        candidates.addAll(informerIndexes.getNodesWithReadiness(KubeInformerIndexes.NodeReadiness.NotReady));
+        List<V1Node> timedOutNodesToGc = resolveFromInformerCache(
+                candidates, V1Node::getMetadata, kubeApiFacade.getNodeInformer().getIndexer()
+        ).stream()
                 .filter(this::isNodeReadyForGc)
                 .collect(Collectors.toList());
 
@@ -813,14 +839,10 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
     /**
      * GC orphaned pods on nodes that are no longer valid/available.
      */
-    private void gcOrphanedPodsWithoutValidNodes(List<V1Node> nodes, List<V1Pod> pods) {
-        Set<String> currentNodeNames = nodes.stream().map(n -> n.getMetadata().getName()).collect(Collectors.toSet());
-        List<V1Pod> orphanedPodsWithoutValidNodesToGc = pods.stream()
-                .filter(p -> {
-                    String nodeName = p.getSpec().getNodeName();
-                    return StringExt.isNotEmpty(nodeName) && !currentNodeNames.contains(nodeName);
-                })
-                .collect(Collectors.toList());
+    private void gcOrphanedPodsWithoutValidNodes() {
+        List<V1Pod> orphanedPodsWithoutValidNodesToGc = findOrphanedPodsWithoutValidNodes(
+                informerIndexes, kubeApiFacade.getPodInformer().getIndexer(), kubeApiFacade.getNodeInformer().getIndexer()
+        );
 
         logger.info("Attempting to GC {} orphaned pods: {} without valid nodes", orphanedPodsWithoutValidNodesToGc.size(),
                 orphanedPodsWithoutValidNodesToGc);
@@ -831,29 +853,70 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
         logger.info("Finished orphaned pod GC without valid nodes");
     }
 
+    /**
+     * The node index only selects the candidates. A node added to the informer cache may not be in the index yet
+     * (for example during a relist), so the node absence is confirmed in the node informer cache.
+     */
+    @VisibleForTesting
+    static List<V1Pod> findOrphanedPodsWithoutValidNodes(KubeInformerIndexes informerIndexes,
+                                                        Indexer<V1Pod> podCache,
+                                                        Indexer<V1Node> nodeCache) {
+        return resolveFromInformerCache(informerIndexes.getPodsOnUnknownNodes(), V1Pod::getMetadata, podCache).stream()
+                .filter(p -> {
+                    String nodeName = p.getSpec() == null ? null : p.getSpec().getNodeName();
+                    return StringExt.isNotEmpty(nodeName) && nodeCache.getByKey(nodeName) == null;
+                })
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Maps objects returned by the {@link KubeInformerIndexes} lookups to their current versions in the informer cache,
+     * and drops the ones no longer there. The indexes are updated after the informer cache, so the GC predicates are
+     * evaluated on the cache content.
+     */
+    @VisibleForTesting
+    static <T> List<T> resolveFromInformerCache(List<T> candidates, Function<T, V1ObjectMeta> metadataAccessor, Indexer<T> cache) {
+        return candidates.stream()
+                .map(candidate -> cache.getByKey(toInformerKey(metadataAccessor.apply(candidate))))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Same key as the one computed by the informer cache: 'namespace/name' for namespaced objects, 'name' otherwise.
+     */
+    private static String toInformerKey(V1ObjectMeta metadata) {
+        return StringExt.isEmpty(metadata.getNamespace()) ? metadata.getName() : metadata.getNamespace() + '/' + metadata.getName();
+    }
+
     /**
      * GC pods that have a task in a terminal state in job management or not in job management with a terminal pod phase.
      */
-    private void gcTerminalPods(List<V1Pod> pods, Map<String, Task> currentTasks) {
+    private void gcTerminalPods(List<Task> tasks, Map<String, Task> currentTasks) {
         long now = clock.wallTime();
 
-        List<V1Pod> terminalPodsToGc = pods.stream()
-                .filter(p -> {
-                    Task task = currentTasks.get(p.getMetadata().getName());
-                    if (task != null) {
-                        if (TaskState.isTerminalState(task.getStatus().getState())) {
-                            return task.getStatus().getTimestamp() + directKubeConfiguration.getTerminatedPodGcDelayMs() <= now;
-                        }
-                        return false;
-                    }
-                    if (KubeUtil.isPodPhaseTerminal(p.getStatus().getPhase())) {
-                        return KubeUtil.findFinishedTimestamp(p)
-                                .map(timestamp -> timestamp + directKubeConfiguration.getTerminatedPodGcDelayMs() <= now)
-                                .orElse(true);
+        Indexer<V1Pod> podCache = kubeApiFacade.getPodInformer().getIndexer();
+        List<V1Pod> terminalPodsToGc = new ArrayList<>();
+        for (Task task : tasks) {
+            if (TaskState.isTerminalState(task.getStatus().getState())
+                    && task.getStatus().getTimestamp() + directKubeConfiguration.getTerminatedPodGcDelayMs() <= now) {
+                informerIndexes.findPod(task.getId())
+                        .map(pod -> podCache.getByKey(toInformerKey(pod.getMetadata())))
+                        .ifPresent(terminalPodsToGc::add);
+            }
+        }
+        for (String phase : TERMINAL_POD_PHASES) {
+            for (V1Pod pod : resolveFromInformerCache(informerIndexes.getPodsInPhase(phase), V1Pod::getMetadata, podCache)) {
+                if (!currentTasks.containsKey(pod.getMetadata().getName()) && KubeUtil.isPodPhaseTerminal(pod.getStatus().getPhase())) {
+                    boolean expired = KubeUtil.findFinishedTimestamp(pod)
+                            .map(timestamp -> timestamp + directKubeConfiguration.getTerminatedPodGcDelayMs() <= now)
+                            .orElse(true);
+                    if (expired) {
+                        terminalPodsToGc.add(pod);
                     }
-                    return false;
-                })
-                .collect(Collectors.toList());
+                }
+            }
+        }
 
         logger.info("Attempting to GC {} terminal pods: {}", terminalPodsToGc.size(), terminalPodsToGc);
         terminalPodsToGcGauge.set(terminalPodsToGc.size());
@@ -866,8 +929,10 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
     /**
      * GC pods that are unknown to Titus Master that are not in a terminal pod phase.
      */
-    private void gcUnknownPods(List<V1Pod> pods, Map<String, Task> currentTasks) {
-        List<V1Pod> potentialUnknownPodsToGc = pods.stream()
+    private void gcUnknownPods(Map<String, Task> currentTasks) {
+        List<V1Pod> potentialUnknownPodsToGc = resolveFromInformerCache(
+                informerIndexes.getPodsNotInPhases(TERMINAL_POD_PHASES), V1Pod::getMetadata, kubeApiFacade.getPodInformer().getIndexer()
+        ).stream()
                 .filter(p -> {
                     if (KubeUtil.isPodPhaseTerminal(p.getStatus().getPhase()) || currentTasks.containsKey(p.getMetadata().getName())) {
                         return false;
@@ -903,8 +968,10 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
     /**
      * GC pods past deletion timestamp timeout.
      */
-    private void gcPodsPastDeletionTimestamp(List<V1Pod> pods) {
-        List<V1Pod> podsPastDeletionTimestampToGc = pods.stream()
+    private void gcPodsPastDeletionTimestamp() {
+        List<V1Pod> podsPastDeletionTimestampToGc = resolveFromInformerCache(
+                informerIndexes.getPodsWithDeletionTimestamp(), V1Pod::getMetadata, kubeApiFacade.getPodInformer().getIndexer()
+        ).stream()
                 .filter(p -> {
                     DateTime deletionTimestamp = p.getMetadata().getDeletionTimestamp();
                     return deletionTimestamp != null &&
@@ -925,8 +992,10 @@ public class KubeApiServerIntegrator implements VirtualMachineMasterService {
     /**
      * GC pods in Pending phase with a deletion timestamp.
      */
-    private void gcPendingPodsWithDeletionTimestamp(List<V1Pod> pods) {
-        List<V1Pod> pendingPodsWithDeletionTimestampToGc = pods.stream()
+    private void gcPendingPodsWithDeletionTimestamp() {
+        List<V1Pod> pendingPodsWithDeletionTimestampToGc = resolveFromInformerCache(
+                informerIndexes.getPodsWithDeletionTimestamp(), V1Pod::getMetadata, kubeApiFacade.getPodInformer().getIndexer()
+        ).stream()
                 .filter(p -> {
                     DateTime deletionTimestamp = p.getMetadata().getDeletionTimestamp();
                     return p.getStatus().getPhase().equalsIgnoreCase(PENDING) && deletionTimestamp != null;
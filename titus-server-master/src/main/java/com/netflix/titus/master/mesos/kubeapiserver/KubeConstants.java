@@ -121,4 +121,17 @@ public final class KubeConstants {
      */
     public static final String OPPORTUNISTIC_ID = "opportunistic.scheduler.titus.netflix.com/id";
 
+    /*
+     * Pod annotations used by the executor only
+     */
+
+    /**
+     * Base64 encoded container info protobuf.
+     */
+    public static final String ANNOTATION_CONTAINER_INFO = "containerInfo";
+
+    /**
+     * Gzipped and base64 encoded job descriptor JSON.
+     */
+    public static final String ANNOTATION_JOB_DESCRIPTOR = "jobDescriptor";
 }
@@ -0,0 +1,274 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.mesos.kubeapiserver;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.netflix.titus.common.util.StringExt;
+import io.kubernetes.client.openapi.models.V1Node;
+import io.kubernetes.client.openapi.models.V1NodeCondition;
+import io.kubernetes.client.openapi.models.V1Pod;
+
+/**
+ * Secondary indexes over the pod and node informer caches, maintained incrementally from the informer events. The GC
+ * rules in {@link KubeApiServerIntegrator} use them to evaluate only the subset of pods/nodes that may qualify,
+ * instead of walking the full informer content on each reconciliation cycle.
+ * <p>
+ * The indexes are eventually consistent with the informer caches. Callers must re-evaluate their predicates on
+ * the returned objects, and treat the index as a candidate filter only.
+ */
+class KubeInformerIndexes {
+
+    enum NodeReadiness {
+        Ready,
+        NotReady,
+        Stopped,
+        Unknown
+    }
+
+    private static final String READY = "Ready";
+    private static final String STOPPED = "Stopped";
+
+    private final ConcurrentMap<String, V1Pod> podsByName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> podNamesByNode = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> podNamesByPhase = new ConcurrentHashMap<>();
+    private final Set<String> podNamesWithDeletionTimestamp = ConcurrentHashMap.newKeySet();
+
+    private final ConcurrentMap<String, V1Node> nodesByName = new ConcurrentHashMap<>();
+    private final ConcurrentMap<NodeReadiness, Set<String>> nodeNamesByReadiness = new ConcurrentHashMap<>();
+
+    private final Object podLock = new Object();
+    private final Object nodeLock = new Object();
+
+    void podAddedOrUpdated(V1Pod pod) {
+        String podName = getPodName(pod);
+        if (podName == null) {
+            return;
+        }
+        synchronized (podLock) {
+            V1Pod previous = podsByName.put(podName, pod);
+            if (previous != null) {
+                unindexPod(podName, previous);
+            }
+            indexPod(podName, pod);
+        }
+    }
+
+    void podDeleted(V1Pod pod) {
+        String podName = getPodName(pod);
+        if (podName == null) {
+            return;
+        }
+        synchronized (podLock) {
+            V1Pod previous = podsByName.remove(podName);
+            if (previous != null) {
+                unindexPod(podName, previous);
+            }
+        }
+    }
+
+    void nodeAddedOrUpdated(V1Node node) {
+        String nodeName = getNodeName(node);
+        if (nodeName == null) {
+            return;
+        }
+        synchronized (nodeLock) {
+            V1Node previous = nodesByName.put(nodeName, node);
+            if (previous != null) {
+                removeFromIndex(nodeNamesByReadiness, getNodeReadiness(previous), nodeName);
+            }
+            addToIndex(nodeNamesByReadiness, getNodeReadiness(node), nodeName);
+        }
+    }
+
+    void nodeDeleted(V1Node node) {
+        String nodeName = getNodeName(node);
+        if (nodeName == null) {
+            return;
+        }
+        synchronized (nodeLock) {
+            V1Node previous = nodesByName.remove(nodeName);
+            if (previous != null) {
+                removeFromIndex(nodeNamesByReadiness, getNodeReadiness(previous), nodeName);
+            }
+        }
+    }
+
+    int getPodCount() {
+        return podsByName.size();
+    }
+
+    int getNodeCount() {
+        return nodesByName.size();
+    }
+
+    Optional<V1Pod> findPod(String podName) {
+        return Optional.ofNullable(podsByName.get(podName));
+    }
+
+    boolean hasNode(String nodeName) {
+        return nodesByName.containsKey(nodeName);
+    }
+
+    /**
+     * Returns pods with the given phase. The phase comparison is case insensitive.
+     */
+    List<V1Pod> getPodsInPhase(String phase) {
+        return resolvePods(podNamesByPhase.get(toPhaseKey(phase)));
+    }
+
+    /**
+     * Returns pods with a phase other than the provided ones. The phase comparison is case insensitive.
+     */
+    List<V1Pod> getPodsNotInPhases(Collection<String> phases) {
+        Set<String> excludedKeys = new HashSet<>();
+        phases.forEach(phase -> excludedKeys.add(toPhaseKey(phase)));
+
+        List<V1Pod> result = new ArrayList<>();
+        podNamesByPhase.forEach((phaseKey, podNames) -> {
+            if (!excludedKeys.contains(phaseKey)) {
+                result.addAll(resolvePods(podNames));
+            }
+        });
+        return result;
+    }
+
+    List<V1Pod> getPodsWithDeletionTimestamp() {
+        return resolvePods(podNamesWithDeletionTimestamp);
+    }
+
+    /**
+     * Returns pods assigned to a node, which is not present in the node informer cache.
+     */
+    List<V1Pod> getPodsOnUnknownNodes() {
+        List<V1Pod> result = new ArrayList<>();
+        podNamesByNode.forEach((nodeName, podNames) -> {
+            if (!nodesByName.containsKey(nodeName)) {
+                result.addAll(resolvePods(podNames));
+            }
+        });
+        return result;
+    }
+
+    List<V1Node> getNodesWithReadiness(NodeReadiness readiness) {
+        Set<String> nodeNames = nodeNamesByReadiness.get(readiness);
+        if (nodeNames == null || nodeNames.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<V1Node> result = new ArrayList<>(nodeNames.size());
+        for (String nodeName : nodeNames) {
+            V1Node node = nodesByName.get(nodeName);
+            if (node != null) {
+                result.add(node);
+            }
+        }
+        return result;
+    }
+
+    static NodeReadiness getNodeReadiness(V1Node node) {
+        if (node.getStatus() == null || node.getStatus().getConditions() == null) {
+            return NodeReadiness.Unknown;
+        }
+        V1NodeCondition readyCondition = null;
+        for (V1NodeCondition condition : node.getStatus().getConditions()) {
+            if (STOPPED.equalsIgnoreCase(condition.getType()) && Boolean.parseBoolean(condition.getStatus())) {
+                return NodeReadiness.Stopped;
+            }
+            if (readyCondition == null && READY.equalsIgnoreCase(condition.getType())) {
+                readyCondition = condition;
+            }
+        }
+        if (readyCondition == null) {
+            return NodeReadiness.Unknown;
+        }
+        return Boolean.parseBoolean(readyCondition.getStatus()) ? NodeReadiness.Ready : NodeReadiness.NotReady;
+    }
+
+    private void indexPod(String podName, V1Pod pod) {
+        String nodeName = pod.getSpec() == null ? null : pod.getSpec().getNodeName();
+        if (StringExt.isNotEmpty(nodeName)) {
+            addToIndex(podNamesByNode, nodeName, podName);
+        }
+        addToIndex(podNamesByPhase, toPhaseKey(getPodPhase(pod)), podName);
+        if (pod.getMetadata().getDeletionTimestamp() != null) {
+            podNamesWithDeletionTimestamp.add(podName);
+        }
+    }
+
+    private void unindexPod(String podName, V1Pod pod) {
+        String nodeName = pod.getSpec() == null ? null : pod.getSpec().getNodeName();
+        if (StringExt.isNotEmpty(nodeName)) {
+            removeFromIndex(podNamesByNode, nodeName, podName);
+        }
+        removeFromIndex(podNamesByPhase, toPhaseKey(getPodPhase(pod)), podName);
+        podNamesWithDeletionTimestamp.remove(podName);
+    }
+
+    private List<V1Pod> resolvePods(Set<String> podNames) {
+        if (podNames == null || podNames.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<V1Pod> result = new ArrayList<>(podNames.size());
+        for (String podName : podNames) {
+            V1Pod pod = podsByName.get(podName);
+            if (pod != null) {
+                result.add(pod);
+            }
+        }
+        return result;
+    }
+
+    private static <K> void addToIndex(Map<K, Set<String>> index, K key, String name) {
+        index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(name);
+    }
+
+    private static <K> void removeFromIndex(Map<K, Set<String>> index, K key, String name) {
+        Set<String> names = index.get(key);
+        if (names != null) {
+            names.remove(name);
+            if (names.isEmpty()) {
+                index.remove(key, names);
+            }
+        }
+    }
+
+    private static String toPhaseKey(String phase) {
+        return phase == null ? "" : phase.toLowerCase(Locale.ROOT);
+    }
+
+    private static String getPodPhase(V1Pod pod) {
+        return pod.getStatus() == null ? null : pod.getStatus().getPhase();
+    }
+
+    private static String getPodName(V1Pod pod) {
+        return pod == null || pod.getMetadata() == null ? null : pod.getMetadata().getName();
+    }
+
+    private static String getNodeName(V1Node node) {
+        return node == null || node.getMetadata() == null ? null : node.getMetadata().getName();
+    }
+}
@@ -29,7 +29,6 @@ import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import com.google.common.base.Strings;
-import com.google.gson.Gson;
 import com.google.protobuf.InvalidProtocolBufferException;
 import com.google.protobuf.util.JsonFormat;
 import com.netflix.titus.api.jobmanager.JobAttributes;
@@ -82,21 +81,6 @@ public class KubeUtil {
 
     private static final JsonFormat.Printer grpcJsonPrinter = JsonFormat.printer().includingDefaultValueFields();
 
-    private static final Gson GSON = new Gson();
-
-    /**
-     * As it is not possible to capture pod size at the transport level, we try to estimate it directly using the same
-     * JSON serializer as the Kube client (gson).
-     */
-    public static int estimatePodSize(V1Pod v1Pod) {
-        try {
-            String json = GSON.toJson(v1Pod);
-            return json == null ? 0 : json.length();
-        } catch (Exception e) {
-            return 0;
-        }
-    }
-
     public static boolean isPodPhaseTerminal(String phase) {
         return SUCCEEDED.equals(phase) || FAILED.equals(phase);
     }
@@ -219,16 +203,25 @@ public class KubeUtil {
             byte[] containerInfoData,
             Map<String, String> passthroughAttributes,
             boolean includeJobDescriptor
+    ) {
+        return createPodAnnotations(createJobPodAnnotations(job, includeJobDescriptor), task, containerInfoData, passthroughAttributes);
+    }
+
+    /**
+     * Builds pod annotations from the pre-computed job level annotations (see {@link #createJobPodAnnotations(Job, boolean)})
+     * and the task specific data.
+     */
+    public static Map<String, String> createPodAnnotations(
+            Map<String, String> jobAnnotations,
+            Task task,
+            byte[] containerInfoData,
+            Map<String, String> passthroughAttributes
     ) {
         String encodedContainerInfo = Base64.getEncoder().encodeToString(containerInfoData);
 
         Map<String, String> annotations = new HashMap<>(passthroughAttributes);
-        annotations.putAll(PerformanceToolUtil.toAnnotations(job));
-        annotations.put("containerInfo", encodedContainerInfo);
-        Evaluators.acceptNotNull(
-                job.getJobDescriptor().getAttributes().get(JobAttributes.JOB_ATTRIBUTES_RUNTIME_PREDICTION_SEC),
-                runtimeInSec -> annotations.put(KubeConstants.JOB_RUNTIME_PREDICTION, runtimeInSec + "s")
-        );
+        annotations.putAll(jobAnnotations);
+        annotations.put(KubeConstants.ANNOTATION_CONTAINER_INFO, encodedContainerInfo);
         Evaluators.acceptNotNull(
                 task.getTaskContext().get(TaskAttributes.TASK_ATTRIBUTES_OPPORTUNISTIC_CPU_COUNT),
                 count -> annotations.put(KubeConstants.OPPORTUNISTIC_CPU_COUNT, count)
@@ -237,12 +230,25 @@ public class KubeUtil {
                 task.getTaskContext().get(TaskAttributes.TASK_ATTRIBUTES_OPPORTUNISTIC_CPU_ALLOCATION),
                 id -> annotations.put(KubeConstants.OPPORTUNISTIC_ID, id)
         );
+        return annotations;
+    }
+
+    /**
+     * Pod annotations that are the same for all tasks of a job. The job descriptor annotation is expensive to compute,
+     * so callers creating many pods for the same job should reuse the result.
+     */
+    public static Map<String, String> createJobPodAnnotations(Job<?> job, boolean includeJobDescriptor) {
+        Map<String, String> annotations = new HashMap<>(PerformanceToolUtil.toAnnotations(job));
+        Evaluators.acceptNotNull(
+                job.getJobDescriptor().getAttributes().get(JobAttributes.JOB_ATTRIBUTES_RUNTIME_PREDICTION_SEC),
+                runtimeInSec -> annotations.put(KubeConstants.JOB_RUNTIME_PREDICTION, runtimeInSec + "s")
+        );
 
         if (includeJobDescriptor) {
             JobDescriptor grpcJobDescriptor = GrpcJobManagementModelConverters.toGrpcJobDescriptor(job.getJobDescriptor());
             try {
                 String jobDescriptorJson = grpcJsonPrinter.print(grpcJobDescriptor);
-                annotations.put("jobDescriptor", StringExt.gzipAndBase64Encode(jobDescriptorJson));
+                annotations.put(KubeConstants.ANNOTATION_JOB_DESCRIPTOR, StringExt.gzipAndBase64Encode(jobDescriptorJson));
             } catch (InvalidProtocolBufferException e) {
                 logger.error("Unable to convert protobuf message into json: ", e);
             }
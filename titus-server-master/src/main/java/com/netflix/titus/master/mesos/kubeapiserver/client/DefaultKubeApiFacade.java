@@ -59,6 +59,7 @@ public class DefaultKubeApiFacade implements KubeApiFacade {
     private final DirectKubeConfiguration configuration;
 
     private final ApiClient apiClient;
+    private final ApiClient informerApiClient;
     private final CoreV1Api coreV1Api;
     private final CustomObjectsApi customObjectsApi;
     private final TitusRuntime titusRuntime;
@@ -83,6 +84,9 @@ public class DefaultKubeApiFacade implements KubeApiFacade {
         this.coreV1Api = new CoreV1Api(apiClient);
         this.customObjectsApi = new CustomObjectsApi(apiClient);
         this.titusRuntime = titusRuntime;
+        this.informerApiClient = configuration.isInformerObjectTrimmingEnabled()
+                ? InformerObjectTrimmer.newInformerApiClient(apiClient)
+                : apiClient;
     }
 
     @PreDestroy
@@ -165,7 +169,7 @@ public class DefaultKubeApiFacade implements KubeApiFacade {
             try {
                 this.sharedInformerFactory = createSharedInformerFactory(
                         "kube-api-server-integrator-shared-informer-",
-                        apiClient,
+                        informerApiClient,
                         titusRuntime
                 );
 
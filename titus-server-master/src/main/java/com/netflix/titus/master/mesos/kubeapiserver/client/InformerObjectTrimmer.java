@@ -0,0 +1,204 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.mesos.kubeapiserver.client;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.google.gson.Gson;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+import com.netflix.titus.master.mesos.kubeapiserver.KubeConstants;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.JSON;
+import io.kubernetes.client.openapi.models.V1Container;
+import io.kubernetes.client.openapi.models.V1Node;
+import io.kubernetes.client.openapi.models.V1NodeList;
+import io.kubernetes.client.openapi.models.V1NodeStatus;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodList;
+import io.kubernetes.client.openapi.models.V1PodSpec;
+import io.kubernetes.client.util.Watch;
+
+import static com.netflix.titus.common.util.CollectionsExt.asSet;
+
+/**
+ * Removes the pod and node fields not used by Titus, so they are not kept in the shared informer caches. In a large
+ * cell most of the informer heap is taken by the managed fields, pod specs (volumes, environment, resources),
+ * the executor only pod annotations (container info, job descriptor), and node images and system info.
+ * <p>
+ * Trimming is applied when pod and node lists, and watch events, are deserialized by a dedicated informer API client
+ * (see {@link #newInformerApiClient(ApiClient)}). Objects returned by the API calls made with the shared API client
+ * are not affected, so a component that needs the full object, should read it from the API server on demand.
+ */
+public final class InformerObjectTrimmer {
+
+    static final Set<String> DROPPED_POD_ANNOTATIONS = asSet(
+            KubeConstants.ANNOTATION_CONTAINER_INFO,
+            KubeConstants.ANNOTATION_JOB_DESCRIPTOR
+    );
+
+    private InformerObjectTrimmer() {
+    }
+
+    /**
+     * Creates an API client for the shared informers. The informer calls are built with the given API client, and
+     * executed with its HTTP client, so only the response decoding differs. The returned client has its own JSON
+     * serializer with the trimming type adapter registered, and the given API client is not modified.
+     */
+    public static ApiClient newInformerApiClient(ApiClient apiClient) {
+        ApiClient informerApiClient = new ApiClient();
+        informerApiClient.setBasePath(apiClient.getBasePath());
+        informerApiClient.setHttpClient(apiClient.getHttpClient());
+
+        JSON json = informerApiClient.getJSON();
+        json.setGson(json.getGson().newBuilder().registerTypeAdapterFactory(new TrimmingTypeAdapterFactory()).create());
+        return informerApiClient;
+    }
+
+    /**
+     * Keeps in the pod metadata, the container names, node name, tolerations and the full status.
+     */
+    public static V1Pod trimPod(V1Pod pod) {
+        pod.setMetadata(trimMetadata(pod.getMetadata(), DROPPED_POD_ANNOTATIONS));
+
+        V1PodSpec spec = pod.getSpec();
+        if (spec != null) {
+            List<V1Container> containers = null;
+            if (spec.getContainers() != null) {
+                containers = new ArrayList<>(spec.getContainers().size());
+                for (V1Container container : spec.getContainers()) {
+                    containers.add(new V1Container().name(container.getName()));
+                }
+            }
+            pod.setSpec(new V1PodSpec()
+                    .nodeName(spec.getNodeName())
+                    .tolerations(spec.getTolerations())
+                    .containers(containers)
+            );
+        }
+        return pod;
+    }
+
+    /**
+     * Keeps in the node metadata, the full spec, and the status addresses, resources, conditions and phase.
+     */
+    public static V1Node trimNode(V1Node node) {
+        node.setMetadata(trimMetadata(node.getMetadata(), null));
+
+        V1NodeStatus status = node.getStatus();
+        if (status != null) {
+            node.setStatus(new V1NodeStatus()
+                    .addresses(status.getAddresses())
+                    .allocatable(status.getAllocatable())
+                    .capacity(status.getCapacity())
+                    .conditions(status.getConditions())
+                    .phase(status.getPhase())
+            );
+        }
+        return node;
+    }
+
+    private static V1ObjectMeta trimMetadata(V1ObjectMeta metadata, Set<String> droppedAnnotations) {
+        if (metadata == null) {
+            return null;
+        }
+        return new V1ObjectMeta()
+                .name(metadata.getName())
+                .namespace(metadata.getNamespace())
+                .uid(metadata.getUid())
+                .resourceVersion(metadata.getResourceVersion())
+                .labels(metadata.getLabels())
+                .annotations(trimAnnotations(metadata.getAnnotations(), droppedAnnotations))
+                .creationTimestamp(metadata.getCreationTimestamp())
+                .deletionTimestamp(metadata.getDeletionTimestamp())
+                .deletionGracePeriodSeconds(metadata.getDeletionGracePeriodSeconds());
+    }
+
+    private static Map<String, String> trimAnnotations(Map<String, String> annotations, Set<String> droppedAnnotations) {
+        if (annotations == null || droppedAnnotations == null) {
+            return annotations;
+        }
+        boolean hasDropped = false;
+        for (String key : droppedAnnotations) {
+            if (annotations.containsKey(key)) {
+                hasDropped = true;
+                break;
+            }
+        }
+        if (!hasDropped) {
+            return annotations;
+        }
+        Map<String, String> trimmed = new HashMap<>(annotations);
+        trimmed.keySet().removeAll(droppedAnnotations);
+        return trimmed;
+    }
+
+    private static void trim(Object value) {
+        if (value instanceof V1PodList) {
+            List<V1Pod> items = ((V1PodList) value).getItems();
+            if (items != null) {
+                items.forEach(InformerObjectTrimmer::trimPod);
+            }
+        } else if (value instanceof V1NodeList) {
+            List<V1Node> items = ((V1NodeList) value).getItems();
+            if (items != null) {
+                items.forEach(InformerObjectTrimmer::trimNode);
+            }
+        } else if (value instanceof Watch.Response) {
+            Object object = ((Watch.Response<?>) value).object;
+            if (object instanceof V1Pod) {
+                trimPod((V1Pod) object);
+            } else if (object instanceof V1Node) {
+                trimNode((V1Node) object);
+            }
+        }
+    }
+
+    private static class TrimmingTypeAdapterFactory implements TypeAdapterFactory {
+
+        @Override
+        public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+            Class<? super T> rawType = type.getRawType();
+            if (rawType != V1PodList.class && rawType != V1NodeList.class && rawType != Watch.Response.class) {
+                return null;
+            }
+            TypeAdapter<T> delegate = gson.getDelegateAdapter(this, type);
+            return new TypeAdapter<T>() {
+                @Override
+                public void write(JsonWriter out, T value) throws IOException {
+                    delegate.write(out, value);
+                }
+
+                @Override
+                public T read(JsonReader in) throws IOException {
+                    T value = delegate.read(in);
+                    trim(value);
+                    return value;
+                }
+            };
+        }
+    }
+}
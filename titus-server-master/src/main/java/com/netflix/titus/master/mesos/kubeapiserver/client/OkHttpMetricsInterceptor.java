@@ -22,11 +22,14 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Function;
 
+import com.netflix.spectator.api.Id;
 import com.netflix.spectator.api.Registry;
 import com.netflix.titus.common.network.client.ClientMetrics;
+import com.netflix.titus.common.util.StringExt;
 import com.netflix.titus.common.util.time.Clock;
 import okhttp3.Interceptor;
 import okhttp3.Request;
+import okhttp3.RequestBody;
 import okhttp3.Response;
 
 public class OkHttpMetricsInterceptor implements Interceptor {
@@ -35,6 +38,7 @@ public class OkHttpMetricsInterceptor implements Interceptor {
     private final Registry registry;
     private final Clock clock;
     private final Function<Request, String> uriMapper;
+    private final Id requestBodySizeId;
 
     private final ConcurrentMap<String, ClientMetrics> clientMetrics = new ConcurrentHashMap<>();
 
@@ -43,6 +47,7 @@ public class OkHttpMetricsInterceptor implements Interceptor {
         this.registry = registry;
         this.clock = clock;
         this.uriMapper = uriMapper;
+        this.requestBodySizeId = registry.createId(StringExt.appendToEndIfMissing(metricNamePrefix, ".") + "requestBodySize");
     }
 
     @Override
@@ -53,6 +58,8 @@ public class OkHttpMetricsInterceptor implements Interceptor {
         String uri = getUri(request);
 
         ClientMetrics clientMetrics = this.clientMetrics.computeIfAbsent(uri, k -> new ClientMetrics(this.metricNamePrefix, uri, registry));
+        recordRequestBodySize(request, method, uri);
+
         long startTimeMs = clock.wallTime();
         try {
             Response response = chain.proceed(request);
@@ -66,6 +73,24 @@ public class OkHttpMetricsInterceptor implements Interceptor {
         }
     }
 
+    /**
+     * Records the size of the serialized request payload (for example a pod object in a pod create request) as sent
+     * to the server.
+     */
+    private void recordRequestBodySize(Request request, String method, String uri) {
+        RequestBody body = request.body();
+        if (body == null) {
+            return;
+        }
+        try {
+            long contentLength = body.contentLength();
+            if (contentLength >= 0) {
+                registry.distributionSummary(requestBodySizeId.withTags("method", method, "path", uri)).record(contentLength);
+            }
+        } catch (IOException ignore) {
+        }
+    }
+
     private String getUri(Request request) {
         try {
             return uriMapper.apply(request);
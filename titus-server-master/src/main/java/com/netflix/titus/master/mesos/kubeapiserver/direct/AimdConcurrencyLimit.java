@@ -0,0 +1,97 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.mesos.kubeapiserver.direct;
+
+import java.util.function.DoubleSupplier;
+import java.util.function.IntSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Additive-increase/multiplicative-decrease (AIMD) concurrency limit. The limit grows by one after a full window of
+ * successful calls, and is multiplied by the backoff ratio when a call is throttled, or its latency exceeds
+ * the configured threshold. The limit is reduced at most once per window: requests in flight when a backoff happens
+ * observed the old load, so their slow or throttled completions are ignored, and only requests started after the backoff
+ * (see {@link #onStart()}) can reduce the limit again. The configuration is resolved on each update, so dynamic
+ * property changes take effect immediately.
+ */
+class AimdConcurrencyLimit {
+
+    private final IntSupplier minLimitSupplier;
+    private final IntSupplier maxLimitSupplier;
+    private final LongSupplier latencyThresholdMsSupplier;
+    private final DoubleSupplier backoffRatioSupplier;
+
+    private double limit;
+
+    private long nextRequestId;
+
+    /**
+     * Id of the first request started after the last backoff. Requests with lower ids do not trigger a backoff.
+     */
+    private long backoffBoundaryRequestId;
+
+    AimdConcurrencyLimit(IntSupplier minLimitSupplier,
+                         IntSupplier maxLimitSupplier,
+                         LongSupplier latencyThresholdMsSupplier,
+                         DoubleSupplier backoffRatioSupplier) {
+        this.minLimitSupplier = minLimitSupplier;
+        this.maxLimitSupplier = maxLimitSupplier;
+        this.latencyThresholdMsSupplier = latencyThresholdMsSupplier;
+        this.backoffRatioSupplier = backoffRatioSupplier;
+        this.limit = maxLimitSupplier.getAsInt();
+    }
+
+    synchronized int getLimit() {
+        return (int) clamp(limit);
+    }
+
+    /**
+     * Called when a request is issued. The returned id must be passed to {@link #onSuccess(long, long)} or
+     * {@link #onThrottled(long)} when the request completes.
+     */
+    synchronized long onStart() {
+        return nextRequestId++;
+    }
+
+    synchronized void onSuccess(long requestId, long latencyMs) {
+        if (latencyMs > latencyThresholdMsSupplier.getAsLong()) {
+            backoff(requestId);
+            return;
+        }
+        double current = clamp(limit);
+        this.limit = clamp(current + 1.0 / Math.max(1.0, current));
+    }
+
+    synchronized void onThrottled(long requestId) {
+        backoff(requestId);
+    }
+
+    private void backoff(long requestId) {
+        if (requestId < backoffBoundaryRequestId) {
+            return;
+        }
+        this.backoffBoundaryRequestId = nextRequestId;
+        double ratio = Math.min(1.0, Math.max(0.0, backoffRatioSupplier.getAsDouble()));
+        this.limit = clamp(clamp(limit) * ratio);
+    }
+
+    private double clamp(double value) {
+        int min = Math.max(1, minLimitSupplier.getAsInt());
+        int max = Math.max(min, maxLimitSupplier.getAsInt());
+        return Math.min(max, Math.max(min, value));
+    }
+}
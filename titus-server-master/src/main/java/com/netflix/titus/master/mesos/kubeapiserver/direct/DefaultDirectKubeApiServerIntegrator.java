@@ -88,6 +88,7 @@ public class DefaultDirectKubeApiServerIntegrator implements DirectKubeApiServer
 
     private final ExecutorService apiClientExecutor;
     private final Scheduler apiClientScheduler;
+    private final PodCreatePipeline podCreatePipeline;
 
     private final Optional<FitInjection> fitKubeInjection;
 
@@ -107,6 +108,14 @@ public class DefaultDirectKubeApiServerIntegrator implements DirectKubeApiServer
 
         this.apiClientExecutor = ExecutorsExt.instrumentedFixedSizeThreadPool(titusRuntime.getRegistry(), "kube-apiclient", configuration.getApiClientThreadPoolSize());
         this.apiClientScheduler = Schedulers.fromExecutorService(apiClientExecutor);
+        this.podCreatePipeline = new PodCreatePipeline(
+                configuration,
+                this::buildPod,
+                this::createPod,
+                Schedulers.parallel(),
+                apiClientScheduler,
+                titusRuntime
+        );
 
         FitFramework fit = titusRuntime.getFitFramework();
         if (fit.isActive()) {
@@ -122,6 +131,7 @@ public class DefaultDirectKubeApiServerIntegrator implements DirectKubeApiServer
 
     @PreDestroy
     public void shutdown() {
+        podCreatePipeline.shutdown();
         apiClientScheduler.dispose();
         apiClientExecutor.shutdown();
         metrics.shutdown();
@@ -139,28 +149,41 @@ public class DefaultDirectKubeApiServerIntegrator implements DirectKubeApiServer
 
     @Override
     public Mono<V1Pod> launchTask(Job job, Task task) {
-        return Mono.fromCallable(() -> {
-            Stopwatch timer = Stopwatch.createStarted();
-            try {
-                V1Pod v1Pod = taskToPodConverter.apply(job, task);
-                logger.info("creating pod: {}", v1Pod);
+        return podCreatePipeline.submit(job, task).timeout(Duration.ofMillis(configuration.getKubeApiClientTimeoutMs()));
+    }
 
-                fitKubeInjection.ifPresent(i -> i.beforeImmediate(KubeFitAction.ErrorKind.POD_CREATE_ERROR.name()));
+    private V1Pod buildPod(Job job, Task task) {
+        try {
+            return taskToPodConverter.apply(job, task);
+        } catch (Exception e) {
+            logger.error("Unable to build pod with error: {}", KubeUtil.toErrorDetails(e), e);
 
-                kubeApiFacade.getCoreV1Api().createNamespacedPod(KUBERNETES_NAMESPACE, v1Pod, null, null, null);
-                pods.putIfAbsent(task.getId(), v1Pod);
+            metrics.launchError(task, e, 0);
 
-                metrics.launchSuccess(task, v1Pod, timer.elapsed(TimeUnit.MILLISECONDS));
+            throw new IllegalStateException("Unable to launch a task " + task.getId(), e);
+        }
+    }
 
-                return v1Pod;
-            } catch (Exception e) {
-                logger.error("Unable to create pod with error: {}", KubeUtil.toErrorDetails(e), e);
+    private V1Pod createPod(Task task, V1Pod v1Pod) {
+        Stopwatch timer = Stopwatch.createStarted();
+        try {
+            logger.info("creating pod: {}", v1Pod);
 
-                metrics.launchError(task, e, timer.elapsed(TimeUnit.MILLISECONDS));
+            fitKubeInjection.ifPresent(i -> i.beforeImmediate(KubeFitAction.ErrorKind.POD_CREATE_ERROR.name()));
 
-                throw new IllegalStateException("Unable to launch a task " + task.getId(), e);
-            }
-        }).subscribeOn(apiClientScheduler).timeout(Duration.ofMillis(configuration.getKubeApiClientTimeoutMs()));
+            kubeApiFacade.getCoreV1Api().createNamespacedPod(KUBERNETES_NAMESPACE, v1Pod, null, null, null);
+            pods.putIfAbsent(task.getId(), v1Pod);
+
+            metrics.launchSuccess(task, timer.elapsed(TimeUnit.MILLISECONDS));
+
+            return v1Pod;
+        } catch (Exception e) {
+            logger.error("Unable to create pod with error: {}", KubeUtil.toErrorDetails(e), e);
+
+            metrics.launchError(task, e, timer.elapsed(TimeUnit.MILLISECONDS));
+
+            throw new IllegalStateException("Unable to launch a task " + task.getId(), e);
+        }
     }
 
     @Override
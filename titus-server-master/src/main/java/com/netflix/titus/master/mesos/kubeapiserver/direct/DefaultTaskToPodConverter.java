@@ -20,12 +20,15 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
 import com.google.common.base.Strings;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.primitives.Ints;
 import com.netflix.titus.api.jobmanager.JobAttributes;
@@ -52,12 +55,14 @@ import com.netflix.titus.master.mesos.kubeapiserver.KubeUtil;
 import com.netflix.titus.master.mesos.kubeapiserver.direct.taint.TaintTolerationFactory;
 import com.netflix.titus.runtime.endpoint.v3.grpc.GrpcJobManagementModelConverters;
 import io.kubernetes.client.custom.Quantity;
+import io.kubernetes.client.openapi.models.V1Affinity;
 import io.kubernetes.client.openapi.models.V1Container;
 import io.kubernetes.client.openapi.models.V1LabelSelector;
 import io.kubernetes.client.openapi.models.V1ObjectMeta;
 import io.kubernetes.client.openapi.models.V1Pod;
 import io.kubernetes.client.openapi.models.V1PodSpec;
 import io.kubernetes.client.openapi.models.V1ResourceRequirements;
+import io.kubernetes.client.openapi.models.V1Toleration;
 import io.kubernetes.client.openapi.models.V1TopologySpreadConstraint;
 import io.titanframework.messages.TitanProtos;
 
@@ -94,11 +99,23 @@ public class DefaultTaskToPodConverter implements TaskToPodConverter {
      */
     private static final int SOFT_MAX_SKEW = 100_000;
 
+    private static final int TEMPLATE_CACHE_MAX_SIZE = 10_000;
+    private static final long TEMPLATE_CACHE_TTL_MS = 60_000;
+
     private final DirectKubeConfiguration configuration;
     private final PodAffinityFactory podAffinityFactory;
     private final TaintTolerationFactory taintTolerationFactory;
     private final String iamArnPrefix;
 
+    /**
+     * Pod templates keyed by job id. Templates are rebuilt when the job descriptor changes, and expire after
+     * {@link #TEMPLATE_CACHE_TTL_MS}, so dynamic configuration changes are applied to new pods within that time.
+     */
+    private final Cache<String, PodTemplate> templateCache = CacheBuilder.newBuilder()
+            .maximumSize(TEMPLATE_CACHE_MAX_SIZE)
+            .expireAfterWrite(TEMPLATE_CACHE_TTL_MS, TimeUnit.MILLISECONDS)
+            .build();
+
     @Inject
     public DefaultTaskToPodConverter(DirectKubeConfiguration configuration,
                                      PodAffinityFactory podAffinityFactory,
@@ -112,36 +129,24 @@ public class DefaultTaskToPodConverter implements TaskToPodConverter {
         this.iamArnPrefix = ARN_PREFIX + accountId + ARN_SUFFIX;
     }
 
+    /**
+     * Builds a pod from a per-job template, so the job level data (container info, annotations including the encoded
+     * job descriptor, resources, affinity, tolerations) is computed once for all tasks of the same job version.
+     * Pods built from the same template share the job level model objects, which must not be modified.
+     */
     @Override
     public V1Pod apply(Job<?> job, Task task) {
-        String taskId = task.getId();
-        TitanProtos.ContainerInfo containerInfo = buildContainerInfo(job, task);
-        Map<String, String> annotations = KubeUtil.createPodAnnotations(job, task, containerInfo.toByteArray(),
-                containerInfo.getPassthroughAttributesMap(), configuration.isJobDescriptorAnnotationEnabled());
-
-        V1ObjectMeta metadata = new V1ObjectMeta()
-                .name(taskId)
-                .annotations(annotations)
-                .labels(ImmutableMap.of(
-                        KubeConstants.POD_LABEL_JOB_ID, job.getId(),
-                        KubeConstants.POD_LABEL_TASK_ID, taskId
-                ));
-
-        V1Container container = new V1Container()
-                .name(taskId)
-                .image("imageIsInContainerInfo")
-                .resources(buildV1ResourceRequirements(job.getJobDescriptor().getContainer().getContainerResources()));
-
-        V1PodSpec spec = new V1PodSpec()
-                .schedulerName(configuration.getKubeSchedulerName())
-                .containers(Collections.singletonList(container))
-                .terminationGracePeriodSeconds(POD_TERMINATION_GRACE_PERIOD_SECONDS)
-                .restartPolicy(NEVER_RESTART_POLICY)
-                .affinity(podAffinityFactory.buildV1Affinity(job, task))
-                .tolerations(taintTolerationFactory.buildV1Toleration(job, task))
-                .topologySpreadConstraints(buildTopologySpreadConstraints(job));
-
-        return new V1Pod().metadata(metadata).spec(spec);
+        return getTemplate(job, task).newPod(job, task);
+    }
+
+    private PodTemplate getTemplate(Job<?> job, Task task) {
+        PodTemplate template = templateCache.getIfPresent(job.getId());
+        if (template != null && template.isTemplateOf(job)) {
+            return template;
+        }
+        PodTemplate newTemplate = new PodTemplate(job, task);
+        templateCache.put(job.getId(), newTemplate);
+        return newTemplate;
     }
 
     private V1ResourceRequirements buildV1ResourceRequirements(ContainerResources containerResources) {
@@ -166,7 +171,10 @@ public class DefaultTaskToPodConverter implements TaskToPodConverter {
         return new V1ResourceRequirements().requests(requests).limits(limits);
     }
 
-    private TitanProtos.ContainerInfo buildContainerInfo(Job<?> job, Task task) {
+    /**
+     * Builds the job level part of the container info. The task specific fields are added by {@link #appendTaskContainerInfo}.
+     */
+    private TitanProtos.ContainerInfo buildJobContainerInfo(Job<?> job) {
         JobDescriptor<?> jobDescriptor = job.getJobDescriptor();
         Map<String, String> jobAttributes = jobDescriptor.getAttributes();
         TitanProtos.ContainerInfo.Builder containerInfoBuilder = TitanProtos.ContainerInfo.newBuilder();
@@ -239,17 +247,6 @@ public class DefaultTaskToPodConverter implements TaskToPodConverter {
             }
         });
 
-        containerInfoBuilder.putTitusProvidedEnv("TITUS_JOB_ID", task.getJobId());
-        containerInfoBuilder.putTitusProvidedEnv("TITUS_TASK_ID", task.getId());
-        containerInfoBuilder.putTitusProvidedEnv("NETFLIX_EXECUTOR", "titus");
-        containerInfoBuilder.putTitusProvidedEnv("NETFLIX_INSTANCE_ID", task.getId());
-        containerInfoBuilder.putTitusProvidedEnv("TITUS_TASK_INSTANCE_ID", task.getId());
-        containerInfoBuilder.putTitusProvidedEnv("TITUS_TASK_ORIGINAL_ID", task.getOriginalId());
-        if (task instanceof BatchJobTask) {
-            BatchJobTask batchJobTask = (BatchJobTask) task;
-            containerInfoBuilder.putTitusProvidedEnv("TITUS_TASK_INDEX", "" + batchJobTask.getIndex());
-        }
-
         // Always set this to true until it is removed from the executor
         containerInfoBuilder.setIgnoreLaunchGuard(true);
 
@@ -279,15 +276,32 @@ public class DefaultTaskToPodConverter implements TaskToPodConverter {
         // Configure shared memory size
         containerInfoBuilder.setShmSizeMB(containerResources.getShmMB());
 
-        // Configure IP address allocation
-        setSignedAddressAllocation(containerInfoBuilder, task, containerResources);
-
         // Configure job accepted timestamp
         setJobAcceptedTimestamp(containerInfoBuilder, job);
 
         return containerInfoBuilder.build();
     }
 
+    private TitanProtos.ContainerInfo appendTaskContainerInfo(TitanProtos.ContainerInfo jobContainerInfo, Job<?> job, Task task) {
+        TitanProtos.ContainerInfo.Builder containerInfoBuilder = jobContainerInfo.toBuilder();
+
+        containerInfoBuilder.putTitusProvidedEnv("TITUS_JOB_ID", task.getJobId());
+        containerInfoBuilder.putTitusProvidedEnv("TITUS_TASK_ID", task.getId());
+        containerInfoBuilder.putTitusProvidedEnv("NETFLIX_EXECUTOR", "titus");
+        containerInfoBuilder.putTitusProvidedEnv("NETFLIX_INSTANCE_ID", task.getId());
+        containerInfoBuilder.putTitusProvidedEnv("TITUS_TASK_INSTANCE_ID", task.getId());
+        containerInfoBuilder.putTitusProvidedEnv("TITUS_TASK_ORIGINAL_ID", task.getOriginalId());
+        if (task instanceof BatchJobTask) {
+            BatchJobTask batchJobTask = (BatchJobTask) task;
+            containerInfoBuilder.putTitusProvidedEnv("TITUS_TASK_INDEX", "" + batchJobTask.getIndex());
+        }
+
+        // Configure IP address allocation
+        setSignedAddressAllocation(containerInfoBuilder, task, job.getJobDescriptor().getContainer().getContainerResources());
+
+        return containerInfoBuilder.build();
+    }
+
     private void setImage(TitanProtos.ContainerInfo.Builder containerInfoBuilder, Image image) {
         containerInfoBuilder.setImageName(image.getName());
         String registryUrl = configuration.getRegistryUrl();
@@ -367,4 +381,66 @@ public class DefaultTaskToPodConverter implements TaskToPodConverter {
 
         return Collections.singletonList(constraint);
     }
+
+    /**
+     * Job level part of a pod, shared by all tasks of the same job version.
+     */
+    private class PodTemplate {
+
+        private final JobDescriptor<?> jobDescriptor;
+        private final TitanProtos.ContainerInfo jobContainerInfo;
+        private final Map<String, String> jobAnnotations;
+        private final V1ResourceRequirements resources;
+        private final V1Affinity affinity;
+        private final List<V1Toleration> tolerations;
+        private final List<V1TopologySpreadConstraint> topologySpreadConstraints;
+        private final String schedulerName;
+
+        private PodTemplate(Job<?> job, Task task) {
+            this.jobDescriptor = job.getJobDescriptor();
+            this.jobContainerInfo = buildJobContainerInfo(job);
+            this.jobAnnotations = KubeUtil.createJobPodAnnotations(job, configuration.isJobDescriptorAnnotationEnabled());
+            this.resources = buildV1ResourceRequirements(job.getJobDescriptor().getContainer().getContainerResources());
+            // Affinity and tolerations depend on the job data only, so the task used to create the template is irrelevant.
+            this.affinity = podAffinityFactory.buildV1Affinity(job, task);
+            this.tolerations = taintTolerationFactory.buildV1Toleration(job, task);
+            this.topologySpreadConstraints = buildTopologySpreadConstraints(job);
+            this.schedulerName = configuration.getKubeSchedulerName();
+        }
+
+        private boolean isTemplateOf(Job<?> job) {
+            return jobDescriptor == job.getJobDescriptor() || jobDescriptor.equals(job.getJobDescriptor());
+        }
+
+        private V1Pod newPod(Job<?> job, Task task) {
+            String taskId = task.getId();
+            TitanProtos.ContainerInfo containerInfo = appendTaskContainerInfo(jobContainerInfo, job, task);
+            Map<String, String> annotations = KubeUtil.createPodAnnotations(jobAnnotations, task, containerInfo.toByteArray(),
+                    containerInfo.getPassthroughAttributesMap());
+
+            V1ObjectMeta metadata = new V1ObjectMeta()
+                    .name(taskId)
+                    .annotations(annotations)
+                    .labels(ImmutableMap.of(
+                            KubeConstants.POD_LABEL_JOB_ID, job.getId(),
+                            KubeConstants.POD_LABEL_TASK_ID, taskId
+                    ));
+
+            V1Container container = new V1Container()
+                    .name(taskId)
+                    .image("imageIsInContainerInfo")
+                    .resources(resources);
+
+            V1PodSpec spec = new V1PodSpec()
+                    .schedulerName(schedulerName)
+                    .containers(Collections.singletonList(container))
+                    .terminationGracePeriodSeconds(POD_TERMINATION_GRACE_PERIOD_SECONDS)
+                    .restartPolicy(NEVER_RESTART_POLICY)
+                    .affinity(affinity)
+                    .tolerations(tolerations)
+                    .topologySpreadConstraints(topologySpreadConstraints);
+
+            return new V1Pod().metadata(metadata).spec(spec);
+        }
+    }
 }
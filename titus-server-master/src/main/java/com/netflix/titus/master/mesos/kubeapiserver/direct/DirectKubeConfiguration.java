@@ -155,8 +155,35 @@ public interface DirectKubeConfiguration {
     long getUnknownPodGcTimeoutMs();
 
     /**
-     * Maximum number of concurrent pod create requests.
+     * Maximum number of concurrent pod create requests. In the direct Kube integration, this is the upper bound of
+     * the adaptive in-flight window of the pod create pipeline (which is further limited by the API client thread pool size).
      */
     @DefaultValue("200")
     int getPodCreateConcurrencyLimit();
+
+    /**
+     * Minimum number of concurrent pod create requests, which the adaptive in-flight window never goes below.
+     */
+    @DefaultValue("5")
+    int getPodCreateMinConcurrencyLimit();
+
+    /**
+     * Pod create requests taking longer than this threshold are treated as an API server overload signal, and
+     * reduce the pod create in-flight window.
+     */
+    @DefaultValue("2000")
+    long getPodCreateLatencyThresholdMs();
+
+    /**
+     * Multiplier applied to the pod create in-flight window, when the API server throttles requests or is slow to respond.
+     */
+    @DefaultValue("0.75")
+    double getPodCreateBackoffRatio();
+
+    /**
+     * If enabled, pods and nodes received by the shared informers are trimmed to the fields used by Titus, before
+     * they are stored in the informer caches.
+     */
+    @DefaultValue("true")
+    boolean isInformerObjectTrimmingEnabled();
 }
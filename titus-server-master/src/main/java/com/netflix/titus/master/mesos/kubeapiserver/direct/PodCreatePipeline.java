@@ -0,0 +1,275 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.mesos.kubeapiserver.direct;
+
+import java.util.Comparator;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+
+import com.google.common.base.Stopwatch;
+import com.netflix.spectator.api.Id;
+import com.netflix.spectator.api.Registry;
+import com.netflix.spectator.api.patterns.PolledMeter;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.util.time.Clock;
+import com.netflix.titus.master.MetricConstants;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.models.V1Pod;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * Pod creation pipeline with three stages:
+ * <ul>
+ *     <li>pod build, executed on the provided pod build scheduler</li>
+ *     <li>a priority queue, in which tasks waiting longest in the Accepted state (closest to the launch timeout) are first</li>
+ *     <li>Kube API calls executed on the API client scheduler, with the number of in-flight requests bounded by {@link AimdConcurrencyLimit}</li>
+ * </ul>
+ * The in-flight window is reduced when the API server throttles requests (HTTP 429), or responds slower than
+ * {@link DirectKubeConfiguration#getPodCreateLatencyThresholdMs()}, and grows back gradually otherwise.
+ */
+class PodCreatePipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(PodCreatePipeline.class);
+
+    private static final String ROOT = MetricConstants.METRIC_KUBERNETES + "podCreatePipeline.";
+
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
+
+    /**
+     * Performs the pod create API call.
+     */
+    interface PodCreator {
+        V1Pod create(Task task, V1Pod pod);
+    }
+
+    private static final Comparator<PendingRequest> PRIORITY_COMPARATOR = Comparator
+            .comparingLong((PendingRequest request) -> request.getTask().getStatus().getTimestamp())
+            .thenComparingLong(PendingRequest::getSequenceNumber);
+
+    private final BiFunction<Job, Task, V1Pod> podBuilder;
+    private final PodCreator podCreator;
+    private final Scheduler podBuildScheduler;
+    private final Scheduler apiClientScheduler;
+    private final Clock clock;
+    private final Registry registry;
+
+    private final AimdConcurrencyLimit concurrencyLimit;
+    private final PriorityBlockingQueue<PendingRequest> queue = new PriorityBlockingQueue<>(128, PRIORITY_COMPARATOR);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger drainWip = new AtomicInteger();
+    private final AtomicLong sequenceNumber = new AtomicLong();
+
+    private final Id queueSizeId;
+    private final Id inFlightId;
+    private final Id concurrencyLimitId;
+    private final Id queueWaitId;
+    private final Id podBuildId;
+    private final Id apiLatencyId;
+
+    PodCreatePipeline(DirectKubeConfiguration configuration,
+                      BiFunction<Job, Task, V1Pod> podBuilder,
+                      PodCreator podCreator,
+                      Scheduler podBuildScheduler,
+                      Scheduler apiClientScheduler,
+                      TitusRuntime titusRuntime) {
+        this.podBuilder = podBuilder;
+        this.podCreator = podCreator;
+        this.podBuildScheduler = podBuildScheduler;
+        this.apiClientScheduler = apiClientScheduler;
+        this.clock = titusRuntime.getClock();
+        this.registry = titusRuntime.getRegistry();
+
+        this.concurrencyLimit = new AimdConcurrencyLimit(
+                configuration::getPodCreateMinConcurrencyLimit,
+                configuration::getPodCreateConcurrencyLimit,
+                configuration::getPodCreateLatencyThresholdMs,
+                configuration::getPodCreateBackoffRatio
+        );
+
+        this.queueSizeId = registry.createId(ROOT + "queueSize");
+        this.inFlightId = registry.createId(ROOT + "inFlight");
+        this.concurrencyLimitId = registry.createId(ROOT + "concurrencyLimit");
+        this.queueWaitId = registry.createId(ROOT + "queueWait");
+        this.podBuildId = registry.createId(ROOT + "podBuild");
+        this.apiLatencyId = registry.createId(ROOT + "apiLatency");
+
+        PolledMeter.using(registry).withId(queueSizeId).monitorValue(queue, PriorityBlockingQueue::size);
+        PolledMeter.using(registry).withId(inFlightId).monitorValue(inFlight);
+        PolledMeter.using(registry).withId(concurrencyLimitId).monitorValue(concurrencyLimit, AimdConcurrencyLimit::getLimit);
+    }
+
+    void shutdown() {
+        PolledMeter.remove(registry, queueSizeId);
+        PolledMeter.remove(registry, inFlightId);
+        PolledMeter.remove(registry, concurrencyLimitId);
+    }
+
+    int getQueueSize() {
+        return queue.size();
+    }
+
+    int getInFlight() {
+        return inFlight.get();
+    }
+
+    int getConcurrencyLimit() {
+        return concurrencyLimit.getLimit();
+    }
+
+    Mono<V1Pod> submit(Job job, Task task) {
+        return Mono.fromCallable(() -> {
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            V1Pod pod = podBuilder.apply(job, task);
+            registry.timer(podBuildId).record(stopwatch.elapsed(TimeUnit.MILLISECONDS), TimeUnit.MILLISECONDS);
+            return new PendingRequest(task, pod);
+        }).subscribeOn(podBuildScheduler).flatMap(request -> Mono.create(sink -> enqueue(request, sink)));
+    }
+
+    private void enqueue(PendingRequest request, MonoSink<V1Pod> sink) {
+        request.attach(sink, sequenceNumber.getAndIncrement(), clock.wallTime());
+        sink.onCancel(request::cancel);
+        queue.add(request);
+        drain();
+    }
+
+    private void drain() {
+        if (drainWip.getAndIncrement() != 0) {
+            return;
+        }
+        int missed = 1;
+        do {
+            while (inFlight.get() < concurrencyLimit.getLimit()) {
+                PendingRequest next = queue.poll();
+                if (next == null) {
+                    break;
+                }
+                if (next.isCancelled()) {
+                    continue;
+                }
+                inFlight.incrementAndGet();
+                dispatch(next);
+            }
+            missed = drainWip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void dispatch(PendingRequest request) {
+        try {
+            apiClientScheduler.schedule(() -> execute(request));
+        } catch (Exception e) {
+            logger.warn("Cannot schedule pod create request for task {}: {}", request.getTask().getId(), e.getMessage());
+            inFlight.decrementAndGet();
+            request.getSink().error(e);
+        }
+    }
+
+    private void execute(PendingRequest request) {
+        registry.timer(queueWaitId).record(clock.wallTime() - request.getEnqueueTimestamp(), TimeUnit.MILLISECONDS);
+
+        long requestId = concurrencyLimit.onStart();
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        try {
+            V1Pod result = podCreator.create(request.getTask(), request.getPod());
+            long elapsedMs = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+            registry.timer(apiLatencyId.withTag("status", "success")).record(elapsedMs, TimeUnit.MILLISECONDS);
+            concurrencyLimit.onSuccess(requestId, elapsedMs);
+            request.getSink().success(result);
+        } catch (Throwable error) {
+            long elapsedMs = stopwatch.elapsed(TimeUnit.MILLISECONDS);
+            boolean throttled = isThrottled(error);
+            registry.timer(apiLatencyId.withTag("status", throttled ? "throttled" : "error")).record(elapsedMs, TimeUnit.MILLISECONDS);
+            if (throttled) {
+                concurrencyLimit.onThrottled(requestId);
+            }
+            request.getSink().error(error);
+        } finally {
+            inFlight.decrementAndGet();
+            drain();
+        }
+    }
+
+    private static boolean isThrottled(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ApiException && ((ApiException) cause).getCode() == HTTP_TOO_MANY_REQUESTS) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    private static class PendingRequest {
+
+        private final Task task;
+        private final V1Pod pod;
+
+        private volatile MonoSink<V1Pod> sink;
+        private volatile long sequenceNumber;
+        private volatile long enqueueTimestamp;
+        private volatile boolean cancelled;
+
+        private PendingRequest(Task task, V1Pod pod) {
+            this.task = task;
+            this.pod = pod;
+        }
+
+        private void attach(MonoSink<V1Pod> sink, long sequenceNumber, long enqueueTimestamp) {
+            this.sink = sink;
+            this.sequenceNumber = sequenceNumber;
+            this.enqueueTimestamp = enqueueTimestamp;
+        }
+
+        private void cancel() {
+            this.cancelled = true;
+        }
+
+        private Task getTask() {
+            return task;
+        }
+
+        private V1Pod getPod() {
+            return pod;
+        }
+
+        private MonoSink<V1Pod> getSink() {
+            return sink;
+        }
+
+        private long getSequenceNumber() {
+            return sequenceNumber;
+        }
+
+        private long getEnqueueTimestamp() {
+            return enqueueTimestamp;
+        }
+
+        private boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
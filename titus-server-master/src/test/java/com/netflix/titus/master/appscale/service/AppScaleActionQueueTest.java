@@ -0,0 +1,165 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.appscale.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.spectator.api.DefaultRegistry;
+import com.netflix.titus.api.appscale.model.AutoScalingPolicy;
+import com.netflix.titus.api.appscale.service.AutoScalePolicyException;
+import com.netflix.titus.common.util.archaius2.Archaius2Ext;
+import org.junit.After;
+import org.junit.Test;
+import rx.Completable;
+import rx.schedulers.Schedulers;
+import rx.schedulers.TestScheduler;
+import rx.subjects.PublishSubject;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AppScaleActionQueueTest {
+
+    private static final String THROTTLING_MESSAGE = "Rate exceeded (Service: AWSApplicationAutoScaling; Status Code: 400; Error Code: ThrottlingException)";
+
+    private final AppScaleManagerConfiguration configuration = Archaius2Ext.newConfiguration(AppScaleManagerConfiguration.class,
+            "titusMaster.appScaleManager.reconcilerConcurrency", "2",
+            "titusMaster.appScaleManager.awsCallsPerSecond", "1000",
+            "titusMaster.appScaleManager.throttlingInitialBackoffMs", "1000",
+            "titusMaster.appScaleManager.throttlingMaxBackoffMs", "5000"
+    );
+
+    private final DefaultRegistry registry = new DefaultRegistry();
+
+    private final TestScheduler testScheduler = Schedulers.test();
+
+    private final List<AppScaleAction> executedActions = new ArrayList<>();
+    private final Map<AppScaleAction, PublishSubject<Void>> runningActions = new HashMap<>();
+
+    private final AppScaleActionQueue queue = new AppScaleActionQueue(
+            this::execute, configuration, new AppScaleManagerMetrics(registry), Schedulers.immediate(), testScheduler
+    );
+
+    @After
+    public void tearDown() {
+        queue.shutdown();
+    }
+
+    @Test
+    public void testConcurrencyIsBounded() {
+        for (int i = 0; i < 5; i++) {
+            queue.add(createAction("job" + i, "policy" + i));
+        }
+        assertThat(queue.getInFlightCount()).isEqualTo(2);
+        assertThat(queue.getQueueSize()).isEqualTo(3);
+
+        complete(executedActions.get(0));
+        assertThat(executedActions).hasSize(3);
+        assertThat(queue.getQueueSize()).isEqualTo(2);
+    }
+
+    @Test
+    public void testActionsForSamePolicyAreCoalesced() {
+        AppScaleAction first = createAction("job1", "policy1");
+        AppScaleAction second = createAction("job1", "policy1");
+        AppScaleAction third = deleteAction("job1", "policy1");
+
+        queue.add(first);
+        queue.add(second);
+        queue.add(third);
+
+        // The first action is running, and only the last one of the next two is kept
+        assertThat(executedActions).containsExactly(first);
+        assertThat(queue.getQueueSize()).isEqualTo(1);
+
+        complete(first);
+        assertThat(executedActions).containsExactly(first, third);
+        assertThat(registry.counter("titus.appScale.actionQueue.coalesced").count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testTargetUpdatesAreCoalescedPerJob() {
+        queue.add(createAction("job1", "policy1"));
+        queue.add(createAction("job2", "policy2"));
+        for (int i = 0; i < 3; i++) {
+            queue.add(AppScaleAction.newBuilder().buildUpdateTargetAction("job3", "policy" + i));
+        }
+        assertThat(queue.getQueueSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void testThrottlingPausesExecution() {
+        AppScaleAction first = createAction("job1", "policy1");
+        AppScaleAction second = createAction("job2", "policy2");
+        AppScaleAction third = createAction("job3", "policy3");
+
+        queue.add(first);
+        queue.add(second);
+        queue.add(third);
+        runningActions.get(first).onError(AutoScalePolicyException.errorCreatingPolicy("policy1", THROTTLING_MESSAGE));
+
+        // The throttled action is put back into the queue, and nothing new is started until the backoff time passes
+        assertThat(executedActions).containsExactly(first, second);
+        assertThat(queue.getQueueSize()).isEqualTo(2);
+        assertThat(registry.counter("titus.appScale.actionQueue.throttled").count()).isEqualTo(1);
+
+        testScheduler.advanceTimeBy(999, TimeUnit.MILLISECONDS);
+        assertThat(executedActions).containsExactly(first, second);
+
+        testScheduler.advanceTimeBy(1, TimeUnit.MILLISECONDS);
+        assertThat(executedActions).containsExactly(first, second, third);
+
+        complete(second);
+        assertThat(executedActions).containsExactly(first, second, third, first);
+        assertThat(queue.getQueueSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void testThrottlingErrorDetection() {
+        assertThat(AppScaleActionQueue.isThrottlingError(new RuntimeException(AutoScalePolicyException.errorCreatingAlarm("policy1", THROTTLING_MESSAGE)))).isTrue();
+        assertThat(AppScaleActionQueue.isThrottlingError(AutoScalePolicyException.errorCreatingAlarm("policy1", "Invalid alarm"))).isFalse();
+    }
+
+    private Completable execute(AppScaleAction action) {
+        executedActions.add(action);
+        PublishSubject<Void> subject = PublishSubject.create();
+        runningActions.put(action, subject);
+        return subject.toCompletable();
+    }
+
+    private void complete(AppScaleAction action) {
+        runningActions.get(action).onCompleted();
+    }
+
+    private static AppScaleAction createAction(String jobId, String policyRefId) {
+        return AppScaleAction.newBuilder().buildCreatePolicyAction(jobId, newPolicy(jobId, policyRefId));
+    }
+
+    private static AppScaleAction deleteAction(String jobId, String policyRefId) {
+        return AppScaleAction.newBuilder().buildDeletePolicyAction(jobId, newPolicy(jobId, policyRefId));
+    }
+
+    private static AutoScalingPolicy newPolicy(String jobId, String policyRefId) {
+        return AutoScalingPolicy.newBuilder()
+                .withAutoScalingPolicy(AutoScalingPolicyTests.buildTargetTrackingPolicy(jobId))
+                .withRefId(policyRefId)
+                .build();
+    }
+}
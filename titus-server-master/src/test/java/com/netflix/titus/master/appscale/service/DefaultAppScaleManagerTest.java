@@ -20,15 +20,19 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import com.netflix.spectator.api.DefaultRegistry;
 import com.netflix.titus.api.appscale.model.AutoScalableTarget;
 import com.netflix.titus.api.appscale.model.AutoScalingPolicy;
+import com.netflix.titus.api.appscale.model.PolicyConfiguration;
+import com.netflix.titus.api.appscale.model.PolicyStatus;
 import com.netflix.titus.api.appscale.model.PolicyType;
 import com.netflix.titus.api.appscale.service.AutoScalePolicyException;
 import com.netflix.titus.api.jobmanager.model.job.Capacity;
@@ -297,6 +301,106 @@ public class DefaultAppScaleManagerTest {
         await().timeout(30, TimeUnit.SECONDS).until(() -> mockAppAutoScalingClient.getNumPolicies() == totalJobs);
     }
 
+    @Test
+    public void checkBulkPolicyCreationsWithAwsThrottling() {
+        SimulatedThrottlingAppAutoScalingClient appAutoScalingClient = new SimulatedThrottlingAppAutoScalingClient(50);
+        InMemoryPolicyStore policyStore = new InMemoryPolicyStore();
+        DefaultRegistry registry = new DefaultRegistry();
+
+        final int totalJobs = 2_000;
+        List<String> jobIds = new ArrayList<>(totalJobs);
+        for (int i = 0; i < totalJobs; i++) {
+            jobIds.add(UUID.randomUUID().toString());
+        }
+
+        DefaultAppScaleManager appScaleManager = new DefaultAppScaleManager(policyStore,
+                new AutoScalingPolicyTests.MockAlarmClient(),
+                appAutoScalingClient,
+                mockV3OperationsForJobs(jobIds),
+                registry,
+                AutoScalingPolicyTests.mockAppScaleManagerConfiguration(),
+                Schedulers.computation(),
+                mock(TitusRuntime.class));
+
+        for (String jobId : jobIds) {
+            appScaleManager.createAutoScalingPolicy(AutoScalingPolicyTests.buildStepScalingPolicy(jobId)).subscribe();
+        }
+
+        await().timeout(60, TimeUnit.SECONDS).until(() ->
+                policyStore.retrievePolicies(false).filter(policy -> policy.getStatus() == PolicyStatus.Applied).count().toBlocking().first() == totalJobs
+        );
+
+        Assertions.assertThat(appAutoScalingClient.getCreatedPolicyCount()).isEqualTo(totalJobs);
+        Assertions.assertThat(appAutoScalingClient.getMaxConcurrentCalls()).isLessThanOrEqualTo(8);
+        Assertions.assertThat(registry.counter("titus.appScale.actionQueue.throttled").count()).isGreaterThan(0);
+        Assertions.assertThat(registry.timer("titus.appScale.actionQueue.convergenceTime", "actionType", "CREATE_SCALING_POLICY").count())
+                .isEqualTo(totalJobs);
+
+        appScaleManager.shutdown();
+    }
+
+    /**
+     * Allows a fixed number of calls in each 100ms window, and fails the others the same way as the AWS client
+     * does for a throttled request. Each scaling policy update takes 1ms.
+     */
+    private static class SimulatedThrottlingAppAutoScalingClient extends AutoScalingPolicyTests.MockAppAutoScalingClient {
+
+        private static final String THROTTLING_MESSAGE = "Rate exceeded (Service: AWSApplicationAutoScaling; Status Code: 400; Error Code: ThrottlingException)";
+        private static final long WINDOW_MS = 100;
+
+        private final int callsPerWindow;
+
+        private long windowStart;
+        private int callsInWindow;
+
+        private final Set<String> createdPolicies = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger concurrentCalls = new AtomicInteger();
+        private final AtomicInteger maxConcurrentCalls = new AtomicInteger();
+
+        private SimulatedThrottlingAppAutoScalingClient(int callsPerWindow) {
+            this.callsPerWindow = callsPerWindow;
+        }
+
+        int getCreatedPolicyCount() {
+            return createdPolicies.size();
+        }
+
+        int getMaxConcurrentCalls() {
+            return maxConcurrentCalls.get();
+        }
+
+        @Override
+        public Completable createScalableTarget(String jobId, int minCapacity, int maxCapacity) {
+            if (!tryCall()) {
+                return Completable.error(AutoScalePolicyException.errorCreatingTarget(null, jobId, THROTTLING_MESSAGE));
+            }
+            return super.createScalableTarget(jobId, minCapacity, maxCapacity);
+        }
+
+        @Override
+        public Observable<String> createOrUpdateScalingPolicy(String policyRefId, String jobId, PolicyConfiguration policyConfiguration) {
+            if (!tryCall()) {
+                return Observable.error(AutoScalePolicyException.errorCreatingPolicy(policyRefId, THROTTLING_MESSAGE));
+            }
+            return Observable.timer(1, TimeUnit.MILLISECONDS)
+                    .map(tick -> {
+                        createdPolicies.add(policyRefId);
+                        return "policyARN/" + policyRefId;
+                    })
+                    .doOnSubscribe(() -> maxConcurrentCalls.accumulateAndGet(concurrentCalls.incrementAndGet(), Math::max))
+                    .doOnTerminate(concurrentCalls::decrementAndGet);
+        }
+
+        private synchronized boolean tryCall() {
+            long now = System.currentTimeMillis();
+            if (now - windowStart >= WINDOW_MS) {
+                windowStart = now;
+                callsInWindow = 0;
+            }
+            return ++callsInWindow <= callsPerWindow;
+        }
+    }
+
     public static class AppScaleClientWithScalingPolicyConstraints extends AutoScalingPolicyTests.MockAppAutoScalingClient {
 
         Map<String, JobScalingConstraints> scalingPolicyConstraints;
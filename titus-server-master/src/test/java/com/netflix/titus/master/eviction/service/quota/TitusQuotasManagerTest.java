@@ -0,0 +1,199 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.eviction.service.quota;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.netflix.titus.api.eviction.model.SystemDisruptionBudget;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.model.FixedIntervalTokenBucketRefillPolicy;
+import com.netflix.titus.api.model.TokenBucketPolicy;
+import com.netflix.titus.api.model.reference.Reference;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.common.util.time.Clocks;
+import com.netflix.titus.common.util.time.TestClock;
+import com.netflix.titus.master.eviction.service.quota.job.SelfJobDisruptionBudgetResolver;
+import com.netflix.titus.master.eviction.service.quota.system.SystemDisruptionBudgetResolver;
+import com.netflix.titus.master.eviction.service.quota.system.SystemQuotaController;
+import com.netflix.titus.testkit.model.job.JobComponentStub;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+import static com.jayway.awaitility.Awaitility.await;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.budget;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.newBatchJob;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.perTaskRelocationLimitPolicy;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.ratePerInterval;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class TitusQuotasManagerTest {
+
+    private static final int THREADS = 32;
+    private static final int REQUESTS_PER_THREAD = 200;
+
+    private final TestClock clock = Clocks.testWorldClock("PST").jumpForwardTo(DayOfWeek.MONDAY).resetTime(9, 0, 0);
+
+    private final TitusRuntime titusRuntime = TitusRuntimes.test(clock);
+
+    private final JobComponentStub jobComponentStub = new JobComponentStub(titusRuntime);
+
+    private final SystemDisruptionBudgetResolver systemBudgetResolver = mock(SystemDisruptionBudgetResolver.class);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+
+    private SystemQuotaController systemQuotaController;
+    private TitusQuotasManager quotasManager;
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        if (quotasManager != null) {
+            quotasManager.shutdown();
+        }
+        if (systemQuotaController != null) {
+            systemQuotaController.shutdown();
+        }
+    }
+
+    @Test
+    public void testUnknownJob() {
+        newQuotasManager(1_000);
+        Job<BatchJobExt> job = newBatchJob(1, budget(perTaskRelocationLimitPolicy(1_000), ratePerInterval(60_000, 5), Collections.emptyList()));
+
+        ConsumptionResult result = quotasManager.tryConsumeQuota(job, JobGenerator.oneBatchTask());
+        assertThat(result.isApproved()).isFalse();
+        assertThat(result.getRejectionReason()).contains("Unknown job");
+        assertThat(systemQuotaController.getQuota(Reference.system()).getQuota()).isEqualTo(1_000);
+    }
+
+    @Test(timeout = 60_000)
+    public void testConcurrentJobQuotaConsumption() throws Exception {
+        newQuotasManager(1_000_000);
+        List<Job<?>> jobs = scheduleJobs(16, 5);
+
+        AtomicInteger[] approvedByJob = runConcurrently(jobs);
+
+        for (AtomicInteger approved : approvedByJob) {
+            assertThat(approved.get()).isEqualTo(5);
+        }
+        // Tokens consumed for rejected job requests must be returned
+        assertThat(systemQuotaController.getQuota(Reference.system()).getQuota()).isEqualTo(1_000_000 - 16 * 5);
+    }
+
+    @Test(timeout = 60_000)
+    public void testConcurrentSystemQuotaConsumption() throws Exception {
+        newQuotasManager(20);
+        List<Job<?>> jobs = scheduleJobs(16, 1_000);
+
+        AtomicInteger[] approvedByJob = runConcurrently(jobs);
+
+        int total = 0;
+        for (AtomicInteger approved : approvedByJob) {
+            total += approved.get();
+        }
+        assertThat(total).isEqualTo(20);
+        assertThat(systemQuotaController.getQuota(Reference.system()).getQuota()).isEqualTo(0);
+    }
+
+    private AtomicInteger[] runConcurrently(List<Job<?>> jobs) throws Exception {
+        AtomicInteger[] approvedByJob = new AtomicInteger[jobs.size()];
+        List<Task> firstTasks = new ArrayList<>();
+        for (int i = 0; i < jobs.size(); i++) {
+            approvedByJob[i] = new AtomicInteger();
+            firstTasks.add(jobComponentStub.getJobOperations().getTasks(jobs.get(i).getId()).get(0));
+        }
+
+        CountDownLatch startLatch = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            int threadIdx = t;
+            futures.add(executor.submit(() -> {
+                startLatch.await();
+                for (int r = 0; r < REQUESTS_PER_THREAD; r++) {
+                    int jobIdx = (threadIdx + r) % jobs.size();
+                    if (quotasManager.tryConsumeQuota(jobs.get(jobIdx), firstTasks.get(jobIdx)).isApproved()) {
+                        approvedByJob[jobIdx].incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        startLatch.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        return approvedByJob;
+    }
+
+    private void newQuotasManager(long systemQuota) {
+        // One time refill in a long interval, so the available system quota is fixed for the test duration.
+        SystemDisruptionBudget systemBudget = SystemDisruptionBudget.newBuilder()
+                .withReference(Reference.system())
+                .withTokenBucketDescriptor(TokenBucketPolicy.newBuilder()
+                        .withInitialNumberOfTokens(0)
+                        .withCapacity(systemQuota)
+                        .withRefillPolicy(FixedIntervalTokenBucketRefillPolicy.newBuilder()
+                                .withNumberOfTokensPerInterval(systemQuota)
+                                .withIntervalMs(TimeUnit.HOURS.toMillis(24))
+                                .build()
+                        )
+                        .build()
+                )
+                .withTimeWindows(Collections.emptyList())
+                .build();
+        when(systemBudgetResolver.resolve()).thenReturn(Flux.just(systemBudget).concatWith(Flux.never()));
+
+        this.systemQuotaController = new SystemQuotaController(systemBudgetResolver, titusRuntime);
+        this.quotasManager = new TitusQuotasManager(
+                jobComponentStub.getJobOperations(),
+                SelfJobDisruptionBudgetResolver.getInstance(),
+                jobComponentStub.getContainerHealthService(),
+                systemQuotaController,
+                titusRuntime
+        );
+        quotasManager.enterActiveMode();
+    }
+
+    private List<Job<?>> scheduleJobs(int count, int evictionsPerInterval) {
+        List<Job<?>> jobs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Job<BatchJobExt> job = newBatchJob(2, budget(perTaskRelocationLimitPolicy(1_000), ratePerInterval(60_000, evictionsPerInterval), Collections.emptyList()));
+            jobComponentStub.createJob(job);
+            jobComponentStub.createDesiredTasks(job).forEach(task -> jobComponentStub.moveTaskToState(task, TaskState.Started));
+            jobs.add(job);
+        }
+        jobs.forEach(job -> await().until(() -> quotasManager.findEvictionQuota(Reference.job(job.getId())).isPresent()));
+        return jobs;
+    }
+}
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.eviction.service.quota.job;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import com.netflix.titus.api.containerhealth.model.ContainerHealthState;
+import com.netflix.titus.api.containerhealth.model.ContainerHealthStatus;
+import com.netflix.titus.api.containerhealth.model.event.ContainerHealthEvent;
+import com.netflix.titus.api.containerhealth.service.ContainerHealthService;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.disruptionbudget.ContainerHealthProvider;
+import com.netflix.titus.api.jobmanager.model.job.disruptionbudget.DisruptionBudget;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.jobmanager.service.JobManagerConstants;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.testkit.model.job.JobComponentStub;
+import org.junit.After;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.budget;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.exceptBudget;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.newBatchJob;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.numberOfHealthyPolicy;
+import static com.netflix.titus.testkit.model.eviction.DisruptionBudgetGenerator.unlimitedRate;
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JobHealthCountersTest {
+
+    private final TitusRuntime titusRuntime = TitusRuntimes.test();
+
+    private final JobComponentStub jobComponentStub = new JobComponentStub(titusRuntime);
+
+    private final V3JobOperations jobOperations = jobComponentStub.getJobOperations();
+
+    private final JobHealthCounters jobHealthCounters = new JobHealthCounters(jobOperations, jobComponentStub.getContainerHealthService());
+
+    @After
+    public void tearDown() {
+        jobHealthCounters.shutdown();
+    }
+
+    @Test
+    public void testCountersFollowTaskAndHealthEvents() {
+        Job<BatchJobExt> job = newBatchJob(4, budget(numberOfHealthyPolicy(1), unlimitedRate(), Collections.emptyList()));
+        List<Task> tasks = jobComponentStub.createJobAndTasks(job).getRight();
+
+        // Initial load, with no task started yet
+        assertThat(jobHealthCounters.getHealthyCount(job.getId())).isEqualTo(0);
+
+        tasks.forEach(task -> jobComponentStub.moveTaskToState(task, TaskState.Started));
+        assertThat(jobHealthCounters.getHealthyCount(job.getId())).isEqualTo(4);
+
+        jobComponentStub.changeContainerHealth(tasks.get(0).getId(), ContainerHealthState.Unhealthy);
+        assertThat(jobHealthCounters.getHealthyCount(job.getId())).isEqualTo(3);
+
+        jobComponentStub.changeContainerHealth(tasks.get(0).getId(), ContainerHealthState.Healthy);
+        assertThat(jobHealthCounters.getHealthyCount(job.getId())).isEqualTo(4);
+
+        // Killed task is replaced with a new one, which is not started yet
+        jobComponentStub.killTask(tasks.get(1), false, false, V3JobOperations.Trigger.Eviction);
+        assertThat(jobHealthCounters.getHealthyCount(job.getId())).isEqualTo(3);
+    }
+
+    @Test
+    public void testMovedTaskIsCountedInTargetJobOnly() {
+        Job<BatchJobExt> sourceJob = newBatchJob(2, budget(numberOfHealthyPolicy(1), unlimitedRate(), Collections.emptyList()));
+        List<Task> sourceTasks = jobComponentStub.createJobAndTasks(sourceJob).getRight();
+        sourceTasks.forEach(task -> jobComponentStub.moveTaskToState(task, TaskState.Started));
+
+        Job<BatchJobExt> targetJob = newBatchJob(1, budget(numberOfHealthyPolicy(1), unlimitedRate(), Collections.emptyList()));
+        List<Task> targetTasks = jobComponentStub.createJobAndTasks(targetJob).getRight();
+        targetTasks.forEach(task -> jobComponentStub.moveTaskToState(task, TaskState.Started));
+
+        assertThat(jobHealthCounters.getHealthyCount(sourceJob.getId())).isEqualTo(2);
+        assertThat(jobHealthCounters.getHealthyCount(targetJob.getId())).isEqualTo(1);
+
+        jobOperations.moveServiceTask(sourceJob.getId(), targetJob.getId(), sourceTasks.get(0).getId(), JobManagerConstants.UNDEFINED_CALL_METADATA)
+                .toCompletable()
+                .await();
+
+        assertThat(jobHealthCounters.getHealthyCount(sourceJob.getId())).isEqualTo(1);
+        assertThat(jobHealthCounters.getHealthyCount(targetJob.getId())).isEqualTo(2);
+
+        // Health changes of the moved task are applied to the target job only
+        jobComponentStub.changeContainerHealth(sourceTasks.get(0).getId(), ContainerHealthState.Unhealthy);
+        assertThat(jobHealthCounters.getHealthyCount(sourceJob.getId())).isEqualTo(1);
+        assertThat(jobHealthCounters.getHealthyCount(targetJob.getId())).isEqualTo(1);
+    }
+
+    @Test
+    public void testNotHealthyReport() {
+        Job<BatchJobExt> job = newBatchJob(2, budget(numberOfHealthyPolicy(1), unlimitedRate(), Collections.emptyList()));
+        List<Task> tasks = jobComponentStub.createJobAndTasks(job).getRight();
+
+        jobComponentStub.moveTaskToState(tasks.get(0), TaskState.Started);
+        jobComponentStub.changeContainerHealth(tasks.get(0).getId(), ContainerHealthState.Unhealthy);
+
+        String report = jobHealthCounters.buildNotHealthyReport(job.getId());
+        assertThat(report).contains("total=2");
+        assertThat(report).contains(tasks.get(0).getId() + "=unhealthy");
+        assertThat(report).contains(tasks.get(1).getId() + "=Not started");
+    }
+
+    @Test
+    public void testUnknownJob() {
+        assertThat(jobHealthCounters.getHealthyCount("missingJobId")).isEqualTo(0);
+    }
+
+    @Test
+    public void testTaskFinishedDuringHealthEventProcessingIsNotCounted() {
+        Job<BatchJobExt> job = newBatchJob(2, budget(numberOfHealthyPolicy(1), unlimitedRate(), Collections.emptyList()));
+        List<Task> tasks = jobComponentStub.createJobAndTasks(job).getRight();
+        tasks.forEach(task -> jobComponentStub.moveTaskToState(task, TaskState.Started));
+
+        ProviderAwareHealthService healthService = new ProviderAwareHealthService();
+        JobHealthCounters counters = new JobHealthCounters(jobOperations, healthService);
+        try {
+            assertThat(counters.getHealthyCount(job.getId())).isEqualTo(2);
+
+            // The task finishes after the health event handler read it as started, but before it stored the result
+            String taskId = tasks.get(0).getId();
+            healthService.onNextLookup = () -> jobComponentStub.moveTaskToState(taskId, TaskState.Finished);
+            jobComponentStub.changeContainerHealth(taskId, ContainerHealthState.Healthy);
+
+            assertThat(healthService.onNextLookup).isNull();
+            assertThat(counters.getHealthyCount(job.getId())).isEqualTo(1);
+        } finally {
+            counters.shutdown();
+        }
+    }
+
+    @Test
+    public void testCountersRecomputedWhenHealthProvidersChange() {
+        DisruptionBudget budget = budget(numberOfHealthyPolicy(1), unlimitedRate(), Collections.emptyList()).toBuilder()
+                .withContainerHealthProviders(Collections.singletonList(ContainerHealthProvider.named("test")))
+                .build();
+        Job<BatchJobExt> job = newBatchJob(2, budget);
+        List<Task> tasks = jobComponentStub.createJobAndTasks(job).getRight();
+        tasks.forEach(task -> jobComponentStub.moveTaskToState(task, TaskState.Started));
+
+        JobHealthCounters counters = new JobHealthCounters(jobOperations, new ProviderAwareHealthService());
+        try {
+            jobComponentStub.changeContainerHealth(tasks.get(0).getId(), ContainerHealthState.Unhealthy);
+            assertThat(counters.getHealthyCount(job.getId())).isEqualTo(1);
+
+            // Without health providers, all started tasks are healthy
+            Job<?> currentJob = jobOperations.getJob(job.getId()).get();
+            jobComponentStub.changeJob(exceptBudget(currentJob, budget.toBuilder().withContainerHealthProviders(Collections.emptyList()).build()));
+            assertThat(counters.getHealthyCount(job.getId())).isEqualTo(2);
+        } finally {
+            counters.shutdown();
+        }
+    }
+
+    /**
+     * Health service which, similarly to the aggregating one, treats all started tasks as healthy if the job has no
+     * container health providers configured.
+     */
+    private class ProviderAwareHealthService implements ContainerHealthService {
+
+        private final ContainerHealthService delegate = jobComponentStub.getContainerHealthService();
+
+        private volatile Runnable onNextLookup;
+
+        @Override
+        public String getName() {
+            return "providerAware";
+        }
+
+        @Override
+        public Optional<ContainerHealthStatus> findHealthStatus(String taskId) {
+            Optional<ContainerHealthStatus> result = jobOperations.findTaskById(taskId).flatMap(jobAndTask -> {
+                boolean noProviders = jobAndTask.getLeft().getJobDescriptor().getDisruptionBudget().getContainerHealthProviders().isEmpty();
+                return noProviders && jobAndTask.getRight().getStatus().getState() == TaskState.Started
+                        ? Optional.of(ContainerHealthStatus.healthy(taskId, 0))
+                        : delegate.findHealthStatus(taskId);
+            });
+            Runnable action = onNextLookup;
+            if (action != null) {
+                onNextLookup = null;
+                action.run();
+            }
+            return result;
+        }
+
+        @Override
+        public Flux<ContainerHealthEvent> events(boolean snapshot) {
+            return delegate.events(snapshot);
+        }
+    }
+}
@@ -23,7 +23,6 @@ import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-import com.netflix.titus.api.containerhealth.service.ContainerHealthService;
 import com.netflix.titus.api.jobmanager.model.job.Job;
 import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
 import com.netflix.titus.api.jobmanager.model.job.Task;
@@ -70,7 +69,7 @@ public class JobQuotaControllerTest {
 
     private final V3JobOperations jobOperations = jobComponentStub.getJobOperations();
 
-    private final ContainerHealthService containerHealthService = jobComponentStub.getContainerHealthService();
+    private final JobHealthCounters jobHealthCounters = new JobHealthCounters(jobOperations, jobComponentStub.getContainerHealthService());
 
     @Test
     public void testBuildQuotaTrackers() {
@@ -112,7 +111,7 @@ public class JobQuotaControllerTest {
     }
 
     private void testBuildQuotaTrackers(Job<?> job, EffectiveJobDisruptionBudgetResolver fallback, Class<?>... expectedTypes) {
-        List<QuotaTracker> trackers = buildQuotaTrackers(job, jobOperations, fallback, containerHealthService, titusRuntime);
+        List<QuotaTracker> trackers = buildQuotaTrackers(job, jobOperations, fallback, jobHealthCounters, titusRuntime);
         checkContains(trackers, expectedTypes);
     }
 
@@ -249,7 +248,7 @@ public class JobQuotaControllerTest {
         com.netflix.titus.api.model.reference.Reference jobReference = com.netflix.titus.api.model.reference.Reference.job(job.getId());
 
         scheduleJob(job, 10);
-        JobQuotaController jobController = new JobQuotaController(job, jobOperations, SelfJobDisruptionBudgetResolver.getInstance(), containerHealthService, titusRuntime);
+        JobQuotaController jobController = new JobQuotaController(job, jobOperations, SelfJobDisruptionBudgetResolver.getInstance(), jobHealthCounters, titusRuntime);
 
         assertThat(jobController.getQuota(jobReference).getQuota()).isEqualTo(2);
 
@@ -263,7 +262,7 @@ public class JobQuotaControllerTest {
         com.netflix.titus.api.model.reference.Reference jobReference = com.netflix.titus.api.model.reference.Reference.job(job.getId());
 
         scheduleJob(job, 10);
-        JobQuotaController jobController = new JobQuotaController(job, jobOperations, SelfJobDisruptionBudgetResolver.getInstance(), containerHealthService, titusRuntime);
+        JobQuotaController jobController = new JobQuotaController(job, jobOperations, SelfJobDisruptionBudgetResolver.getInstance(), jobHealthCounters, titusRuntime);
 
         assertThat(jobController.getQuota(jobReference).getQuota()).isEqualTo(2);
 
@@ -283,7 +282,7 @@ public class JobQuotaControllerTest {
         com.netflix.titus.api.model.reference.Reference jobReference = com.netflix.titus.api.model.reference.Reference.job(job.getId());
 
         scheduleJob(job, 10);
-        JobQuotaController jobController = new JobQuotaController(job, jobOperations, SelfJobDisruptionBudgetResolver.getInstance(), containerHealthService, titusRuntime);
+        JobQuotaController jobController = new JobQuotaController(job, jobOperations, SelfJobDisruptionBudgetResolver.getInstance(), jobHealthCounters, titusRuntime);
 
         assertThat(jobController.getQuota(jobReference).getQuota()).isEqualTo(2);
 
@@ -333,7 +332,7 @@ public class JobQuotaControllerTest {
         scheduleJob(job, 10);
 
         EffectiveJobDisruptionBudgetResolver budgetResolver = j -> budget(perTaskRelocationLimitPolicy(100), hourlyRatePercentage(5), singletonList(officeHourTimeWindow()));
-        JobQuotaController jobController = new JobQuotaController(job, jobOperations, budgetResolver, containerHealthService, titusRuntime);
+        JobQuotaController jobController = new JobQuotaController(job, jobOperations, budgetResolver, jobHealthCounters, titusRuntime);
 
         assertThat(jobController.getQuota(jobReference).getQuota()).isEqualTo(1);
 
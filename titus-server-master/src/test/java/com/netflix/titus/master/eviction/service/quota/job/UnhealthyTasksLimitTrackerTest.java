@@ -48,6 +48,8 @@ public class UnhealthyTasksLimitTrackerTest {
 
     private final V3JobOperations jobOperations = jobComponentStub.getJobOperations();
 
+    private final JobHealthCounters jobHealthCounters = new JobHealthCounters(jobOperations, jobComponentStub.getContainerHealthService());
+
     @Test
     public void testComputeHealthyPoolSizeFromPercentage() {
         testComputeHealthyPoolSizeFromPercentage(newBatchJobWithPercentageLimit(0, 80), 0);
@@ -80,8 +82,7 @@ public class UnhealthyTasksLimitTrackerTest {
         UnhealthyTasksLimitTracker tracker = UnhealthyTasksLimitTracker.percentageLimit(
                 job,
                 (AvailabilityPercentageLimitDisruptionBudgetPolicy) job.getJobDescriptor().getDisruptionBudget().getDisruptionBudgetPolicy(),
-                jobOperations,
-                jobComponentStub.getContainerHealthService()
+                jobHealthCounters
         );
         testQuota(tracker, Reference.job(job.getId()));
     }
@@ -92,8 +93,7 @@ public class UnhealthyTasksLimitTrackerTest {
         UnhealthyTasksLimitTracker tracker = UnhealthyTasksLimitTracker.percentageLimit(
                 job,
                 (AvailabilityPercentageLimitDisruptionBudgetPolicy) job.getJobDescriptor().getDisruptionBudget().getDisruptionBudgetPolicy(),
-                jobOperations,
-                jobComponentStub.getContainerHealthService()
+                jobHealthCounters
         );
         Reference jobReference = Reference.job(job.getId());
 
@@ -115,8 +115,7 @@ public class UnhealthyTasksLimitTrackerTest {
         UnhealthyTasksLimitTracker tracker = UnhealthyTasksLimitTracker.absoluteLimit(
                 job,
                 (UnhealthyTasksLimitDisruptionBudgetPolicy) job.getJobDescriptor().getDisruptionBudget().getDisruptionBudgetPolicy(),
-                jobOperations,
-                jobComponentStub.getContainerHealthService()
+                jobHealthCounters
         );
         testQuota(tracker, Reference.job(job.getId()));
     }
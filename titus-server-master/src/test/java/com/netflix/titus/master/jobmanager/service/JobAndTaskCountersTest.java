@@ -0,0 +1,154 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.jobmanager.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import com.netflix.titus.api.jobmanager.TaskAttributes;
+import com.netflix.titus.api.jobmanager.model.job.Capacity;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
+import com.netflix.titus.api.jobmanager.model.job.event.JobManagerEvent;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.api.jobmanager.model.job.ext.ServiceJobExt;
+import com.netflix.titus.api.jobmanager.service.JobManagerConstants;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.master.jobmanager.service.JobAndTaskCounters.Counter;
+import com.netflix.titus.testkit.model.job.JobComponentStub;
+import com.netflix.titus.testkit.model.job.JobDescriptorGenerator;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import rx.Subscription;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class JobAndTaskCountersTest {
+
+    private final TitusRuntime titusRuntime = TitusRuntimes.test();
+
+    private final JobComponentStub jobComponentStub = new JobComponentStub(titusRuntime);
+
+    private final V3JobOperations jobOperations = jobComponentStub.getJobOperations();
+
+    private final List<JobManagerEvent<?>> recordedEvents = new ArrayList<>();
+
+    private Subscription eventSubscription;
+
+    @Before
+    public void setUp() {
+        this.eventSubscription = jobOperations.observeJobs().subscribe(recordedEvents::add);
+    }
+
+    @After
+    public void tearDown() {
+        eventSubscription.unsubscribe();
+    }
+
+    @Test
+    public void testReplayedEventsMatchFullRecount() {
+        Job<BatchJobExt> batchJob = JobGenerator.batchJobsOfSize(3).getValue();
+        List<Task> batchTasks = jobComponentStub.createJobAndTasks(batchJob).getRight();
+        Job<ServiceJobExt> serviceJob = JobGenerator.serviceJobs(JobDescriptorGenerator.oneTaskServiceJobDescriptor()).getValue();
+        List<Task> serviceTasks = jobComponentStub.createJobAndTasks(serviceJob).getRight();
+        Job<ServiceJobExt> emptyJob = JobGenerator.serviceJobs(JobDescriptorGenerator.oneTaskServiceJobDescriptor()).getValue();
+        jobComponentStub.createJobAndTasks(emptyJob);
+
+        assertCountersMatchRecount();
+        assertThat(replay().get(Counter.BatchJobsOwnedByFenzo)).isEqualTo(1);
+        assertThat(replay().get(Counter.TasksOwnedByFenzo)).isEqualTo(5);
+
+        // Kube scheduler ownership of a single task changes the job category
+        markOwnedByKubeScheduler(serviceTasks.get(0), true);
+        markOwnedByKubeScheduler(batchTasks.get(0), false);
+        assertCountersMatchRecount();
+        assertThat(replay().get(Counter.ServiceJobsOwnedByKubeScheduler)).isEqualTo(1);
+        assertThat(replay().get(Counter.BatchJobsOwnedByKubeScheduler)).isEqualTo(1);
+        assertThat(replay().get(Counter.TasksWithPodCreated)).isEqualTo(1);
+        assertThat(replay().get(Counter.TasksWithoutPodCreated)).isEqualTo(1);
+
+        batchTasks.forEach(task -> jobComponentStub.moveTaskToState(task.getId(), TaskState.Started));
+        jobComponentStub.killTask(serviceTasks.get(0), false, false, V3JobOperations.Trigger.API);
+        assertCountersMatchRecount();
+
+        // Scaling down to zero moves the job to the empty job category
+        Job<ServiceJobExt> currentEmptyJob = (Job<ServiceJobExt>) jobOperations.getJob(emptyJob.getId()).get();
+        jobComponentStub.changeJob(JobFunctions.changeServiceJobCapacity(currentEmptyJob, Capacity.newBuilder().withMin(0).withDesired(0).withMax(1).build()));
+        assertCountersMatchRecount();
+        assertThat(replay().get(Counter.EmptyJobs)).isEqualTo(1);
+
+        jobComponentStub.moveJobToKillInitiatedState(jobOperations.getJob(batchJob.getId()).get());
+        batchTasks.forEach(task -> jobComponentStub.forget(jobComponentStub.moveTaskToState(task.getId(), TaskState.Finished)));
+        jobComponentStub.finishJob(jobOperations.getJob(batchJob.getId()).get());
+        assertCountersMatchRecount();
+        assertThat(replay().get(Counter.BatchJobsOwnedByKubeScheduler)).isEqualTo(0);
+        assertThat(replay().get(Counter.BatchJobsOwnedByFenzo)).isEqualTo(0);
+    }
+
+    @Test
+    public void testReconcileReportsDrift() {
+        Job<BatchJobExt> batchJob = JobGenerator.batchJobsOfSize(2).getValue();
+        jobComponentStub.createJobAndTasks(batchJob);
+
+        // Counters that have not seen any event are behind the recount.
+        JobAndTaskCounters counters = new JobAndTaskCounters();
+        assertThat(counters.reconcile(jobOperations::getJobsAndTasks).get(Counter.TasksOwnedByFenzo)).isEqualTo(2);
+        assertThat(counters.getAll()).isEqualTo(JobAndTaskCounters.recount(jobOperations.getJobsAndTasks()).getAll());
+
+        // After the reconciliation there is no drift.
+        assertThat(counters.reconcile(jobOperations::getJobsAndTasks).values()).containsOnly(0L);
+    }
+
+    private void markOwnedByKubeScheduler(Task task, boolean podCreated) {
+        jobOperations.updateTask(
+                task.getId(),
+                current -> {
+                    Task.TaskBuilder<?, ?> builder = current.toBuilder().addToTaskContext(TaskAttributes.TASK_ATTRIBUTES_OWNED_BY_KUBE_SCHEDULER, "true");
+                    if (podCreated) {
+                        builder.withStatus(TaskStatus.newBuilder()
+                                .withState(TaskState.Accepted)
+                                .withReasonCode(TaskStatus.REASON_POD_CREATED)
+                                .withTimestamp(titusRuntime.getClock().wallTime())
+                                .build()
+                        );
+                    }
+                    return Optional.of(builder.build());
+                },
+                V3JobOperations.Trigger.API,
+                "test",
+                JobManagerConstants.UNDEFINED_CALL_METADATA
+        ).await();
+    }
+
+    private JobAndTaskCounters replay() {
+        JobAndTaskCounters counters = new JobAndTaskCounters();
+        recordedEvents.forEach(counters::apply);
+        return counters;
+    }
+
+    private void assertCountersMatchRecount() {
+        assertThat(replay().getAll()).isEqualTo(JobAndTaskCounters.recount(jobOperations.getJobsAndTasks()).getAll());
+    }
+}
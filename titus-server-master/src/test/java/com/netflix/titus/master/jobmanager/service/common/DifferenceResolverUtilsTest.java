@@ -0,0 +1,111 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.jobmanager.service.common;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import com.netflix.titus.api.jobmanager.TaskAttributes;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobFunctions;
+import com.netflix.titus.api.jobmanager.model.job.ServiceJobTask;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
+import com.netflix.titus.api.jobmanager.model.job.ext.ServiceJobExt;
+import com.netflix.titus.common.framework.reconciler.EntityHolder;
+import com.netflix.titus.common.util.time.Clock;
+import com.netflix.titus.common.util.time.Clocks;
+import com.netflix.titus.master.jobmanager.service.common.DifferenceResolverUtils.JobView;
+import com.netflix.titus.testkit.model.job.JobDescriptorGenerator;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class DifferenceResolverUtilsTest {
+
+    private static final List<TaskState> STATES = Arrays.asList(
+            TaskState.Accepted, TaskState.Launched, TaskState.StartInitiated, TaskState.Started,
+            TaskState.KillInitiated, TaskState.Disconnected, TaskState.Finished
+    );
+
+    private final Clock clock = Clocks.system();
+
+    @Test
+    public void testJobViewSummary() {
+        Job<ServiceJobExt> job = JobGenerator.serviceJobs(JobDescriptorGenerator.oneTaskServiceJobDescriptor()).getValue();
+        List<ServiceJobTask> tasks = JobGenerator.serviceTasks(job).getValues(STATES.size() * 3);
+
+        EntityHolder jobHolder = EntityHolder.newRoot(job.getId(), job);
+        for (int i = 0; i < tasks.size(); i++) {
+            Task task = JobFunctions.changeTaskStatus(tasks.get(i), STATES.get(i % STATES.size()), TaskStatus.REASON_NORMAL, "test", clock);
+            if (i % 2 == 0) {
+                task = task.toBuilder().addToTaskContext(TaskAttributes.TASK_ATTRIBUTES_IP_ALLOCATION_ID, "allocation#" + i).build();
+            }
+            jobHolder = jobHolder.addChild(EntityHolder.newRoot(task.getId(), task));
+        }
+        List<Task> allTasks = jobHolder.getChildren().stream().map(h -> (Task) h.getEntity()).collect(Collectors.toList());
+
+        JobView<ServiceJobExt, ServiceJobTask> view = new JobView<>(jobHolder);
+
+        assertThat(view.getTasks()).hasSize(allTasks.size());
+        assertThat(view.getFinishedCount()).isEqualTo(count(allTasks, TaskState.Finished));
+        assertThat(view.getRunningCount()).isEqualTo(allTasks.stream().filter(t -> TaskState.isRunning(t.getStatus().getState())).count());
+        assertThat(view.getActiveNotStartedTaskIds()).containsOnlyElementsOf(allTasks.stream()
+                .filter(t -> t.getStatus().getState() != TaskState.Started && t.getStatus().getState() != TaskState.Finished)
+                .map(Task::getId)
+                .collect(Collectors.toList())
+        ).hasSize(allTasks.size() - count(allTasks, TaskState.Started) - count(allTasks, TaskState.Finished));
+        assertThat(view.getAssignedIpAllocationIds()).isEqualTo(allTasks.stream()
+                .filter(t -> t.getStatus().getState() != TaskState.Finished)
+                .map(t -> t.getTaskContext().get(TaskAttributes.TASK_ATTRIBUTES_IP_ALLOCATION_ID))
+                .filter(id -> id != null)
+                .collect(Collectors.toSet())
+        );
+        assertThat(view.getTimeoutCandidates()).hasSize(
+                count(allTasks, TaskState.Launched) + count(allTasks, TaskState.StartInitiated) + count(allTasks, TaskState.KillInitiated)
+        );
+
+        assertThat(view.getTaskById(allTasks.get(0).getId())).isEqualTo(allTasks.get(0));
+        assertThat(view.getTaskById("missing")).isNull();
+    }
+
+    @Test
+    public void testCountActiveNotStartedTasks() {
+        Job<ServiceJobExt> job = JobGenerator.serviceJobs(JobDescriptorGenerator.oneTaskServiceJobDescriptor()).getValue();
+        List<ServiceJobTask> tasks = JobGenerator.serviceTasks(job).getValues(3);
+        Task accepted = JobFunctions.changeTaskStatus(tasks.get(0), TaskState.Accepted, TaskStatus.REASON_NORMAL, "test", clock);
+        Task launched = JobFunctions.changeTaskStatus(tasks.get(1), TaskState.Launched, TaskStatus.REASON_NORMAL, "test", clock);
+        Task started = JobFunctions.changeTaskStatus(tasks.get(2), TaskState.Started, TaskStatus.REASON_NORMAL, "test", clock);
+
+        EntityHolder refHolder = EntityHolder.newRoot(job.getId(), job)
+                .addChild(EntityHolder.newRoot(accepted.getId(), accepted))
+                .addChild(EntityHolder.newRoot(started.getId(), started));
+        EntityHolder runningHolder = EntityHolder.newRoot(job.getId(), job)
+                .addChild(EntityHolder.newRoot(accepted.getId(), accepted))
+                .addChild(EntityHolder.newRoot(launched.getId(), launched));
+
+        // The accepted task is in both views, and is counted once
+        assertThat(DifferenceResolverUtils.countActiveNotStartedTasks(new JobView<>(refHolder), new JobView<>(runningHolder))).isEqualTo(2);
+    }
+
+    private static int count(List<Task> tasks, TaskState state) {
+        return (int) tasks.stream().filter(t -> t.getStatus().getState() == state).count();
+    }
+}
@@ -111,6 +111,20 @@ public class ScaleDownEvaluatorTest {
         assertThat(toRemoveGrouped.get("zoneB")).hasSize(4);
     }
 
+    @Test
+    public void testOldestTasksFromLargestGroupsInLargestZonesAreSelected() {
+        ServiceJobTask a1Newest = nextTask("zoneA", "agentA1", TaskState.Started, 300);
+        ServiceJobTask a1Oldest = nextTask("zoneA", "agentA1", TaskState.Started, 100);
+        ServiceJobTask a1Middle = nextTask("zoneA", "agentA1", TaskState.Started, 200);
+        ServiceJobTask a2 = nextTask("zoneA", "agentA2", TaskState.Started, 50);
+        ServiceJobTask b1Newest = nextTask("zoneB", "agentB1", TaskState.Started, 400);
+        ServiceJobTask b1Oldest = nextTask("zoneB", "agentB1", TaskState.Started, 150);
+        List<ServiceJobTask> tasks = asList(a1Newest, a1Oldest, a1Middle, a2, b1Newest, b1Oldest);
+
+        // agentA1 is reduced to the size of agentB1 first, next zoneA (more tasks) is scaled down before zoneB
+        assertThat(doEvaluate(tasks, 3)).containsExactly(a1Oldest, a1Middle, b1Oldest);
+    }
+
     private List<ServiceJobTask> doEvaluate(List<ServiceJobTask> tasks, int expectedSize) {
         List<ServiceJobTask> toRemove = ScaleDownEvaluator.selectTasksToTerminate(tasks, expectedSize, TitusRuntimes.test());
         checkAreForDuplicates(toRemove);
@@ -142,8 +156,12 @@ public class ScaleDownEvaluatorTest {
     }
 
     private ServiceJobTask nextTask(String zoneId, String agentId, TaskState taskState) {
+        return nextTask(zoneId, agentId, taskState, System.currentTimeMillis());
+    }
+
+    private ServiceJobTask nextTask(String zoneId, String agentId, TaskState taskState, long timestamp) {
         ServiceJobTask task = taskDataGenerator.getValue().toBuilder()
-                .withStatus(TaskStatus.newBuilder().withState(taskState).build())
+                .withStatus(TaskStatus.newBuilder().withState(taskState).withTimestamp(timestamp).build())
                 .addAllToTaskContext(ImmutableMap.of(
                         TaskAttributes.TASK_ATTRIBUTES_AGENT_ZONE, zoneId,
                         TaskAttributes.TASK_ATTRIBUTES_AGENT_INSTANCE_ID, agentId
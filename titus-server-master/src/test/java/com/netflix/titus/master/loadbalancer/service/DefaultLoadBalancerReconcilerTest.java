@@ -16,6 +16,7 @@
 
 package com.netflix.titus.master.loadbalancer.service;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -55,6 +56,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.greaterThan;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class DefaultLoadBalancerReconcilerTest {
@@ -459,6 +462,61 @@ public class DefaultLoadBalancerReconcilerTest {
                 ));
     }
 
+    @Test(timeout = TEST_TIMEOUT_MS)
+    public void consistentLoadBalancersAreSkippedUntilFullAudit() {
+        subscriber.unsubscribe();
+        reconciler.shutdown();
+        LoadBalancerConfiguration configuration = mockConfigWithDelay(delayMs);
+        when(configuration.getReconciliationFullAuditIntervalMs()).thenReturn(3 * delayMs);
+        reconciler = new DefaultLoadBalancerReconciler(configuration, store, connector,
+                new LoadBalancerJobOperations(v3JobOperations), () -> reconciliationCount.incrementAndGet(),
+                new NoopRegistry(), testScheduler);
+        subscriber = reconciler.events().test();
+
+        List<Task> tasks = new ArrayList<>(LoadBalancerTests.buildTasksStarted(2, jobId));
+        JobLoadBalancer jobLoadBalancer = new JobLoadBalancer(jobId, loadBalancerId);
+        when(v3JobOperations.getTasks(jobId)).thenReturn(tasks);
+        reset(connector);
+        when(connector.getLoadBalancer(loadBalancerId)).thenReturn(Single.just(new LoadBalancer(
+                loadBalancerId,
+                LoadBalancer.State.ACTIVE,
+                CollectionsExt.asSet("1.1.1.1", "2.2.2.2")
+        )));
+        store.addOrUpdateLoadBalancer(jobLoadBalancer, State.ASSOCIATED).await();
+        store.addOrUpdateTargets(
+                new LoadBalancerTargetState(
+                        new LoadBalancerTarget(loadBalancerId, tasks.get(0).getId(), "1.1.1.1"),
+                        LoadBalancerTarget.State.REGISTERED
+                ),
+                new LoadBalancerTargetState(
+                        new LoadBalancerTarget(loadBalancerId, tasks.get(1).getId(), "2.2.2.2"),
+                        LoadBalancerTarget.State.REGISTERED
+                )
+        ).block();
+
+        // first pass finds the load balancer consistent
+        awaitReconciliationRuns(1);
+        subscriber.assertNotCompleted().assertNoValues();
+        verify(connector, times(1)).getLoadBalancer(loadBalancerId);
+
+        // nothing changed, so the load balancer is not checked again
+        awaitReconciliationRuns(1);
+        subscriber.assertNotCompleted().assertNoValues();
+        verify(connector, times(1)).getLoadBalancer(loadBalancerId);
+
+        // full audit
+        awaitReconciliationRuns(1);
+        subscriber.assertNotCompleted().assertNoValues();
+        verify(connector, times(2)).getLoadBalancer(loadBalancerId);
+
+        // a new task changes the fingerprint
+        tasks.add(LoadBalancerTests.buildTasksStarted(3, jobId).get(2));
+        awaitReconciliationRuns(1);
+        subscriber.assertNotCompleted().assertValueCount(1);
+        assertThat(subscriber.getOnNextEvents().get(0).getIpAddress()).isEqualTo("3.3.3.3");
+        verify(connector, times(3)).getLoadBalancer(loadBalancerId);
+    }
+
     private LoadBalancerConfiguration mockConfigWithDelay(long delayMs) {
         LoadBalancerConfiguration configuration = mock(LoadBalancerConfiguration.class);
         when(configuration.getReconciliationDelayMs()).thenReturn(delayMs);
@@ -17,12 +17,23 @@
 package com.netflix.titus.master.mesos.kubeapiserver;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import io.kubernetes.client.informer.cache.Indexer;
+import io.kubernetes.client.openapi.models.V1Node;
+import io.kubernetes.client.openapi.models.V1Pod;
 import org.apache.mesos.Protos;
 import org.junit.Test;
 
+import static com.netflix.titus.master.mesos.kubeapiserver.KubeInformerIndexesTest.newNode;
+import static com.netflix.titus.master.mesos.kubeapiserver.KubeInformerIndexesTest.newPod;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class KubeApiServerIntegratorTest {
 
@@ -39,4 +50,51 @@ public class KubeApiServerIntegratorTest {
         attributes.add(Protos.Attribute.newBuilder().setName(KubeApiServerIntegrator.NODE_ATTRIBUTE_I_TYPE).setType(Protos.Value.Type.TEXT).build());
         assertThat(KubeApiServerIntegrator.hasRequiredNodeAttributes(attributes)).isTrue();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testOrphanedPodOnNodeNotYetIndexedIsNotCollected() {
+        V1Pod pod = newPod("pod1", "node1", "Running", false);
+        V1Node node = newNode("node1", "True", false);
+
+        // The node is in the informer cache, but its event has not been applied to the index yet.
+        KubeInformerIndexes indexes = new KubeInformerIndexes();
+        indexes.podAddedOrUpdated(pod);
+        assertThat(indexes.getPodsOnUnknownNodes()).hasSize(1);
+
+        Map<String, V1Pod> pods = new HashMap<>();
+        pods.put("pod1", pod);
+        Map<String, V1Node> nodes = new HashMap<>();
+        nodes.put("node1", node);
+
+        assertThat(KubeApiServerIntegrator.findOrphanedPodsWithoutValidNodes(indexes, newCache(pods), newCache(nodes))).isEmpty();
+
+        nodes.remove("node1");
+        assertThat(KubeApiServerIntegrator.findOrphanedPodsWithoutValidNodes(indexes, newCache(pods), newCache(nodes))).containsExactly(pod);
+    }
+
+    @Test
+    public void testIndexCandidatesAreResolvedFromInformerCache() {
+        V1Pod indexedPod = newPod("pod1", "node1", "Running", false);
+        V1Pod cachedPod = newPod("pod1", "node1", "Succeeded", false);
+
+        Map<String, V1Pod> pods = new HashMap<>();
+        pods.put("pod1", cachedPod);
+        List<V1Pod> resolved = KubeApiServerIntegrator.resolveFromInformerCache(
+                Collections.singletonList(indexedPod), V1Pod::getMetadata, newCache(pods)
+        );
+        assertThat(resolved).containsExactly(cachedPod);
+
+        // Pods removed from the informer cache, but still in the index are dropped.
+        pods.clear();
+        assertThat(KubeApiServerIntegrator.resolveFromInformerCache(
+                Collections.singletonList(indexedPod), V1Pod::getMetadata, newCache(pods)
+        )).isEmpty();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Indexer<T> newCache(Map<String, T> objects) {
+        Indexer<T> cache = mock(Indexer.class);
+        when(cache.getByKey(anyString())).thenAnswer(invocation -> objects.get((String) invocation.getArgument(0)));
+        return cache;
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.master.mesos.kubeapiserver;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import com.netflix.archaius.config.DefaultSettableConfig;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.common.util.StringExt;
+import com.netflix.titus.common.util.archaius2.Archaius2Ext;
+import com.netflix.titus.master.mesos.kubeapiserver.KubeInformerIndexes.NodeReadiness;
+import com.netflix.titus.master.mesos.kubeapiserver.client.DefaultKubeApiFacade;
+import com.netflix.titus.master.mesos.kubeapiserver.direct.DirectKubeConfiguration;
+import com.netflix.titus.testkit.embedded.kube.SimulatedKubeApiServer;
+import com.netflix.titus.testkit.embedded.kube.SimulatedKubeConfiguration;
+import com.netflix.titus.testkit.junit.category.IntegrationTest;
+import io.kubernetes.client.informer.ResourceEventHandler;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1Container;
+import io.kubernetes.client.openapi.models.V1Node;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodSpec;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import static com.jayway.awaitility.Awaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs {@link KubeInformerIndexes} on the events of the production informers connected to {@link SimulatedKubeApiServer},
+ * and checks after each change that the index lookups return the same objects as a scan of the informer caches.
+ */
+@Category(IntegrationTest.class)
+public class KubeInformerIndexesIntegrationTest {
+
+    private static final List<String> PHASES = Arrays.asList("Pending", "Running", "Succeeded", "Failed");
+    private static final List<String> TERMINAL_PHASES = Arrays.asList("Succeeded", "Failed");
+
+    private static final long TIMEOUT_SEC = 10;
+
+    private final TitusRuntime titusRuntime = TitusRuntimes.internal();
+
+    private final DefaultSettableConfig config = new DefaultSettableConfig();
+
+    private final KubeInformerIndexes indexes = new KubeInformerIndexes();
+
+    private SimulatedKubeApiServer apiServer;
+    private DefaultKubeApiFacade kubeApiFacade;
+    private CoreV1Api coreV1Api;
+
+    @Before
+    public void setUp() {
+        config.setProperty("titus.simulated.kube.podStartDelayMs", "10");
+        config.setProperty("titus.simulated.kube.podTerminationDelayMs", "10");
+
+        apiServer = new SimulatedKubeApiServer(Archaius2Ext.newConfiguration(SimulatedKubeConfiguration.class, config));
+        apiServer.addNode("node1", "zoneA");
+        apiServer.addNode("node2", "zoneB");
+
+        kubeApiFacade = new DefaultKubeApiFacade(
+                Archaius2Ext.newConfiguration(DirectKubeConfiguration.class),
+                apiServer.newApiClient(titusRuntime),
+                titusRuntime
+        );
+        coreV1Api = kubeApiFacade.getCoreV1Api();
+
+        // Same wiring as in KubeApiServerIntegrator
+        kubeApiFacade.getNodeInformer().addEventHandler(new ResourceEventHandler<V1Node>() {
+            @Override
+            public void onAdd(V1Node node) {
+                indexes.nodeAddedOrUpdated(node);
+            }
+
+            @Override
+            public void onUpdate(V1Node oldNode, V1Node newNode) {
+                indexes.nodeAddedOrUpdated(newNode);
+            }
+
+            @Override
+            public void onDelete(V1Node node, boolean deletedFinalStateUnknown) {
+                indexes.nodeDeleted(node);
+            }
+        });
+        kubeApiFacade.getPodInformer().addEventHandler(new ResourceEventHandler<V1Pod>() {
+            @Override
+            public void onAdd(V1Pod pod) {
+                indexes.podAddedOrUpdated(pod);
+            }
+
+            @Override
+            public void onUpdate(V1Pod oldPod, V1Pod newPod) {
+                indexes.podAddedOrUpdated(newPod);
+            }
+
+            @Override
+            public void onDelete(V1Pod pod, boolean deletedFinalStateUnknown) {
+                indexes.podDeleted(pod);
+            }
+        });
+
+        await().timeout(TIMEOUT_SEC, TimeUnit.SECONDS).until(() ->
+                kubeApiFacade.getNodeInformer().hasSynced() && kubeApiFacade.getPodInformer().hasSynced()
+        );
+    }
+
+    @After
+    public void tearDown() {
+        if (kubeApiFacade != null) {
+            kubeApiFacade.shutdown();
+        }
+        if (apiServer != null) {
+            apiServer.shutdown();
+        }
+    }
+
+    @Test(timeout = 60_000)
+    public void testIndexesFollowInformerEvents() throws Exception {
+        // Pod add and update (the simulator moves new pods to the running state)
+        createPods("pod1", "pod2", "pod3", "pod4");
+        await().timeout(TIMEOUT_SEC, TimeUnit.SECONDS).until(() -> findInformerPods("Running").size() == 4);
+        assertIndexesMatchInformerCaches();
+        assertThat(names(indexes.getPodsInPhase("Running"))).containsExactlyInAnyOrder("pod1", "pod2", "pod3", "pod4");
+
+        // Node update
+        apiServer.setNodeReady("node2", false);
+        await().timeout(TIMEOUT_SEC, TimeUnit.SECONDS).until(() ->
+                KubeInformerIndexes.getNodeReadiness(findInformerNode("node2")) == NodeReadiness.NotReady
+        );
+        assertIndexesMatchInformerCaches();
+        assertThat(nodeNames(indexes.getNodesWithReadiness(NodeReadiness.NotReady))).containsExactly("node2");
+
+        // Pod deletion timestamp set, with the pod removal postponed
+        config.setProperty("titus.simulated.kube.podTerminationDelayMs", "60000");
+        coreV1Api.deleteNamespacedPod("pod1", SimulatedKubeApiServer.NAMESPACE, null, null, 0, null, null, null);
+        await().timeout(TIMEOUT_SEC, TimeUnit.SECONDS).until(() -> {
+            V1Pod pod = findInformerPod("pod1");
+            return pod != null && pod.getMetadata().getDeletionTimestamp() != null;
+        });
+        assertIndexesMatchInformerCaches();
+        assertThat(names(indexes.getPodsWithDeletionTimestamp())).containsExactly("pod1");
+
+        // Pod delete
+        config.setProperty("titus.simulated.kube.podTerminationDelayMs", "10");
+        coreV1Api.deleteNamespacedPod("pod2", SimulatedKubeApiServer.NAMESPACE, null, null, 0, null, null, null);
+        await().timeout(TIMEOUT_SEC, TimeUnit.SECONDS).until(() -> findInformerPod("pod2") == null);
+        assertIndexesMatchInformerCaches();
+        assertThat(indexes.findPod("pod2")).isEmpty();
+
+        // Node delete, which fails its pods, and leaves them assigned to an unknown node
+        apiServer.removeNode("node1");
+        await().timeout(TIMEOUT_SEC, TimeUnit.SECONDS).until(() -> findInformerNode("node1") == null);
+        assertIndexesMatchInformerCaches();
+        assertThat(indexes.hasNode("node1")).isFalse();
+        assertThat(indexes.getPodsOnUnknownNodes()).isNotEmpty();
+    }
+
+    @Test(timeout = 60_000)
+    public void testIndexesFollowInformerRelist() throws Exception {
+        createPods("pod1", "pod2", "pod3", "pod4");
+        await().timeout(TIMEOUT_SEC, TimeUnit.SECONDS).until(() -> findInformerPods("Running").size() == 4);
+        assertIndexesMatchInformerCaches();
+
+        // Disconnect the informers, and make changes they cannot observe with their watches
+        config.setProperty("titus.simulated.kube.listAndWatchFailureProbability", "1.0");
+        apiServer.expireWatches();
+
+        coreV1Api.deleteNamespacedPod("pod1", SimulatedKubeApiServer.NAMESPACE, null, null, 0, null, null, null);
+        createPods("pod5");
+        apiServer.setNodeReady("node2", false);
+        apiServer.removeNode("node1");
+        apiServer.addNode("node3", "zoneC");
+        await().timeout(TIMEOUT_SEC, TimeUnit.SECONDS).until(() ->
+                !apiServer.findPod("pod1").isPresent()
+                        && apiServer.findPod("pod5").map(pod -> "Running".equals(pod.getStatus().getPhase())).orElse(false)
+        );
+        assertThat(findInformerPod("pod1")).isNotNull();
+        assertThat(findInformerNode("node1")).isNotNull();
+
+        // Reconnect, and check that the relist brings the indexes up to date
+        config.setProperty("titus.simulated.kube.listAndWatchFailureProbability", "0");
+        await().timeout(TIMEOUT_SEC, TimeUnit.SECONDS).until(() ->
+                findInformerPod("pod1") == null && findInformerPod("pod5") != null
+                        && findInformerNode("node1") == null && findInformerNode("node3") != null
+        );
+        assertIndexesMatchInformerCaches();
+        assertThat(indexes.findPod("pod1")).isEmpty();
+        assertThat(indexes.findPod("pod5")).isPresent();
+        assertThat(indexes.hasNode("node1")).isFalse();
+        assertThat(indexes.hasNode("node3")).isTrue();
+        assertThat(nodeNames(indexes.getNodesWithReadiness(NodeReadiness.NotReady))).containsExactly("node2");
+    }
+
+    /**
+     * Index updates are delivered by the informer after its cache is updated, so they are awaited first.
+     */
+    private void assertIndexesMatchInformerCaches() {
+        await().timeout(TIMEOUT_SEC, TimeUnit.SECONDS).until(() -> indexView().equals(informerCacheView()));
+        assertThat(indexView()).isEqualTo(informerCacheView());
+    }
+
+    private Map<String, Set<String>> indexView() {
+        Map<String, Set<String>> view = new TreeMap<>();
+        view.put("pods", names(indexes.getPodsNotInPhases(Collections.emptyList())));
+        for (String phase : PHASES) {
+            view.put("phase=" + phase, names(indexes.getPodsInPhase(phase)));
+        }
+        view.put("notTerminal", names(indexes.getPodsNotInPhases(TERMINAL_PHASES)));
+        view.put("deletionTimestamp", names(indexes.getPodsWithDeletionTimestamp()));
+        view.put("unknownNode", names(indexes.getPodsOnUnknownNodes()));
+        for (NodeReadiness readiness : NodeReadiness.values()) {
+            view.put("readiness=" + readiness, nodeNames(indexes.getNodesWithReadiness(readiness)));
+        }
+        return view;
+    }
+
+    private Map<String, Set<String>> informerCacheView() {
+        List<V1Pod> pods = kubeApiFacade.getPodInformer().getIndexer().list();
+        List<V1Node> nodes = kubeApiFacade.getNodeInformer().getIndexer().list();
+        Set<String> nodeNames = nodeNames(nodes);
+
+        Map<String, Set<String>> view = new TreeMap<>();
+        view.put("pods", names(pods));
+        for (String phase : PHASES) {
+            view.put("phase=" + phase, names(pods.stream().filter(pod -> phase.equals(pod.getStatus().getPhase())).collect(Collectors.toList())));
+        }
+        view.put("notTerminal", names(pods.stream().filter(pod -> !KubeUtil.isPodPhaseTerminal(pod.getStatus().getPhase())).collect(Collectors.toList())));
+        view.put("deletionTimestamp", names(pods.stream().filter(pod -> pod.getMetadata().getDeletionTimestamp() != null).collect(Collectors.toList())));
+        view.put("unknownNode", names(pods.stream()
+                .filter(pod -> StringExt.isNotEmpty(pod.getSpec().getNodeName()) && !nodeNames.contains(pod.getSpec().getNodeName()))
+                .collect(Collectors.toList())
+        ));
+        for (NodeReadiness readiness : NodeReadiness.values()) {
+            view.put("readiness=" + readiness, nodeNames(nodes.stream()
+                    .filter(node -> KubeInformerIndexes.getNodeReadiness(node) == readiness)
+                    .collect(Collectors.toList())
+            ));
+        }
+        return view;
+    }
+
+    private void createPods(String... names) throws Exception {
+        for (String name : names) {
+            V1Pod pod = new V1Pod()
+                    .metadata(new V1ObjectMeta().name(name))
+                    .spec(new V1PodSpec().addContainersItem(new V1Container().name(name).image("image:latest")));
+            coreV1Api.createNamespacedPod(SimulatedKubeApiServer.NAMESPACE, pod, null, null, null);
+        }
+    }
+
+    private List<V1Pod> findInformerPods(String phase) {
+        return kubeApiFacade.getPodInformer().getIndexer().list().stream()
+                .filter(pod -> phase.equals(pod.getStatus().getPhase()))
+                .collect(Collectors.toList());
+    }
+
+    private V1Pod findInformerPod(String name) {
+        return kubeApiFacade.getPodInformer().getIndexer().getByKey(SimulatedKubeApiServer.NAMESPACE + "/" + name);
+    }
+
+    private V1Node findInformerNode(String name) {
+        return kubeApiFacade.getNodeInformer().getIndexer().getByKey(name);
+    }
+
+    private static Set<String> names(Collection<V1Pod> pods) {
+        return pods.stream().map(pod -> pod.getMetadata().getName()).collect(Collectors.toSet());
+    }
+
+    private static Set<String> nodeNames(Collection<V1Node> nodes) {
+        return nodes.stream().map(node -> node.getMetadata().getName()).collect(Collectors.toSet());
+    }
+}
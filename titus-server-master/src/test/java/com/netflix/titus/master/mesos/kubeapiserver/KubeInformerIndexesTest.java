@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.mesos.kubeapiserver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import com.netflix.titus.master.mesos.kubeapiserver.KubeInformerIndexes.NodeReadiness;
+import io.kubernetes.client.openapi.models.V1Node;
+import io.kubernetes.client.openapi.models.V1NodeCondition;
+import io.kubernetes.client.openapi.models.V1NodeStatus;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodSpec;
+import io.kubernetes.client.openapi.models.V1PodStatus;
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class KubeInformerIndexesTest {
+
+    private final KubeInformerIndexes indexes = new KubeInformerIndexes();
+
+    @Test
+    public void testPodIndexesFollowUpdates() {
+        indexes.podAddedOrUpdated(newPod("pod1", "node1", "Pending", false));
+        assertThat(indexes.getPodsInPhase("Pending")).hasSize(1);
+        assertThat(indexes.getPodsWithDeletionTimestamp()).isEmpty();
+
+        indexes.podAddedOrUpdated(newPod("pod1", "node1", "Running", true));
+        assertThat(indexes.getPodsInPhase("Pending")).isEmpty();
+        assertThat(indexes.getPodsInPhase("running")).hasSize(1);
+        assertThat(indexes.getPodsWithDeletionTimestamp()).hasSize(1);
+
+        indexes.podDeleted(newPod("pod1", "node1", "Running", true));
+        assertThat(indexes.getPodCount()).isZero();
+        assertThat(indexes.getPodsInPhase("Running")).isEmpty();
+        assertThat(indexes.getPodsWithDeletionTimestamp()).isEmpty();
+    }
+
+    @Test
+    public void testPodsNotInPhases() {
+        indexes.podAddedOrUpdated(newPod("pod1", "node1", "Pending", false));
+        indexes.podAddedOrUpdated(newPod("pod2", "node1", "Running", false));
+        indexes.podAddedOrUpdated(newPod("pod3", "node1", "Succeeded", false));
+        indexes.podAddedOrUpdated(newPod("pod4", "node1", "Failed", false));
+
+        assertThat(indexes.getPodsNotInPhases(Arrays.asList("Succeeded", "Failed")))
+                .extracting(pod -> pod.getMetadata().getName())
+                .containsExactlyInAnyOrder("pod1", "pod2");
+    }
+
+    @Test
+    public void testPodsOnUnknownNodes() {
+        indexes.nodeAddedOrUpdated(newNode("node1", "True", false));
+        indexes.podAddedOrUpdated(newPod("pod1", "node1", "Running", false));
+        indexes.podAddedOrUpdated(newPod("pod2", "node2", "Running", false));
+        indexes.podAddedOrUpdated(newPod("pod3", null, "Pending", false));
+
+        assertThat(indexes.getPodsOnUnknownNodes()).extracting(pod -> pod.getMetadata().getName()).containsExactly("pod2");
+
+        indexes.nodeDeleted(newNode("node1", "True", false));
+        assertThat(indexes.getPodsOnUnknownNodes()).extracting(pod -> pod.getMetadata().getName())
+                .containsExactlyInAnyOrder("pod1", "pod2");
+    }
+
+    @Test
+    public void testNodeReadinessIndex() {
+        indexes.nodeAddedOrUpdated(newNode("node1", "True", false));
+        indexes.nodeAddedOrUpdated(newNode("node2", "False", false));
+        indexes.nodeAddedOrUpdated(newNode("node3", "True", true));
+
+        assertThat(indexes.getNodesWithReadiness(NodeReadiness.Ready)).hasSize(1);
+        assertThat(indexes.getNodesWithReadiness(NodeReadiness.NotReady)).hasSize(1);
+        assertThat(indexes.getNodesWithReadiness(NodeReadiness.Stopped)).hasSize(1);
+
+        indexes.nodeAddedOrUpdated(newNode("node2", "True", false));
+        assertThat(indexes.getNodesWithReadiness(NodeReadiness.Ready)).hasSize(2);
+        assertThat(indexes.getNodesWithReadiness(NodeReadiness.NotReady)).isEmpty();
+    }
+
+    static V1Pod newPod(String name, String nodeName, String phase, boolean deleted) {
+        V1ObjectMeta metadata = new V1ObjectMeta().name(name).creationTimestamp(DateTime.now());
+        if (deleted) {
+            metadata.deletionTimestamp(DateTime.now());
+        }
+        return new V1Pod()
+                .metadata(metadata)
+                .spec(new V1PodSpec().nodeName(nodeName))
+                .status(new V1PodStatus().phase(phase));
+    }
+
+    static V1Node newNode(String name, String readyStatus, boolean stopped) {
+        V1NodeStatus status = new V1NodeStatus().conditions(new ArrayList<>());
+        status.getConditions().add(new V1NodeCondition().type("Ready").status(readyStatus).lastHeartbeatTime(DateTime.now()));
+        if (stopped) {
+            status.getConditions().add(new V1NodeCondition().type("Stopped").status("True"));
+        }
+        return new V1Node()
+                .metadata(new V1ObjectMeta().name(name).annotations(Collections.emptyMap()))
+                .status(status);
+    }
+}
@@ -85,11 +85,6 @@ public class KubeUtilTest {
         assertThat(KubeUtil.isNodeOwnedByFenzo(FARZONES, newNodeWithoutZone(TAINT_SCHEDULER_FENZO))).isTrue();
     }
 
-    @Test
-    public void testEstimatePodSize() {
-        assertThat(KubeUtil.estimatePodSize(new V1Pod())).isGreaterThan(0);
-    }
-
     @Test
     public void testFindFinishedTimestamp() {
         // Test running pod
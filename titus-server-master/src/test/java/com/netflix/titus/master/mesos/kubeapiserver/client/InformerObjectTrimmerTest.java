@@ -0,0 +1,196 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.mesos.kubeapiserver.client;
+
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.google.gson.reflect.TypeToken;
+import com.netflix.titus.master.mesos.kubeapiserver.KubeConstants;
+import io.kubernetes.client.custom.Quantity;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.JSON;
+import io.kubernetes.client.openapi.models.V1Container;
+import io.kubernetes.client.openapi.models.V1ContainerImage;
+import io.kubernetes.client.openapi.models.V1EnvVar;
+import io.kubernetes.client.openapi.models.V1ManagedFieldsEntry;
+import io.kubernetes.client.openapi.models.V1Node;
+import io.kubernetes.client.openapi.models.V1NodeCondition;
+import io.kubernetes.client.openapi.models.V1NodeList;
+import io.kubernetes.client.openapi.models.V1NodeSpec;
+import io.kubernetes.client.openapi.models.V1NodeStatus;
+import io.kubernetes.client.openapi.models.V1NodeSystemInfo;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodList;
+import io.kubernetes.client.openapi.models.V1PodSpec;
+import io.kubernetes.client.openapi.models.V1PodStatus;
+import io.kubernetes.client.openapi.models.V1Taint;
+import io.kubernetes.client.openapi.models.V1Toleration;
+import io.kubernetes.client.util.Watch;
+import org.joda.time.DateTime;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class InformerObjectTrimmerTest {
+
+    @Test
+    public void testPodTrimming() {
+        V1Pod pod = InformerObjectTrimmer.trimPod(newFullPod("pod1"));
+
+        assertThat(pod.getMetadata().getName()).isEqualTo("pod1");
+        assertThat(pod.getMetadata().getDeletionTimestamp()).isNotNull();
+        assertThat(pod.getMetadata().getManagedFields()).isNull();
+        assertThat(pod.getMetadata().getAnnotations())
+                .containsEntry(KubeConstants.OPPORTUNISTIC_ID, "opportunisticId")
+                .doesNotContainKeys(KubeConstants.ANNOTATION_CONTAINER_INFO, KubeConstants.ANNOTATION_JOB_DESCRIPTOR);
+
+        assertThat(pod.getSpec().getNodeName()).isEqualTo("node1");
+        assertThat(pod.getSpec().getTolerations()).hasSize(1);
+        assertThat(pod.getSpec().getContainers()).containsExactly(new V1Container().name("pod1"));
+
+        assertThat(pod.getStatus().getPhase()).isEqualTo("Running");
+        assertThat(pod.getStatus().getMessage()).isEqualTo("message");
+    }
+
+    @Test
+    public void testNodeTrimming() {
+        V1Node node = InformerObjectTrimmer.trimNode(newFullNode("node1"));
+
+        assertThat(node.getMetadata().getName()).isEqualTo("node1");
+        assertThat(node.getMetadata().getManagedFields()).isNull();
+        assertThat(node.getMetadata().getAnnotations()).containsKey(KubeConstants.NODE_LABEL_MACHINE_GROUP);
+        assertThat(node.getMetadata().getLabels()).containsKey("label");
+
+        assertThat(node.getSpec().getTaints()).hasSize(1);
+
+        assertThat(node.getStatus().getConditions()).hasSize(1);
+        assertThat(node.getStatus().getAllocatable()).containsKey("cpu");
+        assertThat(node.getStatus().getImages()).isNull();
+        assertThat(node.getStatus().getNodeInfo()).isNull();
+    }
+
+    @Test
+    public void testListsAndWatchEventsAreTrimmedWhenDeserialized() {
+        JSON json = newTrimmingJson();
+
+        V1PodList podList = json.deserialize(json.serialize(new V1PodList().addItemsItem(newFullPod("pod1"))), V1PodList.class);
+        assertThat(podList.getItems().get(0).getMetadata().getAnnotations()).doesNotContainKey(KubeConstants.ANNOTATION_CONTAINER_INFO);
+        assertThat(podList.getItems().get(0).getSpec().getContainers().get(0).getEnv()).isNull();
+
+        V1NodeList nodeList = json.deserialize(json.serialize(new V1NodeList().addItemsItem(newFullNode("node1"))), V1NodeList.class);
+        assertThat(nodeList.getItems().get(0).getStatus().getImages()).isNull();
+
+        Type podEventType = new TypeToken<Watch.Response<V1Pod>>() {
+        }.getType();
+        Watch.Response<V1Pod> podEvent = json.deserialize(
+                "{\"type\":\"MODIFIED\",\"object\":" + json.serialize(newFullPod("pod1")) + "}",
+                podEventType
+        );
+        assertThat(podEvent.object.getSpec().getContainers().get(0).getEnv()).isNull();
+
+        Type nodeEventType = new TypeToken<Watch.Response<V1Node>>() {
+        }.getType();
+        Watch.Response<V1Node> nodeEvent = json.deserialize(
+                "{\"type\":\"MODIFIED\",\"object\":" + json.serialize(newFullNode("node1")) + "}",
+                nodeEventType
+        );
+        assertThat(nodeEvent.object.getStatus().getNodeInfo()).isNull();
+    }
+
+    @Test
+    public void testSingleObjectsAreNotTrimmed() {
+        JSON json = newTrimmingJson();
+
+        V1Pod pod = json.deserialize(json.serialize(newFullPod("pod1")), V1Pod.class);
+        assertThat(pod.getMetadata().getAnnotations()).containsKey(KubeConstants.ANNOTATION_CONTAINER_INFO);
+        assertThat(pod.getSpec().getContainers().get(0).getEnv()).isNotEmpty();
+    }
+
+    @Test
+    public void testSharedApiClientIsNotModified() {
+        ApiClient apiClient = new ApiClient().setBasePath("http://kube-api-server:7001");
+        ApiClient informerApiClient = InformerObjectTrimmer.newInformerApiClient(apiClient);
+
+        assertThat(informerApiClient).isNotSameAs(apiClient);
+        assertThat(informerApiClient.getJSON()).isNotSameAs(apiClient.getJSON());
+        assertThat(informerApiClient.getHttpClient()).isSameAs(apiClient.getHttpClient());
+        assertThat(informerApiClient.getBasePath()).isEqualTo(apiClient.getBasePath());
+
+        JSON json = apiClient.getJSON();
+        V1PodList podList = json.deserialize(json.serialize(new V1PodList().addItemsItem(newFullPod("pod1"))), V1PodList.class);
+        assertThat(podList.getItems().get(0).getMetadata().getAnnotations()).containsKey(KubeConstants.ANNOTATION_CONTAINER_INFO);
+        assertThat(podList.getItems().get(0).getSpec().getContainers().get(0).getEnv()).isNotEmpty();
+    }
+
+    static JSON newTrimmingJson() {
+        return InformerObjectTrimmer.newInformerApiClient(new ApiClient()).getJSON();
+    }
+
+    static V1Pod newFullPod(String name) {
+        Map<String, String> annotations = new HashMap<>();
+        annotations.put(KubeConstants.OPPORTUNISTIC_ID, "opportunisticId");
+        annotations.put(KubeConstants.ANNOTATION_CONTAINER_INFO, newPayload(2_000));
+        annotations.put(KubeConstants.ANNOTATION_JOB_DESCRIPTOR, newPayload(2_000));
+
+        return new V1Pod()
+                .metadata(newFullMetadata(name, annotations).deletionTimestamp(DateTime.now()))
+                .spec(new V1PodSpec()
+                        .nodeName("node1")
+                        .addTolerationsItem(new V1Toleration().key("toleration").effect("NoSchedule"))
+                        .addContainersItem(new V1Container()
+                                .name(name)
+                                .image("image:latest")
+                                .env(Collections.singletonList(new V1EnvVar().name("ENV").value(newPayload(200))))
+                        )
+                )
+                .status(new V1PodStatus().phase("Running").message("message"));
+    }
+
+    static V1Node newFullNode(String name) {
+        return new V1Node()
+                .metadata(newFullMetadata(name, Collections.singletonMap(KubeConstants.NODE_LABEL_MACHINE_GROUP, "asg1")))
+                .spec(new V1NodeSpec().addTaintsItem(new V1Taint().key("taint").effect("NoSchedule")))
+                .status(new V1NodeStatus()
+                        .addConditionsItem(new V1NodeCondition().type("Ready").status("True"))
+                        .allocatable(Collections.singletonMap("cpu", new Quantity("16")))
+                        .addImagesItem(new V1ContainerImage().addNamesItem(newPayload(500)).sizeBytes(1_000_000L))
+                        .nodeInfo(new V1NodeSystemInfo().kernelVersion("4.19").osImage("ubuntu"))
+                );
+    }
+
+    private static V1ObjectMeta newFullMetadata(String name, Map<String, String> annotations) {
+        return new V1ObjectMeta()
+                .name(name)
+                .uid(name + "-uid")
+                .labels(Collections.singletonMap("label", "value"))
+                .annotations(annotations)
+                .creationTimestamp(DateTime.now())
+                .addManagedFieldsItem(new V1ManagedFieldsEntry().manager("titus").operation("Update"));
+    }
+
+    private static String newPayload(int size) {
+        StringBuilder sb = new StringBuilder(size);
+        for (int i = 0; i < size; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.mesos.kubeapiserver.direct;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AimdConcurrencyLimitTest {
+
+    private static final int MIN = 2;
+    private static final int MAX = 10;
+    private static final long LATENCY_THRESHOLD_MS = 100;
+
+    private final AimdConcurrencyLimit limit = new AimdConcurrencyLimit(() -> MIN, () -> MAX, () -> LATENCY_THRESHOLD_MS, () -> 0.5);
+
+    @Test
+    public void testStartsAtMax() {
+        assertThat(limit.getLimit()).isEqualTo(MAX);
+        limit.onSuccess(limit.onStart(), 1);
+        assertThat(limit.getLimit()).isEqualTo(MAX);
+    }
+
+    @Test
+    public void testMultiplicativeDecrease() {
+        limit.onThrottled(limit.onStart());
+        assertThat(limit.getLimit()).isEqualTo(5);
+        limit.onSuccess(limit.onStart(), LATENCY_THRESHOLD_MS + 1);
+        assertThat(limit.getLimit()).isEqualTo(MIN);
+        limit.onThrottled(limit.onStart());
+        assertThat(limit.getLimit()).isEqualTo(MIN);
+    }
+
+    @Test
+    public void testAdditiveIncrease() {
+        limit.onThrottled(limit.onStart());
+        limit.onThrottled(limit.onStart());
+        assertThat(limit.getLimit()).isEqualTo(MIN);
+
+        // The limit grows by one after a full window of successful calls.
+        for (int i = 0; i < MIN; i++) {
+            limit.onSuccess(limit.onStart(), 1);
+        }
+        assertThat(limit.getLimit()).isEqualTo(MIN + 1);
+    }
+
+    @Test
+    public void testBurstOfSlowResponsesBacksOffOnce() {
+        long[] requestIds = new long[MAX];
+        for (int i = 0; i < MAX; i++) {
+            requestIds[i] = limit.onStart();
+        }
+
+        // All requests were in flight when the first slow response arrived, so only the first one reduces the limit.
+        for (long requestId : requestIds) {
+            limit.onSuccess(requestId, LATENCY_THRESHOLD_MS + 1);
+        }
+        assertThat(limit.getLimit()).isEqualTo(5);
+        limit.onThrottled(requestIds[0]);
+        assertThat(limit.getLimit()).isEqualTo(5);
+
+        // A request started after the backoff starts a new window.
+        limit.onSuccess(limit.onStart(), LATENCY_THRESHOLD_MS + 1);
+        assertThat(limit.getLimit()).isEqualTo(MIN);
+    }
+}
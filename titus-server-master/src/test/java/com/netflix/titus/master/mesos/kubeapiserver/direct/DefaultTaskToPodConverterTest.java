@@ -0,0 +1,121 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+
+package com.netflix.titus.master.mesos.kubeapiserver.direct;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableMap;
+import com.netflix.titus.api.jobmanager.JobConstraints;
+import com.netflix.titus.api.jobmanager.model.job.BatchJobTask;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobDescriptor;
+import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
+import com.netflix.titus.master.mesos.kubeapiserver.direct.taint.DefaultTaintTolerationFactory;
+import com.netflix.titus.master.service.management.ApplicationSlaManagementService;
+import com.netflix.titus.testkit.model.job.JobDescriptorGenerator;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import io.kubernetes.client.openapi.models.V1Pod;
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class DefaultTaskToPodConverterTest {
+
+    private static final int TASK_COUNT = 5;
+
+    private final DirectKubeConfiguration configuration = mock(DirectKubeConfiguration.class);
+
+    private final ApplicationSlaManagementService capacityManagement = mock(ApplicationSlaManagementService.class);
+
+    private DefaultTaskToPodConverter converter;
+
+    @Before
+    public void setUp() {
+        when(configuration.isJobDescriptorAnnotationEnabled()).thenReturn(true);
+        when(configuration.getKubeSchedulerName()).thenReturn("default-scheduler");
+        when(configuration.getDefaultKillWaitSeconds()).thenReturn(10);
+        when(configuration.getMaxKillWaitSeconds()).thenReturn(300);
+        converter = newConverter();
+    }
+
+    @Test
+    public void testPodsFromTemplateEqualFreshlyBuiltPods() {
+        Job<BatchJobExt> job = newJob();
+        List<BatchJobTask> tasks = JobGenerator.batchTasks(job).getValues(TASK_COUNT);
+
+        for (BatchJobTask task : tasks) {
+            V1Pod pod = converter.apply(job, task);
+            assertSamePod(pod, newConverter().apply(job, task));
+            assertThat(pod.getMetadata().getName()).isEqualTo(task.getId());
+        }
+    }
+
+    @Test
+    public void testTemplateRebuiltAfterJobDescriptorUpdate() {
+        Job<BatchJobExt> job = newJob();
+        List<BatchJobTask> tasks = JobGenerator.batchTasks(job).getValues(TASK_COUNT);
+        V1Pod podBeforeUpdate = converter.apply(job, tasks.get(0));
+
+        JobDescriptor<BatchJobExt> updatedDescriptor = job.getJobDescriptor().but(jd -> jd.getContainer().toBuilder()
+                .withEnv(ImmutableMap.of("MY_ENV", "updated"))
+                .withContainerResources(jd.getContainer().getContainerResources().toBuilder().withCpu(8).build())
+                .withSoftConstraints(ImmutableMap.of())
+        );
+        Job<BatchJobExt> updatedJob = job.toBuilder().withJobDescriptor(updatedDescriptor).build();
+
+        for (BatchJobTask task : tasks) {
+            assertSamePod(converter.apply(updatedJob, task), newConverter().apply(updatedJob, task));
+        }
+
+        V1Pod podAfterUpdate = converter.apply(updatedJob, tasks.get(0));
+        assertThat(podAfterUpdate.getMetadata().getAnnotations()).isNotEqualTo(podBeforeUpdate.getMetadata().getAnnotations());
+        assertThat(podAfterUpdate.getSpec().getContainers().get(0).getResources())
+                .isNotEqualTo(podBeforeUpdate.getSpec().getContainers().get(0).getResources());
+        assertThat(podAfterUpdate.getSpec().getTopologySpreadConstraints()).isEmpty();
+        assertThat(podBeforeUpdate.getSpec().getTopologySpreadConstraints()).hasSize(1);
+    }
+
+    private DefaultTaskToPodConverter newConverter() {
+        return new DefaultTaskToPodConverter(
+                configuration,
+                new DefaultPodAffinityFactory(configuration),
+                new DefaultTaintTolerationFactory(configuration, capacityManagement)
+        );
+    }
+
+    private Job<BatchJobExt> newJob() {
+        JobDescriptor<BatchJobExt> jobDescriptor = JobDescriptorGenerator.oneTaskBatchJobDescriptor().but(jd -> jd.getContainer().toBuilder()
+                .withEnv(ImmutableMap.of("MY_ENV", "original"))
+                .withHardConstraints(ImmutableMap.of(JobConstraints.UNIQUE_HOST, "true"))
+                .withSoftConstraints(ImmutableMap.of(JobConstraints.ZONE_BALANCE, "true"))
+        );
+        return JobGenerator.batchJobs(jobDescriptor).getValue();
+    }
+
+    private void assertSamePod(V1Pod pod, V1Pod expected) {
+        assertThat(pod.getMetadata().getAnnotations()).isEqualTo(expected.getMetadata().getAnnotations());
+        assertThat(pod.getMetadata().getLabels()).isEqualTo(expected.getMetadata().getLabels());
+        assertThat(pod.getSpec().getContainers()).isEqualTo(expected.getSpec().getContainers());
+        assertThat(pod.getSpec().getAffinity()).isEqualTo(expected.getSpec().getAffinity());
+        assertThat(pod.getSpec().getTolerations()).isEqualTo(expected.getSpec().getTolerations());
+        assertThat(pod).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.master.mesos.kubeapiserver.direct;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Pod;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PodCreatePipelineTest {
+
+    private static final long TIMEOUT_MS = 5_000;
+
+    private final TitusRuntime titusRuntime = TitusRuntimes.test();
+
+    private final DirectKubeConfiguration configuration = mock(DirectKubeConfiguration.class);
+
+    private final ExecutorService apiClientExecutor = Executors.newSingleThreadExecutor();
+    private final Scheduler apiClientScheduler = Schedulers.fromExecutorService(apiClientExecutor);
+
+    private final List<String> createdPods = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstCallLatch = new CountDownLatch(1);
+
+    private volatile boolean throttle;
+
+    private PodCreatePipeline pipeline;
+
+    @Before
+    public void setUp() {
+        when(configuration.getPodCreateMinConcurrencyLimit()).thenReturn(1);
+        when(configuration.getPodCreateConcurrencyLimit()).thenReturn(1);
+        when(configuration.getPodCreateLatencyThresholdMs()).thenReturn(TIMEOUT_MS);
+        when(configuration.getPodCreateBackoffRatio()).thenReturn(0.5);
+
+        pipeline = new PodCreatePipeline(
+                configuration,
+                (job, task) -> new V1Pod().metadata(new V1ObjectMeta().name(task.getId())),
+                this::createPod,
+                Schedulers.immediate(),
+                apiClientScheduler,
+                titusRuntime
+        );
+    }
+
+    @After
+    public void tearDown() {
+        pipeline.shutdown();
+        apiClientScheduler.dispose();
+        apiClientExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testTasksClosestToLaunchTimeoutAreFirst() throws Exception {
+        Job<?> job = JobGenerator.oneBatchJob();
+
+        // The first request blocks the only in-flight slot, so the remaining ones are queued.
+        Mono<V1Pod> blocking = pipeline.submit(job, newTask("blocking", 0)).cache();
+        blocking.subscribe();
+        awaitInFlight(1);
+
+        Mono<V1Pod> young = pipeline.submit(job, newTask("young", 2_000)).cache();
+        Mono<V1Pod> old = pipeline.submit(job, newTask("old", 1_000)).cache();
+        young.subscribe();
+        old.subscribe();
+        assertThat(pipeline.getQueueSize()).isEqualTo(2);
+
+        firstCallLatch.countDown();
+        young.block();
+        old.block();
+
+        assertThat(createdPods).containsExactly("blocking", "old", "young");
+    }
+
+    @Test
+    public void testThrottlingReducesConcurrencyLimit() {
+        when(configuration.getPodCreateConcurrencyLimit()).thenReturn(8);
+        firstCallLatch.countDown();
+        throttle = true;
+
+        try {
+            pipeline.submit(JobGenerator.oneBatchJob(), newTask("throttled", 0)).block();
+            fail("Expected throttling error");
+        } catch (Exception e) {
+            assertThat(e.getCause()).isInstanceOf(ApiException.class);
+        }
+        assertThat(pipeline.getConcurrencyLimit()).isEqualTo(4);
+        assertThat(pipeline.getInFlight()).isZero();
+    }
+
+    private V1Pod createPod(Task task, V1Pod pod) {
+        if (task.getId().equals("blocking")) {
+            try {
+                firstCallLatch.await(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        if (throttle) {
+            throw new IllegalStateException("Simulated error", new ApiException(429, "Too Many Requests"));
+        }
+        createdPods.add(task.getId());
+        return pod;
+    }
+
+    private Task newTask(String taskId, long acceptedTimestamp) {
+        return JobGenerator.oneBatchTask().toBuilder()
+                .withId(taskId)
+                .withStatus(TaskStatus.newBuilder().withState(TaskState.Accepted).withTimestamp(acceptedTimestamp).build())
+                .build();
+    }
+
+    private void awaitInFlight(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (pipeline.getInFlight() != expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(1);
+        }
+        assertThat(pipeline.getInFlight()).isEqualTo(expected);
+    }
+}
@@ -16,16 +16,21 @@
 
 package com.netflix.titus.runtime.containerhealth.service;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
@@ -37,19 +42,43 @@ import com.netflix.titus.api.containerhealth.model.event.ContainerHealthSnapshot
 import com.netflix.titus.api.containerhealth.model.event.ContainerHealthUpdateEvent;
 import com.netflix.titus.api.containerhealth.service.ContainerHealthService;
 import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.JobState;
 import com.netflix.titus.api.jobmanager.model.job.Task;
 import com.netflix.titus.api.jobmanager.model.job.TaskState;
 import com.netflix.titus.api.jobmanager.model.job.disruptionbudget.ContainerHealthProvider;
+import com.netflix.titus.api.jobmanager.model.job.event.JobManagerEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.JobUpdateEvent;
+import com.netflix.titus.api.jobmanager.model.job.event.TaskUpdateEvent;
+import com.netflix.titus.api.jobmanager.service.JobManagerException;
 import com.netflix.titus.api.jobmanager.service.ReadOnlyJobOperations;
+import com.netflix.titus.common.framework.scheduler.ExecutionContext;
+import com.netflix.titus.common.framework.scheduler.ScheduleReference;
+import com.netflix.titus.common.framework.scheduler.model.ScheduleDescriptor;
 import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.util.guice.annotation.Activator;
+import com.netflix.titus.common.util.retry.Retryers;
 import com.netflix.titus.common.util.rx.ReactorExt;
+import com.netflix.titus.common.util.rx.ReactorRetriers;
 import com.netflix.titus.common.util.time.Clock;
+import com.netflix.titus.common.util.tuple.Pair;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
 
 import static com.netflix.titus.common.util.CollectionsExt.transformSet;
 
+/**
+ * Merges health statuses of the health providers configured in a job disruption budget.
+ * <p>
+ * After activation, the aggregated health status of each task, and the health provider set of each job, are
+ * kept in lookup tables, which are updated from the job and the health provider event streams. Each update recomputes
+ * the affected entries from the latest task and health provider state. Finished tasks are kept in the table as
+ * terminated, until their job finishes, or the periodic eviction finds them removed from the job manager (the job
+ * manager does not emit an event when it archives a task). Health status requests for finished tasks, or tasks not
+ * found in the table, and all requests when the table is not active (not activated yet, or event stream subscription
+ * failed), are resolved directly as before.
+ */
 @Singleton
 public class AggregatingContainerHealthService implements ContainerHealthService {
 
@@ -57,6 +86,18 @@ public class AggregatingContainerHealthService implements ContainerHealthService
 
     public static final String NAME = "aggregating";
 
+    private static final Duration RETRY_INTERVAL = Duration.ofSeconds(5);
+
+    static final Object RELOAD_MARKER = new Object();
+
+    private static final ScheduleDescriptor FINISHED_TASK_EVICTION_DESCRIPTOR = ScheduleDescriptor.newBuilder()
+            .withName("aggregatingContainerHealthFinishedTaskEviction")
+            .withDescription("Removes finished tasks archived by the job manager from the container health table")
+            .withInterval(Duration.ofSeconds(30))
+            .withRetryerSupplier(Retryers::never)
+            .withTimeout(Duration.ofMinutes(1))
+            .build();
+
     private final Map<String, ContainerHealthService> healthServices;
     private final ReadOnlyJobOperations jobOperations;
     private final TitusRuntime titusRuntime;
@@ -64,6 +105,15 @@ public class AggregatingContainerHealthService implements ContainerHealthService
 
     private final Flux<ContainerHealthEvent> healthStatuses;
 
+    private final ConcurrentMap<String, HealthEntry> healthTable = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> finishedTaskIdsByJobId = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<String>> providersByJobId = new ConcurrentHashMap<>();
+    private final AtomicLong healthTableVersion = new AtomicLong();
+    private volatile boolean healthTableActive;
+    private volatile Pair<Long, ContainerHealthSnapshotEvent> lastSnapshot;
+    private Disposable healthTableDisposable;
+    private ScheduleReference finishedTaskEvictionReference;
+
     @Inject
     public AggregatingContainerHealthService(Set<ContainerHealthService> healthServices,
                                              ReadOnlyJobOperations jobOperations,
@@ -85,6 +135,36 @@ public class AggregatingContainerHealthService implements ContainerHealthService
                 }).share().compose(ReactorExt.badSubscriberHandler(logger));
     }
 
+    /**
+     * The job and health provider streams are subscribed to before the table is loaded, so no update is lost. The reload
+     * marker is emitted by the last merged source, after the other two are subscribed.
+     */
+    @Activator
+    public void enterActiveMode() {
+        this.healthTableDisposable = Flux.<Object>merge(
+                jobOperations.observeJobsReactor(),
+                Flux.merge(transformSet(new HashSet<>(healthServices.values()), h -> h.events(false))),
+                Flux.just(RELOAD_MARKER)
+        )
+                .doOnError(e -> healthTableActive = false)
+                .compose(ReactorRetriers.instrumentedRetryer("aggregatingContainerHealthTable", RETRY_INTERVAL, logger))
+                .subscribe(this::onHealthTableEvent);
+        this.finishedTaskEvictionReference = titusRuntime.getLocalScheduler().schedule(
+                FINISHED_TASK_EVICTION_DESCRIPTOR,
+                this::evictArchivedFinishedTasks,
+                true
+        );
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        healthTableActive = false;
+        ReactorExt.safeDispose(healthTableDisposable);
+        if (finishedTaskEvictionReference != null) {
+            finishedTaskEvictionReference.cancel();
+        }
+    }
+
     @Override
     public String getName() {
         return NAME;
@@ -92,7 +172,20 @@ public class AggregatingContainerHealthService implements ContainerHealthService
 
     @Override
     public Optional<ContainerHealthStatus> findHealthStatus(String taskId) {
-        return jobOperations.findTaskById(taskId).map(jobTaskPair -> takeStatusOf(jobTaskPair.getLeft(), jobTaskPair.getRight()));
+        if (healthTableActive) {
+            HealthEntry entry = healthTable.get(taskId);
+            if (entry != null && !entry.isFinished()) {
+                return Optional.of(entry.getStatus());
+            }
+        }
+        return resolveHealthStatus(taskId);
+    }
+
+    /**
+     * Computes the health status from the current job manager and health provider state, without the lookup tables.
+     */
+    Optional<ContainerHealthStatus> resolveHealthStatus(String taskId) {
+        return jobOperations.findTaskById(taskId).map(jobTaskPair -> takeStatusOf(resolveHealthProviders(jobTaskPair.getLeft()), jobTaskPair.getRight()));
     }
 
     @Override
@@ -102,7 +195,24 @@ public class AggregatingContainerHealthService implements ContainerHealthService
                 : healthStatuses;
     }
 
-    private ContainerHealthSnapshotEvent buildCurrentSnapshot() {
+    /**
+     * If the lookup table is active, the snapshot is built from it. The part with the active tasks is shared by all
+     * subscribers until the next table update. Finished tasks in the table are added as terminated, the same way as
+     * in the snapshot built from the job manager. A finished task archived by the job manager may be included until
+     * the next eviction pass.
+     */
+    ContainerHealthSnapshotEvent buildCurrentSnapshot() {
+        if (healthTableActive) {
+            ContainerHealthSnapshotEvent activeTasksSnapshot = buildActiveTasksSnapshot();
+            if (finishedTaskIdsByJobId.isEmpty()) {
+                return activeTasksSnapshot;
+            }
+            List<ContainerHealthStatus> snapshot = new ArrayList<>(activeTasksSnapshot.getSnapshot());
+            long now = clock.wallTime();
+            finishedTaskIdsByJobId.values().forEach(taskIds -> taskIds.forEach(taskId -> snapshot.add(ContainerHealthStatus.terminated(taskId, now))));
+            return new ContainerHealthSnapshotEvent(snapshot);
+        }
+
         List<ContainerHealthStatus> snapshot = new ArrayList<>();
         jobOperations.getJobsAndTasks().forEach(p -> {
             Job job = p.getLeft();
@@ -117,6 +227,23 @@ public class AggregatingContainerHealthService implements ContainerHealthService
         return new ContainerHealthSnapshotEvent(snapshot);
     }
 
+    private ContainerHealthSnapshotEvent buildActiveTasksSnapshot() {
+        long version = healthTableVersion.get();
+        Pair<Long, ContainerHealthSnapshotEvent> last = lastSnapshot;
+        if (last != null && last.getLeft() == version) {
+            return last.getRight();
+        }
+        List<ContainerHealthStatus> snapshot = new ArrayList<>(healthTable.size());
+        healthTable.values().forEach(entry -> {
+            if (!entry.isFinished()) {
+                snapshot.add(entry.getStatus());
+            }
+        });
+        ContainerHealthSnapshotEvent snapshotEvent = new ContainerHealthSnapshotEvent(Collections.unmodifiableList(snapshot));
+        this.lastSnapshot = Pair.of(version, snapshotEvent);
+        return snapshotEvent;
+    }
+
     private Flux<ContainerHealthEvent> handleContainerHealthUpdateEvent(ContainerHealthEvent event, ConcurrentMap<String, ContainerHealthState> emittedStates) {
         if (!(event instanceof ContainerHealthUpdateEvent)) {
             return Flux.empty();
@@ -131,6 +258,12 @@ public class AggregatingContainerHealthService implements ContainerHealthService
 
     private Flux<ContainerHealthEvent> handleNewState(Job<?> job, Task task, ConcurrentMap<String, ContainerHealthState> emittedStates) {
         ContainerHealthStatus newStatus = takeStatusOf(job, task);
+
+        // Update the table before the event is emitted, so subscribers reading the health status see the new value.
+        if (healthTableActive) {
+            updateHealthEntry(task, false);
+        }
+
         ContainerHealthState previousState = emittedStates.get(task.getId());
         ContainerHealthState newState = newStatus.getState();
 
@@ -152,12 +285,177 @@ public class AggregatingContainerHealthService implements ContainerHealthService
         return Flux.empty();
     }
 
-    private ContainerHealthStatus takeStatusOf(Job<?> job, Task task) {
-        Set<String> healthProviders = job.getJobDescriptor().getDisruptionBudget().getContainerHealthProviders().stream()
+    void onHealthTableEvent(Object event) {
+        try {
+            if (event == RELOAD_MARKER) {
+                reloadHealthTable();
+            } else if (event instanceof JobManagerEvent) {
+                onJobEvent((JobManagerEvent<?>) event);
+            } else if (event instanceof ContainerHealthUpdateEvent) {
+                HealthEntry entry = healthTable.get(((ContainerHealthUpdateEvent) event).getContainerHealthStatus().getTaskId());
+                if (entry != null) {
+                    updateHealthEntry(entry.getTask(), false);
+                }
+            }
+        } catch (Exception e) {
+            logger.warn("Unexpected error when processing event: {}", event, e);
+        }
+    }
+
+    private void reloadHealthTable() {
+        Set<String> jobIds = new HashSet<>();
+        Set<String> taskIds = new HashSet<>();
+        for (Pair<Job, List<Task>> jobAndTasks : jobOperations.getJobsAndTasks()) {
+            Job<?> job = jobAndTasks.getLeft();
+            providersByJobId.put(job.getId(), resolveHealthProviders(job));
+            jobIds.add(job.getId());
+            for (Task task : jobAndTasks.getRight()) {
+                updateHealthEntry(task, true);
+                taskIds.add(task.getId());
+            }
+        }
+        providersByJobId.keySet().retainAll(jobIds);
+        healthTable.keySet().retainAll(taskIds);
+        finishedTaskIdsByJobId.keySet().retainAll(jobIds);
+        finishedTaskIdsByJobId.values().forEach(finishedTaskIds -> finishedTaskIds.retainAll(taskIds));
+        healthTableVersion.incrementAndGet();
+
+        this.healthTableActive = true;
+        logger.info("Loaded container health table: jobs={}, tasks={}", providersByJobId.size(), healthTable.size());
+    }
+
+    private void onJobEvent(JobManagerEvent<?> event) {
+        if (event instanceof JobUpdateEvent) {
+            Job<?> job = ((JobUpdateEvent) event).getCurrent();
+            if (job.getStatus().getState() == JobState.Finished) {
+                providersByJobId.remove(job.getId());
+                removeFinishedJobEntries(job.getId());
+                return;
+            }
+            Set<String> healthProviders = resolveHealthProviders(job);
+            Set<String> previous = providersByJobId.put(job.getId(), healthProviders);
+            if (previous != null && !previous.equals(healthProviders)) {
+                try {
+                    jobOperations.getTasks(job.getId()).forEach(task -> updateHealthEntry(task, true));
+                } catch (JobManagerException e) {
+                    logger.debug("Job not found when updating its tasks health status: {}", job.getId());
+                }
+            }
+        } else if (event instanceof TaskUpdateEvent) {
+            TaskUpdateEvent taskUpdateEvent = (TaskUpdateEvent) event;
+            Job<?> job = taskUpdateEvent.getCurrentJob();
+            Task task = taskUpdateEvent.getCurrentTask();
+            providersByJobId.computeIfAbsent(job.getId(), id -> resolveHealthProviders(job));
+            updateHealthEntry(task, true);
+        }
+    }
+
+    /**
+     * All table writes go through this method. The table may be updated from the job and health provider event
+     * streams, and from the client event stream, which are not ordered with respect to each other. To make the
+     * result independent of the order, the newer of the given and the stored task version is kept, and the health
+     * status is computed within the atomic entry update, from the current health provider state. A delayed update
+     * with an older task version cannot overwrite a newer entry, and a finished task is never brought back.
+     *
+     * @param insert if false, only an existing entry is updated
+     */
+    private void updateHealthEntry(Task candidate, boolean insert) {
+        BiFunction<String, HealthEntry, HealthEntry> updater = (id, current) -> {
+            Task task = current != null && isOlder(candidate, current.getTask()) ? current.getTask() : candidate;
+            return new HealthEntry(task, computeEntryStatus(task));
+        };
+        HealthEntry updated = insert
+                ? healthTable.compute(candidate.getId(), updater)
+                : healthTable.computeIfPresent(candidate.getId(), updater);
+        if (updated == null) {
+            return;
+        }
+        if (updated.isFinished()) {
+            finishedTaskIdsByJobId.compute(candidate.getJobId(), (jobId, taskIds) -> {
+                Set<String> result = taskIds == null ? ConcurrentHashMap.newKeySet() : taskIds;
+                result.add(candidate.getId());
+                return result;
+            });
+        }
+        healthTableVersion.incrementAndGet();
+    }
+
+    /**
+     * A job finishes after all its tasks, so all its table entries are finished ones.
+     */
+    private void removeFinishedJobEntries(String jobId) {
+        Set<String> finishedTaskIds = finishedTaskIdsByJobId.remove(jobId);
+        if (finishedTaskIds != null) {
+            finishedTaskIds.forEach(this::removeFinishedEntry);
+        }
+    }
+
+    /**
+     * Removes finished tasks which are no longer held by the job manager. Runs periodically, so the cost of the lookups
+     * is not added to the snapshot or health status requests.
+     */
+    void evictArchivedFinishedTasks(ExecutionContext context) {
+        int evicted = 0;
+        for (Map.Entry<String, Set<String>> entry : finishedTaskIdsByJobId.entrySet()) {
+            for (String taskId : entry.getValue()) {
+                if (!jobOperations.findTaskById(taskId).isPresent()) {
+                    entry.getValue().remove(taskId);
+                    removeFinishedEntry(taskId);
+                    evicted++;
+                }
+            }
+            finishedTaskIdsByJobId.computeIfPresent(entry.getKey(), (jobId, taskIds) -> taskIds.isEmpty() ? null : taskIds);
+        }
+        if (evicted > 0) {
+            logger.debug("Evicted finished tasks from the container health table: {}", evicted);
+        }
+    }
+
+    /**
+     * Finished entries are not included in the shared part of the snapshot, so their removal does not change
+     * the table version.
+     */
+    private void removeFinishedEntry(String taskId) {
+        healthTable.computeIfPresent(taskId, (id, entry) -> entry.isFinished() ? null : entry);
+    }
+
+    private boolean isOlder(Task candidate, Task reference) {
+        long candidateTimestamp = candidate.getStatus().getTimestamp();
+        long referenceTimestamp = reference.getStatus().getTimestamp();
+        if (candidateTimestamp != referenceTimestamp) {
+            return candidateTimestamp < referenceTimestamp;
+        }
+        return TaskState.isBefore(candidate.getStatus().getState(), reference.getStatus().getState());
+    }
+
+    private ContainerHealthStatus computeEntryStatus(Task task) {
+        if (task.getStatus().getState() == TaskState.Finished) {
+            return ContainerHealthStatus.terminated(task.getId(), task.getStatus().getTimestamp());
+        }
+        return takeStatusOf(getHealthProviders(task.getJobId()), task);
+    }
+
+    private Set<String> getHealthProviders(String jobId) {
+        Set<String> healthProviders = providersByJobId.get(jobId);
+        if (healthProviders != null) {
+            return healthProviders;
+        }
+        return jobOperations.getJob(jobId).map(this::resolveHealthProviders).orElse(Collections.emptySet());
+    }
+
+    private Set<String> resolveHealthProviders(Job<?> job) {
+        return job.getJobDescriptor().getDisruptionBudget().getContainerHealthProviders().stream()
                 .map(ContainerHealthProvider::getName)
                 .filter(healthServices::containsKey)
                 .collect(Collectors.toSet());
+    }
 
+    private ContainerHealthStatus takeStatusOf(Job<?> job, Task task) {
+        Set<String> healthProviders = healthTableActive ? providersByJobId.get(job.getId()) : null;
+        return takeStatusOf(healthProviders != null ? healthProviders : resolveHealthProviders(job), task);
+    }
+
+    private ContainerHealthStatus takeStatusOf(Set<String> healthProviders, Task task) {
         return healthProviders.isEmpty()
                 ? taskStatusOfTaskWithNoHealthProviders(task)
                 : takeStatusOfTaskWithHealthProviders(task, healthProviders);
@@ -221,4 +519,27 @@ public class AggregatingContainerHealthService implements ContainerHealthService
 
         return current;
     }
+
+    private static class HealthEntry {
+
+        private final Task task;
+        private final ContainerHealthStatus status;
+
+        private HealthEntry(Task task, ContainerHealthStatus status) {
+            this.task = task;
+            this.status = status;
+        }
+
+        private Task getTask() {
+            return task;
+        }
+
+        private ContainerHealthStatus getStatus() {
+            return status;
+        }
+
+        private boolean isFinished() {
+            return task.getStatus().getState() == TaskState.Finished;
+        }
+    }
 }
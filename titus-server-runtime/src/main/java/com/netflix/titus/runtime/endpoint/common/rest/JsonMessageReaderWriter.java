@@ -39,7 +39,6 @@ import javax.ws.rs.ext.Provider;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
-import com.netflix.titus.api.json.ObjectMappers;
 import com.netflix.titus.common.util.StringExt;
 import com.netflix.titus.common.util.jackson.CommonObjectMappers;
 import com.netflix.titus.runtime.endpoint.rest.ErrorResponse;
@@ -126,7 +125,7 @@ public class JsonMessageReaderWriter implements MessageBodyReader<Object>, Messa
         if (fields.isEmpty()) {
             MAPPER.writeValue(entityStream, entity);
         } else {
-            ObjectMappers.applyFieldsFilter(MAPPER, fields).writeValue(entityStream, entity);
+            CommonObjectMappers.applyFieldsFilterWriter(MAPPER, fields).writeValue(entityStream, entity);
         }
     }
 }
@@ -17,21 +17,32 @@
 package com.netflix.titus.runtime.containerhealth.service;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Random;
+import java.util.stream.Collectors;
 
 import com.netflix.titus.api.containerhealth.model.ContainerHealthState;
 import com.netflix.titus.api.containerhealth.model.ContainerHealthStatus;
 import com.netflix.titus.api.containerhealth.model.event.ContainerHealthEvent;
+import com.netflix.titus.api.containerhealth.model.event.ContainerHealthSnapshotEvent;
 import com.netflix.titus.api.containerhealth.service.ContainerHealthService;
 import com.netflix.titus.api.jobmanager.model.job.Job;
 import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.disruptionbudget.ContainerHealthProvider;
+import com.netflix.titus.api.jobmanager.model.job.disruptionbudget.DisruptionBudget;
 import com.netflix.titus.api.jobmanager.service.ReadOnlyJobOperations;
 import com.netflix.titus.common.runtime.TitusRuntime;
 import com.netflix.titus.common.runtime.TitusRuntimes;
 import com.netflix.titus.testkit.model.job.JobComponentStub;
 import com.netflix.titus.testkit.rx.TitusRxSubscriber;
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import reactor.core.Disposable;
@@ -79,6 +90,11 @@ public class AggregatingContainerHealthServiceTest {
         this.taskId1 = task1.getId();
     }
 
+    @After
+    public void tearDown() {
+        healthService.shutdown();
+    }
+
     @Test
     public void testSubscriptionWithSnapshot() {
         downstream1.makeHealthy(taskId1);
@@ -165,6 +181,160 @@ public class AggregatingContainerHealthServiceTest {
         assertThat(badSubscriber.isDisposed()).isTrue();
     }
 
+    @Test
+    public void testHealthTableFollowsJobAndHealthEvents() {
+        Job job2 = jobManagerStub.addBatchTemplate("noProviders", batchJobDescriptors(ofBatchSize(3)))
+                .createJobAndTasks("noProviders")
+                .getLeft();
+
+        healthService.enterActiveMode();
+
+        // Created after activation, so its tasks are added to the table from the job events
+        Job job3 = jobManagerStub.addBatchTemplate("oneProvider", batchJobDescriptors(ofBatchSize(3), havingProvider("downstream2")))
+                .createJobAndTasks("oneProvider")
+                .getLeft();
+
+        List<String> taskIds = jobOperations.getTasks().stream().map(Task::getId).collect(Collectors.toList());
+        List<TaskState> states = Arrays.asList(TaskState.Accepted, TaskState.Launched, TaskState.StartInitiated, TaskState.Started, TaskState.KillInitiated, TaskState.Finished);
+        List<Job> jobs = Arrays.asList(job1, job2, job3);
+
+        Random random = new Random(123);
+        for (int i = 0; i < 500; i++) {
+            String taskId = taskIds.get(random.nextInt(taskIds.size()));
+            DownstreamHealthService downstream = random.nextBoolean() ? downstream1 : downstream2;
+            switch (random.nextInt(4)) {
+                case 0:
+                    downstream.makeHealthy(taskId);
+                    break;
+                case 1:
+                    downstream.makeUnhealthy(taskId);
+                    break;
+                case 2:
+                    // Tasks move forward only, so this is less frequent to keep most of them active during the test
+                    TaskState state = jobOperations.findTaskById(taskId).get().getRight().getStatus().getState();
+                    if (state != TaskState.Finished && random.nextInt(5) == 0) {
+                        jobManagerStub.moveTaskToState(taskId, states.get(states.indexOf(state) + 1));
+                    }
+                    break;
+                case 3:
+                    changeHealthProviders(jobs.get(random.nextInt(jobs.size())).getId(), random.nextBoolean() ? "downstream1" : "downstream2");
+                    break;
+            }
+            for (String id : taskIds) {
+                assertThat(healthService.findHealthStatus(id).map(ContainerHealthStatus::getState))
+                        .describedAs("Step %s, task %s", i, id)
+                        .isEqualTo(healthService.resolveHealthStatus(id).map(ContainerHealthStatus::getState));
+            }
+        }
+    }
+
+    @Test
+    public void testSnapshotIsSharedUntilNextUpdate() {
+        healthService.enterActiveMode();
+
+        ContainerHealthSnapshotEvent first = (ContainerHealthSnapshotEvent) healthService.events(true).blockFirst(Duration.ofSeconds(5));
+        ContainerHealthSnapshotEvent second = (ContainerHealthSnapshotEvent) healthService.events(true).blockFirst(Duration.ofSeconds(5));
+        assertThat(second).isSameAs(first);
+        assertThat(first.getSnapshot()).hasSize(1);
+
+        downstream1.makeHealthy(taskId1);
+        ContainerHealthSnapshotEvent third = (ContainerHealthSnapshotEvent) healthService.events(true).blockFirst(Duration.ofSeconds(5));
+        assertThat(third).isNotSameAs(first);
+        assertThat(third.getSnapshot()).hasSize(1);
+    }
+
+    @Test
+    public void testSnapshotFromTableMatchesJobManagerSnapshot() {
+        Job job2 = jobManagerStub.addBatchTemplate("noProviders", batchJobDescriptors(ofBatchSize(3)))
+                .createJobAndTasks("noProviders")
+                .getLeft();
+        List<Task> tasks = jobOperations.getTasks(job2.getId());
+        jobManagerStub.moveTaskToState(tasks.get(0), TaskState.Finished);
+
+        healthService.enterActiveMode();
+
+        jobManagerStub.moveTaskToState(tasks.get(1), TaskState.Started);
+        jobManagerStub.moveTaskToState(tasks.get(2), TaskState.Finished);
+        downstream1.makeHealthy(taskId1);
+        assertSameSnapshotAsJobManager();
+
+        // Finished task removed from the job manager is removed from the snapshot by the next eviction pass
+        jobManagerStub.forget(jobOperations.findTaskById(tasks.get(0).getId()).get().getRight());
+        healthService.evictArchivedFinishedTasks(null);
+        assertSameSnapshotAsJobManager();
+        assertThat(healthService.buildCurrentSnapshot().getSnapshot()).hasSize(3);
+    }
+
+    @Test
+    public void testFinishedJobEntriesAreRemovedFromTable() {
+        Job job2 = jobManagerStub.addBatchTemplate("noProviders", batchJobDescriptors(ofBatchSize(2)))
+                .createJobAndTasks("noProviders")
+                .getLeft();
+        List<Task> tasks = jobOperations.getTasks(job2.getId());
+
+        healthService.enterActiveMode();
+
+        tasks.forEach(task -> jobManagerStub.moveTaskToState(task, TaskState.Finished));
+        assertThat(toStateMap(healthService.buildCurrentSnapshot())).containsKeys(tasks.get(0).getId(), tasks.get(1).getId());
+
+        tasks.forEach(task -> jobManagerStub.forget(jobOperations.findTaskById(task.getId()).get().getRight()));
+        jobManagerStub.finishJob(jobManagerStub.moveJobToKillInitiatedState(job2));
+
+        // No eviction pass, the entries are removed when the job finishes
+        assertThat(toStateMap(healthService.buildCurrentSnapshot())).containsOnlyKeys(taskId1);
+        assertSameSnapshotAsJobManager();
+    }
+
+    @Test
+    public void testHealthTableConvergesForEventsInAnyOrder() {
+        List<Object> tableEvents = new ArrayList<>();
+        jobManagerStub.observeJobs(false).subscribe(tableEvents::add);
+        downstream1.events(false).subscribe(tableEvents::add);
+
+        jobManagerStub.moveTaskToState(taskId1, TaskState.Started);
+        downstream1.makeUnhealthy(taskId1);
+        jobManagerStub.moveTaskToState(taskId1, TaskState.KillInitiated);
+        downstream1.makeHealthy(taskId1);
+        jobManagerStub.moveTaskToState(taskId1, TaskState.Finished);
+        assertThat(tableEvents).hasSize(5);
+
+        List<Object> reversed = new ArrayList<>(tableEvents);
+        Collections.reverse(reversed);
+        for (List<Object> events : Arrays.asList(tableEvents, reversed)) {
+            AggregatingContainerHealthService tableService = new AggregatingContainerHealthService(asSet(downstream1, downstream2), jobOperations, titusRuntime);
+            tableService.onHealthTableEvent(AggregatingContainerHealthService.RELOAD_MARKER);
+
+            // Replays the events delivered with a delay, after the table was loaded with the latest task state
+            events.forEach(tableService::onHealthTableEvent);
+            assertThat(tableService.findHealthStatus(taskId1).map(ContainerHealthStatus::getState))
+                    .isEqualTo(tableService.resolveHealthStatus(taskId1).map(ContainerHealthStatus::getState));
+            assertThat(toStateMap(tableService.buildCurrentSnapshot())).isEqualTo(toStateMap(newJobManagerBasedService().buildCurrentSnapshot()));
+        }
+    }
+
+    private void assertSameSnapshotAsJobManager() {
+        assertThat(toStateMap(healthService.buildCurrentSnapshot())).isEqualTo(toStateMap(newJobManagerBasedService().buildCurrentSnapshot()));
+    }
+
+    private AggregatingContainerHealthService newJobManagerBasedService() {
+        return new AggregatingContainerHealthService(asSet(downstream1, downstream2), jobOperations, titusRuntime);
+    }
+
+    private Map<String, ContainerHealthState> toStateMap(ContainerHealthSnapshotEvent snapshot) {
+        return snapshot.getSnapshot().stream().collect(Collectors.toMap(ContainerHealthStatus::getTaskId, ContainerHealthStatus::getState));
+    }
+
+    private void changeHealthProviders(String jobId, String... providerNames) {
+        Job job = jobOperations.getJob(jobId).get();
+        DisruptionBudget disruptionBudget = job.getJobDescriptor().getDisruptionBudget().toBuilder()
+                .withContainerHealthProviders(Arrays.stream(providerNames).map(ContainerHealthProvider::named).collect(Collectors.toList()))
+                .build();
+        jobManagerStub.changeJob(job.toBuilder()
+                .withJobDescriptor(job.getJobDescriptor().toBuilder().withDisruptionBudget(disruptionBudget).build())
+                .build()
+        );
+    }
+
     private class DownstreamHealthService implements ContainerHealthService {
 
         private final String name;
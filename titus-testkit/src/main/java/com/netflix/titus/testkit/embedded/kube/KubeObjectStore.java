@@ -0,0 +1,270 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.testkit.embedded.kube;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import io.kubernetes.client.openapi.JSON;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+
+/**
+ * In-memory storage of Kubernetes objects of a single type, with the list and watch semantic of the API server.
+ * Objects are kept in their serialized form, so each change is serialized once, no matter how many times it is
+ * listed or sent to watchers. Each change gets the next value of the resource version sequence, which is shared
+ * by all stores of the simulated API server.
+ */
+class KubeObjectStore<T> {
+
+    private static final String ERROR_GONE = "{\"type\":\"ERROR\",\"object\":{\"kind\":\"Status\",\"apiVersion\":\"v1\","
+            + "\"metadata\":{},\"status\":\"Failure\",\"message\":\"too old resource version\",\"reason\":\"Expired\",\"code\":410}}";
+
+    private final String apiVersion;
+    private final String listKind;
+    private final Class<T> type;
+    private final Function<T, V1ObjectMeta> metadataAccessor;
+    private final JSON json;
+    private final AtomicLong resourceVersionSequence;
+    private final Supplier<Integer> historySizeSupplier;
+
+    private final Map<String, String> objects = new LinkedHashMap<>();
+    private final Deque<Change> history = new ArrayDeque<>();
+    private final Set<Watcher> watchers = new HashSet<>();
+
+    /**
+     * Resource version of the last change removed from the history. Watches from an older version cannot be resumed.
+     */
+    private long evictedVersion;
+
+    KubeObjectStore(String apiVersion,
+                    String listKind,
+                    Class<T> type,
+                    Function<T, V1ObjectMeta> metadataAccessor,
+                    JSON json,
+                    AtomicLong resourceVersionSequence,
+                    Supplier<Integer> historySizeSupplier) {
+        this.apiVersion = apiVersion;
+        this.listKind = listKind;
+        this.type = type;
+        this.metadataAccessor = metadataAccessor;
+        this.json = json;
+        this.resourceVersionSequence = resourceVersionSequence;
+        this.historySizeSupplier = historySizeSupplier;
+    }
+
+    synchronized int size() {
+        return objects.size();
+    }
+
+    synchronized List<String> getNames() {
+        return new ArrayList<>(objects.keySet());
+    }
+
+    /**
+     * Returns a copy of an object, which can be freely modified by the caller.
+     */
+    synchronized Optional<T> get(String name) {
+        String value = objects.get(name);
+        return value == null ? Optional.empty() : Optional.of(json.deserialize(value, type));
+    }
+
+    synchronized Optional<String> getSerialized(String name) {
+        return Optional.ofNullable(objects.get(name));
+    }
+
+    synchronized List<T> getAll() {
+        List<T> result = new ArrayList<>(objects.size());
+        objects.values().forEach(value -> result.add(json.deserialize(value, type)));
+        return result;
+    }
+
+    /**
+     * Adds a new object, or returns {@link Optional#empty()} if an object with the same name already exists.
+     */
+    synchronized Optional<T> add(T object) {
+        String name = metadataAccessor.apply(object).getName();
+        if (objects.containsKey(name)) {
+            return Optional.empty();
+        }
+        return Optional.of(store(name, object, "ADDED"));
+    }
+
+    /**
+     * Applies a change to a copy of an object. If the object does not exist, or the mutator returns null, no change
+     * is made, and {@link Optional#empty()} is returned.
+     */
+    synchronized Optional<T> update(String name, Function<T, T> mutator) {
+        String value = objects.get(name);
+        if (value == null) {
+            return Optional.empty();
+        }
+        T updated = mutator.apply(json.deserialize(value, type));
+        if (updated == null) {
+            return Optional.empty();
+        }
+        return Optional.of(store(name, updated, "MODIFIED"));
+    }
+
+    synchronized Optional<T> remove(String name) {
+        String value = objects.remove(name);
+        if (value == null) {
+            return Optional.empty();
+        }
+        T removed = json.deserialize(value, type);
+        long version = resourceVersionSequence.incrementAndGet();
+        metadataAccessor.apply(removed).setResourceVersion(Long.toString(version));
+        record(version, "DELETED", json.serialize(removed));
+        return Optional.of(removed);
+    }
+
+    synchronized String list() {
+        StringBuilder sb = new StringBuilder("{\"apiVersion\":\"").append(apiVersion)
+                .append("\",\"kind\":\"").append(listKind)
+                .append("\",\"metadata\":{\"resourceVersion\":\"").append(resourceVersionSequence.get())
+                .append("\"},\"items\":[");
+        boolean first = true;
+        for (String value : objects.values()) {
+            if (!first) {
+                sb.append(',');
+            }
+            sb.append(value);
+            first = false;
+        }
+        return sb.append("]}").toString();
+    }
+
+    /**
+     * Starts a watch, which first replays all changes newer than the given resource version. If the resource version
+     * is null or 0, only the new changes are emitted.
+     */
+    synchronized Watcher watch(String resourceVersion) {
+        long fromVersion = parseResourceVersion(resourceVersion);
+        Watcher watcher = new Watcher();
+        if (fromVersion > 0 && fromVersion < evictedVersion) {
+            watcher.lines.add(ERROR_GONE);
+            watcher.expired = true;
+            return watcher;
+        }
+        if (fromVersion > 0) {
+            for (Change change : history) {
+                if (change.version > fromVersion) {
+                    watcher.lines.add(change.line);
+                }
+            }
+        }
+        watchers.add(watcher);
+        return watcher;
+    }
+
+    /**
+     * Terminates all active watches with the 'Gone' error, and drops the change history, so the watch clients
+     * must relist.
+     */
+    synchronized void expireWatches() {
+        history.clear();
+        evictedVersion = resourceVersionSequence.get();
+        for (Watcher watcher : watchers) {
+            watcher.lines.add(ERROR_GONE);
+            watcher.expired = true;
+        }
+        watchers.clear();
+    }
+
+    private T store(String name, T object, String eventType) {
+        long version = resourceVersionSequence.incrementAndGet();
+        metadataAccessor.apply(object).setResourceVersion(Long.toString(version));
+        String value = json.serialize(object);
+        objects.put(name, value);
+        record(version, eventType, value);
+        return object;
+    }
+
+    private void record(long version, String eventType, String value) {
+        String line = "{\"type\":\"" + eventType + "\",\"object\":" + value + "}";
+        history.addLast(new Change(version, line));
+        int historySize = Math.max(1, historySizeSupplier.get());
+        while (history.size() > historySize) {
+            evictedVersion = history.removeFirst().version;
+        }
+        watchers.forEach(watcher -> watcher.lines.add(line));
+    }
+
+    private static long parseResourceVersion(String resourceVersion) {
+        if (resourceVersion == null || resourceVersion.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(resourceVersion);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static class Change {
+
+        private final long version;
+        private final String line;
+
+        private Change(long version, String line) {
+            this.version = version;
+            this.line = line;
+        }
+    }
+
+    class Watcher {
+
+        private final BlockingQueue<String> lines = new LinkedBlockingQueue<>();
+        private volatile boolean expired;
+
+        /**
+         * Waits up to the given amount of time for the next change, and returns it, together with all other
+         * changes already queued. If the watch expired, the 'Gone' error is returned.
+         */
+        List<String> poll(long timeoutMs) throws InterruptedException {
+            List<String> result = new ArrayList<>();
+            String next = lines.poll(timeoutMs, TimeUnit.MILLISECONDS);
+            if (next != null) {
+                result.add(next);
+                lines.drainTo(result);
+            }
+            return result;
+        }
+
+        boolean isExpired() {
+            return expired;
+        }
+
+        void close() {
+            synchronized (KubeObjectStore.this) {
+                watchers.remove(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,381 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.testkit.embedded.kube;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.util.ExecutorsExt;
+import com.netflix.titus.master.mesos.kubeapiserver.KubeConstants;
+import com.netflix.titus.master.mesos.kubeapiserver.KubeUtil;
+import com.netflix.titus.master.mesos.kubeapiserver.client.KubeApiClients;
+import com.netflix.titus.master.mesos.kubeapiserver.model.v1.V1OpportunisticResource;
+import io.kubernetes.client.custom.Quantity;
+import io.kubernetes.client.openapi.ApiClient;
+import io.kubernetes.client.openapi.JSON;
+import io.kubernetes.client.openapi.models.V1ContainerState;
+import io.kubernetes.client.openapi.models.V1ContainerStateRunning;
+import io.kubernetes.client.openapi.models.V1ContainerStateTerminated;
+import io.kubernetes.client.openapi.models.V1ContainerStateWaiting;
+import io.kubernetes.client.openapi.models.V1ContainerStatus;
+import io.kubernetes.client.openapi.models.V1Node;
+import io.kubernetes.client.openapi.models.V1NodeAddress;
+import io.kubernetes.client.openapi.models.V1NodeCondition;
+import io.kubernetes.client.openapi.models.V1NodeSpec;
+import io.kubernetes.client.openapi.models.V1NodeStatus;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodCondition;
+import io.kubernetes.client.openapi.models.V1PodSpec;
+import io.kubernetes.client.openapi.models.V1PodStatus;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.servlet.ServletContextHandler;
+import org.eclipse.jetty.servlet.ServletHolder;
+import org.joda.time.DateTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * In-process simulation of the Kubernetes control plane, for testing the direct Kube integration without a real
+ * cluster. It serves over HTTP the pod and node list/watch, and the pod create/delete API, so the production client
+ * stack ({@link com.netflix.titus.master.mesos.kubeapiserver.client.DefaultKubeApiFacade} and its informers) can
+ * be run against it unchanged.
+ * <p>
+ * Created pods are moved through their lifecycle by the simulator: assignment to a node (round robin), container
+ * start, and (optionally) container completion. Deleted pods are terminated and removed after a configurable delay.
+ * Request latencies and failures are injected according to {@link SimulatedKubeConfiguration}, which is read on each
+ * request, so it can be changed while the test runs.
+ */
+public class SimulatedKubeApiServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedKubeApiServer.class);
+
+    public static final String NAMESPACE = "default";
+
+    private static final String PHASE_PENDING = "Pending";
+    private static final String PHASE_RUNNING = "Running";
+    private static final String PHASE_SUCCEEDED = "Succeeded";
+    private static final String PHASE_FAILED = "Failed";
+
+    private static final long NODE_WAIT_RETRY_MS = 100;
+
+    private final SimulatedKubeConfiguration configuration;
+    private final JSON json = new JSON();
+    private final AtomicLong resourceVersionSequence = new AtomicLong();
+    private final AtomicInteger nextNodeIndex = new AtomicInteger();
+    private final AtomicLong nextIpAddress = new AtomicLong();
+
+    private final KubeObjectStore<V1Pod> podStore;
+    private final KubeObjectStore<V1Node> nodeStore;
+    private final KubeObjectStore<V1OpportunisticResource> opportunisticResourceStore;
+
+    private final ScheduledExecutorService lifecycleExecutor;
+    private final SimulatedKubeApiServlet servlet;
+    private final Server server;
+    private final String baseUri;
+
+    public SimulatedKubeApiServer(SimulatedKubeConfiguration configuration) {
+        this.configuration = configuration;
+        this.podStore = new KubeObjectStore<>("v1", "PodList", V1Pod.class, V1Pod::getMetadata, json,
+                resourceVersionSequence, configuration::getWatchHistorySize);
+        this.nodeStore = new KubeObjectStore<>("v1", "NodeList", V1Node.class, V1Node::getMetadata, json,
+                resourceVersionSequence, configuration::getWatchHistorySize);
+        this.opportunisticResourceStore = new KubeObjectStore<>("titus.netflix.com/v1", "OpportunisticResourceList",
+                V1OpportunisticResource.class, V1OpportunisticResource::getMetadata, json, resourceVersionSequence,
+                configuration::getWatchHistorySize);
+
+        this.lifecycleExecutor = ExecutorsExt.namedSingleThreadScheduledExecutor("simulated-kube-lifecycle");
+        this.servlet = new SimulatedKubeApiServlet(this, configuration, json);
+
+        ServletContextHandler context = new ServletContextHandler(ServletContextHandler.NO_SESSIONS);
+        context.setContextPath("/");
+        context.addServlet(new ServletHolder(servlet), "/*");
+
+        this.server = new Server(0);
+        server.setHandler(context);
+        try {
+            server.start();
+        } catch (Exception e) {
+            lifecycleExecutor.shutdownNow();
+            throw new IllegalStateException("Cannot start the simulated Kube API server", e);
+        }
+        this.baseUri = "http://localhost:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+
+        logger.info("Simulated Kube API server started at {}", baseUri);
+    }
+
+    public void shutdown() {
+        servlet.shutdown();
+        lifecycleExecutor.shutdownNow();
+        try {
+            server.stop();
+        } catch (Exception e) {
+            logger.warn("Error during the simulated Kube API server shutdown", e);
+        }
+    }
+
+    public String getBaseUri() {
+        return baseUri;
+    }
+
+    /**
+     * Creates an API client connected to this server, configured the same way as the production one, except that
+     * the read timeout is disabled, to keep idle watches open.
+     */
+    public ApiClient newApiClient(TitusRuntime titusRuntime) {
+        return KubeApiClients.createApiClient(baseUri, null, "titus.simulatedKube.client", titusRuntime, 0);
+    }
+
+    public List<V1Pod> getPods() {
+        return podStore.getAll();
+    }
+
+    public Optional<V1Pod> findPod(String name) {
+        return podStore.get(name);
+    }
+
+    public int getPodCount() {
+        return podStore.size();
+    }
+
+    public List<V1Node> getNodes() {
+        return nodeStore.getAll();
+    }
+
+    /**
+     * Adds a ready node, with the Titus node annotations and labels set.
+     */
+    public V1Node addNode(String name, String zone) {
+        String ipAddress = nextIpAddress();
+        V1Node node = new V1Node()
+                .metadata(new V1ObjectMeta()
+                        .name(name)
+                        .uid(UUID.randomUUID().toString())
+                        .creationTimestamp(DateTime.now())
+                        .putLabelsItem(KubeConstants.NODE_LABEL_ZONE, zone)
+                        .putLabelsItem(KubeConstants.NODE_LABEL_MACHINE_ID, name)
+                        .putAnnotationsItem(KubeConstants.TITUS_NODE_DOMAIN + "id", name)
+                        .putAnnotationsItem(KubeConstants.TITUS_NODE_DOMAIN + "asg", "simulated-asg")
+                        .putAnnotationsItem(KubeConstants.TITUS_NODE_DOMAIN + "zone", zone)
+                )
+                .spec(new V1NodeSpec())
+                .status(new V1NodeStatus()
+                        .addAddressesItem(new V1NodeAddress().type(KubeUtil.TYPE_INTERNAL_IP).address(ipAddress))
+                        .putAllocatableItem("cpu", new Quantity("64"))
+                        .putAllocatableItem("memory", new Quantity("512Gi"))
+                        .putCapacityItem("cpu", new Quantity("64"))
+                        .putCapacityItem("memory", new Quantity("512Gi"))
+                        .addConditionsItem(new V1NodeCondition()
+                                .type("Ready")
+                                .status("True")
+                                .lastHeartbeatTime(DateTime.now())
+                        )
+                );
+        return nodeStore.add(node).orElseThrow(() -> new IllegalArgumentException("Node already exists: " + name));
+    }
+
+    /**
+     * Changes the status of the node 'Ready' condition.
+     */
+    public void setNodeReady(String name, boolean ready) {
+        nodeStore.update(name, node -> {
+            for (V1NodeCondition condition : node.getStatus().getConditions()) {
+                if ("Ready".equals(condition.getType())) {
+                    condition.status(ready ? "True" : "False").lastHeartbeatTime(DateTime.now());
+                }
+            }
+            return node;
+        });
+    }
+
+    /**
+     * Removes a node, and fails all pods running on it.
+     */
+    public void removeNode(String name) {
+        if (!nodeStore.remove(name).isPresent()) {
+            return;
+        }
+        for (V1Pod pod : podStore.getAll()) {
+            if (pod.getSpec() != null && name.equals(pod.getSpec().getNodeName())) {
+                finishContainer(pod.getMetadata().getName(), PHASE_FAILED, -1, "NodeLost");
+            }
+        }
+    }
+
+    /**
+     * Terminates all active pod and node watches with the 'Gone' (410) error, which makes the informers relist.
+     * Combined with {@link SimulatedKubeConfiguration#getListAndWatchFailureProbability()}, it keeps the informers
+     * disconnected, while changes are made.
+     */
+    public void expireWatches() {
+        podStore.expireWatches();
+        nodeStore.expireWatches();
+    }
+
+    Optional<V1Pod> createPod(V1Pod pod) {
+        pod.getMetadata()
+                .namespace(NAMESPACE)
+                .uid(UUID.randomUUID().toString())
+                .creationTimestamp(DateTime.now());
+        if (pod.getSpec() == null) {
+            pod.spec(new V1PodSpec().containers(Collections.emptyList()));
+        }
+        pod.status(new V1PodStatus().phase(PHASE_PENDING));
+
+        Optional<V1Pod> created = podStore.add(pod);
+        created.ifPresent(p -> schedule(() -> assignNode(p.getMetadata().getName()), configuration.getPodScheduleDelayMs()));
+        return created;
+    }
+
+    Optional<V1Pod> deletePod(String name) {
+        Optional<V1Pod> current = podStore.get(name);
+        if (!current.isPresent() || current.get().getMetadata().getDeletionTimestamp() != null) {
+            return current;
+        }
+        Optional<V1Pod> deleted = podStore.update(name, pod -> {
+            pod.getMetadata().deletionTimestamp(DateTime.now());
+            return pod;
+        });
+        deleted.ifPresent(pod -> schedule(() -> terminatePod(name), configuration.getPodTerminationDelayMs()));
+        return deleted;
+    }
+
+    KubeObjectStore<V1Pod> getPodStore() {
+        return podStore;
+    }
+
+    KubeObjectStore<V1Node> getNodeStore() {
+        return nodeStore;
+    }
+
+    KubeObjectStore<V1OpportunisticResource> getOpportunisticResourceStore() {
+        return opportunisticResourceStore;
+    }
+
+    private void assignNode(String podName) {
+        List<String> nodeNames = nodeStore.getNames();
+        if (nodeNames.isEmpty()) {
+            schedule(() -> assignNode(podName), NODE_WAIT_RETRY_MS);
+            return;
+        }
+        String nodeName = nodeNames.get(Math.floorMod(nextNodeIndex.getAndIncrement(), nodeNames.size()));
+
+        Optional<V1Pod> assigned = podStore.update(podName, pod -> {
+            if (pod.getMetadata().getDeletionTimestamp() != null) {
+                return null;
+            }
+            pod.getSpec().nodeName(nodeName);
+            pod.getStatus()
+                    .addConditionsItem(new V1PodCondition().type("PodScheduled").status("True").lastTransitionTime(DateTime.now()))
+                    .containerStatuses(Collections.singletonList(newContainerStatus(pod)
+                            .state(new V1ContainerState().waiting(new V1ContainerStateWaiting().reason("ContainerCreating")))
+                    ));
+            return pod;
+        });
+        assigned.ifPresent(pod -> schedule(() -> startContainer(podName), configuration.getPodStartDelayMs()));
+    }
+
+    private void startContainer(String podName) {
+        String ipAddress = nextIpAddress();
+        Optional<V1Pod> started = podStore.update(podName, pod -> {
+            if (pod.getMetadata().getDeletionTimestamp() != null || !PHASE_PENDING.equals(pod.getStatus().getPhase())) {
+                return null;
+            }
+            pod.getMetadata().putAnnotationsItem("IpAddress", ipAddress);
+            pod.getStatus()
+                    .phase(PHASE_RUNNING)
+                    .podIP(ipAddress)
+                    .startTime(DateTime.now())
+                    .containerStatuses(Collections.singletonList(newContainerStatus(pod)
+                            .ready(true)
+                            .state(new V1ContainerState().running(new V1ContainerStateRunning().startedAt(DateTime.now())))
+                    ));
+            return pod;
+        });
+        long runTimeMs = configuration.getPodRunTimeMs();
+        if (started.isPresent() && runTimeMs >= 0) {
+            schedule(() -> finishContainer(podName, PHASE_SUCCEEDED, 0, "Completed"), runTimeMs);
+        }
+    }
+
+    private void finishContainer(String podName, String phase, int exitCode, String reason) {
+        podStore.update(podName, pod -> {
+            if (isTerminal(pod)) {
+                return null;
+            }
+            pod.getStatus()
+                    .phase(phase)
+                    .reason(reason)
+                    .containerStatuses(Collections.singletonList(newContainerStatus(pod)
+                            .state(new V1ContainerState().terminated(new V1ContainerStateTerminated()
+                                    .exitCode(exitCode)
+                                    .reason(reason)
+                                    .finishedAt(DateTime.now())
+                            ))
+                    ));
+            return pod;
+        });
+    }
+
+    private void terminatePod(String podName) {
+        finishContainer(podName, PHASE_FAILED, 143, "Killed");
+        podStore.remove(podName);
+    }
+
+    private void schedule(Runnable action, long delayMs) {
+        if (lifecycleExecutor.isShutdown()) {
+            return;
+        }
+        lifecycleExecutor.schedule(() -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                logger.warn("Simulated pod lifecycle action failed", e);
+            }
+        }, Math.max(0, delayMs), TimeUnit.MILLISECONDS);
+    }
+
+    private String nextIpAddress() {
+        long next = nextIpAddress.incrementAndGet();
+        return String.format("10.%d.%d.%d", (next >> 16) & 0xFF, (next >> 8) & 0xFF, next & 0xFF);
+    }
+
+    private static boolean isTerminal(V1Pod pod) {
+        return PHASE_SUCCEEDED.equals(pod.getStatus().getPhase()) || PHASE_FAILED.equals(pod.getStatus().getPhase());
+    }
+
+    private static V1ContainerStatus newContainerStatus(V1Pod pod) {
+        String containerName = pod.getSpec().getContainers() == null || pod.getSpec().getContainers().isEmpty()
+                ? pod.getMetadata().getName()
+                : pod.getSpec().getContainers().get(0).getName();
+        return new V1ContainerStatus()
+                .name(containerName)
+                .containerID(pod.getMetadata().getName())
+                .image("simulated")
+                .imageID("simulated")
+                .restartCount(0)
+                .ready(false);
+    }
+}
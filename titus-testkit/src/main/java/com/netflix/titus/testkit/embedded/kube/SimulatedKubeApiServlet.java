@@ -0,0 +1,248 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.testkit.embedded.kube;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import com.google.common.io.CharStreams;
+import com.google.gson.JsonParseException;
+import io.kubernetes.client.openapi.JSON;
+import io.kubernetes.client.openapi.models.V1ListMeta;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1Status;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HTTP endpoint of {@link SimulatedKubeApiServer}, with the subset of the Kubernetes REST API used by Titus: pod and
+ * node list/watch, pod read/create/delete, and list/watch of the opportunistic resources.
+ */
+class SimulatedKubeApiServlet extends HttpServlet {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimulatedKubeApiServlet.class);
+
+    private static final Pattern NAMESPACED_PODS = Pattern.compile("/api/v1/namespaces/[^/]+/pods(/([^/]+))?");
+    private static final Pattern ALL_PODS = Pattern.compile("/api/v1/pods");
+    private static final Pattern NODES = Pattern.compile("/api/v1/nodes(/([^/]+))?");
+    private static final Pattern OPPORTUNISTIC_RESOURCES = Pattern.compile("/apis/[^/]+/[^/]+/namespaces/[^/]+/opportunistic-resources");
+
+    private static final long DEFAULT_WATCH_TIMEOUT_MS = 5 * 60 * 1000;
+    private static final long WATCH_POLL_INTERVAL_MS = 1_000;
+
+    private final SimulatedKubeApiServer apiServer;
+    private final SimulatedKubeConfiguration configuration;
+    private final JSON json;
+
+    private volatile boolean shutdown;
+
+    SimulatedKubeApiServlet(SimulatedKubeApiServer apiServer, SimulatedKubeConfiguration configuration, JSON json) {
+        this.apiServer = apiServer;
+        this.configuration = configuration;
+        this.json = json;
+    }
+
+    void shutdown() {
+        this.shutdown = true;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        String path = req.getRequestURI();
+
+        Matcher podsMatcher = NAMESPACED_PODS.matcher(path);
+        if (podsMatcher.matches() && podsMatcher.group(2) != null) {
+            writeObject(resp, apiServer.getPodStore().getSerialized(podsMatcher.group(2)), "pods", podsMatcher.group(2));
+        } else if (podsMatcher.matches() || ALL_PODS.matcher(path).matches()) {
+            listOrWatch(req, resp, apiServer.getPodStore());
+        } else {
+            Matcher nodesMatcher = NODES.matcher(path);
+            if (nodesMatcher.matches() && nodesMatcher.group(2) != null) {
+                writeObject(resp, apiServer.getNodeStore().getSerialized(nodesMatcher.group(2)), "nodes", nodesMatcher.group(2));
+            } else if (nodesMatcher.matches()) {
+                listOrWatch(req, resp, apiServer.getNodeStore());
+            } else if (OPPORTUNISTIC_RESOURCES.matcher(path).matches()) {
+                listOrWatch(req, resp, apiServer.getOpportunisticResourceStore());
+            } else {
+                writeStatus(resp, HttpServletResponse.SC_NOT_FOUND, "NotFound", "the server could not find the requested resource");
+            }
+        }
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        Matcher podsMatcher = NAMESPACED_PODS.matcher(req.getRequestURI());
+        if (!podsMatcher.matches() || podsMatcher.group(2) != null) {
+            writeStatus(resp, HttpServletResponse.SC_METHOD_NOT_ALLOWED, "MethodNotAllowed", "the server does not allow this method on the requested resource");
+            return;
+        }
+        if (injectLatencyAndFailure(resp, configuration.getPodCreateLatencyMs(), configuration.getPodCreateFailureProbability())) {
+            return;
+        }
+
+        V1Pod pod;
+        try {
+            pod = json.deserialize(CharStreams.toString(req.getReader()), V1Pod.class);
+        } catch (JsonParseException e) {
+            writeStatus(resp, HttpServletResponse.SC_BAD_REQUEST, "BadRequest", "invalid pod: " + e.getMessage());
+            return;
+        }
+        if (pod == null || pod.getMetadata() == null || pod.getMetadata().getName() == null) {
+            writeStatus(resp, HttpServletResponse.SC_BAD_REQUEST, "BadRequest", "pod name not set");
+            return;
+        }
+
+        Optional<V1Pod> created = apiServer.createPod(pod);
+        if (created.isPresent()) {
+            writeJson(resp, HttpServletResponse.SC_CREATED, json.serialize(created.get()));
+        } else {
+            writeStatus(resp, HttpServletResponse.SC_CONFLICT, "AlreadyExists", String.format("pods \"%s\" already exists", pod.getMetadata().getName()));
+        }
+    }
+
+    @Override
+    protected void doDelete(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        Matcher podsMatcher = NAMESPACED_PODS.matcher(req.getRequestURI());
+        if (!podsMatcher.matches() || podsMatcher.group(2) == null) {
+            writeStatus(resp, HttpServletResponse.SC_METHOD_NOT_ALLOWED, "MethodNotAllowed", "the server does not allow this method on the requested resource");
+            return;
+        }
+        if (injectLatencyAndFailure(resp, configuration.getPodDeleteLatencyMs(), configuration.getPodDeleteFailureProbability())) {
+            return;
+        }
+
+        String name = podsMatcher.group(2);
+        if (apiServer.deletePod(name).isPresent()) {
+            writeJson(resp, HttpServletResponse.SC_OK, json.serialize(new V1Status()
+                    .apiVersion("v1")
+                    .kind("Status")
+                    .metadata(new V1ListMeta())
+                    .status("Success")
+            ));
+        } else {
+            writeNotFound(resp, "pods", name);
+        }
+    }
+
+    private void listOrWatch(HttpServletRequest req, HttpServletResponse resp, KubeObjectStore<?> store) throws IOException {
+        if (injectLatencyAndFailure(resp, 0, configuration.getListAndWatchFailureProbability())) {
+            return;
+        }
+        if (!Boolean.parseBoolean(req.getParameter("watch"))) {
+            writeJson(resp, HttpServletResponse.SC_OK, store.list());
+            return;
+        }
+
+        long timeoutMs = DEFAULT_WATCH_TIMEOUT_MS;
+        String timeoutSeconds = req.getParameter("timeoutSeconds");
+        if (timeoutSeconds != null) {
+            try {
+                timeoutMs = Long.parseLong(timeoutSeconds) * 1_000;
+            } catch (NumberFormatException ignore) {
+            }
+        }
+
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType("application/json");
+        ServletOutputStream output = resp.getOutputStream();
+        resp.flushBuffer();
+
+        KubeObjectStore<?>.Watcher watcher = store.watch(req.getParameter("resourceVersion"));
+        long deadline = System.currentTimeMillis() + timeoutMs;
+        try {
+            long remaining;
+            while (!shutdown && (remaining = deadline - System.currentTimeMillis()) > 0) {
+                List<String> lines = watcher.poll(Math.min(remaining, WATCH_POLL_INTERVAL_MS));
+                if (!lines.isEmpty()) {
+                    for (String line : lines) {
+                        output.write(line.getBytes(StandardCharsets.UTF_8));
+                        output.write('\n');
+                    }
+                    output.flush();
+                }
+                if (watcher.isExpired()) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.debug("Watch client disconnected: {}", e.getMessage());
+        } finally {
+            watcher.close();
+        }
+    }
+
+    /**
+     * Returns true if the request failed, and the error response was written.
+     */
+    private boolean injectLatencyAndFailure(HttpServletResponse resp, long latencyMs, double failureProbability) throws IOException {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (failureProbability > 0 && ThreadLocalRandom.current().nextDouble() < failureProbability) {
+            writeStatus(resp, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "InternalError", "simulated failure");
+            return true;
+        }
+        return false;
+    }
+
+    private void writeObject(HttpServletResponse resp, Optional<String> value, String resource, String name) throws IOException {
+        if (value.isPresent()) {
+            writeJson(resp, HttpServletResponse.SC_OK, value.get());
+        } else {
+            writeNotFound(resp, resource, name);
+        }
+    }
+
+    private void writeNotFound(HttpServletResponse resp, String resource, String name) throws IOException {
+        writeStatus(resp, HttpServletResponse.SC_NOT_FOUND, "NotFound", String.format("%s \"%s\" not found", resource, name));
+    }
+
+    private void writeStatus(HttpServletResponse resp, int code, String reason, String message) throws IOException {
+        writeJson(resp, code, json.serialize(new V1Status()
+                .apiVersion("v1")
+                .kind("Status")
+                .metadata(new V1ListMeta())
+                .status("Failure")
+                .reason(reason)
+                .message(message)
+                .code(code)
+        ));
+    }
+
+    private void writeJson(HttpServletResponse resp, int code, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        resp.setStatus(code);
+        resp.setContentType("application/json");
+        resp.setContentLength(bytes.length);
+        resp.getOutputStream().write(bytes);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.testkit.embedded.kube;
+
+import com.netflix.archaius.api.annotations.Configuration;
+import com.netflix.archaius.api.annotations.DefaultValue;
+
+@Configuration(prefix = "titus.simulated.kube")
+public interface SimulatedKubeConfiguration {
+
+    /**
+     * Time added to each pod create request, before it is processed.
+     */
+    @DefaultValue("0")
+    long getPodCreateLatencyMs();
+
+    /**
+     * Probability (0-1) with which a pod create request fails with an internal server error.
+     */
+    @DefaultValue("0")
+    double getPodCreateFailureProbability();
+
+    /**
+     * Time added to each pod delete request, before it is processed.
+     */
+    @DefaultValue("0")
+    long getPodDeleteLatencyMs();
+
+    /**
+     * Probability (0-1) with which a pod delete request fails with an internal server error.
+     */
+    @DefaultValue("0")
+    double getPodDeleteFailureProbability();
+
+    /**
+     * Probability (0-1) with which a list or a watch request fails with an internal server error.
+     */
+    @DefaultValue("0")
+    double getListAndWatchFailureProbability();
+
+    /**
+     * Time after which a new pod is assigned to a node.
+     */
+    @DefaultValue("10")
+    long getPodScheduleDelayMs();
+
+    /**
+     * Time between a pod assignment to a node, and its container reaching the running state.
+     */
+    @DefaultValue("100")
+    long getPodStartDelayMs();
+
+    /**
+     * Time a container runs before it finishes on its own. If negative, the container runs until its pod is deleted.
+     */
+    @DefaultValue("-1")
+    long getPodRunTimeMs();
+
+    /**
+     * Time between a pod delete request, and the pod removal.
+     */
+    @DefaultValue("100")
+    long getPodTerminationDelayMs();
+
+    /**
+     * Number of the most recent changes kept for each resource type, from which a watch can be resumed. Watches
+     * with older resource versions are rejected with the 'Gone' (410) error, which makes informers relist.
+     */
+    @DefaultValue("100000")
+    int getWatchHistorySize();
+}
@@ -21,6 +21,7 @@ import java.util.Optional;
 import com.netflix.titus.api.containerhealth.model.ContainerHealthStatus;
 import com.netflix.titus.api.containerhealth.model.event.ContainerHealthEvent;
 import com.netflix.titus.api.containerhealth.service.ContainerHealthService;
+import com.netflix.titus.common.util.rx.ReactorExt;
 import reactor.core.publisher.Flux;
 
 class StubbedContainerHealthService implements ContainerHealthService {
@@ -43,6 +44,6 @@ class StubbedContainerHealthService implements ContainerHealthService {
 
     @Override
     public Flux<ContainerHealthEvent> events(boolean snapshot) {
-        return null;
+        return ReactorExt.toFlux(stubbedJobData.healthEvents());
     }
 }
@@ -34,6 +34,7 @@ import com.netflix.titus.simulator.SimulatedAgentServiceGrpc;
 import com.netflix.titus.simulator.SimulatedAgentServiceGrpc.SimulatedAgentServiceStub;
 import com.netflix.titus.testkit.embedded.cloud.connector.remote.SimulatedAgentClient;
 import com.netflix.titus.testkit.embedded.cloud.connector.remote.SimulatedRemoteInstanceCloudConnector;
+import com.netflix.titus.testkit.perf.load.report.MetricsCollector;
 import io.grpc.Channel;
 
 @Singleton
@@ -55,6 +56,8 @@ public class ExecutionContext {
 
     private final SimulatedAgentClient simulatedCloudClient;
 
+    private final MetricsCollector metricsCollector = new MetricsCollector();
+
     @Inject
     public ExecutionContext(JobManagementClient jobManagementClient,
                             ReadOnlyJobOperations cachedJobManagementClient,
@@ -103,4 +106,8 @@ public class ExecutionContext {
     public SimulatedAgentClient getSimulatedCloudClient() {
         return simulatedCloudClient;
     }
+
+    public MetricsCollector getMetricsCollector() {
+        return metricsCollector;
+    }
 }
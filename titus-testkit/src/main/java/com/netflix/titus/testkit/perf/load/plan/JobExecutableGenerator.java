@@ -20,6 +20,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 import com.netflix.titus.api.jobmanager.model.job.JobDescriptor;
+import com.netflix.titus.testkit.perf.load.plan.generator.CapacityGroupChurnJobExecutableGenerator;
 import com.netflix.titus.testkit.perf.load.plan.generator.CompositeJobExecutableGenerator;
 import com.netflix.titus.testkit.perf.load.plan.generator.ConstantLoadJobExecutableGenerator;
 import reactor.core.publisher.Flux;
@@ -67,6 +68,16 @@ public abstract class JobExecutableGenerator {
             return this;
         }
 
+        public ExecutionScenarioBuilder capacityGroupChurn(JobDescriptor<?> jobSpec, ExecutionPlan plan, List<String> capacityGroups, int numberOfJobs) {
+            scenarios.add(new CapacityGroupChurnJobExecutableGenerator("scenario#" + scenarios.size(), jobSpec, plan, capacityGroups, numberOfJobs));
+            return this;
+        }
+
+        public ExecutionScenarioBuilder include(JobExecutableGenerator generator) {
+            scenarios.add(generator);
+            return this;
+        }
+
         public JobExecutableGenerator build() {
             return new CompositeJobExecutableGenerator(new ArrayList<>(scenarios));
         }
@@ -16,6 +16,9 @@
 
 package com.netflix.titus.testkit.perf.load.plan;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
 public class JobExecutionPlanBuilder extends ExecutionPlanBuilder<JobExecutionPlanBuilder> {
 
     public JobExecutionPlanBuilder findOwnJob() {
@@ -33,6 +36,21 @@ public class JobExecutionPlanBuilder extends ExecutionPlanBuilder<JobExecutionPl
         return this;
     }
 
+    public JobExecutionPlanBuilder killRandomTasks(int count) {
+        steps.add(JobExecutionStep.killRandomTasks(count));
+        return this;
+    }
+
+    public JobExecutionPlanBuilder scanAllTasks() {
+        steps.add(JobExecutionStep.scanAllTasks());
+        return this;
+    }
+
+    public JobExecutionPlanBuilder observeJobs(int subscriberCount, Duration holdTime) {
+        steps.add(JobExecutionStep.observeJobs(subscriberCount, holdTime.toMillis(), TimeUnit.MILLISECONDS));
+        return this;
+    }
+
     public JobExecutionPlanBuilder evictRandomTask() {
         steps.add(JobExecutionStep.evictRandomTask());
         return this;
@@ -16,6 +16,8 @@
 
 package com.netflix.titus.testkit.perf.load.plan;
 
+import java.util.concurrent.TimeUnit;
+
 public abstract class JobExecutionStep extends ExecutionStep {
 
     public static final String NAME_TERMINATE = "terminate";
@@ -24,8 +26,11 @@ public abstract class JobExecutionStep extends ExecutionStep {
     public static final String NAME_FIND_OWN_JOB = "findOwnJob";
     public static final String NAME_FIND_OWN_TASK = "findOwnTask";
     public static final String NAME_KILL_RANDOM_TASK = "killRandomTask";
+    public static final String NAME_KILL_RANDOM_TASKS = "killRandomTasks";
     public static final String NAME_EVICT_RANDOM_TASK = "evictRandomTask";
     public static final String NAME_TERMINATE_AND_SHRINK_RANDOM_TASK = "terminateAndShrinkRandomTask";
+    public static final String NAME_SCAN_ALL_TASKS = "scanAllTasks";
+    public static final String NAME_OBSERVE_JOBS = "observeJobs";
     public static final String NAME_AWAIT_COMPLETION = "awaitCompletion";
 
     private static final ExecutionStep STEP_TERMINATE = new ExecutionStep(NAME_TERMINATE);
@@ -34,6 +39,7 @@ public abstract class JobExecutionStep extends ExecutionStep {
     private static final ExecutionStep STEP_KILL_RANDOM_TASK = new ExecutionStep(NAME_KILL_RANDOM_TASK);
     private static final ExecutionStep STEP_EVICT_RANDOM_TASK = new ExecutionStep(NAME_EVICT_RANDOM_TASK);
     private static final ExecutionStep STEP_TERMINATE_AND_SHRINK_RANDOM_TASK = new ExecutionStep(NAME_TERMINATE_AND_SHRINK_RANDOM_TASK);
+    private static final ExecutionStep STEP_SCAN_ALL_TASKS = new ExecutionStep(NAME_SCAN_ALL_TASKS);
     private static final ExecutionStep STEP_AWAIT_COMPLETION = new ExecutionStep(NAME_AWAIT_COMPLETION);
 
     protected JobExecutionStep(String name) {
@@ -123,6 +129,102 @@ public abstract class JobExecutionStep extends ExecutionStep {
         }
     }
 
+    /**
+     * Kills the given number of randomly selected tasks at once.
+     */
+    public static class KillRandomTasksStep extends JobExecutionStep {
+        private final int count;
+
+        public KillRandomTasksStep(int count) {
+            super(NAME_KILL_RANDOM_TASKS);
+            this.count = count;
+        }
+
+        public int getCount() {
+            return count;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            KillRandomTasksStep that = (KillRandomTasksStep) o;
+
+            return count == that.count;
+        }
+
+        @Override
+        public int hashCode() {
+            return count;
+        }
+
+        @Override
+        public String toString() {
+            return "KillRandomTasksStep{" +
+                    "count=" + count +
+                    '}';
+        }
+    }
+
+    /**
+     * Opens the given number of concurrent observeJobs subscriptions, and keeps them open for the hold time.
+     */
+    public static class ObserveJobsStep extends JobExecutionStep {
+        private final int subscriberCount;
+        private final long holdTimeMs;
+
+        public ObserveJobsStep(int subscriberCount, long holdTimeMs) {
+            super(NAME_OBSERVE_JOBS);
+            this.subscriberCount = subscriberCount;
+            this.holdTimeMs = holdTimeMs;
+        }
+
+        public int getSubscriberCount() {
+            return subscriberCount;
+        }
+
+        public long getHoldTimeMs() {
+            return holdTimeMs;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+
+            ObserveJobsStep that = (ObserveJobsStep) o;
+
+            if (subscriberCount != that.subscriberCount) {
+                return false;
+            }
+            return holdTimeMs == that.holdTimeMs;
+        }
+
+        @Override
+        public int hashCode() {
+            int result = subscriberCount;
+            result = 31 * result + (int) (holdTimeMs ^ (holdTimeMs >>> 32));
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return "ObserveJobsStep{" +
+                    "subscriberCount=" + subscriberCount +
+                    ", holdTimeMs=" + holdTimeMs +
+                    '}';
+        }
+    }
+
     public static ExecutionStep terminate() {
         return STEP_TERMINATE;
     }
@@ -139,6 +241,18 @@ public abstract class JobExecutionStep extends ExecutionStep {
         return STEP_KILL_RANDOM_TASK;
     }
 
+    public static JobExecutionStep killRandomTasks(int count) {
+        return new KillRandomTasksStep(count);
+    }
+
+    public static ExecutionStep scanAllTasks() {
+        return STEP_SCAN_ALL_TASKS;
+    }
+
+    public static JobExecutionStep observeJobs(int subscriberCount, long holdTime, TimeUnit timeUnit) {
+        return new ObserveJobsStep(subscriberCount, timeUnit.toMillis(holdTime));
+    }
+
     public static ExecutionStep evictRandomTask() {
         return STEP_EVICT_RANDOM_TASK;
     }
@@ -17,6 +17,7 @@
 package com.netflix.titus.testkit.perf.load.plan.catalog;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -183,4 +184,97 @@ public final class JobExecutableGeneratorCatalog {
                 )
                 .build();
     }
+
+    /**
+     * Service jobs, with a batch of random tasks killed at once in the given intervals.
+     */
+    public static JobExecutableGenerator killStorms(int jobSize, int numberOfJobs, int tasksPerStorm, Duration stormInterval) {
+        return JobExecutableGenerator.newBuilder()
+                .constantLoad(
+                        JobDescriptorCatalog.serviceJob(ContainerResourceAllocation.Small, 0, jobSize, jobSize),
+                        JobExecutionPlanCatalog.killStorm(tasksPerStorm, stormInterval),
+                        numberOfJobs
+                )
+                .build();
+    }
+
+    /**
+     * Service jobs created empty, and next scaled up to the target size, and back to zero in a loop.
+     */
+    public static JobExecutableGenerator hugeScaleUps(int targetSize, int stepSize, Duration stepInterval, Duration holdTime, int numberOfJobs) {
+        return JobExecutableGenerator.newBuilder()
+                .constantLoad(
+                        JobDescriptorCatalog.serviceJob(ContainerResourceAllocation.Small, 0, 0, targetSize),
+                        JobExecutionPlanCatalog.scaleUpRamp(targetSize, stepSize, stepInterval, holdTime),
+                        numberOfJobs
+                )
+                .build();
+    }
+
+    /**
+     * Single task batch jobs, each opening waves of concurrent observeJobs subscriptions.
+     */
+    public static JobExecutableGenerator observeJobsStorms(int subscribersPerJob, Duration holdTime, Duration pause, int numberOfJobs) {
+        return JobExecutableGenerator.newBuilder()
+                .constantLoad(
+                        JobDescriptorCatalog.batchJob(ContainerResourceAllocation.Small, 1, Duration.ofHours(1)),
+                        JobExecutionPlanCatalog.observeJobsStorm(subscribersPerJob, holdTime, pause),
+                        numberOfJobs
+                )
+                .build();
+    }
+
+    /**
+     * Single task batch jobs, each reading all tasks in the cell in the given intervals.
+     */
+    public static JobExecutableGenerator fullTaskScans(Duration scanInterval, int numberOfJobs) {
+        return JobExecutableGenerator.newBuilder()
+                .constantLoad(
+                        JobDescriptorCatalog.batchJob(ContainerResourceAllocation.Small, 1, Duration.ofHours(1)),
+                        JobExecutionPlanCatalog.fullTaskScans(scanInterval),
+                        numberOfJobs
+                )
+                .build();
+    }
+
+    /**
+     * Short lived batch jobs, with each replacement job assigned to the next capacity group.
+     */
+    public static JobExecutableGenerator capacityGroupChurn(int capacityGroupCount, Duration jobLifetime, int numberOfJobs) {
+        List<String> capacityGroups = new ArrayList<>();
+        for (int i = 0; i < capacityGroupCount; i++) {
+            capacityGroups.add("churn" + i);
+        }
+        return JobExecutableGenerator.newBuilder()
+                .capacityGroupChurn(
+                        JobDescriptorCatalog.batchJob(ContainerResourceAllocation.Small, 1, Duration.ofHours(1)),
+                        JobExecutionPlanCatalog.shortLivedJob(jobLifetime),
+                        capacityGroups,
+                        numberOfJobs
+                )
+                .build();
+    }
+
+    /**
+     * All adversarial load patterns (kill storms, a huge scale up, observeJobs subscriber storms, full task scans and
+     * capacity group churn) applied together. The size factor scales the number of jobs and subscribers, and the
+     * rate factor shortens the intervals between the disruptive actions.
+     */
+    public static JobExecutableGenerator adversarialLoad(int scaleUpTarget, double sizeFactor, double rateFactor) {
+        return JobExecutableGenerator.newBuilder()
+                .include(killStorms(200, atLeastOne(5 * sizeFactor), 100, scaled(Duration.ofMinutes(1), rateFactor)))
+                .include(hugeScaleUps(scaleUpTarget, scaleUpTarget, Duration.ofSeconds(1), scaled(Duration.ofMinutes(10), rateFactor), 1))
+                .include(observeJobsStorms(atLeastOne(2000 * sizeFactor), Duration.ofMinutes(1), scaled(Duration.ofMinutes(1), rateFactor), 1))
+                .include(fullTaskScans(scaled(Duration.ofSeconds(10), rateFactor), atLeastOne(10 * sizeFactor)))
+                .include(capacityGroupChurn(20, scaled(Duration.ofSeconds(30), rateFactor), atLeastOne(20 * sizeFactor)))
+                .build();
+    }
+
+    private static int atLeastOne(double value) {
+        return Math.max(1, (int) value);
+    }
+
+    private static Duration scaled(Duration interval, double rateFactor) {
+        return Duration.ofMillis((long) (interval.toMillis() / rateFactor));
+    }
 }
@@ -109,4 +109,70 @@ public final class JobExecutionPlanCatalog {
                 .loop("start")
                 .build();
     }
+
+    /**
+     * Periodically kills a batch of random tasks at once. Between storms the job controller replaces the killed tasks.
+     */
+    public static ExecutionPlan killStorm(int tasksPerStorm, Duration stormInterval) {
+        return ExecutionPlan.jobExecutionPlan()
+                .label("start")
+                .delay(stormInterval)
+                .killRandomTasks(tasksPerStorm)
+                .loop("start")
+                .build();
+    }
+
+    /**
+     * Grows a service job from zero to the target size in steps of the given size, keeps it at this size for the hold
+     * time, and next scales it back down to zero. With the step size equal to the target size, the whole scale up is
+     * done with a single capacity update.
+     */
+    public static ExecutionPlan scaleUpRamp(int targetSize, int stepSize, Duration stepInterval, Duration holdTime) {
+        int steps = Math.max(1, (targetSize + stepSize - 1) / stepSize);
+        return ExecutionPlan.jobExecutionPlan()
+                .label("start")
+                .label("ramp")
+                .scaleUp(stepSize)
+                .delay(stepInterval)
+                .loop("ramp", steps - 1)
+                .delay(holdTime)
+                .scaleDown(targetSize)
+                .delay(holdTime)
+                .loop("start")
+                .build();
+    }
+
+    /**
+     * Reads all tasks in the cell with paginated findTasks calls, in the given intervals.
+     */
+    public static ExecutionPlan fullTaskScans(Duration scanInterval) {
+        return ExecutionPlan.jobExecutionPlan()
+                .label("start")
+                .scanAllTasks()
+                .delay(scanInterval)
+                .loop("start")
+                .build();
+    }
+
+    /**
+     * Opens a wave of concurrent observeJobs subscriptions, holds them open, and repeats after the given pause.
+     */
+    public static ExecutionPlan observeJobsStorm(int subscriberCount, Duration holdTime, Duration pause) {
+        return ExecutionPlan.jobExecutionPlan()
+                .label("start")
+                .observeJobs(subscriberCount, holdTime)
+                .delay(pause)
+                .loop("start")
+                .build();
+    }
+
+    /**
+     * A job that is terminated after the given time.
+     */
+    public static ExecutionPlan shortLivedJob(Duration lifetime) {
+        return ExecutionPlan.jobExecutionPlan()
+                .delay(lifetime)
+                .terminate()
+                .build();
+    }
 }
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.testkit.perf.load.plan.generator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.google.common.base.Preconditions;
+import com.netflix.titus.api.jobmanager.model.job.JobDescriptor;
+import com.netflix.titus.testkit.perf.load.plan.ExecutionPlan;
+import com.netflix.titus.testkit.perf.load.plan.JobExecutableGenerator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxProcessor;
+import reactor.core.publisher.UnicastProcessor;
+
+/**
+ * Keeps a constant number of jobs running, like {@link ConstantLoadJobExecutableGenerator}, but each replacement job
+ * is assigned to the next capacity group from the list. Combined with short lived jobs, the capacity group assignment
+ * of the running jobs changes all the time.
+ */
+public class CapacityGroupChurnJobExecutableGenerator extends JobExecutableGenerator {
+
+    private final List<Executable> executables;
+    private final AtomicInteger nextIdx = new AtomicInteger();
+    private final FluxProcessor<Executable, Executable> executionPlans;
+
+    public CapacityGroupChurnJobExecutableGenerator(String owner,
+                                                    JobDescriptor<?> jobSpec,
+                                                    ExecutionPlan plan,
+                                                    List<String> capacityGroups,
+                                                    int numberOfJobs) {
+        Preconditions.checkArgument(!capacityGroups.isEmpty(), "No capacity groups provided");
+
+        this.executables = new ArrayList<>();
+        for (String capacityGroup : capacityGroups) {
+            executables.add(new Executable(owner, jobSpec.toBuilder().withCapacityGroup(capacityGroup).build(), plan));
+        }
+        this.executionPlans = UnicastProcessor.<Executable>create().serialize();
+        for (int i = 0; i < numberOfJobs; i++) {
+            executionPlans.onNext(nextExecutable());
+        }
+    }
+
+    @Override
+    public Flux<Executable> executionPlans() {
+        return executionPlans;
+    }
+
+    @Override
+    public void completed(Executable executable) {
+        if (executables.contains(executable)) {
+            executionPlans.onNext(nextExecutable());
+        }
+    }
+
+    private Executable nextExecutable() {
+        return executables.get(Math.floorMod(nextIdx.getAndIncrement(), executables.size()));
+    }
+}
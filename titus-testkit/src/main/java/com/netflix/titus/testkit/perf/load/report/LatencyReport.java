@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.testkit.perf.load.report;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Latency percentiles of a load generator run, as exported in JSON by the '/report/latencies' endpoint. Two reports
+ * can be compared with {@link LatencyReportComparator}.
+ */
+public class LatencyReport {
+
+    private final String sessionId;
+    private final long timestamp;
+    private final Map<String, LatencySummary> latencies;
+
+    @JsonCreator
+    public LatencyReport(@JsonProperty("sessionId") String sessionId,
+                         @JsonProperty("timestamp") long timestamp,
+                         @JsonProperty("latencies") Map<String, LatencySummary> latencies) {
+        this.sessionId = sessionId;
+        this.timestamp = timestamp;
+        this.latencies = new TreeMap<>(latencies);
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Map<String, LatencySummary> getLatencies() {
+        return latencies;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.testkit.perf.load.report;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.ToDoubleFunction;
+
+import com.netflix.titus.common.util.jackson.CommonObjectMappers;
+
+/**
+ * Command line tool comparing two latency reports exported from the load generator '/report/latencies' endpoint.
+ * For each metric and percentile, it prints the baseline and candidate values, and the relative change.
+ * <p>
+ * Usage: LatencyReportComparator &lt;baseline.json&gt; &lt;candidate.json&gt;
+ */
+public class LatencyReportComparator {
+
+    private static final String HEADER_FORMAT = "%-28s %-6s %12s %12s %9s%n";
+    private static final String LINE_FORMAT = "%-28s %-6s %12.1f %12.1f %9s%n";
+
+    private final LatencyReport baseline;
+    private final LatencyReport candidate;
+
+    public LatencyReportComparator(LatencyReport baseline, LatencyReport candidate) {
+        this.baseline = baseline;
+        this.candidate = candidate;
+    }
+
+    public String compare() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(HEADER_FORMAT, "metric", "stat", "baseline[ms]", "candidate[ms]", "change"));
+
+        Set<String> names = new TreeSet<>(baseline.getLatencies().keySet());
+        names.addAll(candidate.getLatencies().keySet());
+        for (String name : names) {
+            LatencySummary base = baseline.getLatencies().get(name);
+            LatencySummary next = candidate.getLatencies().get(name);
+            appendLine(sb, name, "count", base, next, LatencySummary::getCount);
+            appendLine(sb, name, "mean", base, next, LatencySummary::getMean);
+            appendLine(sb, name, "p50", base, next, LatencySummary::getP50);
+            appendLine(sb, name, "p90", base, next, LatencySummary::getP90);
+            appendLine(sb, name, "p99", base, next, LatencySummary::getP99);
+            appendLine(sb, name, "p99.9", base, next, LatencySummary::getP999);
+            appendLine(sb, name, "max", base, next, LatencySummary::getMax);
+        }
+        return sb.toString();
+    }
+
+    private static void appendLine(StringBuilder sb,
+                                   String name,
+                                   String stat,
+                                   LatencySummary base,
+                                   LatencySummary next,
+                                   ToDoubleFunction<LatencySummary> accessor) {
+        double baseValue = base == null ? 0 : accessor.applyAsDouble(base);
+        double nextValue = next == null ? 0 : accessor.applyAsDouble(next);
+        String change = baseValue == 0 ? "n/a" : String.format("%+.1f%%", (nextValue - baseValue) * 100 / baseValue);
+        sb.append(String.format(LINE_FORMAT, name, stat, baseValue, nextValue, change));
+    }
+
+    public static LatencyReport load(File file) throws IOException {
+        return CommonObjectMappers.jacksonDefaultMapper().readValue(file, LatencyReport.class);
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: LatencyReportComparator <baseline.json> <candidate.json>");
+            System.exit(-1);
+        }
+        System.out.print(new LatencyReportComparator(load(new File(args[0])), load(new File(args[1]))).compare());
+    }
+}
@@ -19,6 +19,7 @@ package com.netflix.titus.testkit.perf.load.report;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
@@ -30,20 +31,41 @@ import com.netflix.titus.api.jobmanager.model.job.Job;
 import com.netflix.titus.api.jobmanager.model.job.JobState;
 import com.netflix.titus.api.jobmanager.model.job.Task;
 import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
+import com.netflix.titus.api.jobmanager.model.job.event.JobManagerEvent;
 import com.netflix.titus.api.jobmanager.model.job.event.JobUpdateEvent;
 import com.netflix.titus.api.jobmanager.model.job.event.TaskUpdateEvent;
 import com.netflix.titus.common.util.rx.RetryHandlerBuilder;
 import com.netflix.titus.testkit.perf.load.ExecutionContext;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import reactor.core.Disposable;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.core.scheduler.Schedulers;
 
 public class MetricsCollector {
 
     private static final Logger logger = LoggerFactory.getLogger(MetricsCollector.class);
 
+    public static final String API_CREATE_JOB = "api.createJob";
+    public static final String API_KILL_TASK = "api.killTask";
+    public static final String API_SCALE = "api.scale";
+    public static final String API_SCAN_TASKS = "api.scanTasks";
+    public static final String API_OBSERVE_JOBS_SNAPSHOT = "api.observeJobsSnapshot";
+    public static final String TASK_ACCEPTED_TO_LAUNCHED = "task.acceptedToLaunched";
+    public static final String TASK_LAUNCHED_TO_STARTED = "task.launchedToStarted";
+    public static final String TASK_ACCEPTED_TO_STARTED = "task.acceptedToStarted";
+    public static final String EVENT_DELIVERY_LAG = "event.deliveryLag";
+
+    /**
+     * Latencies above this value (1 hour) are recorded as the maximum value.
+     */
+    private static final long MAX_LATENCY_MS = 3_600_000;
+    private static final int SIGNIFICANT_DIGITS = 3;
+
     private final AtomicLong totalSubmittedJobs = new AtomicLong();
     private final AtomicLong totalInconsistencies = new AtomicLong();
     private final ConcurrentMap<JobState, AtomicLong> totalJobStatusCounters = new ConcurrentHashMap<>();
@@ -53,6 +75,13 @@ public class MetricsCollector {
     private final Set<String> pendingInconsistentJobs = Collections.newSetFromMap(new ConcurrentHashMap<>());
     private final ConcurrentMap<String, TaskState> activeTaskLastStates = new ConcurrentHashMap<>();
 
+    private final ConcurrentMap<String, Histogram> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * Events replayed in the initial observeJobs snapshot are old, so they are not included in the latency metrics.
+     */
+    private volatile boolean snapshotLoaded;
+
     private Disposable subscription;
 
     public long getTotalSubmittedJobs() {
@@ -85,15 +114,51 @@ public class MetricsCollector {
         return totalTaskStateCounters;
     }
 
+    public void recordLatency(String name, long latencyMs) {
+        latencies.computeIfAbsent(name, n -> new ConcurrentHistogram(MAX_LATENCY_MS, SIGNIFICANT_DIGITS))
+                .recordValue(Math.max(0, Math.min(latencyMs, MAX_LATENCY_MS)));
+    }
+
+    /**
+     * Records the latency of an API call, measured from the subscription until the successful completion.
+     */
+    public <T> Mono<T> measureApiCall(String name, Mono<T> apiCall) {
+        return Mono.defer(() -> {
+            long startTime = System.currentTimeMillis();
+            return apiCall.doOnSuccess(result -> recordLatency(name, System.currentTimeMillis() - startTime));
+        });
+    }
+
+    public Map<String, LatencySummary> getLatencySummaries() {
+        Map<String, LatencySummary> summaries = new HashMap<>();
+        latencies.forEach((name, histogram) -> summaries.put(name, LatencySummary.from(histogram.copy())));
+        return summaries;
+    }
+
+    public LatencyReport getLatencyReport(String sessionId) {
+        return new LatencyReport(sessionId, System.currentTimeMillis(), getLatencySummaries());
+    }
+
     public void watch(ExecutionContext context) {
         Preconditions.checkState(subscription == null);
 
-        this.subscription = Flux.defer(() -> context.getJobManagementClient().observeJobs(Collections.emptyMap()))
+        this.subscription = Flux.defer(() -> {
+                    this.snapshotLoaded = false;
+                    return context.getJobManagementClient().observeJobs(Collections.emptyMap());
+                })
+                .doOnNext(event -> {
+                    if (event == JobManagerEvent.snapshotMarker()) {
+                        this.snapshotLoaded = true;
+                    }
+                })
                 .filter(e -> (e instanceof JobUpdateEvent) || (e instanceof TaskUpdateEvent))
                 .doOnNext(event -> {
                     if (event instanceof JobUpdateEvent) {
                         JobUpdateEvent jobUpdate = (JobUpdateEvent) event;
                         Job<?> current = jobUpdate.getCurrent();
+                        if (snapshotLoaded && isJobStateChange(jobUpdate)) {
+                            recordLatency(EVENT_DELIVERY_LAG, System.currentTimeMillis() - current.getStatus().getTimestamp());
+                        }
                         totalJobStatusCounters.computeIfAbsent(current.getStatus().getState(), s -> new AtomicLong()).incrementAndGet();
 
                         if (!jobUpdate.getPrevious().isPresent()) {
@@ -108,7 +173,12 @@ public class MetricsCollector {
                     } else {
                         TaskUpdateEvent taskUpdate = (TaskUpdateEvent) event;
                         Task current = taskUpdate.getCurrent();
-                        activeTaskLastStates.put(current.getId(), current.getStatus().getState());
+                        TaskState previousState = activeTaskLastStates.put(current.getId(), current.getStatus().getState());
+                        // Only state changes are measured, as the status timestamp is not updated for other task changes.
+                        if (snapshotLoaded && previousState != current.getStatus().getState()) {
+                            recordLatency(EVENT_DELIVERY_LAG, System.currentTimeMillis() - current.getStatus().getTimestamp());
+                            recordTaskTransitions(current);
+                        }
                         totalTaskStateCounters.computeIfAbsent(current.getStatus().getState(), s -> new AtomicLong()).incrementAndGet();
                     }
                 })
@@ -126,4 +196,43 @@ public class MetricsCollector {
                 )
                 .subscribe();
     }
+
+    private static boolean isJobStateChange(JobUpdateEvent jobUpdate) {
+        return jobUpdate.getPrevious()
+                .map(previous -> previous.getStatus().getState() != jobUpdate.getCurrent().getStatus().getState())
+                .orElse(true);
+    }
+
+    private void recordTaskTransitions(Task task) {
+        TaskState state = task.getStatus().getState();
+        if (state == TaskState.Launched) {
+            recordTransition(TASK_ACCEPTED_TO_LAUNCHED, task, TaskState.Accepted, TaskState.Launched);
+        } else if (state == TaskState.Started) {
+            recordTransition(TASK_LAUNCHED_TO_STARTED, task, TaskState.Launched, TaskState.Started);
+            recordTransition(TASK_ACCEPTED_TO_STARTED, task, TaskState.Accepted, TaskState.Started);
+        }
+    }
+
+    /**
+     * Transition times are computed from the task status timestamps, so they do not include the event delivery lag.
+     */
+    private void recordTransition(String name, Task task, TaskState from, TaskState to) {
+        Optional<Long> fromTimestamp = findStateTimestamp(task, from);
+        Optional<Long> toTimestamp = findStateTimestamp(task, to);
+        if (fromTimestamp.isPresent() && toTimestamp.isPresent()) {
+            recordLatency(name, toTimestamp.get() - fromTimestamp.get());
+        }
+    }
+
+    private static Optional<Long> findStateTimestamp(Task task, TaskState state) {
+        if (task.getStatus().getState() == state) {
+            return Optional.of(task.getStatus().getTimestamp());
+        }
+        for (TaskStatus status : task.getStatusHistory()) {
+            if (status.getState() == state) {
+                return Optional.of(status.getTimestamp());
+            }
+        }
+        return Optional.empty();
+    }
 }
@@ -16,6 +16,8 @@
 
 package com.netflix.titus.testkit.perf.load.report;
 
+import java.util.Arrays;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
@@ -26,6 +28,12 @@ import rx.Subscription;
 
 public class TextReporter {
 
+    private static final List<String> REPORTED_LATENCIES = Arrays.asList(
+            MetricsCollector.API_CREATE_JOB,
+            MetricsCollector.TASK_ACCEPTED_TO_STARTED,
+            MetricsCollector.EVENT_DELIVERY_LAG
+    );
+
     private static final String LINE_FORMAT = "allJobs=%-10d activeJobs=%-12d pendingIncons=%-14d totalIncons=%-14d accepted=%-10d launched=%-10d startInitiated=%-15d started=%-10d killInitiated=%-10d";
 
     private final MetricsCollector metricsCollector;
@@ -55,6 +63,18 @@ public class TextReporter {
                             taskStateCounters.getOrDefault(TaskState.KillInitiated, 0L)
                     );
                     System.out.println();
+
+                    Map<String, LatencySummary> latencies = metricsCollector.getLatencySummaries();
+                    StringBuilder latencyLine = new StringBuilder();
+                    for (String name : REPORTED_LATENCIES) {
+                        LatencySummary summary = latencies.get(name);
+                        if (summary != null) {
+                            latencyLine.append(String.format("%s(p50/p99/max)=%d/%d/%d[ms] ", name, summary.getP50(), summary.getP99(), summary.getMax()));
+                        }
+                    }
+                    if (latencyLine.length() > 0) {
+                        System.out.println(latencyLine);
+                    }
                 }
         );
     }
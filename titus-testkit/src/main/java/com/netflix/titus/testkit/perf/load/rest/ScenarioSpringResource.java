@@ -35,6 +35,7 @@ import com.netflix.titus.testkit.perf.load.plan.ExecutionPlan;
 import com.netflix.titus.testkit.perf.load.plan.JobExecutableGenerator;
 import com.netflix.titus.testkit.perf.load.plan.catalog.AgentExecutableGeneratorCatalog;
 import com.netflix.titus.testkit.perf.load.plan.catalog.JobExecutableGeneratorCatalog;
+import com.netflix.titus.testkit.perf.load.report.LatencyReport;
 import com.netflix.titus.testkit.perf.load.report.MetricsCollector;
 import com.netflix.titus.testkit.perf.load.rest.representation.ScenarioExecutionRepresentation;
 import com.netflix.titus.testkit.perf.load.rest.representation.ScenarioRepresentation;
@@ -83,6 +84,11 @@ public class ScenarioSpringResource {
                     "longRunning",
                     "Long running services on the critical tier, with a mixed size of job sizes"
             ))
+            .put("adversarial", new ScenarioRepresentation(
+                    "adversarial",
+                    "Kill storms, a huge single job scale up, observeJobs subscriber storms, full task scans and capacity group churn applied together" +
+                            " (accepts 'jobSize' as the scale up target, and 'scaleFactor' and 'churnFactor' parameters)"
+            ))
             .build();
 
     private final Orchestrator orchestrator;
@@ -134,6 +140,10 @@ public class ScenarioSpringResource {
             jobExecutableGenerator = JobExecutableGeneratorCatalog.evictions(request.getJobSize(), scaleFactor);
         } else if (jobPlan.equals("longRunning")) {
             jobExecutableGenerator = JobExecutableGeneratorCatalog.longRunningServicesLoad("longRunning");
+        } else if (jobPlan.equals("adversarial")) {
+            int scaleUpTarget = request.getJobSize() <= 0 ? 10_000 : request.getJobSize();
+            double sizeFactor = request.getScaleFactor() <= 0 ? 1 : request.getScaleFactor();
+            jobExecutableGenerator = JobExecutableGeneratorCatalog.adversarialLoad(scaleUpTarget, sizeFactor, churnFactor);
         } else {
             throw new WebApplicationException(Response.Status.BAD_REQUEST);
         }
@@ -211,10 +221,16 @@ public class ScenarioSpringResource {
         metricsMap.put("totalSubmittedJobs", metrics.getTotalSubmittedJobs());
         metricsMap.put("totalJobStatusCounters", metrics.getTotalJobStatusCounters());
         metricsMap.put("totalTaskStateCounters", metrics.getTotalTaskStateCounters());
+        metricsMap.put("latencies", metrics.getLatencySummaries());
 
         return metricsMap;
     }
 
+    @RequestMapping(method = RequestMethod.GET, path = "/report/latencies", produces = MediaType.APPLICATION_JSON)
+    public LatencyReport getLatencies() {
+        return orchestrator.getLatencyReport();
+    }
+
     private static ScenarioExecutionRepresentation toRepresentation(ScenarioRunner runner) {
         return new ScenarioExecutionRepresentation(
                 runner.getScenarioExecutionId(),
@@ -16,21 +16,28 @@
 
 package com.netflix.titus.testkit.perf.load.runner;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
 import java.util.Random;
 
 import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.event.JobManagerEvent;
+import com.netflix.titus.api.model.Page;
 import com.netflix.titus.common.util.CollectionsExt;
 import com.netflix.titus.common.util.rx.ReactorExt;
 import com.netflix.titus.testkit.perf.load.ExecutionContext;
 import com.netflix.titus.testkit.perf.load.plan.ExecutionPlan;
 import com.netflix.titus.testkit.perf.load.plan.ExecutionStep;
 import com.netflix.titus.testkit.perf.load.plan.JobExecutionStep;
+import com.netflix.titus.testkit.perf.load.report.MetricsCollector;
 import com.netflix.titus.testkit.perf.load.runner.job.JobExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import rx.Observable;
 import rx.Scheduler;
@@ -122,6 +129,12 @@ public class JobExecutionPlanRunner extends ExecutionPlanRunner {
                 return Optional.of(doFindOwnTasks());
             case JobExecutionStep.NAME_KILL_RANDOM_TASK:
                 return Optional.ofNullable(doKillRandomTask());
+            case JobExecutionStep.NAME_KILL_RANDOM_TASKS:
+                return Optional.of(doKillRandomTasks((JobExecutionStep.KillRandomTasksStep) step));
+            case JobExecutionStep.NAME_SCAN_ALL_TASKS:
+                return Optional.of(doScanAllTasks());
+            case JobExecutionStep.NAME_OBSERVE_JOBS:
+                return Optional.of(doObserveJobs((JobExecutionStep.ObserveJobsStep) step));
             case JobExecutionStep.NAME_EVICT_RANDOM_TASK:
                 return Optional.of(doEvictRandomTask());
             case JobExecutionStep.NAME_TERMINATE_AND_SHRINK_RANDOM_TASK:
@@ -162,6 +175,70 @@ public class JobExecutionPlanRunner extends ExecutionPlanRunner {
         return executor.killTask(task.getId());
     }
 
+    private Mono<Void> doKillRandomTasks(JobExecutionStep.KillRandomTasksStep step) {
+        List<Task> activeTasks = new ArrayList<>(executor.getActiveTasks());
+        if (activeTasks.isEmpty()) {
+            return Mono.empty();
+        }
+
+        Collections.shuffle(activeTasks, random);
+        List<Task> victims = activeTasks.subList(0, Math.min(step.getCount(), activeTasks.size()));
+
+        // Kills are issued concurrently, so some of them may race with the task replacements. A single failure does not stop the storm.
+        return Flux.fromIterable(victims)
+                .flatMap(task -> executor.killTask(task.getId()).onErrorResume(e -> {
+                    logger.warn("Cannot kill task {} of job {}: {}", task.getId(), executor.getJobId(), e.getMessage());
+                    return Mono.empty();
+                }))
+                .then();
+    }
+
+    /**
+     * Reads all tasks in the cell, page by page, following the pagination cursor.
+     */
+    private Mono<Void> doScanAllTasks() {
+        return context.getMetricsCollector().measureApiCall(MetricsCollector.API_SCAN_TASKS, scanTasks(toPage(PAGE_OF_500_ITEMS)));
+    }
+
+    private Mono<Void> scanTasks(Page page) {
+        return context.getJobManagementClient()
+                .findTasks(Collections.emptyMap(), page)
+                .flatMap(pageResult -> {
+                    if (!pageResult.getPagination().hasMore() || pageResult.getItems().isEmpty()) {
+                        return Mono.empty();
+                    }
+                    return scanTasks(page.toBuilder().withCursor(pageResult.getPagination().getCursor()).build());
+                });
+    }
+
+    private Mono<Void> doObserveJobs(JobExecutionStep.ObserveJobsStep step) {
+        if (step.getSubscriberCount() <= 0) {
+            return Mono.empty();
+        }
+        return Flux.range(0, step.getSubscriberCount())
+                .flatMap(idx -> observeJobs(step.getHoldTimeMs()), step.getSubscriberCount())
+                .then();
+    }
+
+    private Mono<Void> observeJobs(long holdTimeMs) {
+        return Mono.defer(() -> {
+            long startTime = System.currentTimeMillis();
+            return context.getJobManagementClient()
+                    .observeJobs(Collections.emptyMap())
+                    .doOnNext(event -> {
+                        if (event == JobManagerEvent.snapshotMarker()) {
+                            context.getMetricsCollector().recordLatency(MetricsCollector.API_OBSERVE_JOBS_SNAPSHOT, System.currentTimeMillis() - startTime);
+                        }
+                    })
+                    .take(Duration.ofMillis(holdTimeMs))
+                    .onErrorResume(e -> {
+                        logger.warn("Job event stream subscription terminated with an error: {}", e.getMessage());
+                        return Flux.empty();
+                    })
+                    .then();
+        });
+    }
+
     private Mono<Void> doEvictRandomTask() {
         List<Task> activeTasks = executor.getActiveTasks();
         if (activeTasks.isEmpty()) {
@@ -28,6 +28,7 @@ import javax.inject.Singleton;
 import com.netflix.titus.testkit.perf.load.ExecutionContext;
 import com.netflix.titus.testkit.perf.load.plan.ExecutionPlan;
 import com.netflix.titus.testkit.perf.load.plan.JobExecutableGenerator;
+import com.netflix.titus.testkit.perf.load.report.LatencyReport;
 import com.netflix.titus.testkit.perf.load.report.MetricsCollector;
 import com.netflix.titus.testkit.perf.load.report.TextReporter;
 import org.slf4j.Logger;
@@ -50,7 +51,7 @@ public class Orchestrator {
     @Inject
     public Orchestrator(ExecutionContext context) {
         this.context = context;
-        this.metricsCollector = new MetricsCollector();
+        this.metricsCollector = context.getMetricsCollector();
         metricsCollector.watch(context);
         this.textReporter = new TextReporter(metricsCollector, Schedulers.computation());
         textReporter.start();
@@ -69,6 +70,10 @@ public class Orchestrator {
         return metricsCollector;
     }
 
+    public LatencyReport getLatencyReport() {
+        return metricsCollector.getLatencyReport(context.getSessionId());
+    }
+
     public ScenarioRunner startScenario(JobExecutableGenerator jobExecutableGenerator, List<ExecutionPlan> agentExecutionPlans, Map<String, Object> requestContext) {
         logger.info("Starting new scenario: " + jobExecutableGenerator);
 
@@ -34,6 +34,7 @@ import com.netflix.titus.api.jobmanager.model.job.event.JobUpdateEvent;
 import com.netflix.titus.api.jobmanager.model.job.event.TaskUpdateEvent;
 import com.netflix.titus.common.util.rx.RetryHandlerBuilder;
 import com.netflix.titus.testkit.perf.load.ExecutionContext;
+import com.netflix.titus.testkit.perf.load.report.MetricsCollector;
 import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import org.slf4j.Logger;
@@ -189,8 +190,7 @@ public abstract class AbstractJobExecutor<E extends JobDescriptor.JobDescriptorE
         Preconditions.checkState(doRun, "Job executor shut down already");
         Preconditions.checkNotNull(jobId);
 
-        return context.getJobManagementClient()
-                .killTask(taskId, false, TEST_CALL_METADATA)
+        return context.getMetricsCollector().measureApiCall(MetricsCollector.API_KILL_TASK, context.getJobManagementClient().killTask(taskId, false, TEST_CALL_METADATA))
                 .onErrorResume(e -> {
                     Status.Code code = Status.fromThrowable(e).getCode();
                     if (code == Status.Code.NOT_FOUND || code == Status.Code.FAILED_PRECONDITION) {
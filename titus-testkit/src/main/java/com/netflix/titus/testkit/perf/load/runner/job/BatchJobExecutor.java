@@ -20,6 +20,7 @@ import com.netflix.titus.api.jobmanager.model.job.Job;
 import com.netflix.titus.api.jobmanager.model.job.JobDescriptor;
 import com.netflix.titus.api.jobmanager.model.job.ext.BatchJobExt;
 import com.netflix.titus.testkit.perf.load.ExecutionContext;
+import com.netflix.titus.testkit.perf.load.report.MetricsCollector;
 import reactor.core.publisher.Mono;
 
 import static com.netflix.titus.testkit.perf.load.runner.LoadGeneratorConstants.TEST_CALL_METADATA;
@@ -51,8 +52,7 @@ public class BatchJobExecutor extends AbstractJobExecutor {
     }
 
     public static Mono<BatchJobExecutor> submitJob(JobDescriptor<BatchJobExt> jobSpec, ExecutionContext context) {
-        return context.getJobManagementClient()
-                .createJob(jobSpec, TEST_CALL_METADATA)
+        return context.getMetricsCollector().measureApiCall(MetricsCollector.API_CREATE_JOB, context.getJobManagementClient().createJob(jobSpec, TEST_CALL_METADATA))
                 .flatMap(jobRef -> context.getJobManagementClient().findJob(jobRef))
                 .map(job -> new BatchJobExecutor((Job<BatchJobExt>) job, context));
     }
@@ -25,6 +25,7 @@ import com.netflix.titus.api.jobmanager.model.job.Job;
 import com.netflix.titus.api.jobmanager.model.job.JobDescriptor;
 import com.netflix.titus.api.jobmanager.model.job.ext.ServiceJobExt;
 import com.netflix.titus.testkit.perf.load.ExecutionContext;
+import com.netflix.titus.testkit.perf.load.report.MetricsCollector;
 import io.grpc.Status;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -48,7 +49,7 @@ public class ServiceJobExecutor extends AbstractJobExecutor<ServiceJobExt> {
         Preconditions.checkState(doRun, "Job executor shut down already");
         Preconditions.checkNotNull(jobId);
 
-        return context.getJobManagementClient().killTask(taskId, true, TEST_CALL_METADATA)
+        return context.getMetricsCollector().measureApiCall(MetricsCollector.API_KILL_TASK, context.getJobManagementClient().killTask(taskId, true, TEST_CALL_METADATA))
                 .onErrorResume(e -> {
                     Status.Code code = Status.fromThrowable(e).getCode();
                     if (code.equals(Status.Code.NOT_FOUND) || code.equals(Status.Code.FAILED_PRECONDITION)) {
@@ -76,8 +77,7 @@ public class ServiceJobExecutor extends AbstractJobExecutor<ServiceJobExt> {
                 .withDesired(desired)
                 .withMax(max)
                 .build();
-        return context.getJobManagementClient()
-                .updateJobCapacity(jobId, capacity, TEST_CALL_METADATA)
+        return context.getMetricsCollector().measureApiCall(MetricsCollector.API_SCALE, context.getJobManagementClient().updateJobCapacity(jobId, capacity, TEST_CALL_METADATA))
                 .onErrorResume(e -> Mono.error(
                         new IOException("Failed to change instance count to min=" + min + ", desired=" + desired + ", max=" + max + " of job " + name, e))
                 )
@@ -100,8 +100,7 @@ public class ServiceJobExecutor extends AbstractJobExecutor<ServiceJobExt> {
     }
 
     public static Mono<ServiceJobExecutor> submitJob(JobDescriptor<ServiceJobExt> jobSpec, ExecutionContext context) {
-        return context.getJobManagementClient()
-                .createJob(jobSpec, TEST_CALL_METADATA)
+        return context.getMetricsCollector().measureApiCall(MetricsCollector.API_CREATE_JOB, context.getJobManagementClient().createJob(jobSpec, TEST_CALL_METADATA))
                 .flatMap(jobRef -> context.getJobManagementClient().findJob(jobRef))
                 .map(job -> new ServiceJobExecutor((Job<ServiceJobExt>) job, context));
     }
@@ -0,0 +1,192 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.testkit.embedded.kube;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import com.google.common.base.Stopwatch;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.common.util.archaius2.Archaius2Ext;
+import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.master.jobmanager.service.KubeNotificationProcessor;
+import com.netflix.titus.master.mesos.kubeapiserver.client.DefaultKubeApiFacade;
+import com.netflix.titus.master.mesos.kubeapiserver.direct.DefaultDirectKubeApiServerIntegrator;
+import com.netflix.titus.master.mesos.kubeapiserver.direct.DirectKubeConfiguration;
+import com.netflix.titus.testkit.model.job.JobComponentStub;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1Pod;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static com.netflix.titus.testkit.embedded.kube.SimulatedKubeApiServerTest.findTaskState;
+import static com.netflix.titus.testkit.embedded.kube.SimulatedKubeApiServerTest.markOwnedByKubeScheduler;
+import static com.netflix.titus.testkit.embedded.kube.SimulatedKubeApiServerTest.newIntegrator;
+import static com.netflix.titus.testkit.embedded.kube.SimulatedKubeApiServerTest.newNotificationProcessor;
+import static com.netflix.titus.testkit.embedded.kube.SimulatedKubeApiServerTest.newPod;
+
+/**
+ * Creates and deletes tens of thousands of pods through {@link DefaultKubeApiFacade} connected to
+ * {@link SimulatedKubeApiServer}, and reports how long it takes until the pod informer observes all of them running,
+ * and all of them removed. Next launches and terminates tasks of a stubbed job manager through
+ * {@link DefaultDirectKubeApiServerIntegrator}, and reports how long it takes until {@link KubeNotificationProcessor}
+ * moves all of them to the started, and to the finished state.
+ */
+public class SimulatedKubeApiServerPerf {
+
+    private static final int NODE_COUNT = 500;
+    private static final int POD_COUNT = 20_000;
+    private static final int CLIENT_CONCURRENCY = 50;
+    private static final int TASK_JOB_COUNT = 10;
+    private static final int TASKS_PER_JOB = 500;
+
+    private final TitusRuntime titusRuntime = TitusRuntimes.internal();
+    private final SimulatedKubeApiServer apiServer;
+    private final DefaultKubeApiFacade kubeApiFacade;
+    private final ExecutorService clientExecutor = Executors.newFixedThreadPool(CLIENT_CONCURRENCY);
+
+    private SimulatedKubeApiServerPerf() {
+        this.apiServer = new SimulatedKubeApiServer(Archaius2Ext.newConfiguration(SimulatedKubeConfiguration.class,
+                "titus.simulated.kube.podCreateLatencyMs", "5",
+                "titus.simulated.kube.podDeleteLatencyMs", "5"
+        ));
+        for (int i = 0; i < NODE_COUNT; i++) {
+            apiServer.addNode("node" + i, "zone" + (i % 3));
+        }
+        this.kubeApiFacade = new DefaultKubeApiFacade(
+                Archaius2Ext.newConfiguration(DirectKubeConfiguration.class),
+                apiServer.newApiClient(titusRuntime),
+                titusRuntime
+        );
+    }
+
+    private void doRun() throws Exception {
+        try {
+            CoreV1Api coreV1Api = kubeApiFacade.getCoreV1Api();
+            awaitPods("informerSync", pods -> kubeApiFacade.getPodInformer().hasSynced());
+
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            runAll(podName -> coreV1Api.createNamespacedPod(SimulatedKubeApiServer.NAMESPACE, newPod(podName), null, null, null));
+            report("create", stopwatch);
+            awaitPods("allRunning", pods -> pods.size() == POD_COUNT && pods.stream().allMatch(p -> "Running".equals(p.getStatus().getPhase())));
+
+            stopwatch = Stopwatch.createStarted();
+            runAll(podName -> coreV1Api.deleteNamespacedPod(podName, SimulatedKubeApiServer.NAMESPACE, null, null, 0, null, null, null));
+            report("delete", stopwatch);
+            awaitPods("allRemoved", List::isEmpty);
+
+            runTaskScenario();
+        } finally {
+            clientExecutor.shutdownNow();
+            kubeApiFacade.shutdown();
+            apiServer.shutdown();
+        }
+    }
+
+    private void runTaskScenario() throws InterruptedException {
+        JobComponentStub jobComponentStub = new JobComponentStub(titusRuntime);
+        V3JobOperations jobOperations = jobComponentStub.getJobOperations();
+        List<Pair<Job, Task>> jobsAndTasks = new ArrayList<>();
+        for (int i = 0; i < TASK_JOB_COUNT; i++) {
+            Pair<Job, List<Task>> jobAndTasks = jobComponentStub.createJobAndTasks(JobGenerator.batchJobsOfSize(TASKS_PER_JOB).getValue());
+            for (Task task : jobAndTasks.getRight()) {
+                jobsAndTasks.add(Pair.of(jobAndTasks.getLeft(), markOwnedByKubeScheduler(jobOperations, task)));
+            }
+        }
+
+        DefaultDirectKubeApiServerIntegrator integrator = newIntegrator(kubeApiFacade, titusRuntime);
+        KubeNotificationProcessor notificationProcessor = newNotificationProcessor(integrator, jobOperations);
+        try {
+            Stopwatch stopwatch = Stopwatch.createStarted();
+            Flux.fromIterable(jobsAndTasks)
+                    .flatMap(jobAndTask -> integrator.launchTask(jobAndTask.getLeft(), jobAndTask.getRight()), CLIENT_CONCURRENCY)
+                    .blockLast();
+            report("launch", jobsAndTasks.size(), stopwatch);
+            awaitTasks("allStarted", jobOperations, jobsAndTasks, TaskState.Started);
+
+            stopwatch = Stopwatch.createStarted();
+            Flux.fromIterable(jobsAndTasks)
+                    .flatMap(jobAndTask -> integrator.terminateTask(jobAndTask.getRight()).then(Mono.just(jobAndTask)), CLIENT_CONCURRENCY)
+                    .blockLast();
+            report("terminate", jobsAndTasks.size(), stopwatch);
+            awaitTasks("allFinished", jobOperations, jobsAndTasks, TaskState.Finished);
+        } finally {
+            notificationProcessor.shutdown();
+            integrator.shutdown();
+        }
+    }
+
+    private void awaitTasks(String name, V3JobOperations jobOperations, List<Pair<Job, Task>> jobsAndTasks, TaskState expectedState)
+            throws InterruptedException {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        while (!jobsAndTasks.stream().allMatch(jobAndTask -> findTaskState(jobOperations, jobAndTask.getRight().getId()) == expectedState)) {
+            Thread.sleep(10);
+        }
+        report(name, jobsAndTasks.size(), stopwatch);
+    }
+
+    private void runAll(PodAction action) throws Exception {
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < POD_COUNT; i++) {
+            String podName = "pod" + i;
+            futures.add(clientExecutor.submit(() -> {
+                action.apply(podName);
+                return null;
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private void awaitPods(String name, Predicate<List<V1Pod>> condition) throws InterruptedException {
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        while (!condition.test(kubeApiFacade.getPodInformer().getIndexer().list())) {
+            Thread.sleep(10);
+        }
+        report(name, stopwatch);
+    }
+
+    private void report(String name, Stopwatch stopwatch) {
+        report(name, POD_COUNT, stopwatch);
+    }
+
+    private void report(String name, int podCount, Stopwatch stopwatch) {
+        System.out.println(String.format("%-12s pods=%6s, nodes=%4s, time=%8s[ms], serverPods=%6s",
+                name, podCount, NODE_COUNT, stopwatch.elapsed(TimeUnit.MILLISECONDS), apiServer.getPodCount()
+        ));
+    }
+
+    public static void main(String[] args) throws Exception {
+        new SimulatedKubeApiServerPerf().doRun();
+    }
+
+    private interface PodAction {
+        void apply(String podName) throws Exception;
+    }
+}
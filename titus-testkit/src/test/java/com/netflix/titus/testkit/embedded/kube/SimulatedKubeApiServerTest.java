@@ -0,0 +1,252 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.testkit.embedded.kube;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import com.netflix.archaius.config.DefaultSettableConfig;
+import com.netflix.titus.api.jobmanager.TaskAttributes;
+import com.netflix.titus.api.jobmanager.model.job.Job;
+import com.netflix.titus.api.jobmanager.model.job.Task;
+import com.netflix.titus.api.jobmanager.model.job.TaskState;
+import com.netflix.titus.api.jobmanager.model.job.TaskStatus;
+import com.netflix.titus.api.jobmanager.service.JobManagerConstants;
+import com.netflix.titus.api.jobmanager.service.V3JobOperations;
+import com.netflix.titus.common.runtime.TitusRuntime;
+import com.netflix.titus.common.runtime.TitusRuntimes;
+import com.netflix.titus.common.util.archaius2.Archaius2Ext;
+import com.netflix.titus.common.util.tuple.Pair;
+import com.netflix.titus.master.jobmanager.service.JobManagerConfiguration;
+import com.netflix.titus.master.jobmanager.service.KubeNotificationProcessor;
+import com.netflix.titus.master.mesos.kubeapiserver.KubeConstants;
+import com.netflix.titus.master.mesos.kubeapiserver.KubeJobManagementReconciler;
+import com.netflix.titus.master.mesos.kubeapiserver.client.DefaultKubeApiFacade;
+import com.netflix.titus.master.mesos.kubeapiserver.direct.DefaultDirectKubeApiServerIntegrator;
+import com.netflix.titus.master.mesos.kubeapiserver.direct.DirectKubeApiServerIntegrator;
+import com.netflix.titus.master.mesos.kubeapiserver.direct.DirectKubeConfiguration;
+import com.netflix.titus.testkit.model.job.JobComponentStub;
+import com.netflix.titus.testkit.model.job.JobGenerator;
+import io.kubernetes.client.openapi.ApiException;
+import io.kubernetes.client.openapi.apis.CoreV1Api;
+import io.kubernetes.client.openapi.models.V1Container;
+import io.kubernetes.client.openapi.models.V1ObjectMeta;
+import io.kubernetes.client.openapi.models.V1Pod;
+import io.kubernetes.client.openapi.models.V1PodSpec;
+import io.kubernetes.client.openapi.models.V1Toleration;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import reactor.core.publisher.Flux;
+
+import static com.jayway.awaitility.Awaitility.await;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class SimulatedKubeApiServerTest {
+
+    private final TitusRuntime titusRuntime = TitusRuntimes.internal();
+
+    private final DefaultSettableConfig config = new DefaultSettableConfig();
+
+    private SimulatedKubeApiServer apiServer;
+    private DefaultKubeApiFacade kubeApiFacade;
+
+    @Before
+    public void setUp() {
+        config.setProperty("titus.simulated.kube.podStartDelayMs", "10");
+        config.setProperty("titus.simulated.kube.podTerminationDelayMs", "10");
+
+        apiServer = new SimulatedKubeApiServer(Archaius2Ext.newConfiguration(SimulatedKubeConfiguration.class, config));
+        apiServer.addNode("node1", "zoneA");
+
+        kubeApiFacade = new DefaultKubeApiFacade(
+                Archaius2Ext.newConfiguration(DirectKubeConfiguration.class),
+                apiServer.newApiClient(titusRuntime),
+                titusRuntime
+        );
+    }
+
+    @After
+    public void tearDown() {
+        if (kubeApiFacade != null) {
+            kubeApiFacade.shutdown();
+        }
+        if (apiServer != null) {
+            apiServer.shutdown();
+        }
+    }
+
+    @Test(timeout = 30_000)
+    public void testPodLifecycleIsVisibleInInformer() throws Exception {
+        CoreV1Api coreV1Api = kubeApiFacade.getCoreV1Api();
+        await().timeout(10, TimeUnit.SECONDS).until(() -> kubeApiFacade.getPodInformer().hasSynced());
+
+        coreV1Api.createNamespacedPod(SimulatedKubeApiServer.NAMESPACE, newPod("pod1"), null, null, null);
+        await().timeout(10, TimeUnit.SECONDS).until(() -> {
+            V1Pod pod = findInformerPod("pod1");
+            return pod != null && "Running".equals(pod.getStatus().getPhase());
+        });
+        V1Pod running = findInformerPod("pod1");
+        assertThat(running.getSpec().getNodeName()).isEqualTo("node1");
+        assertThat(running.getStatus().getContainerStatuses().get(0).getState().getRunning()).isNotNull();
+        assertThat(running.getMetadata().getAnnotations()).containsKey("IpAddress");
+
+        // Creating the same pod again is a conflict
+        try {
+            coreV1Api.createNamespacedPod(SimulatedKubeApiServer.NAMESPACE, newPod("pod1"), null, null, null);
+            fail("Expected pod create conflict");
+        } catch (ApiException e) {
+            assertThat(e.getCode()).isEqualTo(409);
+        }
+
+        coreV1Api.deleteNamespacedPod("pod1", SimulatedKubeApiServer.NAMESPACE, null, null, 0, null, null, null);
+        await().timeout(10, TimeUnit.SECONDS).until(() -> findInformerPod("pod1") == null);
+        assertThat(apiServer.findPod("pod1")).isEmpty();
+    }
+
+    @Test(timeout = 30_000)
+    public void testFailureInjection() throws Exception {
+        config.setProperty("titus.simulated.kube.podCreateFailureProbability", "1.0");
+        try {
+            kubeApiFacade.getCoreV1Api().createNamespacedPod(SimulatedKubeApiServer.NAMESPACE, newPod("pod1"), null, null, null);
+            fail("Expected pod create failure");
+        } catch (ApiException e) {
+            assertThat(e.getCode()).isEqualTo(500);
+        }
+        assertThat(apiServer.getPodCount()).isEqualTo(0);
+
+        config.setProperty("titus.simulated.kube.podCreateFailureProbability", "0");
+        kubeApiFacade.getCoreV1Api().createNamespacedPod(SimulatedKubeApiServer.NAMESPACE, newPod("pod1"), null, null, null);
+        assertThat(apiServer.getPodCount()).isEqualTo(1);
+
+        try {
+            kubeApiFacade.getCoreV1Api().deleteNamespacedPod("missingPod", SimulatedKubeApiServer.NAMESPACE, null, null, 0, null, null, null);
+            fail("Expected pod not found error");
+        } catch (ApiException e) {
+            assertThat(e.getCode()).isEqualTo(404);
+        }
+    }
+
+    @Test
+    public void testWatchFromEvictedVersionIsExpired() throws Exception {
+        config.setProperty("titus.simulated.kube.watchHistorySize", "2");
+        KubeObjectStore<V1Pod> store = apiServer.getPodStore();
+        for (int i = 0; i < 5; i++) {
+            store.add(newPod("pod" + i));
+        }
+
+        List<String> expired = store.watch("1").poll(1_000);
+        assertThat(expired).hasSize(1);
+        assertThat(expired.get(0)).contains("\"code\":410");
+
+        String lastVersion = store.get("pod3").get().getMetadata().getResourceVersion();
+        List<String> resumed = store.watch(lastVersion).poll(1_000);
+        assertThat(resumed).hasSize(1);
+        assertThat(resumed.get(0)).contains("\"type\":\"ADDED\"").contains("pod4");
+    }
+
+    @Test(timeout = 30_000)
+    public void testTaskStateFollowsPodLifecycleThroughIntegrator() {
+        JobComponentStub jobComponentStub = new JobComponentStub(titusRuntime);
+        V3JobOperations jobOperations = jobComponentStub.getJobOperations();
+        Pair<Job, List<Task>> jobAndTasks = jobComponentStub.createJobAndTasks(JobGenerator.oneBatchJob());
+        Job<?> job = jobAndTasks.getLeft();
+        Task task = markOwnedByKubeScheduler(jobOperations, jobAndTasks.getRight().get(0));
+
+        DefaultDirectKubeApiServerIntegrator integrator = newIntegrator(kubeApiFacade, titusRuntime);
+        KubeNotificationProcessor notificationProcessor = newNotificationProcessor(integrator, jobOperations);
+        try {
+            await().timeout(10, TimeUnit.SECONDS).until(() -> kubeApiFacade.getPodInformer().hasSynced());
+
+            integrator.launchTask(job, task).block(Duration.ofSeconds(10));
+            await().timeout(10, TimeUnit.SECONDS).until(() -> findTaskState(jobOperations, task.getId()) == TaskState.Started);
+            Task started = jobOperations.findTaskById(task.getId()).get().getRight();
+            assertThat(started.getTaskContext()).containsEntry(TaskAttributes.TASK_ATTRIBUTES_KUBE_NODE_NAME, "node1");
+
+            integrator.terminateTask(started).block(Duration.ofSeconds(10));
+            await().timeout(10, TimeUnit.SECONDS).until(() -> findTaskState(jobOperations, task.getId()) == TaskState.Finished);
+            Task finished = jobOperations.findTaskById(task.getId()).get().getRight();
+            assertThat(finished.getStatus().getReasonCode()).isEqualTo(TaskStatus.REASON_TASK_KILLED);
+        } finally {
+            notificationProcessor.shutdown();
+            integrator.shutdown();
+        }
+    }
+
+    private V1Pod findInformerPod(String name) {
+        return kubeApiFacade.getPodInformer().getIndexer().getByKey(SimulatedKubeApiServer.NAMESPACE + "/" + name);
+    }
+
+    static V1Pod newPod(String name) {
+        return new V1Pod()
+                .metadata(new V1ObjectMeta().name(name))
+                .spec(new V1PodSpec().addContainersItem(new V1Container().name(name).image("image:latest")));
+    }
+
+    /**
+     * Builds pods tolerating the Kube scheduler taint, as the integrator and the notification processor ignore other pods.
+     */
+    static DefaultDirectKubeApiServerIntegrator newIntegrator(DefaultKubeApiFacade kubeApiFacade, TitusRuntime titusRuntime) {
+        return new DefaultDirectKubeApiServerIntegrator(
+                Archaius2Ext.newConfiguration(DirectKubeConfiguration.class),
+                kubeApiFacade,
+                (job, task) -> {
+                    V1Pod pod = newPod(task.getId());
+                    pod.getSpec().addTolerationsItem(new V1Toleration()
+                            .key(KubeConstants.TAINT_SCHEDULER)
+                            .value(KubeConstants.TAINT_SCHEDULER_VALUE_KUBE)
+                    );
+                    return pod;
+                },
+                titusRuntime
+        );
+    }
+
+    static KubeNotificationProcessor newNotificationProcessor(DirectKubeApiServerIntegrator integrator, V3JobOperations jobOperations) {
+        KubeJobManagementReconciler reconciler = mock(KubeJobManagementReconciler.class);
+        when(reconciler.getPodEventSource()).thenReturn(Flux.never());
+
+        KubeNotificationProcessor notificationProcessor = new KubeNotificationProcessor(
+                Archaius2Ext.newConfiguration(JobManagerConfiguration.class),
+                integrator,
+                reconciler,
+                jobOperations
+        );
+        notificationProcessor.enterActiveMode();
+        return notificationProcessor;
+    }
+
+    static Task markOwnedByKubeScheduler(V3JobOperations jobOperations, Task task) {
+        jobOperations.updateTask(
+                task.getId(),
+                current -> Optional.of(current.toBuilder().addToTaskContext(TaskAttributes.TASK_ATTRIBUTES_OWNED_BY_KUBE_SCHEDULER, "true").build()),
+                V3JobOperations.Trigger.API,
+                "Owned by Kube scheduler",
+                JobManagerConstants.UNDEFINED_CALL_METADATA
+        ).await();
+        return jobOperations.findTaskById(task.getId()).get().getRight();
+    }
+
+    static TaskState findTaskState(V3JobOperations jobOperations, String taskId) {
+        return jobOperations.findTaskById(taskId).map(jobAndTask -> jobAndTask.getRight().getStatus().getState()).orElse(null);
+    }
+}
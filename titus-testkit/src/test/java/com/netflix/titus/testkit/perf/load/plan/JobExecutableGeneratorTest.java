@@ -18,6 +18,9 @@ package com.netflix.titus.testkit.perf.load.plan;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import com.netflix.titus.testkit.perf.load.plan.JobExecutableGenerator.Executable;
 import com.netflix.titus.testkit.perf.load.plan.catalog.JobDescriptorCatalog;
@@ -26,6 +29,8 @@ import com.netflix.titus.testkit.rx.ExtTestSubscriber;
 import org.junit.Test;
 import reactor.test.StepVerifier;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 public class JobExecutableGeneratorTest {
 
     private final ExtTestSubscriber<Executable> testSubscriber = new ExtTestSubscriber<>();
@@ -48,4 +53,30 @@ public class JobExecutableGeneratorTest {
                 .thenCancel()
                 .verify(Duration.ofSeconds(10));
     }
+
+    @Test
+    public void testCapacityGroupChurnScenario() {
+        JobExecutableGenerator scenario = JobExecutableGenerator.newBuilder()
+                .capacityGroupChurn(
+                        JobDescriptorCatalog.batchJob(JobDescriptorCatalog.ContainerResourceAllocation.Small, 1, Duration.ofHours(1)),
+                        JobExecutionPlanCatalog.shortLivedJob(Duration.ofSeconds(1)),
+                        Arrays.asList("groupA", "groupB", "groupC"),
+                        2
+                ).build();
+
+        List<Executable> executables = new ArrayList<>();
+        StepVerifier.create(scenario.executionPlans())
+                .recordWith(() -> executables)
+                .expectNextCount(2)
+                .expectNoEvent(Duration.ofSeconds(1))
+                .then(() -> scenario.completed(executables.get(0)))
+                .expectNextCount(1)
+                .then(() -> scenario.completed(executables.get(1)))
+                .expectNextCount(1)
+                .thenCancel()
+                .verify(Duration.ofSeconds(10));
+
+        List<String> capacityGroups = executables.stream().map(executable -> executable.getJobSpec().getCapacityGroup()).collect(Collectors.toList());
+        assertThat(capacityGroups).containsExactly("groupA", "groupB", "groupC", "groupA");
+    }
 }
@@ -16,9 +16,11 @@
 
 package com.netflix.titus.testkit.perf.load.plan;
 
+import java.time.Duration;
 import java.util.Iterator;
 import java.util.concurrent.TimeUnit;
 
+import com.netflix.titus.testkit.perf.load.plan.catalog.JobExecutionPlanCatalog;
 import org.junit.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -47,4 +49,33 @@ public class JobExecutionPlanTest {
         }
         assertThat(planIterator.next()).isEqualTo(JobExecutionStep.terminate());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testScaleUpRampPlan() {
+        ExecutionPlan plan = JobExecutionPlanCatalog.scaleUpRamp(10_000, 4_000, Duration.ofSeconds(1), Duration.ofMinutes(1));
+
+        Iterator<ExecutionStep> planIterator = plan.newInstance();
+
+        for (int i = 0; i < 2; i++) {
+            for (int s = 0; s < 3; s++) {
+                assertThat(planIterator.next()).isEqualTo(JobExecutionStep.scaleUp(4_000));
+                assertThat(planIterator.next()).isEqualTo(JobExecutionStep.delay(1, TimeUnit.SECONDS));
+            }
+            assertThat(planIterator.next()).isEqualTo(JobExecutionStep.delay(1, TimeUnit.MINUTES));
+            assertThat(planIterator.next()).isEqualTo(JobExecutionStep.scaleDown(10_000));
+            assertThat(planIterator.next()).isEqualTo(JobExecutionStep.delay(1, TimeUnit.MINUTES));
+        }
+    }
+
+    @Test
+    public void testKillStormPlan() {
+        ExecutionPlan plan = JobExecutionPlanCatalog.killStorm(50, Duration.ofSeconds(10));
+
+        Iterator<ExecutionStep> planIterator = plan.newInstance();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(planIterator.next()).isEqualTo(JobExecutionStep.delay(10, TimeUnit.SECONDS));
+            assertThat(planIterator.next()).isEqualTo(JobExecutionStep.killRandomTasks(50));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020 Netflix, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.netflix.titus.testkit.perf.load.report;
+
+import java.time.Duration;
+
+import com.netflix.titus.common.util.jackson.CommonObjectMappers;
+import org.junit.Test;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LatencyReportTest {
+
+    private final MetricsCollector metricsCollector = new MetricsCollector();
+
+    @Test
+    public void testLatencyPercentiles() {
+        for (int i = 1; i <= 1_000; i++) {
+            metricsCollector.recordLatency(MetricsCollector.TASK_ACCEPTED_TO_STARTED, i);
+        }
+        LatencySummary summary = metricsCollector.getLatencySummaries().get(MetricsCollector.TASK_ACCEPTED_TO_STARTED);
+
+        assertThat(summary.getCount()).isEqualTo(1_000);
+        assertThat(summary.getMin()).isEqualTo(1);
+        assertThat(summary.getP50()).isBetween(499L, 501L);
+        assertThat(summary.getP99()).isBetween(989L, 991L);
+        assertThat(summary.getMax()).isBetween(999L, 1_000L);
+    }
+
+    @Test
+    public void testApiCallLatencyIsRecordedOnSuccessOnly() {
+        metricsCollector.measureApiCall(MetricsCollector.API_CREATE_JOB, Mono.just("jobId").delayElement(Duration.ofMillis(20))).block();
+        metricsCollector.measureApiCall(MetricsCollector.API_CREATE_JOB, Mono.error(new RuntimeException("simulated error")))
+                .onErrorResume(e -> Mono.empty())
+                .block();
+
+        LatencySummary summary = metricsCollector.getLatencySummaries().get(MetricsCollector.API_CREATE_JOB);
+        assertThat(summary.getCount()).isEqualTo(1);
+        assertThat(summary.getMin()).isGreaterThanOrEqualTo(20);
+    }
+
+    @Test
+    public void testJsonExportAndComparison() throws Exception {
+        metricsCollector.recordLatency(MetricsCollector.API_SCALE, 100);
+        LatencyReport baseline = metricsCollector.getLatencyReport("session1");
+        metricsCollector.recordLatency(MetricsCollector.API_SCALE, 300);
+        LatencyReport candidate = metricsCollector.getLatencyReport("session2");
+
+        String json = CommonObjectMappers.jacksonDefaultMapper().writeValueAsString(baseline);
+        LatencyReport deserialized = CommonObjectMappers.jacksonDefaultMapper().readValue(json, LatencyReport.class);
+        assertThat(deserialized.getSessionId()).isEqualTo("session1");
+        assertThat(deserialized.getLatencies().get(MetricsCollector.API_SCALE).getCount()).isEqualTo(1);
+
+        String comparison = new LatencyReportComparator(deserialized, candidate).compare();
+        assertThat(comparison).contains(MetricsCollector.API_SCALE).contains("+100.0%");
+    }
+}